@@ -40,8 +40,10 @@ import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.core.ParsedNodeCache;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.ChangeLogSerializer;
+import liquibase.snapshot.MetadataCache;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
@@ -989,10 +991,19 @@ public class Liquibase {
 
     }
 
+    /**
+     * Resets the services used for this Liquibase's database. Services of other databases are left alone so several
+     * Liquibase instances can update different databases at the same time.
+     */
     protected void resetServices() {
-        LockServiceFactory.getInstance().resetAll();
-        ChangeLogHistoryServiceFactory.getInstance().resetAll();
-        ExecutorService.getInstance().reset();
+        if (database != null) {
+            LockServiceFactory.getInstance().resetLockService(database);
+            ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database);
+            ExecutorService.getInstance().clearExecutor(database);
+            MetadataCache.reset(database);
+        }
+        CheckSumCache.getInstance().save();
+        ParsedNodeCache.getInstance().save();
     }
 
     /**
@@ -49,6 +49,12 @@ public class CheckSum {
      * Compute a checksum of the given string.
      */
     public static CheckSum compute(String valueToChecksum) {
+        if (valueToChecksum != null
+                && valueToChecksum.indexOf('\uFFFD') < 0
+                && Normalizer.isNormalized(valueToChecksum, Normalizer.Form.NFC)) {
+            //nothing to remove or normalize, so hash the characters directly instead of building the normalized copy
+            return new CheckSum(MD5Util.computeMD5(valueToChecksum, true), getCurrentVersion());
+        }
         return new CheckSum(MD5Util.computeMD5(
                 Normalizer.normalize(
                     StringUtils.standardizeLineEndings(valueToChecksum)
@@ -1,18 +1,24 @@
 package liquibase.change.core;
 
 import liquibase.change.*;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
 import liquibase.io.EmptyLineAndCommentSkippingInputStream;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
 import liquibase.resource.UtfBomAwareReader;
+import liquibase.statement.InsertStreamExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertStatement;
@@ -26,7 +32,9 @@ import liquibase.util.csv.CSVReader;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 
 @DatabaseChange(name="loadData",
@@ -178,6 +186,17 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        GlobalConfiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class);
+        if ((configuration.getLoadDataStreaming() || configuration.getLoadDataBatchSize() > 0) && canStream(database)) {
+            return new SqlStatement[]{createStreamingStatement(database)};
+        }
+        return generateAllStatements(database);
+    }
+
+    /**
+     * Reads the whole file and returns a statement for every row, without streaming or batching.
+     */
+    protected SqlStatement[] generateAllStatements(Database database) {
         CSVReader reader = null;
         try {
             reader = getCSVReader();
@@ -195,64 +214,12 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             String[] line;
             int lineNumber = 0;
 
-            boolean isCommentingEnabled = StringUtils.isNotEmpty(commentLineStartsWith);
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)
-                        || (isCommentingEnabled && isLineCommented(line))) {
+                if (isEmptyOrCommentedLine(line)) {
                     continue; //nothing on this line
                 }
-                InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-                for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    if( i >= line.length ) {
-                      throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
-                    }
-
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
-                                valueConfig.setValueComputed(function);
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-                    if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
-                        columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
-                }
-                statements.addInsertStatement(insertStatement);
+                statements.addInsertStatement(createInsertStatement(headers, line, lineNumber, database));
             }
 
             if (database instanceof MSSQLDatabase || database instanceof MySQLDatabase || database instanceof PostgresDatabase) {
@@ -287,6 +254,125 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 		}
     }
 
+    /**
+     * Returns true if statements can be executed directly against the connection instead of through the executor: which needs a
+     * live JDBC connection, no SQL output and no sql visitors. Both batching and streaming depend on it.
+     */
+    protected boolean canStream(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection)
+                || ExecutorService.getInstance().getExecutor(database) instanceof LoggingExecutor) {
+            return false;
+        }
+        return getChangeSet() == null || getChangeSet().getSqlVisitors() == null || getChangeSet().getSqlVisitors().isEmpty();
+    }
+
+    /**
+     * Creates a statement that re-reads the file when it is executed and inserts rows as they are read, so memory use depends on the
+     * batch size rather than the file size. Only the header line is read here.
+     */
+    protected SqlStatement createStreamingStatement(final Database database) {
+        CSVReader reader = null;
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        try {
+            reader = getCSVReader();
+            if (reader == null) {
+                throw new UnexpectedLiquibaseException("Unable to read file "+this.getFile());
+            }
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file "+getFile()+" was empty");
+            }
+            for (int i=0; i<headers.length; i++) {
+                ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+                if (columnConfig != null && "skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+                columns.add(new ColumnConfig().setName(getColumnName(columnConfig, headers[i], database)));
+            }
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) { }
+            }
+        }
+
+        GlobalConfiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class);
+        return new InsertStreamExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), columns, new Iterable<InsertStatement>() {
+            @Override
+            public Iterator<InsertStatement> iterator() {
+                return new InsertStatementIterator(database);
+            }
+        }, configuration.getLoadDataBatchSize(), configuration.getLoadDataCommitInterval(), getChangeSet(), getResourceAccessor());
+    }
+
+    /**
+     * Creates the statement that inserts the given data line.
+     */
+    protected InsertStatement createInsertStatement(String[] headers, String[] line, int lineNumber, Database database) {
+        InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+        for (int i=0; i<headers.length; i++) {
+            if( i >= line.length ) {
+              throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
+            }
+
+            Object value = line[i];
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            if (columnConfig != null) {
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                if (value.toString().equalsIgnoreCase("NULL")) {
+                    value = "NULL";
+                } else if (columnConfig.getType() != null) {
+                    ColumnConfig valueConfig = new ColumnConfig();
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        valueConfig.setValueNumeric(value.toString());
+                    } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
+                        valueConfig.setValueDate(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        valueConfig.setValue(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
+                        valueConfig.setValueComputed(function);
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
+                    }
+                    value = valueConfig.getValueObject();
+                }
+            }
+
+            insertStatement.addColumnValue(getColumnName(columnConfig, headers[i], database), value);
+        }
+        return insertStatement;
+    }
+
+    private String getColumnName(ColumnConfig columnConfig, String header, Database database) {
+        String columnName = null;
+        if (columnConfig != null) {
+            columnName = columnConfig.getName();
+        }
+        if (columnName == null) {
+            columnName = header;
+        }
+
+        if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
+            columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+        }
+        return columnName;
+    }
+
+    private boolean isEmptyOrCommentedLine(String[] line) {
+        return line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)
+                || (StringUtils.isNotEmpty(commentLineStartsWith) && isLineCommented(line));
+    }
+
     private boolean isLineCommented(String[] line) {
         return StringUtils.startsWith(line[0], commentLineStartsWith);
     }
@@ -391,4 +477,86 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
     public String getSerializedObjectNamespace() {
         return STANDARD_CHANGELOG_NAMESPACE;
     }
+
+    /**
+     * Reads the data file lazily, returning an InsertStatement per data line. The file is closed once the last line is read or
+     * {@link #close()} is called.
+     */
+    protected class InsertStatementIterator implements Iterator<InsertStatement>, Closeable {
+        private final Database database;
+        private CSVReader reader;
+        private String[] headers;
+        private InsertStatement next;
+        private int lineNumber = 0;
+
+        public InsertStatementIterator(Database database) {
+            this.database = database;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public InsertStatement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            InsertStatement returnStatement = next;
+            next = null;
+            return returnStatement;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private InsertStatement readNext() {
+            try {
+                if (headers == null) {
+                    reader = getCSVReader();
+                    if (reader == null) {
+                        throw new UnexpectedLiquibaseException("Unable to read file "+getFile());
+                    }
+                    headers = reader.readNext();
+                    if (headers == null) {
+                        throw new UnexpectedLiquibaseException("Data file "+getFile()+" was empty");
+                    }
+                }
+                if (reader == null) {
+                    return null;
+                }
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    lineNumber++;
+                    if (!isEmptyOrCommentedLine(line)) {
+                        return createInsertStatement(headers, line, lineNumber, database);
+                    }
+                }
+                close();
+                return null;
+            } catch (IOException e) {
+                close();
+                throw new UnexpectedLiquibaseException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) { }
+                reader = null;
+            }
+        }
+    }
 }
@@ -29,6 +29,11 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     }
 
+    @Override
+    public void flush() throws DatabaseException {
+
+    }
+
     public ChangeSet.RunStatus getRunStatus(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
         RanChangeSet foundRan = getRanChangeSet(changeSet);
 
@@ -73,12 +78,16 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     @Override
     public RanChangeSet getRanChangeSet(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
-        for (RanChangeSet ranChange : getRanChangeSets()) {
-            if (ranChange.isSameAs(changeSet)) {
-                return ranChange;
-            }
-        }
-        return null;
+        return getRanChangeSetIndex().get(changeSet);
+    }
+
+    /**
+     * Returns an index over {@link #getRanChangeSets()} used for changeSet lookups.
+     * The default implementation builds a new index on every call. Implementations that cache their ran changeSets should
+     * override this to return an index they keep up to date along with their cached list.
+     */
+    protected RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        return new RanChangeSetIndex(getRanChangeSets());
     }
 
     @Override
@@ -42,6 +42,12 @@ public interface ChangeLogHistoryService extends PrioritizedService {
 
     void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
 
+    /**
+     * Writes and commits changes to the history that {@link #setExecType(ChangeSet, ChangeSet.ExecType)} has not written yet.
+     * Called before a changeSet executes its changes and at the end of a run.
+     */
+    void flush() throws DatabaseException;
+
     void removeFromHistory(ChangeSet changeSet) throws DatabaseException;
 
     int getNextSequenceValue() throws LiquibaseException;
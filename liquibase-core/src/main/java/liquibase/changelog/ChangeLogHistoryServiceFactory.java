@@ -1,19 +1,22 @@
 package liquibase.changelog;
 
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.servicelocator.ServiceLocator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ChangeLogHistoryServiceFactory {
 
     private static ChangeLogHistoryServiceFactory instance;
 
-    private List<ChangeLogHistoryService> registry = new ArrayList<ChangeLogHistoryService>();
+    private List<ChangeLogHistoryService> registry = new CopyOnWriteArrayList<ChangeLogHistoryService>();
 
-    private Map<Database, ChangeLogHistoryService> services = new ConcurrentHashMap<Database, ChangeLogHistoryService>();
+    private ConcurrentMap<Database, ChangeLogHistoryService> services = new ConcurrentHashMap<Database, ChangeLogHistoryService>();
 
     public static synchronized ChangeLogHistoryServiceFactory getInstance() {
         if (instance == null) {
@@ -30,7 +33,7 @@ public class ChangeLogHistoryServiceFactory {
     }
 
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = null;
     }
 
@@ -53,8 +56,9 @@ public class ChangeLogHistoryServiceFactory {
     }
 
     public ChangeLogHistoryService getChangeLogService(Database database) {
-            if (services.containsKey(database)) {
-                return services.get(database);
+            ChangeLogHistoryService existingService = services.get(database);
+            if (existingService != null) {
+                return existingService;
             }
             SortedSet<ChangeLogHistoryService> foundServices = new TreeSet<ChangeLogHistoryService>(new Comparator<ChangeLogHistoryService>() {
                 @Override
@@ -86,13 +90,35 @@ public class ChangeLogHistoryServiceFactory {
                     service = exampleService;
                 }
 
-                services.put(database, service);
-                return service;
+                existingService = services.putIfAbsent(database, service);
+                return existingService == null ? service : existingService;
             } catch (Exception e) {
                 throw new UnexpectedLiquibaseException(e);
             }
     }
 
+    /**
+     * Calls {@link ChangeLogHistoryService#flush()} on the service for the given database, if one was created. Nothing is looked up or created otherwise,
+     * because a database without a service has nothing to write.
+     */
+    public void flushChangeLogService(Database database) throws DatabaseException {
+        ChangeLogHistoryService service = services.get(database);
+        if (service != null) {
+            service.flush();
+        }
+    }
+
+    /**
+     * Resets and forgets the service for the given database only, so services of other databases that are
+     * being updated at the same time are not affected.
+     */
+    public void resetChangeLogService(Database database) {
+        ChangeLogHistoryService service = services.remove(database);
+        if (service != null) {
+            service.reset();
+        }
+    }
+
     public void resetAll() {
         for (ChangeLogHistoryService changeLogHistoryService : registry) {
             changeLogHistoryService.reset();
@@ -5,7 +5,9 @@ import liquibase.changelog.filter.*;
 import liquibase.changelog.visitor.SkippedChangeSetVisitor;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.lockservice.LockServiceFactory;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 
@@ -45,6 +47,7 @@ public class ChangeLogIterator {
       Logger log = LogFactory.getLogger();
       databaseChangeLog.setRuntimeEnvironment(env);
       log.setChangeLog(databaseChangeLog);
+        boolean completed = false;
         try {
             List<ChangeSet> changeSetList = new ArrayList<ChangeSet>(databaseChangeLog.getChangeSets());
             if (visitor.getDirection().equals(ChangeSetVisitor.Direction.REVERSE)) {
@@ -77,13 +80,34 @@ public class ChangeLogIterator {
                     }
                 }
                 log.setChangeSet(null);
+                LockServiceFactory.getInstance().refreshLock(env.getTargetDatabase());
             }
+            completed = true;
         } finally {
+            flushChangeLogHistory(env == null ? null : env.getTargetDatabase(), completed);
             log.setChangeLog(null);
             databaseChangeLog.setRuntimeEnvironment(null);
         }
     }
 
+    /**
+     * Writes history rows the visitor left in the {@link ChangeLogHistoryService} batch. If the iteration failed, a failure to write them is only logged
+     * so the original exception is not hidden.
+     */
+    protected void flushChangeLogHistory(Database database, boolean completed) throws DatabaseException {
+        if (database == null) {
+            return;
+        }
+        try {
+            ChangeLogHistoryServiceFactory.getInstance().flushChangeLogService(database);
+        } catch (DatabaseException e) {
+            if (completed) {
+                throw e;
+            }
+            LogFactory.getLogger().warning("Cannot write pending " + database.getDatabaseChangeLogTableName() + " rows: " + e.getMessage());
+        }
+    }
+
     public List<ChangeSetFilter> getChangeSetFilters() {
         return Collections.unmodifiableList(changeSetFilters);
     }
@@ -12,19 +12,20 @@ import liquibase.exception.DatabaseException;
 import liquibase.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ChangeLogParameters {
 	
-    private List<ChangeLogParameter> changeLogParameters = new ArrayList<ChangeLogParameter>();
+    private List<ChangeLogParameter> changeLogParameters = new CopyOnWriteArrayList<ChangeLogParameter>();
     private ExpressionExpander expressionExpander;
     private Database currentDatabase;
     private Contexts currentContexts;
     private LabelExpression currentLabelExpression;
 
     public ChangeLogParameters() {
-        this(null);
+        this((Database) null);
     }
 
     public ChangeLogParameters(Database database) {
@@ -77,6 +78,36 @@ public class ChangeLogParameters {
         this.currentLabelExpression = new LabelExpression();
     }
 
+    /**
+     * Creates a copy of the given parameters. Parameters set on the copy are not visible in the source until {@link #addAll(ChangeLogParameters, int)} is called.
+     */
+    private ChangeLogParameters(ChangeLogParameters source) {
+        for (ChangeLogParameter param : source.changeLogParameters) {
+            changeLogParameters.add(new ChangeLogParameter(param.key, param.value, param.validContexts, param.labels, param.validDatabases, param.global, param.changeLog));
+        }
+        this.expressionExpander = new ExpressionExpander(this);
+        this.currentDatabase = source.currentDatabase;
+        this.currentContexts = source.currentContexts;
+        this.currentLabelExpression = source.currentLabelExpression;
+    }
+
+    ChangeLogParameters copy() {
+        return new ChangeLogParameters(this);
+    }
+
+    int size() {
+        return changeLogParameters.size();
+    }
+
+    /**
+     * Adds the parameters of the given copy, starting at the given position, in the order they were set on the copy.
+     */
+    synchronized void addAll(ChangeLogParameters copy, int fromIndex) {
+        for (ChangeLogParameter param : copy.changeLogParameters.subList(fromIndex, copy.changeLogParameters.size())) {
+            changeLogParameters.add(new ChangeLogParameter(param.key, param.value, param.validContexts, param.labels, param.validDatabases, param.global, param.changeLog));
+        }
+    }
+
     public void setContexts(Contexts contexts) {
         this.currentContexts = contexts;
     }
@@ -85,7 +116,7 @@ public class ChangeLogParameters {
         return currentContexts;
     }
 
-    public void set(String paramter, Object value) {
+    public synchronized void set(String paramter, Object value) {
     	// TODO: this was a bug. Muliple created parameters have been created, but the corresponding method in #findParameter() is only catching the first one. So here we should eliminate duplicate entries
 		ChangeLogParameter param = findParameter(paramter, null);
 		if (param == null) {
@@ -98,7 +129,7 @@ public class ChangeLogParameters {
         set(key, value, new ContextExpression(contexts), new Labels(labels), databases, globalParam, changeLog);
     }
     
-    public void set(String key, String value, ContextExpression contexts, Labels labels, String databases, boolean globalParam, DatabaseChangeLog changeLog) {
+    public synchronized void set(String key, String value, ContextExpression contexts, Labels labels, String databases, boolean globalParam, DatabaseChangeLog changeLog) {
     	// TODO: this was a bug. Muliple created parameters have been created, but the corresponding method in #findParameter() is only catching the first one. So here we should eliminate duplicate entries
     	if (globalParam == true) {
     		// if it is global param ignore additional adds
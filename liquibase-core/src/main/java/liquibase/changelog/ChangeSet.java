@@ -24,6 +24,7 @@ import liquibase.precondition.ErrorPrecondition;
 import liquibase.precondition.FailedPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.ResourceAccessor;
+import liquibase.snapshot.MetadataCache;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.sql.visitor.SqlVisitorFactory;
 import liquibase.statement.SqlStatement;
@@ -171,6 +172,23 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     private List<SqlVisitor> sqlVisitors = new ArrayList<SqlVisitor>();
 
+    /**
+     * Memoized checksums of the changes in this changeSet, in the same order as {@link #changes}. Filled in lazily by {@link #generateCheckSum()}.
+     */
+    private List<CheckSum> changeCheckSums = new ArrayList<CheckSum>();
+
+    /**
+     * Memoized result of {@link #generateCheckSum()}, and the sqlVisitors it was generated with.
+     */
+    private CheckSum checkSum;
+    private List<SqlVisitor> checkSumSqlVisitors;
+
+    /**
+     * Digest of the parsed definition this changeSet was loaded from, used to look up its checksum in the {@link CheckSumCache}.
+     * Only set if the cache is enabled, and cleared when the changeSet is modified.
+     */
+    private String definitionDigest;
+
     private ObjectQuotingStrategy objectQuotingStrategy;
 
     private DatabaseChangeLog changeLog;
@@ -231,22 +249,65 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         return filePath;
     }
 
+    /**
+     * Returns the checksum of this changeSet, built from the checksums of its changes and sqlVisitors.
+     * The result and the checksum of each change are memoized until a change or sqlVisitor is added or removed. If the properties of a change
+     * or sqlVisitor are modified after the checksum was generated, {@link #clearCheckSumCache()} must be called.
+     */
     public CheckSum generateCheckSum() {
+        if (checkSumSqlVisitors != null && !checkSumSqlVisitors.equals(sqlVisitors)) {
+            //sqlVisitors can be removed through getSqlVisitors(), such as by the changeSet filters
+            this.checkSum = null;
+            this.definitionDigest = null;
+        }
+        if (checkSum != null) {
+            return checkSum;
+        }
+        checkSumSqlVisitors = new ArrayList<SqlVisitor>(sqlVisitors);
+
+        CheckSumCache checkSumCache = null;
+        if (definitionDigest != null) {
+            checkSumCache = CheckSumCache.getInstance();
+            CheckSum cachedCheckSum = checkSumCache.get(this, definitionDigest);
+            if (cachedCheckSum != null) {
+                checkSum = cachedCheckSum;
+                return checkSum;
+            }
+        }
+
         StringBuffer stringToMD5 = new StringBuffer();
-        for (Change change : getChanges()) {
-            stringToMD5.append(change.generateCheckSum()).append(":");
+        for (int i = 0; i < changes.size(); i++) {
+            if (i == changeCheckSums.size()) {
+                changeCheckSums.add(changes.get(i).generateCheckSum());
+            }
+            stringToMD5.append(changeCheckSums.get(i)).append(":");
         }
 
         for (SqlVisitor visitor : this.getSqlVisitors()) {
             stringToMD5.append(visitor.generateCheckSum()).append(";");
         }
 
+        checkSum = CheckSum.compute(stringToMD5.toString());
+        if (checkSumCache != null) {
+            checkSumCache.put(this, definitionDigest, checkSum);
+        }
+        return checkSum;
+    }
 
-        return CheckSum.compute(stringToMD5.toString());
+    /**
+     * Discards the memoized checksums so the next call to {@link #generateCheckSum()} recomputes them from the current state of the changes.
+     * Called when a change or sqlVisitor is added, and needed whenever the properties of a change or sqlVisitor are modified.
+     */
+    public void clearCheckSumCache() {
+        this.changeCheckSums.clear();
+        this.checkSum = null;
+        this.checkSumSqlVisitors = null;
+        this.definitionDigest = null;
     }
 
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        clearCheckSumCache();
         this.id = node.getChildValue(null, "id", String.class);
         this.author = node.getChildValue(null, "author", String.class);
         this.alwaysRun  = node.getChildValue(null, "runAlways", node.getChildValue(null, "alwaysRun", false));
@@ -292,6 +353,11 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         for (ParsedNode child : node.getChildren()) {
             handleChildNode(child, resourceAccessor);
         }
+
+        if (CheckSumCache.getInstance().isEnabled()) {
+            this.definitionDigest = CheckSumCache.computeDefinitionDigest(node);
+            this.checkSumSqlVisitors = new ArrayList<SqlVisitor>(sqlVisitors);
+        }
     }
 
     protected void handleChildNode(ParsedNode child, ResourceAccessor resourceAccessor) throws ParsedNodeException {
@@ -544,6 +610,9 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                     }
                 }
 
+                //history rows that are still being batched must be written before anything else changes the database
+                ChangeLogHistoryServiceFactory.getInstance().flushChangeLogService(database);
+
                 log.debug("Reading ChangeSet: " + toString());
                 for (Change change : getChanges()) {
                     if ((!(change instanceof DbmsTargetedChange)) || DatabaseList.definitionMatches(((DbmsTargetedChange) change).getDbms(), database, true)) {
@@ -551,6 +620,10 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                             listener.willRun(change, this, changeLog, database);
                         }
                         database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        MetadataCache metadataCache = MetadataCache.getInstance(database);
+                        if (metadataCache != null) {
+                            metadataCache.changeExecuted(change);
+                        }
                         log.info(change.getConfirmationMessage());
                         if (listener != null) {
                             listener.ran(change, this, changeLog, database);
@@ -572,6 +645,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             }
 
         } catch (Exception e) {
+            MetadataCache.reset(database);
             try {
                 database.rollback();
             } catch (Exception e1) {
@@ -652,6 +726,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             }
             throw new RollbackFailedException(e);
         } finally {
+            MetadataCache.reset(database);
             // restore auto-commit to false if this ChangeSet was not run in a transaction,
             // but only if the database supports DDL in transactions
             if (!runInTransaction && database.supportsDDLInTransaction()) {
@@ -685,6 +760,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         }
         changes.add(change);
         change.setChangeSet(this);
+        clearCheckSumCache();
     }
 
     public String getId() {
@@ -863,6 +939,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        clearCheckSumCache();
     }
 
     public List<SqlVisitor> getSqlVisitors() {
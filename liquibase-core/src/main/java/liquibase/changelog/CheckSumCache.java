@@ -0,0 +1,221 @@
+package liquibase.changelog;
+
+import liquibase.change.AbstractChange;
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.parser.core.ParsedNode;
+import liquibase.sql.visitor.AbstractSqlVisitor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.util.AbstractFileBackedCache;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent store of changeSet checksums, used to skip the serialization-based checksum computation for changeSets whose
+ * definition has not changed since the last run.
+ * <p>
+ * Entries are keyed by changeSet file path, id and author and are only used if the digest of the changeSet's parsed
+ * (and parameter-expanded) definition matches the digest stored with the entry. Only changeSets whose changes and sqlVisitors
+ * use the default, property-based checksum are cached: changes such as sqlFile or loadData compute their checksum from external
+ * files which the digest does not cover.
+ * <p>
+ * The cache is disabled unless {@link GlobalConfiguration#getCheckSumCacheFile()} is set. The file is read on first use and
+ * written back by {@link #save()}, which {@link liquibase.Liquibase} calls at the end of each command.
+ */
+public class CheckSumCache extends AbstractFileBackedCache<CheckSumCache.Entry> {
+
+    private static final int FORMAT_MAGIC = 0x4C424353; //LBCS
+    private static final int FORMAT_VERSION = 2;
+
+    private static final Instance<CheckSumCache> instance = new Instance<CheckSumCache>() {
+        @Override
+        protected File getConfiguredFile() {
+            String configuredFile = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getCheckSumCacheFile();
+            return configuredFile == null ? null : new File(configuredFile);
+        }
+
+        @Override
+        protected CheckSumCache create(File file) {
+            return new CheckSumCache(file);
+        }
+    };
+
+    private static final Map<Class, Boolean> defaultCheckSumClasses = new ConcurrentHashMap<Class, Boolean>();
+
+    public static CheckSumCache getInstance() {
+        return instance.get();
+    }
+
+    public static void reset() {
+        instance.reset();
+    }
+
+    /**
+     * Creates a cache backed by the given file. If file is null, the cache is disabled.
+     */
+    public CheckSumCache(File file) {
+        super(file);
+    }
+
+    /**
+     * Returns the cached checksum for the given changeSet if one was stored for the same definition digest. Returns null otherwise.
+     */
+    public CheckSum get(ChangeSet changeSet, String definitionDigest) {
+        if (!isEnabled() || definitionDigest == null) {
+            return null;
+        }
+        Entry entry = getEntry(createKey(changeSet));
+        if (entry == null || !entry.definitionDigest.equals(definitionDigest)) {
+            return null;
+        }
+        return entry.checkSum;
+    }
+
+    /**
+     * Stores the checksum for the given changeSet, unless it contains changes or sqlVisitors whose checksum does not come only from their definition.
+     */
+    public void put(ChangeSet changeSet, String definitionDigest, CheckSum checkSum) {
+        if (!isEnabled() || definitionDigest == null || checkSum == null || !isCacheable(changeSet)) {
+            return;
+        }
+        putEntry(createKey(changeSet), new Entry(definitionDigest, checkSum));
+    }
+
+    /**
+     * Returns true if the checksum of the given changeSet depends only on its parsed definition.
+     */
+    protected boolean isCacheable(ChangeSet changeSet) {
+        for (Change change : changeSet.getChanges()) {
+            if (!usesDefaultCheckSum(change.getClass(), AbstractChange.class)) {
+                return false;
+            }
+        }
+        for (SqlVisitor visitor : changeSet.getSqlVisitors()) {
+            if (!usesDefaultCheckSum(visitor.getClass(), AbstractSqlVisitor.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean usesDefaultCheckSum(Class type, Class defaultImplementation) {
+        Boolean usesDefault = defaultCheckSumClasses.get(type);
+        if (usesDefault == null) {
+            try {
+                usesDefault = defaultImplementation.isAssignableFrom(type)
+                        && type.getMethod("generateCheckSum").getDeclaringClass().equals(defaultImplementation);
+            } catch (NoSuchMethodException e) {
+                usesDefault = false;
+            }
+            defaultCheckSumClasses.put(type, usesDefault);
+        }
+        return usesDefault;
+    }
+
+    @Override
+    protected int getFormatMagic() {
+        return FORMAT_MAGIC;
+    }
+
+    @Override
+    protected int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    protected String getDescription() {
+        return "checksum cache";
+    }
+
+    @Override
+    protected void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(CheckSum.getCurrentVersion());
+    }
+
+    @Override
+    protected boolean readHeader(DataInputStream in) throws IOException {
+        return in.readInt() == CheckSum.getCurrentVersion();
+    }
+
+    @Override
+    protected void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.definitionDigest);
+        out.writeUTF(entry.checkSum.toString());
+    }
+
+    @Override
+    protected Entry readEntry(DataInputStream in) throws IOException {
+        String definitionDigest = in.readUTF();
+        return new Entry(definitionDigest, CheckSum.parse(in.readUTF()));
+    }
+
+    protected String createKey(ChangeSet changeSet) {
+        return changeSet.getFilePath() + "::" + changeSet.getId() + "::" + changeSet.getAuthor();
+    }
+
+    /**
+     * Computes a digest of the given node, its value and all its children.
+     */
+    public static String computeDefinitionDigest(ParsedNode node) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            updateDigest(digest, node);
+            byte[] bytes = digest.digest();
+            StringBuilder returnString = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                returnString.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return returnString.toString();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    private static void updateDigest(MessageDigest digest, ParsedNode node) throws UnsupportedEncodingException {
+        digest.update(String.valueOf(node.getNamespace()).getBytes("UTF-8"));
+        digest.update((byte) 0);
+        digest.update(String.valueOf(node.getName()).getBytes("UTF-8"));
+        digest.update((byte) 0);
+        Object value = node.getValue();
+        if (value != null) {
+            digest.update(value.getClass().getName().getBytes("UTF-8"));
+            digest.update((byte) 0);
+            digest.update(value.toString().getBytes("UTF-8"));
+        }
+        digest.update((byte) 1);
+        for (ParsedNode child : node.getChildren()) {
+            updateDigest(digest, child);
+        }
+        digest.update((byte) 2);
+    }
+
+    protected static class Entry {
+        private final String definitionDigest;
+        private final CheckSum checkSum;
+
+        protected Entry(String definitionDigest, CheckSum checkSum) {
+            this.definitionDigest = definitionDigest;
+            this.checkSum = checkSum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return definitionDigest.equals(entry.definitionDigest) && checkSum.equals(entry.checkSum);
+        }
+
+        @Override
+        public int hashCode() {
+            return definitionDigest.hashCode();
+        }
+    }
+}
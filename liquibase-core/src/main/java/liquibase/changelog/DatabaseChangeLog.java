@@ -7,6 +7,7 @@ import liquibase.changelog.filter.ContextChangeSetFilter;
 import liquibase.changelog.filter.DbmsChangeSetFilter;
 import liquibase.changelog.filter.LabelChangeSetFilter;
 import liquibase.changelog.visitor.ValidatingVisitor;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.LiquibaseException;
@@ -17,6 +18,7 @@ import liquibase.exception.ValidationFailedException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserCofiguration;
 import liquibase.parser.ChangeLogParserFactory;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
@@ -38,12 +40,25 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Encapsulates the information stored in the change log XML file.
  */
 public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditional {
     private static final ThreadLocal<DatabaseChangeLog> ROOT_CHANGE_LOG = new ThreadLocal<DatabaseChangeLog>();
+    private static final ThreadLocal<Boolean> PARALLEL_INCLUDE = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
 
     private PreconditionContainer preconditionContainer = new PreconditionContainer();
     private String physicalFilePath;
@@ -369,8 +384,13 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                 throw new SetupException("Could not find directory or directory was empty for includeAll '" + pathName + "'");
             }
 
-            for (String path : resources) {
-                include(path, false, resourceAccessor);
+            int parseThreads = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getIncludeAllParseThreads();
+            if (parseThreads > 1 && resources.size() > 1 && !PARALLEL_INCLUDE.get()) {
+                includeParallel(new ArrayList<String>(resources), parseThreads, resourceAccessor);
+            } else {
+                for (String path : resources) {
+                    include(path, false, resourceAccessor);
+                }
             }
         } catch (Exception e) {
             throw new SetupException(e);
@@ -378,9 +398,148 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     }
 
     public boolean include(String fileName, boolean isRelativePath, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get();
+        if (rootChangeLog == null) {
+            ROOT_CHANGE_LOG.set(this);
+        }
+        DatabaseChangeLog changeLog;
+        try {
+            changeLog = parseInclude(fileName, isRelativePath, resourceAccessor);
+        } finally {
+            if (rootChangeLog == null) {
+                ROOT_CHANGE_LOG.remove();
+            }
+        }
+        if (changeLog == null) {
+            return false;
+        }
+        addIncludedChangeLog(changeLog);
+        return true;
+    }
+
+    /**
+     * Parses the given files concurrently using up to parseThreads threads, then adds their changeSets in the order of the list.
+     * Includes nested in the parsed files are parsed sequentially on the worker thread to avoid starving the bounded pool.
+     * Each file is parsed with its own copy of the changelog parameters. The properties a file defines are added to the changelog parameters in list order.
+     * The files after the first one defining properties may refer to them, so their parallel parses are discarded and they are parsed again sequentially,
+     * like in a sequential parse. An includeAll whose first file defines properties is therefore parsed sequentially; keep property definitions in the
+     * parent changelog or in the last files of the directory to benefit from parallel parsing.
+     * If any file fails to parse, the remaining parses are cancelled and the first failure in list order is thrown.
+     */
+    protected void includeParallel(List<String> fileNames, int parseThreads, final ResourceAccessor resourceAccessor) throws LiquibaseException {
+        final DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get() == null ? this : ROOT_CHANGE_LOG.get();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parseThreads, fileNames.size()), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-includeAll-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            final int parameterCount = changeLogParameters == null ? 0 : changeLogParameters.size();
+            List<Future<ParsedInclude>> parsed = new ArrayList<Future<ParsedInclude>>(fileNames.size());
+            for (final String fileName : fileNames) {
+                final ChangeLogParameters parameters = changeLogParameters == null ? null : changeLogParameters.copy();
+                parsed.add(executor.submit(new Callable<ParsedInclude>() {
+                    @Override
+                    public ParsedInclude call() throws Exception {
+                        ROOT_CHANGE_LOG.set(rootChangeLog);
+                        PARALLEL_INCLUDE.set(true);
+                        try {
+                            return new ParsedInclude(parseInclude(fileName, false, resourceAccessor, parameters), parameters);
+                        } finally {
+                            ROOT_CHANGE_LOG.remove();
+                            PARALLEL_INCLUDE.remove();
+                        }
+                    }
+                }));
+            }
+
+            boolean parametersDefined = false;
+            for (int i = 0; i < fileNames.size(); i++) {
+                if (parametersDefined) {
+                    parsed.get(i).cancel(true);
+                    include(fileNames.get(i), false, resourceAccessor);
+                    continue;
+                }
+
+                ParsedInclude parsedInclude;
+                try {
+                    parsedInclude = parsed.get(i).get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof LiquibaseException) {
+                        throw (LiquibaseException) e.getCause();
+                    }
+                    throw new UnexpectedLiquibaseException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UnexpectedLiquibaseException(e);
+                }
+                if (parsedInclude.parameters != null) {
+                    if (parsedInclude.parameters.size() > parameterCount) {
+                        changeLogParameters.addAll(parsedInclude.parameters, parameterCount);
+                        parametersDefined = true;
+                        if (i < fileNames.size() - 1) {
+                            LogFactory.getInstance().getLog().info(fileNames.get(i) + " defines properties, parsing the remaining " + (fileNames.size() - i - 1) + " includeAll files sequentially");
+                        }
+                    }
+                    if (parsedInclude.changeLog != null) {
+                        replaceChangeLogParameters(parsedInclude.changeLog, parsedInclude.parameters);
+                    }
+                }
+                if (parsedInclude.changeLog != null) {
+                    addIncludedChangeLog(parsedInclude.changeLog);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Makes the given changelog parsed with a copy of the changelog parameters, its nested changelogs and its changeSets use the changelog parameters instead.
+     */
+    private void replaceChangeLogParameters(DatabaseChangeLog changeLog, ChangeLogParameters copy) {
+        if (changeLog.getChangeLogParameters() == copy) {
+            changeLog.setChangeLogParameters(changeLogParameters);
+        }
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            if (changeSet.getChangeLogParameters() == copy) {
+                changeSet.setChangeLogParameters(changeLogParameters);
+            }
+            if (changeSet.getChangeLog() != null && changeSet.getChangeLog().getChangeLogParameters() == copy) {
+                changeSet.getChangeLog().setChangeLogParameters(changeLogParameters);
+            }
+        }
+    }
+
+    private static class ParsedInclude {
+        private final DatabaseChangeLog changeLog;
+        private final ChangeLogParameters parameters;
 
+        private ParsedInclude(DatabaseChangeLog changeLog, ChangeLogParameters parameters) {
+            this.changeLog = changeLog;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * Parses the given include file. Returns null if the file should be skipped.
+     */
+    protected DatabaseChangeLog parseInclude(String fileName, boolean isRelativePath, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        return parseInclude(fileName, isRelativePath, resourceAccessor, changeLogParameters);
+    }
+
+    /**
+     * Parses the given include file with the given changelog parameters. Returns null if the file should be skipped.
+     */
+    protected DatabaseChangeLog parseInclude(String fileName, boolean isRelativePath, ResourceAccessor resourceAccessor, ChangeLogParameters changeLogParameters) throws LiquibaseException {
         if (fileName.equalsIgnoreCase(".svn") || fileName.equalsIgnoreCase("cvs")) {
-            return false;
+            return null;
         }
 
         String relativeBaseFileName = this.getPhysicalFilePath();
@@ -393,24 +552,16 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                 fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
             }
         }
-        DatabaseChangeLog changeLog;
         try {
-            DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get();
-            if (rootChangeLog == null) {
-                ROOT_CHANGE_LOG.set(this);
-            }
-            try {
-                ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
-                changeLog = parser.parse(fileName, changeLogParameters, resourceAccessor);
-            } finally {
-                if (rootChangeLog == null) {
-                    ROOT_CHANGE_LOG.remove();
-                }
-            }
+            ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
+            return parser.parse(fileName, changeLogParameters, resourceAccessor);
         } catch (UnknownChangelogFormatException e) {
             LogFactory.getInstance().getLog().warning("included file " + relativeBaseFileName + "/" + fileName + " is not a recognized file type");
-            return false;
+            return null;
         }
+    }
+
+    protected void addIncludedChangeLog(DatabaseChangeLog changeLog) {
         PreconditionContainer preconditions = changeLog.getPreconditions();
         if (preconditions != null) {
             if (null == this.getPreconditions()) {
@@ -421,8 +572,6 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         for (ChangeSet changeSet : changeLog.getChangeSets()) {
             this.changeSets.add(changeSet);
         }
-
-        return true;
     }
 
     protected ChangeSet createChangeSet(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException, SetupException {
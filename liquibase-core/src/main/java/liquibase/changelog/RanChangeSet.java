@@ -13,7 +13,7 @@ public class RanChangeSet {
     private final String changeLog;
     private final String id;
     private final String author;
-    private final CheckSum lastCheckSum;
+    private CheckSum lastCheckSum;
     private final Date dateExecuted;
     private String tag;
     private ChangeSet.ExecType execType;
@@ -76,6 +76,10 @@ public class RanChangeSet {
         return lastCheckSum;
     }
 
+    public void setLastCheckSum(CheckSum lastCheckSum) {
+        this.lastCheckSum = lastCheckSum;
+    }
+
     public Date getDateExecuted() {
         if (dateExecuted == null) {
             return null;
@@ -0,0 +1,115 @@
+package liquibase.changelog;
+
+import java.util.*;
+
+/**
+ * Hash index over a list of {@link RanChangeSet}s, keyed by normalized changelog path, id and author.
+ * <p>
+ * The key is deliberately loose: paths have backslashes converted to forward slashes and any "classpath:" prefix removed,
+ * and all three parts are compared case-insensitively. That makes the key at least as broad as every matching rule used by
+ * the history services and changeSet filters, so callers look up the (usually single) candidates here and then apply
+ * their own, possibly stricter, comparison to them.
+ * <p>
+ * This class is not thread safe.
+ */
+public class RanChangeSetIndex {
+
+    private final Map<String, List<RanChangeSet>> index = new HashMap<String, List<RanChangeSet>>();
+    private int size = 0;
+
+    public RanChangeSetIndex() {
+    }
+
+    public RanChangeSetIndex(Collection<RanChangeSet> ranChangeSets) {
+        if (ranChangeSets != null) {
+            for (RanChangeSet ranChangeSet : ranChangeSets) {
+                add(ranChangeSet);
+            }
+        }
+    }
+
+    public void add(RanChangeSet ranChangeSet) {
+        String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        List<RanChangeSet> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<RanChangeSet>(1);
+            index.put(key, bucket);
+        }
+        bucket.add(ranChangeSet);
+        size++;
+    }
+
+    /**
+     * Removes the first indexed RanChangeSet that is equal to the given one. Returns true if one was removed.
+     */
+    public boolean remove(RanChangeSet ranChangeSet) {
+        String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        List<RanChangeSet> bucket = index.get(key);
+        if (bucket == null || !bucket.remove(ranChangeSet)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            index.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns all indexed RanChangeSets that could possibly match the given changeSet, in the order they were added.
+     * Callers are expected to apply their own comparison to the returned values.
+     */
+    public List<RanChangeSet> getCandidates(ChangeSet changeSet) {
+        List<RanChangeSet> bucket = index.get(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(bucket);
+    }
+
+    /**
+     * Returns the first RanChangeSet that {@link RanChangeSet#isSameAs(ChangeSet)} the given changeSet, or null if there is none.
+     */
+    public RanChangeSet get(ChangeSet changeSet) {
+        for (RanChangeSet candidate : getCandidates(changeSet)) {
+            if (candidate.isSameAs(changeSet)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    protected String createKey(String path, String id, String author) {
+        return normalize(normalizePath(path)) + "::" + normalize(id) + "::" + normalize(author);
+    }
+
+    protected String normalizePath(String path) {
+        if (path == null) {
+            return null;
+        }
+        path = path.replace('\\', '/');
+        if (path.startsWith("classpath:")) {
+            path = path.substring("classpath:".length());
+        }
+        return path;
+    }
+
+    /**
+     * Folds case the same way {@link String#equalsIgnoreCase(String)} compares characters so the key never separates values that
+     * equalsIgnoreCase considers equal.
+     */
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toUpperCase(Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+    }
+}
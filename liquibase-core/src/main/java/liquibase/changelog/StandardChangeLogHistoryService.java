@@ -6,9 +6,14 @@ import liquibase.LabelExpression;
 import liquibase.Labels;
 import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.database.core.SQLiteDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.datatype.core.VarcharType;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
@@ -16,28 +21,45 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
+    /**
+     * Tables {@link #isDatabaseChangeLogTableCurrent()} found up to date, by {@link #getDatabaseChangeLogTableKey()}.
+     */
+    private static final Set<String> currentDatabaseChangeLogTables = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     private List<RanChangeSet> ranChangeSetList;
+    private RanChangeSetIndex ranChangeSetIndex;
+    private boolean ranChangeSetListStale = false;
+    private Integer lastOrderExecuted;
     private boolean serviceInitialized = false;
     private Boolean hasDatabaseChangeLogTable = null;
     private Integer lastChangeSetSequenceValue;
+    private List<MarkChangeSetRanStatement> pendingExecTypes = new ArrayList<MarkChangeSetRanStatement>();
 
     @Override
     public int getPriority() {
@@ -65,9 +87,28 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         return true;
     }
 
+    /**
+     * Keeps the cached ran changeSets but marks them to be refreshed on the next read, which only fetches the rows added since they were read.
+     * See {@link #refreshRanChangeSets()}.
+     */
     public void reset() {
-        this.ranChangeSetList = null;
+        this.ranChangeSetListStale = this.ranChangeSetList != null;
         this.serviceInitialized = false;
+        if (this.ranChangeSetList != null) {
+            //FAILED and SKIPPED changeSets have no row in the table, so the next run must try them again
+            boolean removed = false;
+            Iterator<RanChangeSet> iterator = this.ranChangeSetList.iterator();
+            while (iterator.hasNext()) {
+                RanChangeSet ranChangeSet = iterator.next();
+                if (ranChangeSet.getExecType() != null && !ranChangeSet.getExecType().ran) {
+                    iterator.remove();
+                    removed = true;
+                }
+            }
+            if (removed) { //the index removes equal entries, which may be the row of an earlier run of the same changeSet
+                this.ranChangeSetIndex = new RanChangeSetIndex(this.ranChangeSetList);
+            }
+        }
     }
 
     public boolean hasDatabaseChangeLogTable() throws DatabaseException {
@@ -92,6 +133,11 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         if (serviceInitialized) {
             return;
         }
+        if (isDatabaseChangeLogTableCurrent()) {
+            hasDatabaseChangeLogTable = true;
+            serviceInitialized = true;
+            return;
+        }
         Database database = getDatabase();
         Executor executor = ExecutorService.getInstance().getExecutor(database);
 
@@ -220,7 +266,77 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         serviceInitialized = true;
     }
 
+    /**
+     * Checks the existing table against the columns init() would add or resize using the ResultSetMetaData of a query that returns no rows,
+     * which avoids the database metadata calls of a Table snapshot. A table found up to date is remembered for the connection URL, user and
+     * schema so later checks only need that query to succeed.
+     * Returns false if the table does not exist, cannot be checked this way or needs to be upgraded, in which case init() snapshots it.
+     */
+    protected boolean isDatabaseChangeLogTableCurrent() throws DatabaseException {
+        Database database = getDatabase();
+        if (!(database.getConnection() instanceof JdbcConnection) || !(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)) {
+            return false;
+        }
+        String key = getDatabaseChangeLogTableKey();
+        boolean known = currentDatabaseChangeLogTables.contains(key);
+
+        Map<String, Integer> columnSizes = new HashMap<String, Integer>();
+        Map<String, String> columnTypes = new HashMap<String, String>();
+        Statement stmt = null;
+        ResultSet resultSet = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement();
+            resultSet = stmt.executeQuery("SELECT * FROM " + database.escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName()) + " WHERE 1 = 0");
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String columnName = metaData.getColumnName(i).toUpperCase();
+                columnSizes.put(columnName, metaData.getPrecision(i));
+                columnTypes.put(columnName, metaData.getColumnTypeName(i));
+            }
+        } catch (SQLException e) {
+            currentDatabaseChangeLogTables.remove(key);
+            if (database instanceof PostgresDatabase) { //throws "current transaction is aborted" unless we roll back the connection
+                database.rollback();
+            }
+            return false;
+        } finally {
+            JdbcUtils.close(resultSet, stmt);
+        }
+        if (known) {
+            return true;
+        }
+
+        for (String column : new String[] {"DESCRIPTION", "COMMENTS", "TAG", "LIQUIBASE", "CONTEXTS", "LABELS", "ORDEREXECUTED", "EXECTYPE", "MD5SUM"}) {
+            if (!columnSizes.containsKey(column)) {
+                return false;
+            }
+        }
+        if (!(database instanceof SQLiteDatabase)) {
+            if (isVarcharSmallerThan(columnTypes.get("LIQUIBASE"), columnSizes.get("LIQUIBASE"), 20) || isVarcharSmallerThan(columnTypes.get("MD5SUM"), columnSizes.get("MD5SUM"), 35)) {
+                return false;
+            }
+        }
+        List<Map<String, ?>> md5sumRS = ExecutorService.getInstance().getExecutor(database).queryForList(new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByNotNullCheckSum(), new ColumnConfig().setName("MD5SUM")).setLimit(1));
+        if (md5sumRS.size() > 0 && !md5sumRS.get(0).get("MD5SUM").toString().startsWith(CheckSum.getCurrentVersion() + ":")) {
+            return false;
+        }
+
+        currentDatabaseChangeLogTables.add(key);
+        return true;
+    }
+
+    private boolean isVarcharSmallerThan(String typeName, Integer columnSize, int size) {
+        return typeName != null && typeName.toLowerCase().startsWith("varchar") && columnSize != null && columnSize > 0 && columnSize < size;
+    }
+
+    protected String getDatabaseChangeLogTableKey() {
+        Database database = getDatabase();
+        String schemaName = getLiquibaseSchemaName() == null ? database.getDefaultSchemaName() : getLiquibaseSchemaName();
+        return database.getConnection().getURL() + "::" + database.getConnection().getConnectionUserName() + "::" + getLiquibaseCatalogName() + "::" + schemaName + "::" + getDatabaseChangeLogTableName();
+    }
+
     public void upgradeChecksums(final DatabaseChangeLog databaseChangeLog, final Contexts contexts, LabelExpression labels) throws DatabaseException {
+        flush();
         super.upgradeChecksums(databaseChangeLog, contexts, labels);
         getDatabase().commit();
     }
@@ -229,54 +345,136 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      * Returns the ChangeSets that have been run against the current getDatabase().
      */
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
+        if (this.ranChangeSetList != null && this.ranChangeSetListStale) {
+            flush();
+            if (hasDatabaseChangeLogTable() && !refreshRanChangeSets()) {
+                this.ranChangeSetList = null;
+                this.ranChangeSetIndex = null;
+            }
+            this.ranChangeSetListStale = false;
+        }
         if (this.ranChangeSetList == null) {
+            flush();
             Database database = getDatabase();
             String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
-            List<RanChangeSet> ranChangeSetList = new ArrayList<RanChangeSet>();
+            this.ranChangeSetList = new ArrayList<RanChangeSet>();
+            this.ranChangeSetIndex = new RanChangeSetIndex();
+            this.lastOrderExecuted = null;
+            this.ranChangeSetListStale = false;
             if (hasDatabaseChangeLogTable()) {
                 LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
-                List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
-                for (Map rs : results) {
-                    String fileName = rs.get("FILENAME").toString();
-                    String author = rs.get("AUTHOR").toString();
-                    String id = rs.get("ID").toString();
-                    String md5sum = rs.get("MD5SUM") == null ? null : rs.get("MD5SUM").toString();
-                    String description = rs.get("DESCRIPTION") == null ? null : rs.get("DESCRIPTION").toString();
-                    String comments = rs.get("COMMENTS") == null ? null : rs.get("COMMENTS").toString();
-                    Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                    Date dateExecuted = null;
-                    if (tmpDateExecuted instanceof Date) {
-                        dateExecuted = (Date) tmpDateExecuted;
-                    } else {
-                        DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                        try {
-                            dateExecuted = df.parse((String) tmpDateExecuted);
-                        } catch (ParseException e) {
-                        }
-                    }
-                    String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
-                    Integer orderExecuted = (tmpOrderExecuted == null ? null : new Integer(tmpOrderExecuted));
-                    String tag = rs.get("TAG") == null ? null : rs.get("TAG").toString();
-                    String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
-                    ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
-                    Labels labels = new Labels((String) rs.get("LABELS"));
-
-                    try {
-                        RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts, labels);
-                        ranChangeSet.setOrderExecuted(orderExecuted);
-                        ranChangeSetList.add(ranChangeSet);
-                    } catch (IllegalArgumentException e) {
-                        LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
-                        throw e;
-                    }
+                for (Map rs : queryDatabaseChangeLogTable(database)) {
+                    addRanChangeSet(toRanChangeSet(rs));
                 }
             }
-
-            this.ranChangeSetList = ranChangeSetList;
         }
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Appends the rows added to the table since the cached ranChangeSetList was read. Rows this service wrote itself replace the entries
+     * {@link #setExecType(ChangeSet, ChangeSet.ExecType)} added for them.
+     * Returns false if the cached list no longer matches the row count, the number of checksums or the latest DATEEXECUTED of the table,
+     * in which case it has to be read again completely. That is the case if rows were removed, or updated in place by a rerun of a
+     * changeSet or by clearing checksums.
+     */
+    protected boolean refreshRanChangeSets() throws DatabaseException {
+        if (lastOrderExecuted == null) {
+            return false;
+        }
+        Executor executor = ExecutorService.getInstance().getExecutor(getDatabase());
+        List<Map<String, ?>> totals = executor.queryForList(new SelectFromDatabaseChangeLogStatement(
+                new ColumnConfig().setName("COUNT(*) AS ROW_COUNT", true),
+                new ColumnConfig().setName("COUNT(MD5SUM) AS CHECKSUM_COUNT", true),
+                new ColumnConfig().setName("MAX(DATEEXECUTED) AS LAST_EXECUTED", true)));
+        if (totals.isEmpty()) {
+            return false;
+        }
+        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByOrderExecutedGreaterThan(lastOrderExecuted), new ColumnConfig().setName("*").setComputed(true))
+                .setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
+        List<Map<String, ?>> results = executor.queryForList(select);
+        for (Map rs : results) {
+            RanChangeSet ranChangeSet = toRanChangeSet(rs);
+            int existing = ranChangeSetList.indexOf(ranChangeSet);
+            if (existing >= 0) {
+                ranChangeSetIndex.remove(ranChangeSetList.remove(existing));
+            }
+            addRanChangeSet(ranChangeSet);
+        }
+        LogFactory.getLogger().debug("Read " + results.size() + " new rows from " + getDatabaseChangeLogTableName());
+
+        int checkSumCount = 0;
+        Date lastExecuted = null;
+        for (RanChangeSet ranChangeSet : ranChangeSetList) {
+            if (ranChangeSet.getLastCheckSum() != null) {
+                checkSumCount++;
+            }
+            Date dateExecuted = ranChangeSet.getDateExecuted();
+            if (dateExecuted != null && (lastExecuted == null || dateExecuted.getTime() > lastExecuted.getTime())) {
+                lastExecuted = dateExecuted;
+            }
+        }
+        Map<String, ?> row = totals.get(0);
+        Date tableLastExecuted = toDate(row.get("LAST_EXECUTED"));
+        return ranChangeSetList.size() == ((Number) row.get("ROW_COUNT")).intValue()
+                && checkSumCount == ((Number) row.get("CHECKSUM_COUNT")).intValue()
+                && (lastExecuted == null ? tableLastExecuted == null : tableLastExecuted != null && lastExecuted.getTime() == tableLastExecuted.getTime());
+    }
+
+    private void addRanChangeSet(RanChangeSet ranChangeSet) {
+        ranChangeSetList.add(ranChangeSet);
+        ranChangeSetIndex.add(ranChangeSet);
+        Integer orderExecuted = ranChangeSet.getOrderExecuted();
+        if (orderExecuted != null && (lastOrderExecuted == null || orderExecuted > lastOrderExecuted)) {
+            lastOrderExecuted = orderExecuted;
+        }
+    }
+
+    protected RanChangeSet toRanChangeSet(Map rs) {
+        String fileName = rs.get("FILENAME").toString();
+        String author = rs.get("AUTHOR").toString();
+        String id = rs.get("ID").toString();
+        String md5sum = rs.get("MD5SUM") == null ? null : rs.get("MD5SUM").toString();
+        String description = rs.get("DESCRIPTION") == null ? null : rs.get("DESCRIPTION").toString();
+        String comments = rs.get("COMMENTS") == null ? null : rs.get("COMMENTS").toString();
+        Date dateExecuted = toDate(rs.get("DATEEXECUTED"));
+        String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
+        Integer orderExecuted = (tmpOrderExecuted == null ? null : new Integer(tmpOrderExecuted));
+        String tag = rs.get("TAG") == null ? null : rs.get("TAG").toString();
+        String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
+        ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
+        Labels labels = new Labels((String) rs.get("LABELS"));
+
+        try {
+            RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts, labels);
+            ranChangeSet.setOrderExecuted(orderExecuted);
+            return ranChangeSet;
+        } catch (IllegalArgumentException e) {
+            LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
+            throw e;
+        }
+    }
+
+    private Date toDate(Object dateExecuted) {
+        if (dateExecuted instanceof Date) {
+            return (Date) dateExecuted;
+        }
+        if (dateExecuted != null) {
+            DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            try {
+                return df.parse(dateExecuted.toString());
+            } catch (ParseException e) {
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        getRanChangeSets();
+        return ranChangeSetIndex;
+    }
+
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
         SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
         return ExecutorService.getInstance().getExecutor(database).queryForList(select);
@@ -284,10 +482,17 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     protected void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
+        flush();
         ExecutorService.getInstance().getExecutor(getDatabase()).execute(new UpdateChangeSetChecksumStatement(changeSet));
 
         getDatabase().commit();
-        reset();
+
+        if (this.ranChangeSetList != null) {
+            RanChangeSet ranChangeSet = this.ranChangeSetIndex.get(changeSet);
+            if (ranChangeSet != null) {
+                ranChangeSet.setLastCheckSum(changeSet.generateCheckSum());
+            }
+        }
     }
 
     @Override
@@ -303,22 +508,127 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
     public void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
         Database database = getDatabase();
 
-        ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
-        getDatabase().commit();
+        int batchSize = getBatchSize();
+        boolean batched = batchSize > 1 && canBatch();
+        if (batched) {
+            pendingExecTypes.add(new MarkChangeSetRanStatement(changeSet, execType));
+        } else {
+            ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
+            getDatabase().commit();
+        }
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+            RanChangeSet ranChangeSet = new RanChangeSet(changeSet, execType, null, null);
+            if (execType.ranBefore) {
+                RanChangeSet previous = this.ranChangeSetIndex.get(changeSet);
+                if (previous != null) {
+                    ranChangeSet.setOrderExecuted(previous.getOrderExecuted());
+                    this.ranChangeSetList.remove(previous);
+                    this.ranChangeSetIndex.remove(previous);
+                }
+            }
+            this.ranChangeSetList.add(ranChangeSet);
+            this.ranChangeSetIndex.add(ranChangeSet);
+        }
+
+        if (batched && pendingExecTypes.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the pending rows of {@link #setExecType(ChangeSet, ChangeSet.ExecType)} in one JDBC batch and commits them.
+     * The batch runs in its own transaction, even if the connection is in auto-commit mode. If it fails, the transaction is rolled back
+     * and the rows stay pending, so none of them are lost or committed by a later statement.
+     */
+    @Override
+    public void flush() throws DatabaseException {
+        if (pendingExecTypes.isEmpty()) {
+            return;
+        }
+        List<MarkChangeSetRanStatement> statements = new ArrayList<MarkChangeSetRanStatement>(pendingExecTypes);
+
+        Database database = getDatabase();
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            writeBatch(statements);
+            database.commit();
+        } catch (DatabaseException e) {
+            try {
+                database.rollback();
+            } catch (DatabaseException rollbackException) {
+                LogFactory.getLogger().warning("Cannot roll back the failed batch of " + getDatabaseChangeLogTableName() + " rows: " + rollbackException.getMessage());
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+        pendingExecTypes.subList(0, statements.size()).clear();
+    }
+
+    private void writeBatch(List<MarkChangeSetRanStatement> statements) throws DatabaseException {
+        Database database = getDatabase();
+        Statement stmt = null;
+        String lastSql = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement();
+            int batchedSql = 0;
+            for (MarkChangeSetRanStatement statement : statements) {
+                for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, database)) {
+                    lastSql = sql.toSql();
+                    if (database instanceof OracleDatabase) {
+                        lastSql = lastSql.replaceFirst("/\\s*/\\s*$", ""); //remove duplicated /'s
+                    }
+                    if (lastSql.contains("?")) {
+                        stmt.setEscapeProcessing(false);
+                    }
+                    stmt.addBatch(lastSql);
+                    batchedSql++;
+                }
+            }
+            if (batchedSql > 0) {
+                LogFactory.getLogger().debug("Writing " + batchedSql + " rows to " + getDatabaseChangeLogTableName() + " in one batch");
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage() + " [Last batched SQL: " + lastSql + "]", e);
+        } finally {
+            JdbcUtils.closeStatement(stmt);
         }
+    }
 
+    /**
+     * Returns the number of rows {@link #setExecType(ChangeSet, ChangeSet.ExecType)} collects before writing them. See {@link GlobalConfiguration#getChangeLogHistoryBatchSize()}.
+     */
+    protected int getBatchSize() {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getChangeLogHistoryBatchSize();
+        return batchSize == null ? 1 : batchSize;
+    }
+
+    /**
+     * Rows can only be batched when they are written directly to a JDBC connection, not when the SQL is logged for updateSQL.
+     */
+    protected boolean canBatch() {
+        Database database = getDatabase();
+        return database.getConnection() instanceof JdbcConnection && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor;
     }
 
     @Override
     public void removeFromHistory(final ChangeSet changeSet) throws DatabaseException {
+        flush();
         Database database = getDatabase();
         ExecutorService.getInstance().getExecutor(database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
 
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            RanChangeSet ranChangeSet = new RanChangeSet(changeSet);
+            this.ranChangeSetList.remove(ranChangeSet);
+            this.ranChangeSetIndex.remove(ranChangeSet);
         }
     }
 
@@ -343,10 +653,12 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         Database database = getDatabase();
         Executor executor = ExecutorService.getInstance().getExecutor(database);
         try {
+            flush();
             int totalRows = ExecutorService.getInstance().getExecutor(database).queryForInt(new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("COUNT(*)", true)));
             if (totalRows == 0) {
                 ChangeSet emptyChangeSet = new ChangeSet(String.valueOf(new Date().getTime()), "liquibase", false, false, "liquibase-internal", null, null, getDatabase().getObjectQuotingStrategy(), null);
                 this.setExecType(emptyChangeSet, ChangeSet.ExecType.EXECUTED);
+                flush();
             }
 
 //            Timestamp lastExecutedDate = (Timestamp) this.getExecutor().queryForObject(createChangeToTagSQL(), Timestamp.class);
@@ -363,26 +675,40 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public boolean tagExists(final String tag) throws DatabaseException {
+        flush();
         int count = ExecutorService.getInstance().getExecutor(getDatabase()).queryForInt(new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByTag(tag), new ColumnConfig().setName("COUNT(*)", true)));
         return count > 0;
     }
 
     @Override
     public void clearAllCheckSums() throws LiquibaseException {
+        flush();
         Database database = getDatabase();
         UpdateStatement updateStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
         updateStatement.addNewColumnValue("MD5SUM", null);
         ExecutorService.getInstance().getExecutor(database).execute(updateStatement);
         database.commit();
+
+        if (this.ranChangeSetList != null) {
+            for (RanChangeSet ranChangeSet : this.ranChangeSetList) {
+                ranChangeSet.setLastCheckSum(null);
+            }
+        }
     }
 
     @Override
     public void destroy() throws DatabaseException {
+        pendingExecTypes.clear();
         Database database = getDatabase();
+        if (database.getConnection() != null) {
+            currentDatabaseChangeLogTables.remove(getDatabaseChangeLogTableKey());
+        }
         try {
             if (SnapshotGeneratorFactory.getInstance().has(new Table().setName(database.getDatabaseChangeLogTableName()).setSchema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()), database)) {
                 ExecutorService.getInstance().getExecutor(database).execute(new DropTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName(), false));
             }
+            this.ranChangeSetList = null;
+            this.ranChangeSetIndex = null;
             reset();
         } catch (InvalidExampleException e) {
             throw new UnexpectedLiquibaseException(e);
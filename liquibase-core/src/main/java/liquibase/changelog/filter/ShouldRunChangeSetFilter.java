@@ -1,20 +1,19 @@
 package liquibase.changelog.filter;
 
-import java.util.List;
-
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
-    private final List<RanChangeSet> ranChangeSets;
+    private final RanChangeSetIndex ranChangeSets;
     private final boolean ignoreClasspathPrefix;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
-        this.ranChangeSets = database.getRanChangeSetList();
+        this.ranChangeSets = new RanChangeSetIndex(database.getRanChangeSetList());
     }
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
@@ -24,7 +23,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ranChangeSets.getCandidates(changeSet)) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
                 if (changeSet.shouldAlwaysRun()) {
                     return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
@@ -5,15 +5,18 @@ import java.util.*;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 
 public class ExpectedChangesVisitor implements ChangeSetVisitor {
     private final LinkedHashSet<RanChangeSet> unexpectedChangeSets;
+    private final RanChangeSetIndex ranChangeSetIndex;
 
     public ExpectedChangesVisitor(List<RanChangeSet> ranChangeSetList) {
         this.unexpectedChangeSets = new LinkedHashSet<RanChangeSet>(ranChangeSetList);
+        this.ranChangeSetIndex = new RanChangeSetIndex(unexpectedChangeSets);
     }
 
     @Override
@@ -23,10 +26,9 @@ public class ExpectedChangesVisitor implements ChangeSetVisitor {
 
     @Override
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
-        for (Iterator<RanChangeSet> i = unexpectedChangeSets.iterator(); i.hasNext(); ) {
-            RanChangeSet ranChangeSet = i.next();
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getCandidates(changeSet)) {
             if (ranChangeSet.isSameAs(changeSet)) {
-                i.remove();
+                unexpectedChangeSets.remove(ranChangeSet);
             }
         }
     }
@@ -17,9 +17,12 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
 
     private LinkedHashMap<ChangeSet, ChangeSetStatus> changeSetStatuses = new LinkedHashMap<ChangeSet, ChangeSetStatus>();
     private final List<RanChangeSet> ranChangeSets;
+    private final RanChangeSetIndex ranChangeSetIndex;
+    private final Set<RanChangeSet> matchedRanChangeSets = Collections.newSetFromMap(new IdentityHashMap<RanChangeSet, Boolean>());
 
     public StatusVisitor(Database database) throws LiquibaseException {
         ranChangeSets = new ArrayList<RanChangeSet>(ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).getRanChangeSets());
+        ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
     }
 
     @Override
@@ -44,21 +47,15 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
     protected ChangeSetStatus addStatus(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
         ChangeSetStatus status = new ChangeSetStatus(changeSet);
 
-        RanChangeSet ranChangeSetToRemove = null;
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
-            if (ranChangeSet.isSameAs(changeSet)) {
-                status.setPreviouslyRan(true);
-                status.setDateLastExecuted(ranChangeSet.getDateExecuted());
-                status.setStoredCheckSum(ranChangeSet.getLastCheckSum());
-                status.setRanChangeSet(ranChangeSet);
-
-                ranChangeSetToRemove = ranChangeSet;
+        RanChangeSet ranChangeSet = ranChangeSetIndex.get(changeSet);
+        if (ranChangeSet != null) {
+            status.setPreviouslyRan(true);
+            status.setDateLastExecuted(ranChangeSet.getDateExecuted());
+            status.setStoredCheckSum(ranChangeSet.getLastCheckSum());
+            status.setRanChangeSet(ranChangeSet);
 
-                break;
-            }
-        }
-        if (ranChangeSetToRemove != null) {
-            ranChangeSets.remove(ranChangeSetToRemove);
+            ranChangeSetIndex.remove(ranChangeSet);
+            matchedRanChangeSets.add(ranChangeSet);
         }
 
         changeSetStatuses.put(changeSet, status);
@@ -81,6 +78,9 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
     public List<ChangeSetStatus> getStatuses() {
         ArrayList<ChangeSetStatus> returnList = new ArrayList<ChangeSetStatus>();
         for (RanChangeSet changeSet : ranChangeSets) {
+            if (matchedRanChangeSets.contains(changeSet)) {
+                continue;
+            }
             ChangeSetStatus status = new ChangeSetStatus(new ChangeSet(changeSet.getId(), changeSet.getAuthor(), false, false, changeSet.getChangeLog(), null, null, null));
             status.setPreviouslyRan(true);
             status.setDateLastExecuted(changeSet.getDateExecuted());
@@ -1,5 +1,6 @@
 package liquibase.changelog.visitor;
 
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.ChangeSet.ExecType;
 import liquibase.changelog.ChangeSet.RunStatus;
@@ -60,6 +61,10 @@ public class UpdateVisitor implements ChangeSetVisitor {
         // reset object quoting strategy after running changeset
         this.database.setObjectQuotingStrategy(previousStr);
         this.database.markChangeSetExecStatus(changeSet, execType);
+        if (execType == ExecType.EXECUTED || execType == ExecType.RERAN) {
+            //keep the history of changeSets that changed the database as current as without batching
+            ChangeLogHistoryServiceFactory.getInstance().flushChangeLogService(this.database);
+        }
 
         this.database.commit();
     }
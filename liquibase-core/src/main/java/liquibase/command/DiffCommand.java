@@ -163,7 +163,7 @@ public class DiffCommand extends AbstractCommand {
         if (getSnapshotListener() != null) {
             snapshotControl.setSnapshotListener(getSnapshotListener());
         }
-        return SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, targetDatabase, snapshotControl);
+        return SnapshotCache.getInstance().createSnapshot(schemas, targetDatabase, snapshotControl);
     }
 
     protected DatabaseSnapshot createReferenceSnapshot() throws DatabaseException, InvalidExampleException {
@@ -187,7 +187,7 @@ public class DiffCommand extends AbstractCommand {
         if (getSnapshotListener() != null) {
             snapshotControl.setSnapshotListener(getSnapshotListener());
         }
-        return SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, referenceDatabase, snapshotControl);
+        return SnapshotCache.getInstance().createSnapshot(schemas, referenceDatabase, snapshotControl);
     }
 }
 
@@ -17,6 +17,21 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
     public static final String CHANGELOGLOCK_POLL_RATE = "changeLogLockPollRate";
     public static final String CONVERT_DATA_TYPES = "convertDataTypes";
     public static final String GENERATE_CHANGESET_CREATED_VALUES = "generateChangeSetCreatedValues";
+    public static final String CHECKSUM_CACHE_FILE = "checkSumCacheFile";
+    public static final String LOAD_DATA_BATCH_SIZE = "loadDataBatchSize";
+    public static final String LOAD_DATA_COMMIT_INTERVAL = "loadDataCommitInterval";
+    public static final String LOAD_DATA_STREAMING = "loadDataStreaming";
+    public static final String LOAD_DATA_BULK_INSERT = "loadDataBulkInsert";
+    public static final String CACHE_PRECONDITION_METADATA = "cachePreconditionMetadata";
+    public static final String SNAPSHOT_CACHE_DIRECTORY = "snapshotCacheDirectory";
+    public static final String SNAPSHOT_CATALOG_BULK_SELECT = "snapshotCatalogBulkSelect";
+    public static final String DIFF_THREADS = "diffThreads";
+    public static final String DIFF_DATA_FETCH_SIZE = "diffDataFetchSize";
+    public static final String DIFF_DATA_CHANGESET_SIZE = "diffDataChangeSetSize";
+    public static final String DIFF_DATA_ROWS = "diffDataRows";
+    public static final String CHANGELOG_HISTORY_BATCH_SIZE = "changeLogHistoryBatchSize";
+    public static final String CHANGELOGLOCK_USE_ADVISORY_LOCK = "changeLogLockUseAdvisoryLock";
+    public static final String CHANGELOGLOCK_HEARTBEAT_TTL = "changeLogLockHeartbeatTtl";
 
     public GlobalConfiguration() {
         super("liquibase");
@@ -39,7 +54,7 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
                 .setDefaultValue(5);
 
         getContainer().addProperty(CHANGELOGLOCK_POLL_RATE, Long.class)
-                .setDescription("Number of seconds wait between checks to the changelog lock when it is locked")
+                .setDescription("Maximum number of seconds to wait between checks to the changelog lock when it is locked. Checks start sub-second and back off up to this value")
                 .setDefaultValue(10);
 
         getContainer().addProperty(LIQUIBASE_TABLESPACE_NAME, String.class)
@@ -67,6 +82,63 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         getContainer().addProperty(GENERATE_CHANGESET_CREATED_VALUES, Boolean.class)
                 .setDescription("Should Liquibase include a 'created' attribute in diff/generateChangeLog changeSets with the current datetime")
                 .setDefaultValue(false);
+
+        getContainer().addProperty(CHECKSUM_CACHE_FILE, String.class)
+                .setDescription("File used to store changeSet checksums between runs so unchanged changeSets are not checksummed again. Caching is disabled if not set");
+
+        getContainer().addProperty(LOAD_DATA_BATCH_SIZE, Integer.class)
+                .setDescription("Number of rows loadData sends per JDBC batch through a prepared statement. Rows are read from the file while inserting them, one batch at a time. 0 inserts rows as literal SQL instead")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_COMMIT_INTERVAL, Integer.class)
+                .setDescription("Number of rows after which batched loadData commits. 0 commits only when the changeSet completes")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_STREAMING, Boolean.class)
+                .setDescription("Should loadData read rows from its file while inserting them instead of creating all statements first. Batched loadData always does")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(LOAD_DATA_BULK_INSERT, Boolean.class)
+                .setDescription("Should batched loadData rows be sent with the database's native bulk load mechanism, such as COPY on PostgreSQL, if there is one. Requires loadDataBatchSize")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(CACHE_PRECONDITION_METADATA, Boolean.class)
+                .setDescription("Should checks for the existence of database objects, such as tableExists preconditions, read each object type once per schema and keep the result up to date as changes run")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(SNAPSHOT_CACHE_DIRECTORY, String.class)
+                .setDescription("Directory to store the snapshots taken by diff, diffChangeLog and generateChangeLog in. A stored snapshot is reused while the schema fingerprint of the database is unchanged");
+
+        getContainer().addProperty(SNAPSHOT_CATALOG_BULK_SELECT, Boolean.class)
+                .setDescription("Should snapshots of PostgreSQL 9+ and MySQL 5.1+ select the primary keys, indexes and foreign keys of a whole schema from the system catalog in one query each instead of calling DatabaseMetaData for each table")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(DIFF_THREADS, Integer.class)
+                .setDescription("Number of threads diff operations use to compare the objects of a type when there are many of them. 1 compares on the calling thread")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(DIFF_DATA_FETCH_SIZE, Integer.class)
+                .setDescription("JDBC fetch size used to read table rows when diff output includes data")
+                .setDefaultValue(1000);
+
+        getContainer().addProperty(DIFF_DATA_CHANGESET_SIZE, Integer.class)
+                .setDescription("Number of rows per changeSet when diff output includes data as insert changes. Rows are read and written one changeSet at a time. 0 puts all rows of a table in one changeSet")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(DIFF_DATA_ROWS, Boolean.class)
+                .setDescription("Should diffs that include data compare the rows of tables that exist in both databases and generate insert, update and delete changes for the rows that differ. Snapshots of data then read every row of each table")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(CHANGELOG_HISTORY_BATCH_SIZE, Integer.class)
+                .setDescription("Number of rows written to the databasechangelog table in one JDBC batch by changelogSync, markNextChangeSetRan and changeSets marked ran without executing. Pending rows are always written before a changeSet executes its changes. 1 writes and commits every row on its own")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(CHANGELOGLOCK_USE_ADVISORY_LOCK, Boolean.class)
+                .setDescription("Should Liquibase wait for the changelog lock on a database advisory lock on PostgreSQL, MySQL, Oracle and SQL Server so waiting updates are woken as soon as the lock is released. The databasechangeloglock table is locked as well. An advisory lock held by a session that is not running an update is logged and bypassed after changeLogLockPollRate seconds")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(CHANGELOGLOCK_HEARTBEAT_TTL, Long.class)
+                .setDescription("Number of seconds after which a changelog lock whose holder stopped refreshing it may be taken over by another process. The holder refreshes the lock every third of this time on a separate connection. If it cannot open one, it refreshes the lock between changeSets and this must be longer than the longest running changeSet. Every process using the databasechangeloglock table must have it set. Not set disables lock refresh and takeover");
     }
 
     /**
@@ -118,7 +190,7 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
     }
 
     /**
-     * Wait time (in seconds) between polling requests to the changelog lock system.
+     * Maximum wait time (in seconds) between polling requests to the changelog lock system.
      */
     public Long getDatabaseChangeLogLockPollRate() {
         return getContainer().getValue(CHANGELOGLOCK_POLL_RATE, Long.class);
@@ -188,4 +260,159 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         getContainer().setValue(OUTPUT_ENCODING, name);
         return this;
     }
+
+    /**
+     * File to store computed changeSet checksums in between runs. Returns null if checksum caching is disabled.
+     */
+    public String getCheckSumCacheFile() {
+        return getContainer().getValue(CHECKSUM_CACHE_FILE, String.class);
+    }
+
+    public GlobalConfiguration setCheckSumCacheFile(String file) {
+        getContainer().setValue(CHECKSUM_CACHE_FILE, file);
+        return this;
+    }
+
+    /**
+     * Number of rows loadData sends per JDBC batch. Returns 0 if loadData should generate literal insert statements.
+     */
+    public Integer getLoadDataBatchSize() {
+        return getContainer().getValue(LOAD_DATA_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataBatchSize(Integer batchSize) {
+        getContainer().setValue(LOAD_DATA_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    /**
+     * Number of rows after which batched loadData commits. Returns 0 if only the changeSet commits.
+     * Committing part way through a changeSet means a failed load cannot be rolled back completely.
+     */
+    public Integer getLoadDataCommitInterval() {
+        return getContainer().getValue(LOAD_DATA_COMMIT_INTERVAL, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataCommitInterval(Integer commitInterval) {
+        getContainer().setValue(LOAD_DATA_COMMIT_INTERVAL, commitInterval);
+        return this;
+    }
+
+    /**
+     * Should loadData and loadUpdateData stream rows from their file while executing. Rows are sent in batches of {@link #getLoadDataBatchSize()}
+     * rows, or one at a time as literal SQL if no batch size is set. Errors in the file are only found when the row is reached.
+     */
+    public Boolean getLoadDataStreaming() {
+        return getContainer().getValue(LOAD_DATA_STREAMING, Boolean.class);
+    }
+
+    public GlobalConfiguration setLoadDataStreaming(Boolean streaming) {
+        getContainer().setValue(LOAD_DATA_STREAMING, streaming);
+        return this;
+    }
+
+    public Boolean getLoadDataBulkInsert() {
+        return getContainer().getValue(LOAD_DATA_BULK_INSERT, Boolean.class);
+    }
+
+    public GlobalConfiguration setLoadDataBulkInsert(Boolean bulkInsert) {
+        getContainer().setValue(LOAD_DATA_BULK_INSERT, bulkInsert);
+        return this;
+    }
+
+    public Boolean getCachePreconditionMetadata() {
+        return getContainer().getValue(CACHE_PRECONDITION_METADATA, Boolean.class);
+    }
+
+    public GlobalConfiguration setCachePreconditionMetadata(Boolean cachePreconditionMetadata) {
+        getContainer().setValue(CACHE_PRECONDITION_METADATA, cachePreconditionMetadata);
+        return this;
+    }
+
+    /**
+     * Directory used by {@link liquibase.snapshot.SnapshotCache}, or null if snapshots are not stored.
+     */
+    public String getSnapshotCacheDirectory() {
+        return getContainer().getValue(SNAPSHOT_CACHE_DIRECTORY, String.class);
+    }
+
+    public GlobalConfiguration setSnapshotCacheDirectory(String snapshotCacheDirectory) {
+        getContainer().setValue(SNAPSHOT_CACHE_DIRECTORY, snapshotCacheDirectory);
+        return this;
+    }
+
+    public Boolean getSnapshotCatalogBulkSelect() {
+        return getContainer().getValue(SNAPSHOT_CATALOG_BULK_SELECT, Boolean.class);
+    }
+
+    public GlobalConfiguration setSnapshotCatalogBulkSelect(Boolean catalogBulkSelect) {
+        getContainer().setValue(SNAPSHOT_CATALOG_BULK_SELECT, catalogBulkSelect);
+        return this;
+    }
+
+    public Integer getDiffThreads() {
+        return getContainer().getValue(DIFF_THREADS, Integer.class);
+    }
+
+    public GlobalConfiguration setDiffThreads(Integer diffThreads) {
+        getContainer().setValue(DIFF_THREADS, diffThreads);
+        return this;
+    }
+
+    public Integer getDiffDataFetchSize() {
+        return getContainer().getValue(DIFF_DATA_FETCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setDiffDataFetchSize(Integer diffDataFetchSize) {
+        getContainer().setValue(DIFF_DATA_FETCH_SIZE, diffDataFetchSize);
+        return this;
+    }
+
+    public Integer getDiffDataChangeSetSize() {
+        return getContainer().getValue(DIFF_DATA_CHANGESET_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setDiffDataChangeSetSize(Integer diffDataChangeSetSize) {
+        getContainer().setValue(DIFF_DATA_CHANGESET_SIZE, diffDataChangeSetSize);
+        return this;
+    }
+
+    public Boolean getDiffDataRows() {
+        return getContainer().getValue(DIFF_DATA_ROWS, Boolean.class);
+    }
+
+    public GlobalConfiguration setDiffDataRows(Boolean diffDataRows) {
+        getContainer().setValue(DIFF_DATA_ROWS, diffDataRows);
+        return this;
+    }
+
+    public Integer getChangeLogHistoryBatchSize() {
+        return getContainer().getValue(CHANGELOG_HISTORY_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setChangeLogHistoryBatchSize(Integer changeLogHistoryBatchSize) {
+        getContainer().setValue(CHANGELOG_HISTORY_BATCH_SIZE, changeLogHistoryBatchSize);
+        return this;
+    }
+
+    public Boolean getDatabaseChangeLogLockUseAdvisoryLock() {
+        return getContainer().getValue(CHANGELOGLOCK_USE_ADVISORY_LOCK, Boolean.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogLockUseAdvisoryLock(Boolean useAdvisoryLock) {
+        getContainer().setValue(CHANGELOGLOCK_USE_ADVISORY_LOCK, useAdvisoryLock);
+        return this;
+    }
+
+    /**
+     * Time (in seconds) after which a changelog lock that was not refreshed may be taken over, or null if locks are never taken over.
+     */
+    public Long getDatabaseChangeLogLockHeartbeatTtl() {
+        return getContainer().getValue(CHANGELOGLOCK_HEARTBEAT_TTL, Long.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogLockHeartbeatTtl(Long seconds) {
+        getContainer().setValue(CHANGELOGLOCK_HEARTBEAT_TTL, seconds);
+        return this;
+    }
 }
@@ -21,6 +21,7 @@ import liquibase.lockservice.LockServiceFactory;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
+import liquibase.snapshot.MetadataCache;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sql.Sql;
@@ -1194,6 +1195,7 @@ public abstract class AbstractJdbcDatabase implements Database {
             connection.close();
         }
         ExecutorService.getInstance().clearExecutor(this);
+        MetadataCache.reset(this);
     }
 
     @Override
@@ -16,6 +16,8 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.sql.DataSource;
+
 /**
  * A ConnectionWrapper implementation which delegates completely to an
  * underlying java.sql.connection.
@@ -25,6 +27,14 @@ import java.util.Properties;
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
 
+    /**
+     * Where the connection came from, so {@link #openAdditionalConnection()} can open another one to the same database.
+     */
+    private DataSource dataSource;
+    private String openedUrl;
+    private Driver openedDriver;
+    private Properties openedDriverProperties;
+
     // Allow instantiation via reflection, without an already constructed java.sql.Connection
     public JdbcConnection() {
     }
@@ -33,6 +43,33 @@ public class JdbcConnection implements DatabaseConnection {
         this.con = connection;
     }
 
+    /**
+     * @param dataSource the DataSource the connection was taken from, used by {@link #openAdditionalConnection()}
+     */
+    public JdbcConnection(java.sql.Connection connection, DataSource dataSource) {
+        this.con = connection;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Opens another connection to the same database, from the DataSource this connection was taken from or with the url, driver and
+     * properties {@link #openConnection(String, String, String, String, String, String, String, ResourceAccessor)} used.
+     * Returns null if neither is known, such as for a connection created from an existing java.sql.Connection only. The caller closes it.
+     */
+    public Connection openAdditionalConnection() throws DatabaseException {
+        try {
+            if (dataSource != null) {
+                return dataSource.getConnection();
+            }
+            if (openedDriver != null) {
+                return openedDriver.connect(openedUrl, openedDriverProperties);
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
 
     @Override
     public void attached(Database database) {
@@ -511,6 +548,9 @@ public class JdbcConnection implements DatabaseConnection {
             }
 
             this.con = connection;
+            this.openedUrl = url;
+            this.openedDriver = driverObject;
+            this.openedDriverProperties = driverProperties;
         } catch (Exception e) {
             throw new DatabaseException(e);
         }
@@ -1,6 +1,8 @@
 package liquibase.diff.compare;
 
 import liquibase.CatalogAndSchema;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.diff.ObjectDifferences;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -20,6 +22,7 @@ public class CompareControl {
     private CompareControl.SchemaComparison[] schemaComparisons;
     private Set<Class<? extends DatabaseObject>> compareTypes = new HashSet<Class<? extends DatabaseObject>>();
     private Map<Class<? extends DatabaseObject>, Set<String>> suppressedFields = new HashMap<Class<? extends DatabaseObject>, Set<String>>();
+    private Integer parallelThreads;
 
     public static CompareControl STANDARD = new CompareControl();
 
@@ -102,6 +105,21 @@ public class CompareControl {
         return suppressedFields.get(type).contains(field);
     }
 
+    /**
+     * Number of threads to compare the objects of each type with. Returns the {@link GlobalConfiguration#DIFF_THREADS} setting if not set.
+     */
+    public int getParallelThreads() {
+        if (parallelThreads == null) {
+            return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffThreads();
+        }
+        return parallelThreads;
+    }
+
+    public CompareControl setParallelThreads(Integer parallelThreads) {
+        this.parallelThreads = parallelThreads;
+        return this;
+    }
+
     public SchemaComparison[] getSchemaComparisons() {
         return schemaComparisons;
     }
@@ -7,10 +7,17 @@ import liquibase.structure.DatabaseObject;
 import java.util.*;
 
 public class DatabaseObjectComparatorChain {
-    private List<DatabaseObjectComparator> comparators;
+    private DatabaseObjectComparator[] comparators;
     private int nextIndex = 0; //this class is used often enough that the overhead of an iterator adds up to a significant percentage of the execution time
 
     public DatabaseObjectComparatorChain(List<DatabaseObjectComparator> comparators) {
+        this.comparators = comparators == null ? null : comparators.toArray(new DatabaseObjectComparator[comparators.size()]);
+    }
+
+    /**
+     * Creates a chain over the given comparators. The array is shared, not copied, and must not be changed.
+     */
+    DatabaseObjectComparatorChain(DatabaseObjectComparator[] comparators) {
         this.comparators = comparators;
     }
 
@@ -62,11 +69,11 @@ public class DatabaseObjectComparatorChain {
             return null;
         }
 
-        if (nextIndex >= comparators.size()) {
+        if (nextIndex >= comparators.length) {
             return null;
         }
 
-        DatabaseObjectComparator next = comparators.get(nextIndex);
+        DatabaseObjectComparator next = comparators[nextIndex];
         nextIndex++;
         return next;
     }
@@ -11,15 +11,23 @@ import liquibase.structure.core.Schema;
 import liquibase.util.StringUtils;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Finds the {@link DatabaseObjectComparator}s for each object type and database and runs them as a {@link DatabaseObjectComparatorChain}.
+ * <p>
+ * The sorted comparators are resolved once per object type and database and cached as arrays, so a chain only costs the allocation of its cursor.
+ * The factory is safe to use from several threads at once.
+ */
 public class DatabaseObjectComparatorFactory {
 
-    private static DatabaseObjectComparatorFactory instance;
+    private static volatile DatabaseObjectComparatorFactory instance;
 
-    private List<DatabaseObjectComparator> comparators = new ArrayList<DatabaseObjectComparator>();
+    private List<DatabaseObjectComparator> comparators = new CopyOnWriteArrayList<DatabaseObjectComparator>();
 
-    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<String, List<DatabaseObjectComparator>>();
-    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<String, DatabaseObjectComparatorChain>();
+    private ConcurrentMap<Class<? extends DatabaseObject>, ConcurrentMap<String, DatabaseObjectComparator[]>> validComparatorsByClassAndDatabase = new ConcurrentHashMap<Class<? extends DatabaseObject>, ConcurrentMap<String, DatabaseObjectComparator[]>>();
 
     private DatabaseObjectComparatorFactory() {
         Class[] classes;
@@ -40,23 +48,31 @@ public class DatabaseObjectComparatorFactory {
      * Return singleton DatabaseObjectComparatorFactory
      */
     public static DatabaseObjectComparatorFactory getInstance() {
-        if (instance == null) {
-            instance = new DatabaseObjectComparatorFactory();
+        DatabaseObjectComparatorFactory factory = instance;
+        if (factory == null) {
+            synchronized (DatabaseObjectComparatorFactory.class) {
+                if (instance == null) {
+                    instance = new DatabaseObjectComparatorFactory();
+                }
+                factory = instance;
+            }
         }
-        return instance;
+        return factory;
     }
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new DatabaseObjectComparatorFactory();
     }
 
 
     public void register(DatabaseObjectComparator generator) {
         comparators.add(generator);
+        validComparatorsByClassAndDatabase.clear();
     }
 
     public void unregister(DatabaseObjectComparator generator) {
         comparators.remove(generator);
+        validComparatorsByClassAndDatabase.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -71,32 +87,55 @@ public class DatabaseObjectComparatorFactory {
     }
 
     protected List<DatabaseObjectComparator> getComparators(Class<? extends DatabaseObject> comparatorClass, Database database) {
-        String key = comparatorClass.getName()+":"+database.getShortName();
-        if (validComparatorsByClassAndDatabase.containsKey(key)) {
-            return validComparatorsByClassAndDatabase.get(key);
+        return Collections.unmodifiableList(Arrays.asList(getComparatorArray(comparatorClass, database)));
+    }
+
+    private DatabaseObjectComparator[] getComparatorArray(Class<? extends DatabaseObject> comparatorClass, Database database) {
+        ConcurrentMap<String, DatabaseObjectComparator[]> comparatorsByDatabase = validComparatorsByClassAndDatabase.get(comparatorClass);
+        if (comparatorsByDatabase == null) {
+            comparatorsByDatabase = new ConcurrentHashMap<String, DatabaseObjectComparator[]>();
+            ConcurrentMap<String, DatabaseObjectComparator[]> existing = validComparatorsByClassAndDatabase.putIfAbsent(comparatorClass, comparatorsByDatabase);
+            if (existing != null) {
+                comparatorsByDatabase = existing;
+            }
+        }
+
+        String databaseName = database.getShortName();
+        DatabaseObjectComparator[] validComparators = comparatorsByDatabase.get(databaseName);
+        if (validComparators != null) {
+            return validComparators;
         }
 
-        List<DatabaseObjectComparator> validComparators = new ArrayList<DatabaseObjectComparator>();
+        List<DatabaseObjectComparator> validComparatorList = new ArrayList<DatabaseObjectComparator>();
 
         for (DatabaseObjectComparator comparator : comparators) {
             if (comparator.getPriority(comparatorClass, database) > 0) {
-                validComparators.add(comparator);
+                validComparatorList.add(comparator);
             }
         }
 
-        Collections.sort(validComparators, new DatabaseObjectComparatorComparator(comparatorClass, database));
+        Collections.sort(validComparatorList, new DatabaseObjectComparatorComparator(comparatorClass, database));
 
-        validComparatorsByClassAndDatabase.put(key, validComparators);
+        validComparators = validComparatorList.toArray(new DatabaseObjectComparator[validComparatorList.size()]);
+        comparatorsByDatabase.put(databaseName, validComparators);
 
         return validComparators;
     }
 
 
-    public static void resetAll() {
+    public static synchronized void resetAll() {
         instance = null;
     }
 
     public boolean isSameObject(DatabaseObject object1, DatabaseObject object2, Database accordingTo) {
+        return isSameObject(object1, null, object2, null, accordingTo);
+    }
+
+    /**
+     * Same as {@link #isSameObject(DatabaseObject, DatabaseObject, Database)} for callers that already computed the {@link #hash(DatabaseObject, Database)} of the objects,
+     * which is the most expensive part of comparing many objects. Hashes passed as null are computed.
+     */
+    public boolean isSameObject(DatabaseObject object1, String[] hash1, DatabaseObject object2, String[] hash2, Database accordingTo) {
         if (object1 == null && object2 == null) {
             return true;
         }
@@ -130,10 +169,12 @@ public class DatabaseObjectComparatorFactory {
 
         boolean aHashMatches = false;
 
-        List<String> hash1 = Arrays.asList(hash(object1, accordingTo));
-        List<String> hash2 = Arrays.asList(hash(object2, accordingTo));
+        if (hash1 == null) {
+            hash1 = hash(object1, accordingTo);
+        }
+        List<String> hash2List = Arrays.asList(hash2 == null ? hash(object2, accordingTo) : hash2);
         for (String hash : hash1) {
-            if (hash2.contains(hash)) {
+            if (hash2List.contains(hash)) {
                 aHashMatches = true;
                 break;
             }
@@ -173,21 +214,12 @@ public class DatabaseObjectComparatorFactory {
     }
 
     private DatabaseObjectComparatorChain createComparatorChain(Class<? extends DatabaseObject> databaseObjectType, Database database) {
-        String key = databaseObjectType.getName()+":"+database.getShortName();
-
-        if (comparatorChainsByClassAndDatabase.containsKey(key)) {
-            return comparatorChainsByClassAndDatabase.get(key).copy();
-        }
-
-        List<DatabaseObjectComparator> comparators = DatabaseObjectComparatorFactory.getInstance().getComparators(databaseObjectType, database);
-        if (comparators == null || comparators.size() == 0) {
+        DatabaseObjectComparator[] comparators = getComparatorArray(databaseObjectType, database);
+        if (comparators.length == 0) {
             return null;
         }
 
-        DatabaseObjectComparatorChain chain = new DatabaseObjectComparatorChain(comparators);
-        comparatorChainsByClassAndDatabase.put(key, chain);
-        //noinspection unchecked
-        return chain;
+        return new DatabaseObjectComparatorChain(comparators);
     }
 
 }
@@ -73,7 +73,7 @@ public class UniqueConstraintComparator implements DatabaseObjectComparator {
                 }
 
                 for (int i = 0; i < otherConstraintSize; i++) {
-                    if (!DatabaseObjectComparatorFactory.getInstance().isSameObject(thisConstraint.getColumns().get(i).setRelation(thisConstraint.getTable()), otherConstraint.getColumns().get(i).setRelation(otherConstraint.getTable()), accordingTo)) {
+                    if (!DatabaseObjectComparatorFactory.getInstance().isSameObject(getColumn(thisConstraint, i), getColumn(otherConstraint, i), accordingTo)) {
                         return false;
                     }
                 }
@@ -97,6 +97,21 @@ public class UniqueConstraintComparator implements DatabaseObjectComparator {
 
     }
 
+    /**
+     * Returns the column at the given index with the table of the constraint as its relation.
+     * The columns are shared with comparisons running on other threads, so a copy is returned instead of changing the relation of the column.
+     */
+    protected Column getColumn(UniqueConstraint constraint, int index) {
+        Column column = constraint.getColumns().get(index);
+        if (column.getRelation() == constraint.getTable()) {
+            return column;
+        }
+        return new Column()
+                .setName(column.getName())
+                .setComputed(column.getComputed())
+                .setDescending(column.getDescending())
+                .setRelation(constraint.getTable());
+    }
 
     @Override
     public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, CompareControl compareControl, DatabaseObjectComparatorChain chain, Set<String> exclude) {
@@ -13,10 +13,17 @@ import liquibase.snapshot.JdbcDatabaseSnapshot;
 import liquibase.structure.DatabaseObject;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StandardDiffGenerator implements DiffGenerator {
 
+    /**
+     * Minimum number of objects of one type to compare them on several threads.
+     */
+    public static final int PARALLEL_THRESHOLD = 1000;
+
     @Override
     public int getPriority() {
         return PRIORITY_DEFAULT;
@@ -68,39 +75,178 @@ public class StandardDiffGenerator implements DiffGenerator {
 
     }
 
+    /**
+     * Compares the objects of one type with a hash join: the comparison objects are indexed once by their {@link DatabaseObjectComparatorFactory#hash(DatabaseObject, Database)}
+     * values, and each reference object is matched against the objects sharing one of its hashes, smallest buckets first.
+     * Missing and changed objects come out of that pass. Only comparison objects that were not matched by any reference object are looked up in the reference snapshot
+     * to decide if they are unexpected.
+     * <p>
+     * If {@link CompareControl#getParallelThreads()} is more than one and there are at least {@link #PARALLEL_THRESHOLD} reference objects, they are matched and compared
+     * in chunks on that many threads. The results are added to the DiffResult in snapshot order either way.
+     */
     protected <T extends DatabaseObject> void compareObjectType(Class<T> type, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) {
 
         CompareControl.SchemaComparison[] schemaComparisons = diffResult.getCompareControl().getSchemaComparisons();
-        if (schemaComparisons != null) {
-            for (CompareControl.SchemaComparison schemaComparison : schemaComparisons) {
-                for (T referenceObject : referenceSnapshot.get(type)) {
-                    //                if (referenceObject instanceof Table && referenceSnapshot.getDatabase().isLiquibaseTable(referenceSchema, referenceObject.getName())) {
-                    //                    continue;
-                    //                }
-                    T comparisonObject = comparisonSnapshot.get(referenceObject);
-                    if (comparisonObject == null) {
-                        diffResult.addMissingObject(referenceObject);
-                    } else {
-                        ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonSnapshot.getDatabase(), diffResult.getCompareControl());
-                        if (differences.hasDifferences()) {
-                            diffResult.addChangedObject(referenceObject, differences);
-                        }
-                    }
+        if (schemaComparisons == null || schemaComparisons.length == 0) {
+            return;
+        }
+
+        DatabaseObjectComparatorFactory comparatorFactory = DatabaseObjectComparatorFactory.getInstance();
+        Database comparisonDatabase = comparisonSnapshot.getDatabase();
+
+        Set<T> comparisonObjects = comparisonSnapshot.get(type);
+        Map<T, String[]> comparisonHashes = new IdentityHashMap<T, String[]>(comparisonObjects.size());
+        Map<String, List<T>> comparisonObjectsByHash = new HashMap<String, List<T>>();
+        for (T comparisonObject : comparisonObjects) {
+            String[] hashes = comparatorFactory.hash(comparisonObject, comparisonDatabase);
+            comparisonHashes.put(comparisonObject, hashes);
+            for (String hash : hashes) {
+                List<T> objects = comparisonObjectsByHash.get(hash);
+                if (objects == null) {
+                    objects = new ArrayList<T>(1);
+                    comparisonObjectsByHash.put(hash, objects);
+                }
+                objects.add(comparisonObject);
+            }
+        }
+
+        List<T> referenceObjects = new ArrayList<T>(referenceSnapshot.get(type));
+        List<T> matches = new ArrayList<T>(Collections.<T>nCopies(referenceObjects.size(), null));
+        List<ObjectDifferences> differences = new ArrayList<ObjectDifferences>(Collections.<ObjectDifferences>nCopies(referenceObjects.size(), null));
+
+        int threads = diffResult.getCompareControl().getParallelThreads();
+        if (threads > 1 && referenceObjects.size() >= PARALLEL_THRESHOLD) {
+            matchObjectsInParallel(threads, referenceObjects, comparisonObjectsByHash, comparisonHashes, comparisonDatabase, diffResult.getCompareControl(), matches, differences);
+        } else {
+            matchObjects(0, referenceObjects.size(), referenceObjects, comparisonObjectsByHash, comparisonHashes, comparisonDatabase, diffResult.getCompareControl(), matches, differences);
+        }
+
+        Set<T> matchedComparisonObjects = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+        for (int i = 0; i < referenceObjects.size(); i++) {
+            //                if (referenceObject instanceof Table && referenceSnapshot.getDatabase().isLiquibaseTable(referenceSchema, referenceObject.getName())) {
+            //                    continue;
+            //                }
+            T comparisonObject = matches.get(i);
+            if (comparisonObject == null) {
+                diffResult.addMissingObject(referenceObjects.get(i));
+            } else {
+                matchedComparisonObjects.add(comparisonObject);
+                if (differences.get(i).hasDifferences()) {
+                    diffResult.addChangedObject(referenceObjects.get(i), differences.get(i));
                 }
-                //
-                for (T comparisonObject : comparisonSnapshot.get(type)) {
-                    //                if (targetObject instanceof Table && comparisonSnapshot.getDatabase().isLiquibaseTable(comparisonSchema, targetObject.getName())) {
-                    //                    continue;
-                    //                }
-                    if (referenceSnapshot.get(comparisonObject) == null) {
-                        diffResult.addUnexpectedObject(comparisonObject);
+            }
+        }
+
+        for (T comparisonObject : comparisonObjects) {
+            //                if (targetObject instanceof Table && comparisonSnapshot.getDatabase().isLiquibaseTable(comparisonSchema, targetObject.getName())) {
+            //                    continue;
+            //                }
+            if (!matchedComparisonObjects.contains(comparisonObject) && referenceSnapshot.get(comparisonObject) == null) {
+                diffResult.addUnexpectedObject(comparisonObject);
+            }
+        }
+
+        //todo: add logic for when container is missing or unexpected also
+    }
+
+    /**
+     * Finds the comparison object and the differences for the reference objects from index start to index end. Each index of matches and differences
+     * is only written by the call covering it, so chunks can be matched concurrently.
+     */
+    private <T extends DatabaseObject> void matchObjects(int start, int end, List<T> referenceObjects, Map<String, List<T>> comparisonObjectsByHash, Map<T, String[]> comparisonHashes,
+                                                         Database comparisonDatabase, CompareControl compareControl, List<T> matches, List<ObjectDifferences> differences) {
+        DatabaseObjectComparatorFactory comparatorFactory = DatabaseObjectComparatorFactory.getInstance();
+        for (int i = start; i < end; i++) {
+            T referenceObject = referenceObjects.get(i);
+            T comparisonObject = findSameObject(referenceObject, comparisonObjectsByHash, comparisonHashes, comparisonDatabase);
+            if (comparisonObject != null) {
+                matches.set(i, comparisonObject);
+                differences.set(i, comparatorFactory.findDifferences(referenceObject, comparisonObject, comparisonDatabase, compareControl));
+            }
+        }
+    }
+
+    private <T extends DatabaseObject> void matchObjectsInParallel(int threads, final List<T> referenceObjects, final Map<String, List<T>> comparisonObjectsByHash, final Map<T, String[]> comparisonHashes,
+                                                                   final Database comparisonDatabase, final CompareControl compareControl, final List<T> matches, final List<ObjectDifferences> differences) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-diff-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            int chunkSize = Math.max(PARALLEL_THRESHOLD / 4, referenceObjects.size() / (threads * 4) + 1);
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int start = 0; start < referenceObjects.size(); start += chunkSize) {
+                final int chunkStart = start;
+                final int chunkEnd = Math.min(start + chunkSize, referenceObjects.size());
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        matchObjects(chunkStart, chunkEnd, referenceObjects, comparisonObjectsByHash, comparisonHashes, comparisonDatabase, compareControl, matches, differences);
+                        return null;
                     }
-                    //            }
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new UnexpectedLiquibaseException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T extends DatabaseObject> T findSameObject(T example, Map<String, List<T>> objectsByHash, Map<T, String[]> hashes, Database accordingTo) {
+        DatabaseObjectComparatorFactory comparatorFactory = DatabaseObjectComparatorFactory.getInstance();
+        String[] exampleHash = comparatorFactory.hash(example, accordingTo);
+
+        List<List<T>> candidateLists = new ArrayList<List<T>>();
+        for (String hash : exampleHash) {
+            List<T> candidates = objectsByHash.get(hash);
+            if (candidates != null && !containsSameInstance(candidateLists, candidates)) {
+                candidateLists.add(candidates);
+            }
+        }
+        Collections.sort(candidateLists, new Comparator<List<T>>() {
+            @Override
+            public int compare(List<T> o1, List<T> o2) {
+                return Integer.valueOf(o1.size()).compareTo(o2.size());
+            }
+        });
+
+        for (List<T> candidates : candidateLists) {
+            for (T candidate : candidates) {
+                if (comparatorFactory.isSameObject(candidate, hashes.get(candidate), example, exampleHash, accordingTo)) {
+                    return candidate;
                 }
             }
+        }
+        return null;
+    }
 
-            //todo: add logic for when container is missing or unexpected also
+    private boolean containsSameInstance(List<?> list, Object object) {
+        for (Object item : list) {
+            if (item == object) {
+                return true;
+            }
         }
+        return false;
+    }
 
 //    /**
 //     * Removes duplicate Indexes from the DiffResult object.
@@ -188,5 +334,4 @@ public class StandardDiffGenerator implements DiffGenerator {
 //
 //        uniqueConstraints.removeAll( constraintsToRemove );
 //    }
-    }
 }
@@ -3,6 +3,8 @@ package liquibase.diff.output;
 import liquibase.CatalogAndSchema;
 import liquibase.ContextExpression;
 import liquibase.Labels;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.InternalDatabase;
 import liquibase.database.ObjectQuotingStrategy;
@@ -34,6 +36,9 @@ public class DiffOutputControl {
 
     private ObjectChangeFilter objectChangeFilter;
 
+    private Integer dataFetchSize;
+    private Integer dataChangeSetSize;
+
     public DiffOutputControl() {
         includeSchema = true;
         includeCatalog = true;
@@ -169,6 +174,36 @@ public class DiffOutputControl {
         return this;
     }
 
+    /**
+     * JDBC fetch size for reading table data. Returns the {@link GlobalConfiguration#DIFF_DATA_FETCH_SIZE} setting if not set.
+     */
+    public int getDataFetchSize() {
+        if (dataFetchSize == null) {
+            return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffDataFetchSize();
+        }
+        return dataFetchSize;
+    }
+
+    public DiffOutputControl setDataFetchSize(Integer dataFetchSize) {
+        this.dataFetchSize = dataFetchSize;
+        return this;
+    }
+
+    /**
+     * Number of rows per changeSet of insert changes, 0 for one changeSet per table. Returns the {@link GlobalConfiguration#DIFF_DATA_CHANGESET_SIZE} setting if not set.
+     */
+    public int getDataChangeSetSize() {
+        if (dataChangeSetSize == null) {
+            return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffDataChangeSetSize();
+        }
+        return dataChangeSetSize;
+    }
+
+    public DiffOutputControl setDataChangeSetSize(Integer dataChangeSetSize) {
+        this.dataChangeSetSize = dataChangeSetSize;
+        return this;
+    }
+
     private static class DatabaseForHash extends H2Database implements InternalDatabase {
         @Override
         public boolean isCaseSensitive() {
@@ -7,6 +7,7 @@ import liquibase.diff.output.DiffOutputControl;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Column;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.UUID;
@@ -55,6 +56,46 @@ public class ChangeGeneratorChain {
         return changes;
     }
 
+    /**
+     * Like {@link #fixMissing(DatabaseObject, DiffOutputControl, Database, Database)}, but lets a {@link StreamingMissingObjectChangeGenerator} generate the changes in chunks.
+     * The changes of other generators are returned as a single chunk.
+     */
+    public Iterator<Change[]> fixMissingInChunks(DatabaseObject missingObject, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
+        if (missingObject == null) {
+            return null;
+        }
+
+        if (control.getObjectChangeFilter() != null && !control.getObjectChangeFilter().includeMissing(missingObject, referenceDatabase, comparisionDatabase)) {
+            return null;
+        }
+
+        if (changeGenerators == null) {
+            return null;
+        }
+
+        if (!changeGenerators.hasNext()) {
+            return null;
+        }
+
+        if (control.alreadyHandledMissing(missingObject, comparisionDatabase)) {
+            return null;
+        }
+
+        MissingObjectChangeGenerator generator = (MissingObjectChangeGenerator) changeGenerators.next();
+        if (generator instanceof StreamingMissingObjectChangeGenerator) {
+            return ((StreamingMissingObjectChangeGenerator) generator).fixMissingInChunks(missingObject, control, referenceDatabase, comparisionDatabase, this);
+        }
+
+        Change[] changes = generator.fixMissing(missingObject, control, referenceDatabase, comparisionDatabase, this);
+        if (changes == null) {
+            return null;
+        }
+        if (changes.length == 0) {
+            return null;
+        }
+        return Collections.singletonList(changes).iterator();
+    }
+
     public Change[] fixUnexpected(DatabaseObject unexpectedObject, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
         if (unexpectedObject == null) {
             return null;
@@ -124,4 +165,44 @@ public class ChangeGeneratorChain {
         }
         return changes;
     }
+
+    /**
+     * Like {@link #fixChanged(DatabaseObject, ObjectDifferences, DiffOutputControl, Database, Database)}, but lets a {@link StreamingChangedObjectChangeGenerator} generate the changes in chunks.
+     * The changes of other generators are returned as a single chunk.
+     */
+    public Iterator<Change[]> fixChangedInChunks(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
+        if (changedObject == null) {
+            return null;
+        }
+
+        if (control.getObjectChangeFilter() != null && !control.getObjectChangeFilter().includeChanged(changedObject, differences, referenceDatabase, comparisionDatabase)) {
+            return null;
+        }
+
+        if (changeGenerators == null) {
+            return null;
+        }
+
+        if (!changeGenerators.hasNext()) {
+            return null;
+        }
+
+        if (control.alreadyHandledChanged(changedObject, comparisionDatabase)) {
+            return null;
+        }
+
+        ChangedObjectChangeGenerator generator = (ChangedObjectChangeGenerator) changeGenerators.next();
+        if (generator instanceof StreamingChangedObjectChangeGenerator) {
+            return ((StreamingChangedObjectChangeGenerator) generator).fixChangedInChunks(changedObject, differences, control, referenceDatabase, comparisionDatabase, this);
+        }
+
+        Change[] changes = generator.fixChanged(changedObject, differences, control, referenceDatabase, comparisionDatabase, this);
+        if (changes == null) {
+            return null;
+        }
+        if (changes.length == 0) {
+            return null;
+        }
+        return Collections.singletonList(changes).iterator();
+    }
 }
@@ -99,6 +99,18 @@ public class ChangeGeneratorFactory {
         return chain.fixMissing(missingObject, control, referenceDatabase, comparisionDatabase);
     }
 
+    public Iterator<Change[]> fixMissingInChunks(DatabaseObject missingObject, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
+        if (!control.shouldOutput(missingObject, comparisionDatabase)) {
+            return null;
+        }
+
+        ChangeGeneratorChain chain = createGeneratorChain(MissingObjectChangeGenerator.class, missingObject.getClass(), referenceDatabase);
+        if (chain == null) {
+            return null;
+        }
+        return chain.fixMissingInChunks(missingObject, control, referenceDatabase, comparisionDatabase);
+    }
+
     public Change[] fixUnexpected(DatabaseObject unexpectedObject, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
         if (!control.shouldOutput(unexpectedObject, comparisionDatabase)) {
             return null;
@@ -122,6 +134,18 @@ public class ChangeGeneratorFactory {
         return chain.fixChanged(changedObject, differences, control, referenceDatabase, comparisionDatabase);
     }
 
+    public Iterator<Change[]> fixChangedInChunks(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase) {
+        if (!control.shouldOutput(changedObject, comparisionDatabase)) {
+            return null;
+        }
+
+        ChangeGeneratorChain chain = createGeneratorChain(ChangedObjectChangeGenerator.class, changedObject.getClass(), referenceDatabase);
+        if (chain == null) {
+            return null;
+        }
+        return chain.fixChangedInChunks(changedObject, differences, control, referenceDatabase, comparisionDatabase);
+    }
+
     public Set<Class<? extends DatabaseObject>> runAfterTypes(Class<? extends DatabaseObject> objectType, Database database, Class<? extends ChangeGenerator> changeGeneratorType) {
         Set<Class<? extends DatabaseObject>> returnTypes = new HashSet<Class<? extends DatabaseObject>>();
 
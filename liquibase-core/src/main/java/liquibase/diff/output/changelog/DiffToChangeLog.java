@@ -14,6 +14,7 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.ChangeLogSerializerFactory;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.serializer.core.xml.XMLChangeLogSerializer;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.DatabaseObjectComparator;
@@ -126,59 +127,36 @@ public class DiffToChangeLog {
      */
     public void print(PrintStream out, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
 
-        List<ChangeSet> changeSets = generateChangeSets();
-
-        changeLogSerializer.write(changeSets, out);
+        if (changeLogSerializer instanceof StreamingChangeLogSerializer) {
+            ((StreamingChangeLogSerializer) changeLogSerializer).write(generateChangeSetIterator(), out);
+        } else {
+            changeLogSerializer.write(generateChangeSets(), out);
+        }
 
         out.flush();
     }
 
     public List<ChangeSet> generateChangeSets() {
-        final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
-        DatabaseObjectComparator comparator = new DatabaseObjectComparator();
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        Iterator<ChangeSet> iterator = generateChangeSetIterator();
+        while (iterator.hasNext()) {
+            changeSets.add(iterator.next());
+        }
+        return changeSets;
+    }
 
+    /**
+     * Returns the changeSets {@link #generateChangeSets()} returns, but only generates each one when the iterator reaches it.
+     * Changes that a {@link StreamingMissingObjectChangeGenerator} or {@link StreamingChangedObjectChangeGenerator} generates in chunks are read
+     * one chunk at a time, so writing the changeSets while iterating keeps large table data out of memory.
+     */
+    public Iterator<ChangeSet> generateChangeSetIterator() {
         String created = null;
         if (LiquibaseConfiguration.getInstance().getProperty(GlobalConfiguration.class, GlobalConfiguration.GENERATE_CHANGESET_CREATED_VALUES).getValue(Boolean.class)) {
             created = new SimpleDateFormat("yyyy-MM-dd HH:mmZ").format(new Date());
         }
 
-        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
-        List<Class<? extends DatabaseObject>> types = getOrderedOutputTypes(MissingObjectChangeGenerator.class);
-        for (Class<? extends DatabaseObject> type : types) {
-            ObjectQuotingStrategy quotingStrategy = diffOutputControl.getObjectQuotingStrategy();
-            for (DatabaseObject object : diffResult.getMissingObjects(type, comparator)) {
-                if (object == null) {
-                    continue;
-                }
-                if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(object)) {
-                    Change[] changes = changeGeneratorFactory.fixMissing(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
-                }
-            }
-        }
-
-        types = getOrderedOutputTypes(UnexpectedObjectChangeGenerator.class);
-        for (Class<? extends DatabaseObject> type : types) {
-            ObjectQuotingStrategy quotingStrategy = diffOutputControl.getObjectQuotingStrategy();
-            for (DatabaseObject object : diffResult.getUnexpectedObjects(type, comparator)) {
-                if (!diffResult.getComparisonSnapshot().getDatabase().isLiquibaseObject(object) && !diffResult.getComparisonSnapshot().getDatabase().isSystemObject(object)) {
-                    Change[] changes = changeGeneratorFactory.fixUnexpected(object, diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
-                }
-            }
-        }
-
-        types = getOrderedOutputTypes(ChangedObjectChangeGenerator.class);
-        for (Class<? extends DatabaseObject> type : types) {
-            ObjectQuotingStrategy quotingStrategy = diffOutputControl.getObjectQuotingStrategy();
-            for (Map.Entry<? extends DatabaseObject, ObjectDifferences> entry : diffResult.getChangedObjects(type, comparator).entrySet()) {
-                if (!diffResult.getReferenceSnapshot().getDatabase().isLiquibaseObject(entry.getKey()) && !diffResult.getReferenceSnapshot().getDatabase().isSystemObject(entry.getKey())) {
-                    Change[] changes = changeGeneratorFactory.fixChanged(entry.getKey(), entry.getValue(), diffOutputControl, diffResult.getReferenceSnapshot().getDatabase(), diffResult.getComparisonSnapshot().getDatabase());
-                    addToChangeSets(changes, changeSets, quotingStrategy, created);
-                }
-            }
-        }
-        return changeSets;
+        return new ChangeSetIterator(created);
     }
 
     protected List<Class<? extends DatabaseObject>> getOrderedOutputTypes(Class<? extends ChangeGenerator> generatorType) {
@@ -202,23 +180,24 @@ public class DiffToChangeLog {
         return types;
     }
 
-    private void addToChangeSets(Change[] changes, List<ChangeSet> changeSets, ObjectQuotingStrategy quotingStrategy, String created) {
-        if (changes != null) {
-            String changeSetContext = this.changeSetContext;
-            if (diffOutputControl.getContext() != null) {
-                changeSetContext = diffOutputControl.getContext().toString().replaceFirst("^\\(", "").replaceFirst("\\)$", "");
-            }
-            ChangeSet changeSet = new ChangeSet(generateId(), getChangeSetAuthor(), false, false, null, changeSetContext,
-                    null, false, quotingStrategy, null);
-            changeSet.setCreated(created);
-            if (diffOutputControl.getLabels() != null) {
-                changeSet.setLabels(diffOutputControl.getLabels());
-            }
-            for (Change change : changes) {
-                changeSet.addChange(change);
-            }
-            changeSets.add(changeSet);
+    private ChangeSet createChangeSet(Change[] changes, ObjectQuotingStrategy quotingStrategy, String created) {
+        if (changes == null) {
+            return null;
+        }
+        String changeSetContext = this.changeSetContext;
+        if (diffOutputControl.getContext() != null) {
+            changeSetContext = diffOutputControl.getContext().toString().replaceFirst("^\\(", "").replaceFirst("\\)$", "");
         }
+        ChangeSet changeSet = new ChangeSet(generateId(), getChangeSetAuthor(), false, false, null, changeSetContext,
+                null, false, quotingStrategy, null);
+        changeSet.setCreated(created);
+        if (diffOutputControl.getLabels() != null) {
+            changeSet.setLabels(diffOutputControl.getLabels());
+        }
+        for (Change change : changes) {
+            changeSet.addChange(change);
+        }
+        return changeSet;
     }
 
     protected String getChangeSetAuthor() {
@@ -253,6 +232,91 @@ public class DiffToChangeLog {
         return idRoot + "-" + changeNumber++;
     }
 
+    /**
+     * Generates the changeSets for the missing, then the unexpected, then the changed objects, one changeSet per call to next().
+     */
+    private class ChangeSetIterator implements Iterator<ChangeSet> {
+        private final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
+        private final String created;
+
+        private final Iterator<DatabaseObject> missingObjects;
+        private final Iterator<DatabaseObject> unexpectedObjects;
+        private final Iterator<Map.Entry<? extends DatabaseObject, ObjectDifferences>> changedObjects;
+
+        private Iterator<Change[]> missingChunks;
+        private Iterator<Change[]> changedChunks;
+        private ChangeSet nextChangeSet;
+
+        private ChangeSetIterator(String created) {
+            this.created = created;
+
+            DatabaseObjectComparator comparator = new DatabaseObjectComparator();
+            List<DatabaseObject> missing = new ArrayList<DatabaseObject>();
+            for (Class<? extends DatabaseObject> type : getOrderedOutputTypes(MissingObjectChangeGenerator.class)) {
+                missing.addAll(diffResult.getMissingObjects(type, comparator));
+            }
+            List<DatabaseObject> unexpected = new ArrayList<DatabaseObject>();
+            for (Class<? extends DatabaseObject> type : getOrderedOutputTypes(UnexpectedObjectChangeGenerator.class)) {
+                unexpected.addAll(diffResult.getUnexpectedObjects(type, comparator));
+            }
+            List<Map.Entry<? extends DatabaseObject, ObjectDifferences>> changed = new ArrayList<Map.Entry<? extends DatabaseObject, ObjectDifferences>>();
+            for (Class<? extends DatabaseObject> type : getOrderedOutputTypes(ChangedObjectChangeGenerator.class)) {
+                changed.addAll(diffResult.getChangedObjects(type, comparator).entrySet());
+            }
+
+            this.missingObjects = missing.iterator();
+            this.unexpectedObjects = unexpected.iterator();
+            this.changedObjects = changed.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            ObjectQuotingStrategy quotingStrategy = diffOutputControl.getObjectQuotingStrategy();
+            Database referenceDatabase = diffResult.getReferenceSnapshot().getDatabase();
+            Database comparisonDatabase = diffResult.getComparisonSnapshot().getDatabase();
+            while (nextChangeSet == null) {
+                if (missingChunks != null && missingChunks.hasNext()) {
+                    nextChangeSet = createChangeSet(missingChunks.next(), quotingStrategy, created);
+                } else if (changedChunks != null && changedChunks.hasNext()) {
+                    nextChangeSet = createChangeSet(changedChunks.next(), quotingStrategy, created);
+                } else if (missingObjects.hasNext()) {
+                    DatabaseObject object = missingObjects.next();
+                    if (object != null && !referenceDatabase.isLiquibaseObject(object) && !referenceDatabase.isSystemObject(object)) {
+                        missingChunks = changeGeneratorFactory.fixMissingInChunks(object, diffOutputControl, referenceDatabase, comparisonDatabase);
+                    }
+                } else if (unexpectedObjects.hasNext()) {
+                    DatabaseObject object = unexpectedObjects.next();
+                    if (!comparisonDatabase.isLiquibaseObject(object) && !comparisonDatabase.isSystemObject(object)) {
+                        nextChangeSet = createChangeSet(changeGeneratorFactory.fixUnexpected(object, diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created);
+                    }
+                } else if (changedObjects.hasNext()) {
+                    Map.Entry<? extends DatabaseObject, ObjectDifferences> entry = changedObjects.next();
+                    if (!referenceDatabase.isLiquibaseObject(entry.getKey()) && !referenceDatabase.isSystemObject(entry.getKey())) {
+                        changedChunks = changeGeneratorFactory.fixChangedInChunks(entry.getKey(), entry.getValue(), diffOutputControl, referenceDatabase, comparisonDatabase);
+                    }
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public ChangeSet next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ChangeSet changeSet = nextChangeSet;
+            nextChangeSet = null;
+            return changeSet;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private static class DependencyGraph {
 
         private Map<Class<? extends DatabaseObject>, Node> allNodes = new HashMap<Class<? extends DatabaseObject>, Node>();
@@ -0,0 +1,22 @@
+package liquibase.diff.output.changelog;
+
+import liquibase.change.Change;
+import liquibase.database.Database;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.structure.DatabaseObject;
+
+import java.util.Iterator;
+
+/**
+ * A {@link ChangedObjectChangeGenerator} that can generate its changes in chunks while they are written, for changed objects such as table data
+ * that may need too many changes to hold them all at once. Each chunk goes into its own changeSet.
+ */
+public interface StreamingChangedObjectChangeGenerator extends ChangedObjectChangeGenerator {
+
+    /**
+     * Returns the chunks of changes that fix the changed object, generating each chunk as the iterator reaches it, or null if there is nothing to fix.
+     * The iterator releases any resources it holds once it is exhausted.
+     */
+    public Iterator<Change[]> fixChangedInChunks(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain);
+}
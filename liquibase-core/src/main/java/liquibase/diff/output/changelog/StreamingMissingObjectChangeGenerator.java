@@ -0,0 +1,21 @@
+package liquibase.diff.output.changelog;
+
+import liquibase.change.Change;
+import liquibase.database.Database;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.structure.DatabaseObject;
+
+import java.util.Iterator;
+
+/**
+ * A {@link MissingObjectChangeGenerator} that can generate its changes in chunks while they are written, for missing objects such as table data
+ * that may be too large to hold as changes all at once. Each chunk goes into its own changeSet.
+ */
+public interface StreamingMissingObjectChangeGenerator extends MissingObjectChangeGenerator {
+
+    /**
+     * Returns the chunks of changes that fix the missing object, generating each chunk as the iterator reaches it, or null if there is nothing to fix.
+     * The iterator releases any resources it holds once it is exhausted.
+     */
+    public Iterator<Change[]> fixMissingInChunks(DatabaseObject missingObject, DiffOutputControl control, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain);
+}
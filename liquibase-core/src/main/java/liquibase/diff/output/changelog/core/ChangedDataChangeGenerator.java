@@ -0,0 +1,538 @@
+package liquibase.diff.output.changelog.core;
+
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.AbstractModifyDataChange;
+import liquibase.change.core.DeleteDataChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.UpdateDataChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.ChangeGeneratorChain;
+import liquibase.diff.output.changelog.StreamingChangedObjectChangeGenerator;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+import liquibase.util.DataRowUtil;
+import liquibase.util.JdbcUtils;
+import liquibase.util.StringUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Generates the insert, update and delete changes that make the rows of a table in the comparison database the same as in the reference database.
+ * Only tables whose {@link Data#getRowCount()} or {@link Data#getRowHash()} differ are read. Both tables are read ordered by the primary key
+ * of the reference table and merged row by row, and the changes are generated in chunks of {@link DiffOutputControl#getDataChangeSetSize()},
+ * so only one chunk of changes is in memory at a time when the changeSets are written as they are generated.
+ * <p>
+ * The merge needs both databases to return the rows in the order {@link DataRowUtil#compareKeys(Object[], Object[])} compares keys, which
+ * string keys under case-insensitive or locale specific collations do not. The key order is checked first, and tables whose rows come in
+ * another order are compared by key instead, which holds the rows of the comparison table in memory.
+ */
+public class ChangedDataChangeGenerator implements StreamingChangedObjectChangeGenerator {
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Data.class.isAssignableFrom(objectType)) {
+            return PRIORITY_DEFAULT;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runAfterTypes() {
+        return new Class[]{
+                Table.class
+        };
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runBeforeTypes() {
+        return new Class[]{
+                PrimaryKey.class, ForeignKey.class, Index.class
+        };
+    }
+
+    @Override
+    public Change[] fixChanged(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        Iterator<Change[]> chunks = fixChangedInChunks(changedObject, differences, control, referenceDatabase, comparisonDatabase, chain);
+        if (chunks == null) {
+            return null;
+        }
+
+        List<Change> changes = new ArrayList<Change>();
+        while (chunks.hasNext()) {
+            changes.addAll(Arrays.asList(chunks.next()));
+        }
+        return changes.toArray(new Change[changes.size()]);
+    }
+
+    @Override
+    public Iterator<Change[]> fixChangedInChunks(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        if (!differences.isDifferent("rowCount") && !differences.isDifferent("rowHash")) {
+            return null;
+        }
+        if (!(referenceDatabase.getConnection() instanceof JdbcConnection) || !(comparisonDatabase.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+
+        Table table = ((Data) changedObject).getTable();
+        if (referenceDatabase.isLiquibaseObject(table)) {
+            return null;
+        }
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey == null || primaryKey.getColumns().isEmpty()) {
+            LogFactory.getLogger().warning("Cannot compare the rows of " + table.getName() + " without its primary key. Include primary keys in the diff types to compare the rows");
+            return null;
+        }
+        List<String> keyColumns = primaryKey.getColumnNamesAsList();
+
+        Schema schema = table.getSchema();
+        String comparisonCatalogName = isDefaultSchema(schema, referenceDatabase) ? null : schema.getCatalogName();
+        String comparisonSchemaName = isDefaultSchema(schema, referenceDatabase) ? null : schema.getName();
+        int fetchSize = control.getDataFetchSize();
+
+        RowReader referenceRows = null;
+        RowReader comparisonRows = null;
+        try {
+            boolean keyOrdered = isReturnedInKeyOrder(referenceDatabase, schema.getCatalogName(), schema.getName(), table.getName(), keyColumns, fetchSize)
+                    && isReturnedInKeyOrder(comparisonDatabase, comparisonCatalogName, comparisonSchemaName, table.getName(), keyColumns, fetchSize);
+            if (!keyOrdered) {
+                LogFactory.getLogger().warning("Rows of " + table.getName() + " are not returned in the order the row comparison expects, possibly because of the collation of its primary key. "
+                        + "Comparing them by key instead, which holds the rows of the comparison table in memory");
+            }
+
+            referenceRows = new RowReader(referenceDatabase, schema.getCatalogName(), schema.getName(), table.getName(), keyColumns, false, fetchSize);
+            comparisonRows = new RowReader(comparisonDatabase, comparisonCatalogName, comparisonSchemaName, table.getName(), keyColumns, false, fetchSize);
+            if (keyOrdered) {
+                return new MergedDataChangeChunks(referenceRows, comparisonRows, table, control, referenceDatabase, comparisonDatabase);
+            }
+            return new KeyedDataChangeChunks(referenceRows, comparisonRows, table, control, referenceDatabase, comparisonDatabase);
+        } catch (Exception e) {
+            if (referenceRows != null) {
+                referenceRows.close();
+            }
+            if (comparisonRows != null) {
+                comparisonRows.close();
+            }
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Reads only the key columns of the table to check that the database returns them in the order {@link DataRowUtil#compareKeys(Object[], Object[])} expects.
+     */
+    protected boolean isReturnedInKeyOrder(Database database, String catalogName, String schemaName, String tableName, List<String> keyColumns, int fetchSize) throws SQLException, DatabaseException {
+        RowReader keys = new RowReader(database, catalogName, schemaName, tableName, keyColumns, true, fetchSize);
+        try {
+            while (keys.next()) {
+                if (keys.isOutOfOrder()) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            keys.close();
+        }
+    }
+
+    private boolean isDefaultSchema(Schema schema, Database database) {
+        if (schema.getName() == null) {
+            return true;
+        }
+        String defaultSchemaName = database.supportsSchemas() ? database.getDefaultSchemaName() : database.getDefaultCatalogName();
+        return defaultSchemaName != null && defaultSchemaName.equalsIgnoreCase(schema.getName());
+    }
+
+    protected InsertDataChange createInsertDataChange(RowReader rows, Object[] values, Table table, DiffOutputControl control, Database referenceDatabase) {
+        InsertDataChange change = new InsertDataChange();
+        setTable(change, table, control);
+        for (int i = 0; i < rows.getColumnNames().size(); i++) {
+            change.addColumn(MissingDataChangeGenerator.createColumnConfig(rows.getColumnNames().get(i), values[i], referenceDatabase));
+        }
+        return change;
+    }
+
+    protected DeleteDataChange createDeleteDataChange(RowReader rows, Object[] values, Table table, DiffOutputControl control, Database comparisonDatabase) {
+        DeleteDataChange change = new DeleteDataChange();
+        setTable(change, table, control);
+        change.setWhere(createWhere(rows, values, comparisonDatabase));
+        return change;
+    }
+
+    /**
+     * Returns the update of the columns whose values differ, or null if the rows are the same. Columns that only exist in one of the tables are ignored.
+     */
+    protected UpdateDataChange createUpdateDataChange(RowReader referenceRows, Object[] referenceValues, RowReader comparisonRows, Object[] comparisonValues, Table table, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase) {
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        for (int i = 0; i < referenceRows.getColumnNames().size(); i++) {
+            String columnName = referenceRows.getColumnNames().get(i);
+            int comparisonIndex = comparisonRows.getColumnIndex(columnName);
+            if (comparisonIndex < 0) {
+                continue;
+            }
+            Object value = referenceValues[i];
+            if (!DataRowUtil.valuesEqual(value, comparisonValues[comparisonIndex])) {
+                columns.add(MissingDataChangeGenerator.createColumnConfig(columnName, value, referenceDatabase));
+            }
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+
+        UpdateDataChange change = new UpdateDataChange();
+        setTable(change, table, control);
+        change.setColumns(columns);
+        change.setWhere(createWhere(comparisonRows, comparisonValues, comparisonDatabase));
+        return change;
+    }
+
+    private void setTable(InsertDataChange change, Table table, DiffOutputControl control) {
+        if (control.getIncludeCatalog()) {
+            change.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (control.getIncludeSchema()) {
+            change.setSchemaName(table.getSchema().getName());
+        }
+        change.setTableName(table.getName());
+    }
+
+    private void setTable(AbstractModifyDataChange change, Table table, DiffOutputControl control) {
+        if (control.getIncludeCatalog()) {
+            change.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (control.getIncludeSchema()) {
+            change.setSchemaName(table.getSchema().getName());
+        }
+        change.setTableName(table.getName());
+    }
+
+    /**
+     * Creates a where clause that selects the given row by its primary key, with the key values as literals of the comparison database.
+     */
+    private String createWhere(RowReader rows, Object[] values, Database database) {
+        Object[] key = rows.getKey(values);
+        List<String> conditions = new ArrayList<String>();
+        for (int i = 0; i < rows.getKeyColumnNames().size(); i++) {
+            Object value = key[i];
+            conditions.add(database.escapeObjectName(rows.getKeyColumnNames().get(i), Column.class) + " = "
+                    + DataTypeFactory.getInstance().fromObject(value, database).objectToSql(value, database));
+        }
+        return StringUtils.join(conditions, " AND ");
+    }
+
+    /**
+     * Generates the changes of a table in chunks of {@link DiffOutputControl#getDataChangeSetSize()} changes and closes its readers after the last one.
+     */
+    private abstract class DataChangeChunks implements Iterator<Change[]> {
+        protected final RowReader referenceRows;
+        protected final RowReader comparisonRows;
+        protected final Table table;
+        protected final DiffOutputControl control;
+        protected final Database referenceDatabase;
+        protected final Database comparisonDatabase;
+        private final int changesPerChunk;
+
+        private Change[] nextChunk;
+        private boolean closed;
+
+        protected DataChangeChunks(RowReader referenceRows, RowReader comparisonRows, Table table, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase) {
+            this.referenceRows = referenceRows;
+            this.comparisonRows = comparisonRows;
+            this.table = table;
+            this.control = control;
+            this.referenceDatabase = referenceDatabase;
+            this.comparisonDatabase = comparisonDatabase;
+            this.changesPerChunk = control.getDataChangeSetSize();
+        }
+
+        /**
+         * Compares the next row or rows and adds the changes they need. Returns false once all rows are compared.
+         */
+        protected abstract boolean addNextChanges(List<Change> changes) throws SQLException;
+
+        @Override
+        public boolean hasNext() {
+            if (nextChunk == null && !closed) {
+                nextChunk = readChunk();
+            }
+            return nextChunk != null;
+        }
+
+        @Override
+        public Change[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Change[] chunk = nextChunk;
+            nextChunk = null;
+            return chunk;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private Change[] readChunk() {
+            List<Change> changes = new ArrayList<Change>();
+            try {
+                while (changesPerChunk <= 0 || changes.size() < changesPerChunk) {
+                    if (!addNextChanges(changes)) {
+                        close();
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                close();
+                throw new UnexpectedLiquibaseException(e);
+            }
+
+            if (changes.isEmpty()) {
+                return null;
+            }
+            return changes.toArray(new Change[changes.size()]);
+        }
+
+        protected void close() {
+            closed = true;
+            referenceRows.close();
+            comparisonRows.close();
+        }
+    }
+
+    /**
+     * Merges the rows of both tables, which are read in key order.
+     */
+    private class MergedDataChangeChunks extends DataChangeChunks {
+        private boolean started;
+        private boolean hasReferenceRow;
+        private boolean hasComparisonRow;
+
+        private MergedDataChangeChunks(RowReader referenceRows, RowReader comparisonRows, Table table, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase) {
+            super(referenceRows, comparisonRows, table, control, referenceDatabase, comparisonDatabase);
+        }
+
+        @Override
+        protected boolean addNextChanges(List<Change> changes) throws SQLException {
+            if (!started) {
+                hasReferenceRow = referenceRows.next();
+                hasComparisonRow = comparisonRows.next();
+                started = true;
+            }
+            if (referenceRows.isOutOfOrder() || comparisonRows.isOutOfOrder()) {
+                LogFactory.getLogger().warning("Rows of " + table.getName() + " changed while they were compared, the generated changes of the table may be incomplete");
+                return false;
+            }
+            if (!hasReferenceRow && !hasComparisonRow) {
+                return false;
+            }
+
+            int compare;
+            if (!hasReferenceRow) {
+                compare = 1;
+            } else if (!hasComparisonRow) {
+                compare = -1;
+            } else {
+                compare = DataRowUtil.compareKeys(referenceRows.getKey(referenceRows.getValues()), comparisonRows.getKey(comparisonRows.getValues()));
+            }
+
+            if (compare < 0) {
+                changes.add(createInsertDataChange(referenceRows, referenceRows.getValues(), table, control, referenceDatabase));
+                hasReferenceRow = referenceRows.next();
+            } else if (compare > 0) {
+                changes.add(createDeleteDataChange(comparisonRows, comparisonRows.getValues(), table, control, comparisonDatabase));
+                hasComparisonRow = comparisonRows.next();
+            } else {
+                UpdateDataChange change = createUpdateDataChange(referenceRows, referenceRows.getValues(), comparisonRows, comparisonRows.getValues(), table, control, referenceDatabase, comparisonDatabase);
+                if (change != null) {
+                    changes.add(change);
+                }
+                hasReferenceRow = referenceRows.next();
+                hasComparisonRow = comparisonRows.next();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads all rows of the comparison table by key, then looks up each row of the reference table. Comparison rows left over are deleted.
+     */
+    private class KeyedDataChangeChunks extends DataChangeChunks {
+        private Map<List<Object>, Object[]> comparisonRowsByKey;
+        private Iterator<Object[]> unmatchedRows;
+
+        private KeyedDataChangeChunks(RowReader referenceRows, RowReader comparisonRows, Table table, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase) {
+            super(referenceRows, comparisonRows, table, control, referenceDatabase, comparisonDatabase);
+        }
+
+        @Override
+        protected boolean addNextChanges(List<Change> changes) throws SQLException {
+            if (comparisonRowsByKey == null) {
+                comparisonRowsByKey = new LinkedHashMap<List<Object>, Object[]>();
+                while (comparisonRows.next()) {
+                    Object[] values = comparisonRows.getValues();
+                    comparisonRowsByKey.put(toLookupKey(comparisonRows.getKey(values)), values);
+                }
+            }
+
+            if (unmatchedRows == null) {
+                if (referenceRows.next()) {
+                    Object[] values = referenceRows.getValues();
+                    Object[] comparisonValues = comparisonRowsByKey.remove(toLookupKey(referenceRows.getKey(values)));
+                    if (comparisonValues == null) {
+                        changes.add(createInsertDataChange(referenceRows, values, table, control, referenceDatabase));
+                    } else {
+                        UpdateDataChange change = createUpdateDataChange(referenceRows, values, comparisonRows, comparisonValues, table, control, referenceDatabase, comparisonDatabase);
+                        if (change != null) {
+                            changes.add(change);
+                        }
+                    }
+                    return true;
+                }
+                unmatchedRows = comparisonRowsByKey.values().iterator();
+            }
+
+            if (unmatchedRows.hasNext()) {
+                changes.add(createDeleteDataChange(comparisonRows, unmatchedRows.next(), table, control, comparisonDatabase));
+                return true;
+            }
+            return false;
+        }
+
+        private List<Object> toLookupKey(Object[] key) {
+            List<Object> lookupKey = new ArrayList<Object>(key.length);
+            for (Object value : key) {
+                lookupKey.add(DataRowUtil.normalize(value));
+            }
+            return lookupKey;
+        }
+    }
+
+    /**
+     * Reads the rows of a table ordered by its key and notes whether the database returns them in the order {@link DataRowUtil#compareKeys(Object[], Object[])} expects,
+     * which the merge depends on.
+     */
+    protected static class RowReader {
+        private final Statement stmt;
+        private final ResultSet rs;
+        private final List<String> columnNames = new ArrayList<String>();
+        private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        private final List<String> keyColumnNames = new ArrayList<String>();
+        private final int[] keyIndexes;
+
+        private Object[] values;
+        private Object[] key;
+        private boolean outOfOrder;
+
+        /**
+         * Reads all columns of the table, or only its key columns if keysOnly is set.
+         */
+        protected RowReader(Database database, String catalogName, String schemaName, String tableName, List<String> keyColumns, boolean keysOnly, int fetchSize) throws SQLException, DatabaseException {
+            List<String> orderBy = new ArrayList<String>();
+            for (String keyColumn : keyColumns) {
+                orderBy.add(database.escapeObjectName(keyColumn, Column.class));
+            }
+            String selectList = keysOnly ? StringUtils.join(orderBy, ", ") : "*";
+
+            Statement statement = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                statement.setFetchSize(fetchSize);
+                this.rs = statement.executeQuery("SELECT " + selectList + " FROM " + database.escapeTableName(catalogName, schemaName, tableName) + " ORDER BY " + StringUtils.join(orderBy, ", "));
+            } catch (SQLException e) {
+                JdbcUtils.closeStatement(statement);
+                throw e;
+            }
+            this.stmt = statement;
+
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                String columnName = rs.getMetaData().getColumnName(i);
+                columnNames.add(columnName);
+                columnIndexes.put(columnName.toUpperCase(), i - 1);
+            }
+
+            keyIndexes = new int[keyColumns.size()];
+            for (int i = 0; i < keyColumns.size(); i++) {
+                Integer index = columnIndexes.get(keyColumns.get(i).toUpperCase());
+                if (index == null) {
+                    close();
+                    throw new UnexpectedLiquibaseException("Primary key column " + keyColumns.get(i) + " not found in " + tableName);
+                }
+                keyIndexes[i] = index;
+                keyColumnNames.add(columnNames.get(index));
+            }
+        }
+
+        public boolean next() throws SQLException {
+            if (!rs.next()) {
+                values = null;
+                key = null;
+                return false;
+            }
+            values = new Object[columnNames.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+            }
+
+            Object[] previousKey = key;
+            key = getKey(values);
+            if (previousKey != null && DataRowUtil.compareKeys(previousKey, key) >= 0) {
+                outOfOrder = true;
+            }
+            return true;
+        }
+
+        /**
+         * Returns true once a row came before the previous one in the order {@link DataRowUtil#compareKeys(Object[], Object[])} expects.
+         */
+        public boolean isOutOfOrder() {
+            return outOfOrder;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        public List<String> getKeyColumnNames() {
+            return keyColumnNames;
+        }
+
+        /**
+         * Returns the index of the column in {@link #getValues()}, ignoring case, or -1 if the table has no such column.
+         */
+        public int getColumnIndex(String columnName) {
+            Integer index = columnIndexes.get(columnName.toUpperCase());
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Returns the values of the current row.
+         */
+        public Object[] getValues() {
+            return values;
+        }
+
+        /**
+         * Returns the key column values of a row read by this reader.
+         */
+        public Object[] getKey(Object[] values) {
+            Object[] key = new Object[keyIndexes.length];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                key[i] = values[keyIndexes[i]];
+            }
+            return key;
+        }
+
+        public void close() {
+            JdbcUtils.close(rs, stmt);
+        }
+    }
+}
@@ -8,18 +8,17 @@ import liquibase.database.core.InformixDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorChain;
-import liquibase.diff.output.changelog.MissingObjectChangeGenerator;
+import liquibase.diff.output.changelog.StreamingMissingObjectChangeGenerator;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
 import liquibase.util.JdbcUtils;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.*;
 import java.util.Date;
-import java.util.List;
 
-public class MissingDataChangeGenerator implements MissingObjectChangeGenerator {
+public class MissingDataChangeGenerator implements StreamingMissingObjectChangeGenerator {
 
     @Override
     public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
@@ -45,6 +44,24 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
 
     @Override
     public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
+        Iterator<Change[]> chunks = fixMissingInChunks(missingObject, outputControl, referenceDatabase, comparisionDatabase, chain);
+        if (chunks == null) {
+            return null;
+        }
+
+        List<Change> changes = new ArrayList<Change>();
+        while (chunks.hasNext()) {
+            changes.addAll(Arrays.asList(chunks.next()));
+        }
+        return changes.toArray(new Change[changes.size()]);
+    }
+
+    /**
+     * Reads the rows of the table while the chunks are iterated, {@link DiffOutputControl#getDataChangeSetSize()} rows per chunk,
+     * so only one chunk of insert changes is in memory at a time when the changeSets are written as they are generated.
+     */
+    @Override
+    public Iterator<Change[]> fixMissingInChunks(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
         Statement stmt = null;
         ResultSet rs = null;
         try {
@@ -58,7 +75,7 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
             String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
 
             stmt = ((JdbcConnection) referenceDatabase.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            stmt.setFetchSize(1000);
+            stmt.setFetchSize(outputControl.getDataFetchSize());
             rs = stmt.executeQuery(sql);
 
             List<String> columnNames = new ArrayList<String>();
@@ -66,65 +83,133 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
                 columnNames.add(rs.getMetaData().getColumnName(i+1));
             }
 
-            List<Change> changes = new ArrayList<Change>();
-            while (rs.next()) {
-                InsertDataChange change = new InsertDataChange();
-                if (outputControl.getIncludeCatalog()) {
-                    change.setCatalogName(table.getSchema().getCatalogName());
-                }
-                if (outputControl.getIncludeSchema()) {
-                    change.setSchemaName(table.getSchema().getName());
-                }
-                change.setTableName(table.getName());
-
-                // loop over all columns for this row
-                for (int i = 0; i < columnNames.size(); i++) {
-                    ColumnConfig column = new ColumnConfig();
-                    column.setName(columnNames.get(i));
-
-                    Object value = JdbcUtils.getResultSetValue(rs, i + 1);
-                    if (value == null) {
-                        column.setValue(null);
-                    } else if (value instanceof Number) {
-                        column.setValueNumeric((Number) value);
-                    } else if (value instanceof Boolean) {
-                        column.setValueBoolean((Boolean) value);
-                    } else if (value instanceof Date) {
-                        column.setValueDate((Date) value);
-                    } else { // string
-                        if (referenceDatabase instanceof InformixDatabase) {
-                            if (value instanceof byte[]) {
-                                byte[] bytes = (byte[]) value;
-                                value = new String(bytes);
-                            }
-                        }
-
-                        column.setValue(value.toString().replace("\\", "\\\\"));
-                    }
+            return new InsertDataChunks(stmt, rs, columnNames, table, outputControl, referenceDatabase);
+        } catch (Exception e) {
+            JdbcUtils.close(rs, stmt);
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Creates the insert change for the current row of the result set.
+     */
+    protected InsertDataChange createInsertDataChange(ResultSet rs, List<String> columnNames, Table table, DiffOutputControl outputControl, Database referenceDatabase) throws SQLException {
+        InsertDataChange change = new InsertDataChange();
+        if (outputControl.getIncludeCatalog()) {
+            change.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (outputControl.getIncludeSchema()) {
+            change.setSchemaName(table.getSchema().getName());
+        }
+        change.setTableName(table.getName());
 
-                    change.addColumn(column);
+        // loop over all columns for this row
+        for (int i = 0; i < columnNames.size(); i++) {
+            change.addColumn(createColumnConfig(columnNames.get(i), JdbcUtils.getResultSetValue(rs, i + 1), referenceDatabase));
+        }
+        return change;
+    }
 
+    /**
+     * Creates the column config that sets the column to the value read from the reference database.
+     */
+    static ColumnConfig createColumnConfig(String columnName, Object value, Database referenceDatabase) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(columnName);
+
+        if (value == null) {
+            column.setValue(null);
+        } else if (value instanceof Number) {
+            column.setValueNumeric((Number) value);
+        } else if (value instanceof Boolean) {
+            column.setValueBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            column.setValueDate((Date) value);
+        } else { // string
+            if (referenceDatabase instanceof InformixDatabase) {
+                if (value instanceof byte[]) {
+                    byte[] bytes = (byte[]) value;
+                    value = new String(bytes);
                 }
+            }
+
+            column.setValue(value.toString().replace("\\", "\\\\"));
+        }
+        return column;
+    }
+
+    /**
+     * Turns the rows of an open result set into chunks of insert changes and closes it after the last row.
+     */
+    private class InsertDataChunks implements Iterator<Change[]> {
+        private final Statement stmt;
+        private final ResultSet rs;
+        private final List<String> columnNames;
+        private final Table table;
+        private final DiffOutputControl outputControl;
+        private final Database referenceDatabase;
+        private final int rowsPerChunk;
+
+        private Change[] nextChunk;
+        private boolean closed;
+
+        private InsertDataChunks(Statement stmt, ResultSet rs, List<String> columnNames, Table table, DiffOutputControl outputControl, Database referenceDatabase) {
+            this.stmt = stmt;
+            this.rs = rs;
+            this.columnNames = columnNames;
+            this.table = table;
+            this.outputControl = outputControl;
+            this.referenceDatabase = referenceDatabase;
+            this.rowsPerChunk = outputControl.getDataChangeSetSize();
+        }
 
-                // for each row, add a new change
-                // (there will be one group per table)
-                changes.add(change);
+        @Override
+        public boolean hasNext() {
+            if (nextChunk == null && !closed) {
+                nextChunk = readChunk();
             }
+            return nextChunk != null;
+        }
 
-            return changes.toArray(new Change[changes.size()]);
-        } catch (Exception e) {
-            throw new UnexpectedLiquibaseException(e);
-        } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException ignore) { }
+        @Override
+        public Change[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException ignore) { }
+            Change[] chunk = nextChunk;
+            nextChunk = null;
+            return chunk;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private Change[] readChunk() {
+            List<Change> changes = new ArrayList<Change>();
+            try {
+                while (rowsPerChunk <= 0 || changes.size() < rowsPerChunk) {
+                    if (!rs.next()) {
+                        close();
+                        break;
+                    }
+                    changes.add(createInsertDataChange(rs, columnNames, table, outputControl, referenceDatabase));
+                }
+            } catch (Exception e) {
+                close();
+                throw new UnexpectedLiquibaseException(e);
+            }
+
+            if (changes.isEmpty()) {
+                return null;
             }
+            return changes.toArray(new Change[changes.size()]);
+        }
+
+        private void close() {
+            closed = true;
+            JdbcUtils.close(rs, stmt);
         }
     }
 }
@@ -26,7 +26,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 @LiquibaseService(skip = true)
@@ -46,6 +48,18 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
         return PRIORITY_NONE;
     }
 
+    /**
+     * The rows are streamed into the CSV file, so the single loadData change is returned as the only chunk.
+     */
+    @Override
+    public Iterator<Change[]> fixMissingInChunks(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
+        Change[] changes = fixMissing(missingObject, outputControl, referenceDatabase, comparisionDatabase, chain);
+        if (changes == null) {
+            return null;
+        }
+        return Collections.singletonList(changes).iterator();
+    }
+
     @Override
     public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
         Statement stmt = null;
@@ -61,7 +75,7 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
             String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
 
             stmt = ((JdbcConnection) referenceDatabase.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            stmt.setFetchSize(100);
+            stmt.setFetchSize(outputControl.getDataFetchSize());
             rs = stmt.executeQuery(sql);
 
             List<String> columnNames = new ArrayList<String>();
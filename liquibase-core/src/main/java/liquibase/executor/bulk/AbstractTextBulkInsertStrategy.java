@@ -0,0 +1,118 @@
+package liquibase.executor.bulk;
+
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Base class for strategies that send rows to the database as delimited text, such as COPY and LOAD DATA.
+ * Subclasses define how values are quoted and how NULL is written. The driver specific APIs are called by reflection so
+ * Liquibase does not depend on any driver at compile time.
+ */
+public abstract class AbstractTextBulkInsertStrategy implements BulkInsertStrategy {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    /**
+     * Returns the rows as text with one line per row and values separated by commas.
+     */
+    protected String toText(List<Object[]> rows) {
+        StringBuilder text = new StringBuilder(rows.size() * 32);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                appendValue(text, row[i]);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    protected void appendValue(StringBuilder text, Object value) {
+        if (value instanceof ColumnConfig.ValueNumeric) {
+            value = ((ColumnConfig.ValueNumeric) value).getDelegate();
+        }
+        if (value == null || (value instanceof String && ((String) value).equalsIgnoreCase("NULL"))) {
+            appendNull(text);
+        } else if (value instanceof String) {
+            appendQuoted(text, (String) value);
+        } else if (value instanceof Boolean) {
+            appendBoolean(text, (Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            text.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof java.sql.Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time) {
+            text.append(value.toString());
+        } else if (value instanceof Date) {
+            text.append(new java.sql.Timestamp(((Date) value).getTime()).toString());
+        } else {
+            text.append(value.toString());
+        }
+    }
+
+    protected abstract void appendNull(StringBuilder text);
+
+    protected abstract void appendQuoted(StringBuilder text, String value);
+
+    protected abstract void appendBoolean(StringBuilder text, Boolean value);
+
+    /**
+     * Returns the column list of the statement, escaped for the database.
+     */
+    protected String getColumnList(InsertBatchExecutablePreparedStatement statement) {
+        Database database = statement.getDatabase();
+        StringBuilder columns = new StringBuilder();
+        for (ColumnConfig column : statement.getColumns()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column.getName()));
+        }
+        return columns.toString();
+    }
+
+    protected String getTableName(InsertBatchExecutablePreparedStatement statement) {
+        return statement.getDatabase().escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+    }
+
+    /**
+     * Returns the class with the given name from the driver's class loader, or null if it is not available.
+     */
+    protected Class<?> findDriverClass(Object driverObject, String className) {
+        try {
+            return Class.forName(className, false, driverObject.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Invokes the given driver method, rethrowing any SQLException it throws.
+     */
+    protected Object invoke(Method method, Object target, Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Error calling " + method.getName() + ": " + cause.getMessage(), cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Cannot call " + method.getName() + ": " + e.getMessage(), e);
+        }
+    }
+}
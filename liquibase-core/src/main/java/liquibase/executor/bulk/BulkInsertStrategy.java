@@ -0,0 +1,28 @@
+package liquibase.executor.bulk;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.servicelocator.PrioritizedService;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Sends a chunk of rows to the database using a database specific bulk load mechanism such as PostgreSQL's COPY.
+ * Implementations are found by the {@link liquibase.servicelocator.ServiceLocator} and selected by {@link BulkInsertStrategyFactory}.
+ * Used by {@link InsertBatchExecutablePreparedStatement} when {@link liquibase.configuration.GlobalConfiguration#getLoadDataBulkInsert()} is set.
+ */
+public interface BulkInsertStrategy extends PrioritizedService {
+
+    boolean supports(Database database);
+
+    /**
+     * Inserts the given rows, which hold one value per column of the statement in column order.
+     *
+     * @return false if the strategy cannot be used on this connection, for example because the driver does not provide the needed API.
+     * In that case nothing was inserted and the caller falls back to JDBC batches.
+     */
+    boolean insert(InsertBatchExecutablePreparedStatement statement, List<Object[]> rows, Connection connection) throws SQLException, DatabaseException;
+}
@@ -0,0 +1,67 @@
+package liquibase.executor.bulk;
+
+import liquibase.database.Database;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.servicelocator.ServiceLocator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the {@link BulkInsertStrategy} with the highest priority for a database.
+ */
+public class BulkInsertStrategyFactory {
+
+    private static BulkInsertStrategyFactory instance;
+
+    private List<BulkInsertStrategy> registry = new ArrayList<BulkInsertStrategy>();
+
+    public static synchronized BulkInsertStrategyFactory getInstance() {
+        if (instance == null) {
+            instance = new BulkInsertStrategyFactory();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    private BulkInsertStrategyFactory() {
+        Class<? extends BulkInsertStrategy>[] classes;
+        try {
+            classes = ServiceLocator.getInstance().findClasses(BulkInsertStrategy.class);
+
+            for (Class<? extends BulkInsertStrategy> clazz : classes) {
+                register(clazz.getConstructor().newInstance());
+            }
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    public synchronized void register(BulkInsertStrategy strategy) {
+        registry.add(0, strategy);
+    }
+
+    public synchronized void unregister(BulkInsertStrategy strategy) {
+        registry.remove(strategy);
+    }
+
+    public synchronized List<BulkInsertStrategy> getRegistry() {
+        return new ArrayList<BulkInsertStrategy>(registry);
+    }
+
+    /**
+     * Returns the strategy with the highest priority that supports the given database, or null if there is none.
+     */
+    public synchronized BulkInsertStrategy getStrategy(Database database) {
+        BulkInsertStrategy found = null;
+        for (BulkInsertStrategy strategy : registry) {
+            if (strategy.supports(database) && (found == null || strategy.getPriority() > found.getPriority())) {
+                found = strategy;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,76 @@
+package liquibase.executor.bulk;
+
+import liquibase.database.Database;
+import liquibase.database.core.DerbyDatabase;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+import liquibase.util.JdbcUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts rows with prepared INSERT statements that have a multi-row VALUES clause, so each round trip inserts many rows
+ * and the database parses one statement per chunk instead of one per row.
+ * Chunks are limited by {@link #MAX_ROWS} and {@link #MAX_PARAMETERS}.
+ */
+public class MultiRowValuesBulkInsertStrategy implements BulkInsertStrategy {
+
+    public static final int MAX_ROWS = 500;
+    public static final int MAX_PARAMETERS = 5000;
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof H2Database
+                || database instanceof HsqlDatabase
+                || database instanceof DerbyDatabase;
+    }
+
+    @Override
+    public boolean insert(InsertBatchExecutablePreparedStatement statement, List<Object[]> rows, Connection connection) throws SQLException {
+        int columnCount = Math.max(1, statement.getColumns().size());
+        int rowsPerStatement = Math.max(1, Math.min(MAX_ROWS, MAX_PARAMETERS / columnCount));
+
+        PreparedStatement fullStmt = null;
+        try {
+            int index = 0;
+            while (index < rows.size()) {
+                int chunkSize = Math.min(rowsPerStatement, rows.size() - index);
+                PreparedStatement stmt;
+                if (chunkSize == rowsPerStatement) {
+                    if (fullStmt == null) {
+                        fullStmt = connection.prepareStatement(statement.generateInsertSql(rowsPerStatement));
+                    }
+                    stmt = fullStmt;
+                } else {
+                    stmt = connection.prepareStatement(statement.generateInsertSql(chunkSize));
+                }
+                try {
+                    int parameter = 1;
+                    for (int i = index; i < index + chunkSize; i++) {
+                        for (Object value : rows.get(i)) {
+                            statement.applyValue(stmt, parameter++, value);
+                        }
+                    }
+                    stmt.executeUpdate();
+                } finally {
+                    if (stmt != fullStmt) {
+                        JdbcUtils.closeStatement(stmt);
+                    }
+                }
+                index += chunkSize;
+            }
+        } finally {
+            JdbcUtils.closeStatement(fullStmt);
+        }
+        return true;
+    }
+}
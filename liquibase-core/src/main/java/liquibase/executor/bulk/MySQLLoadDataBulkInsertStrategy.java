@@ -0,0 +1,137 @@
+package liquibase.executor.bulk;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.logging.LogFactory;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+import liquibase.util.JdbcUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Inserts rows with LOAD DATA LOCAL INFILE, streaming the data from memory through the setLocalInfileInputStream() method of
+ * MySQL Connector/J statements. Requires local_infile to be enabled on the server and allowLoadLocalInfile on the connection.
+ * If the server or driver rejects LOCAL INFILE, nothing is inserted and false is returned.
+ * <p>
+ * LOAD DATA LOCAL INFILE skips rows with duplicate keys and truncates invalid values with a warning instead of failing like an INSERT would,
+ * so the load fails if any row was not loaded or any warning was raised.
+ */
+public class MySQLLoadDataBulkInsertStrategy extends AbstractTextBulkInsertStrategy {
+
+    private static final String[] STATEMENT_CLASSES = {"com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement"};
+
+    /**
+     * Error codes for "The used command is not allowed with this MySQL version", "Loading local data is disabled" and
+     * "LOAD DATA LOCAL INFILE file request rejected".
+     */
+    private static final int[] LOCAL_INFILE_DISABLED_ERRORS = {1148, 3948, 2068};
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    public boolean insert(InsertBatchExecutablePreparedStatement statement, List<Object[]> rows, Connection connection) throws SQLException {
+        Statement stmt = connection.createStatement();
+        try {
+            Method setInputStream = null;
+            Object mysqlStatement = null;
+            for (String className : STATEMENT_CLASSES) {
+                Class<?> statementClass = findDriverClass(stmt, className);
+                if (statementClass != null && stmt.isWrapperFor(statementClass)) {
+                    try {
+                        setInputStream = statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                        mysqlStatement = stmt.unwrap(statementClass);
+                        break;
+                    } catch (NoSuchMethodException ignore) {
+                        //try next class
+                    }
+                }
+            }
+            if (setInputStream == null) {
+                return false;
+            }
+
+            invoke(setInputStream, mysqlStatement, new ByteArrayInputStream(toText(rows).getBytes("UTF-8")));
+            String sql = "LOAD DATA LOCAL INFILE 'liquibase-load-data' INTO TABLE " + getTableName(statement)
+                    + " CHARACTER SET utf8 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'"
+                    + " LINES TERMINATED BY '\\n' (" + getColumnList(statement) + ")";
+            LogFactory.getLogger().debug(sql + " with " + rows.size() + " rows");
+            try {
+                stmt.execute(sql);
+            } catch (SQLException e) {
+                for (int errorCode : LOCAL_INFILE_DISABLED_ERRORS) {
+                    if (e.getErrorCode() == errorCode) {
+                        LogFactory.getLogger().debug("LOAD DATA LOCAL INFILE is not allowed: " + e.getMessage());
+                        return false;
+                    }
+                }
+                throw e;
+            }
+            checkLoadedRows(stmt, getTableName(statement), rows.size());
+            return true;
+        } catch (UnsupportedEncodingException e) {
+            throw new SQLException(e.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    /**
+     * Throws an exception if LOAD DATA did not load all rows or raised warnings, which INSERT statements would have failed on.
+     */
+    protected void checkLoadedRows(Statement stmt, String tableName, int expectedRows) throws SQLException {
+        int loadedRows = stmt.getUpdateCount();
+        SQLWarning warning = stmt.getWarnings();
+        if (loadedRows == expectedRows && warning == null) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("LOAD DATA loaded " + loadedRows + " of " + expectedRows + " rows into " + tableName);
+        int warnings = 0;
+        while (warning != null && warnings < 10) {
+            message.append(warnings == 0 ? ": " : "; ").append(warning.getMessage());
+            warning = warning.getNextWarning();
+            warnings++;
+        }
+        throw new SQLException(message.toString());
+    }
+
+    @Override
+    protected void appendNull(StringBuilder text) {
+        text.append("\\N");
+    }
+
+    @Override
+    protected void appendQuoted(StringBuilder text, String value) {
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                text.append('\\').append(c);
+            } else if (c == '\n') {
+                text.append("\\n");
+            } else if (c == '\r') {
+                text.append("\\r");
+            } else if (c == '\0') {
+                text.append("\\0");
+            } else {
+                text.append(c);
+            }
+        }
+        text.append('"');
+    }
+
+    @Override
+    protected void appendBoolean(StringBuilder text, Boolean value) {
+        text.append(value ? "1" : "0");
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.executor.bulk;
+
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.logging.LogFactory;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts rows with COPY ... FROM STDIN through the CopyManager of the PostgreSQL JDBC driver.
+ * Values are sent in CSV format, where an unquoted empty value is NULL and every string is quoted.
+ */
+public class PostgresCopyBulkInsertStrategy extends AbstractTextBulkInsertStrategy {
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    @Override
+    public boolean insert(InsertBatchExecutablePreparedStatement statement, List<Object[]> rows, Connection connection) throws SQLException {
+        Object copyManager = getCopyManager(connection);
+        if (copyManager == null) {
+            return false;
+        }
+        Method copyIn;
+        try {
+            copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        String sql = "COPY " + getTableName(statement) + " (" + getColumnList(statement) + ") FROM STDIN WITH CSV";
+        LogFactory.getLogger().debug(sql + " with " + rows.size() + " rows");
+        invoke(copyIn, copyManager, sql, new StringReader(toText(rows)));
+        return true;
+    }
+
+    /**
+     * Returns the driver's CopyManager for the connection, or null if the connection is not a PostgreSQL driver connection.
+     */
+    protected Object getCopyManager(Connection connection) throws SQLException {
+        Class<?> pgConnectionClass = findDriverClass(connection, "org.postgresql.PGConnection");
+        if (pgConnectionClass == null || !connection.isWrapperFor(pgConnectionClass)) {
+            return null;
+        }
+        try {
+            Object pgConnection = connection.unwrap(pgConnectionClass);
+            return invoke(pgConnectionClass.getMethod("getCopyAPI"), pgConnection);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void appendNull(StringBuilder text) {
+        //an unquoted empty value is NULL in CSV format
+    }
+
+    @Override
+    protected void appendQuoted(StringBuilder text, String value) {
+        text.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    @Override
+    protected void appendBoolean(StringBuilder text, Boolean value) {
+        text.append(value ? "t" : "f");
+    }
+}
@@ -221,7 +221,7 @@ public class LiquibaseServletListener implements ServletContextListener {
             ResourceAccessor fsFO = new FileSystemResourceAccessor();
 
 
-            database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection, dataSource));
             database.setDefaultSchemaName(getDefaultSchema());
             Liquibase liquibase = new Liquibase(getChangeLogFile(), new CompositeResourceAccessor(clFO, fsFO, threadClFO), database);
 
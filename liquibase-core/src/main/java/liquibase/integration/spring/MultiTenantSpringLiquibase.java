@@ -7,6 +7,13 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -41,6 +48,12 @@ import org.springframework.core.io.ResourceLoader;
  *	&lt;property name="changeLog" value="classpath:db/migration/db-changelog.xml" /&gt;	
  * &lt;/bean&gt;
  * </pre>
+ * <br/>
+ * Tenants are migrated one after another unless {@link #setParallelThreads(int)} is set to more than 1, in which case that many
+ * tenants are migrated at the same time, each on its own connection. By default the first failing tenant stops the migration
+ * of tenants that have not started yet and its exception is thrown. If {@link #setFailFast(boolean)} is set to false,
+ * all tenants are migrated and a {@link LiquibaseException} listing the failed tenants is thrown at the end.
+ * The outcome for each tenant is logged and available from {@link #getResults()}.
  * 
  * @see SpringLiquibase
  * 
@@ -74,6 +87,12 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
     private boolean shouldRun = true;
 
     private File rollbackFile;
+
+    private int parallelThreads = 1;
+
+    private boolean failFast = true;
+
+    private List<TenantResult> results = new ArrayList<TenantResult>();
 	
 
 	@Override
@@ -125,24 +144,152 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 	}
 
 	private void runOnAllDataSources() throws LiquibaseException {
+		List<String> tenants = new ArrayList<String>();
+		List<SpringLiquibase> liquibases = new ArrayList<SpringLiquibase>();
 		for(DataSource aDataSource : dataSources) {
-			log.info("Initializing Liquibase for data source " + aDataSource);
-			SpringLiquibase liquibase = getSpringLiquibase(aDataSource);
-			liquibase.afterPropertiesSet();
-			log.info("Liquibase ran for data source " + aDataSource);
+			tenants.add("data source " + aDataSource);
+			liquibases.add(getSpringLiquibase(aDataSource));
 		}
+		runOnAllTenants(tenants, liquibases);
 	}
 	
 	private void runOnAllSchemas() throws LiquibaseException {
+		List<String> tenants = new ArrayList<String>();
+		List<SpringLiquibase> liquibases = new ArrayList<SpringLiquibase>();
 		for(String schema : schemas) {
 			if(schema.equals("default")) {
 				schema = null;
 			}
-			log.info("Initializing Liquibase for schema " + schema);
 			SpringLiquibase liquibase = getSpringLiquibase(dataSource);
 			liquibase.setDefaultSchema(schema);
+			tenants.add("schema " + schema);
+			liquibases.add(liquibase);
+		}
+		runOnAllTenants(tenants, liquibases);
+	}
+
+	private void runOnAllTenants(List<String> tenants, List<SpringLiquibase> liquibases) throws LiquibaseException {
+		results = new ArrayList<TenantResult>();
+		if (parallelThreads <= 1 || tenants.size() <= 1) {
+			for (int i = 0; i < tenants.size(); i++) {
+				TenantResult result = runOnTenant(tenants.get(i), liquibases.get(i));
+				results.add(result);
+				if (failFast && result.getException() != null) {
+					rethrow(result.getException());
+				}
+			}
+		} else {
+			runInParallel(tenants, liquibases);
+		}
+		reportResults();
+	}
+
+	private void runInParallel(final List<String> tenants, final List<SpringLiquibase> liquibases) throws LiquibaseException {
+		int threads = Math.min(parallelThreads, tenants.size());
+		log.info("Running Liquibase for " + tenants.size() + " tenants on " + threads + " threads");
+		java.util.concurrent.ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "liquibase-tenant-" + threadNumber.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		try {
+			List<Future<TenantResult>> futures = new ArrayList<Future<TenantResult>>();
+			for (int i = 0; i < tenants.size(); i++) {
+				final String tenant = tenants.get(i);
+				final SpringLiquibase liquibase = liquibases.get(i);
+				futures.add(executor.submit(new Callable<TenantResult>() {
+					@Override
+					public TenantResult call() {
+						if (failFast && failed.get()) {
+							return new TenantResult(tenant);
+						}
+						TenantResult result = runOnTenant(tenant, liquibase);
+						if (result.getException() != null) {
+							failed.set(true);
+						}
+						return result;
+					}
+				}));
+			}
+
+			Exception firstException = null;
+			for (Future<TenantResult> future : futures) {
+				TenantResult result;
+				try {
+					result = future.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new LiquibaseException("Interrupted while waiting for tenant migrations", e);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+					throw new LiquibaseException(e.getCause());
+				}
+				results.add(result);
+				if (firstException == null && result.getException() != null) {
+					firstException = result.getException();
+				}
+			}
+			if (failFast && firstException != null) {
+				reportResults();
+				rethrow(firstException);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private TenantResult runOnTenant(String tenant, SpringLiquibase liquibase) {
+		log.info("Initializing Liquibase for " + tenant);
+		long start = System.currentTimeMillis();
+		try {
 			liquibase.afterPropertiesSet();
-			log.info("Liquibase ran for schema " + schema);
+			log.info("Liquibase ran for " + tenant);
+			return new TenantResult(tenant, System.currentTimeMillis() - start, null);
+		} catch (LiquibaseException e) {
+			log.severe("Liquibase failed for " + tenant, e);
+			return new TenantResult(tenant, System.currentTimeMillis() - start, e);
+		} catch (RuntimeException e) {
+			log.severe("Liquibase failed for " + tenant, e);
+			return new TenantResult(tenant, System.currentTimeMillis() - start, e);
+		}
+	}
+
+	/**
+	 * Throws the exception a tenant failed with unchanged, so callers catch the same types as for a single {@link SpringLiquibase}.
+	 */
+	private void rethrow(Exception exception) throws LiquibaseException {
+		if (exception instanceof RuntimeException) {
+			throw (RuntimeException) exception;
+		}
+		throw (LiquibaseException) exception;
+	}
+
+	private void reportResults() throws LiquibaseException {
+		List<String> failedTenants = new ArrayList<String>();
+		int skipped = 0;
+		Exception firstException = null;
+		for (TenantResult result : results) {
+			if (result.isSkipped()) {
+				skipped++;
+			} else if (result.getException() != null) {
+				failedTenants.add(result.getTenant());
+				if (firstException == null) {
+					firstException = result.getException();
+				}
+			}
+		}
+		log.info("Liquibase ran for " + results.size() + " tenants: " + (results.size() - failedTenants.size() - skipped) + " succeeded, "
+				+ failedTenants.size() + " failed, " + skipped + " skipped");
+		if (firstException != null && !failFast) {
+			throw new LiquibaseException("Liquibase failed for " + failedTenants.size() + " of " + results.size() + " tenants: " + failedTenants, firstException);
 		}
 	}
 
@@ -247,6 +394,36 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		this.schemas = schemas;
 	}
 
+	public int getParallelThreads() {
+		return parallelThreads;
+	}
+
+	/**
+	 * Sets the number of tenants migrated at the same time. Defaults to 1.
+	 */
+	public void setParallelThreads(int parallelThreads) {
+		this.parallelThreads = parallelThreads;
+	}
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	/**
+	 * If true, the default, no further tenants are migrated after one fails. If false, all tenants are migrated and the failures
+	 * are reported together.
+	 */
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	/**
+	 * Returns the outcome for each tenant of the last run, in tenant order.
+	 */
+	public List<TenantResult> getResults() {
+		return results;
+	}
+
 	public DataSource getDataSource() {
 		return dataSource;
 	}
@@ -254,5 +431,61 @@ public class MultiTenantSpringLiquibase implements InitializingBean, ResourceLoa
 		this.dataSource = dataSource;
 	}
 
-	
+	/**
+	 * Outcome of the migration of one tenant.
+	 */
+	public static class TenantResult {
+		private final String tenant;
+		private final boolean skipped;
+		private final long duration;
+		private final Exception exception;
+
+		TenantResult(String tenant, long duration, Exception exception) {
+			this.tenant = tenant;
+			this.skipped = false;
+			this.duration = duration;
+			this.exception = exception;
+		}
+
+		TenantResult(String tenant) {
+			this.tenant = tenant;
+			this.skipped = true;
+			this.duration = 0;
+			this.exception = null;
+		}
+
+		public String getTenant() {
+			return tenant;
+		}
+
+		/**
+		 * Returns true if the tenant was not migrated because another tenant failed first.
+		 */
+		public boolean isSkipped() {
+			return skipped;
+		}
+
+		public boolean isSuccess() {
+			return !skipped && exception == null;
+		}
+
+		/**
+		 * Returns the time the migration took in milliseconds.
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		/**
+		 * Returns the {@link LiquibaseException} or {@link RuntimeException} the migration failed with.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+
+		@Override
+		public String toString() {
+			return tenant + ": " + (skipped ? "skipped" : (exception == null ? "succeeded" : "failed: " + exception.getMessage()));
+		}
+	}
 }
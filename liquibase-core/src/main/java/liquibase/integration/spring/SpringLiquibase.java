@@ -468,7 +468,7 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
             liquibaseConnection = new OfflineConnection("offline:unknown", resourceAccessor);
 
         } else {
-            liquibaseConnection = new JdbcConnection(c);
+            liquibaseConnection = new JdbcConnection(c, getDataSource());
         }
 
         Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(liquibaseConnection);
@@ -0,0 +1,311 @@
+package liquibase.lockservice;
+
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LockException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.util.JdbcUtils;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+/**
+ * Waits for the changelog lock on a session level advisory lock of the database (pg_advisory_lock, GET_LOCK, DBMS_LOCK or sp_getapplock)
+ * before locking the databasechangeloglock table like {@link StandardLockService}. Waiting processes are queued by the database and woken as soon as
+ * the holder releases the lock instead of polling the table.
+ * <p>
+ * The databasechangeloglock table stays the actual lock, so processes that do not use advisory locks are still excluded. If the advisory lock cannot be
+ * used, e.g. because of missing privileges, or is not granted in time, the table is polled like {@link StandardLockService} does.
+ * The advisory lock is requested for at most {@link #getChangeLogLockRecheckTime()} seconds at a time. If it is still not granted although the table
+ * is not locked, the session holding it is logged and the table is polled instead, so an advisory lock leaked by a pooled or hung session,
+ * which releaseLocks cannot clear, does not block updates.
+ * Only used when {@link GlobalConfiguration#getDatabaseChangeLogLockUseAdvisoryLock()} is set.
+ */
+public class AdvisoryLockService extends StandardLockService {
+
+    private boolean hasAdvisoryLock = false;
+    private boolean advisoryLockUnavailable = false;
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return (database instanceof PostgresDatabase || database instanceof MySQLDatabase || database instanceof OracleDatabase || database instanceof MSSQLDatabase)
+                && database.getConnection() instanceof JdbcConnection
+                && LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockUseAdvisoryLock();
+    }
+
+    public boolean hasAdvisoryLock() {
+        return hasAdvisoryLock;
+    }
+
+    @Override
+    public void waitForLock() throws LockException {
+        long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
+        if (!hasChangeLogLock && !hasAdvisoryLock && canUseAdvisoryLock()) {
+            waitForAdvisoryLock(timeToGiveUp);
+        }
+
+        try {
+            super.waitForLock(timeToGiveUp);
+        } catch (LockException e) {
+            releaseAdvisoryLockQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * Requests the advisory lock for at most {@link #getChangeLogLockRecheckTime()} seconds at a time until it is granted or timeToGiveUp has passed.
+     * Stops waiting early if the advisory lock is held while the lock table is not locked, since no process is running an update then.
+     */
+    private void waitForAdvisoryLock(long timeToGiveUp) throws LockException {
+        while (true) {
+            int timeoutSeconds = (int) Math.max(1, Math.min(getChangeLogLockRecheckTime(), (timeToGiveUp - new Date().getTime()) / 1000));
+            try {
+                hasAdvisoryLock = requestAdvisoryLock(timeoutSeconds);
+            } catch (SQLException e) {
+                advisoryLockUnavailable = true;
+                LogFactory.getLogger().info("Cannot use advisory lock " + getAdvisoryLockName() + ", polling the changelog lock table instead: " + e.getMessage());
+                return;
+            }
+            if (hasAdvisoryLock) {
+                return;
+            }
+            if (listLocks().length == 0) {
+                LogFactory.getLogger().warning("Advisory lock " + getAdvisoryLockName() + " is held by " + getAdvisoryLockHolder()
+                        + " although the changelog lock table is not locked, polling the changelog lock table instead");
+                return;
+            }
+            if (new Date().getTime() >= timeToGiveUp) {
+                LogFactory.getLogger().info("Advisory lock " + getAdvisoryLockName() + " was not granted in time, it is held by " + getAdvisoryLockHolder());
+                return;
+            }
+            LogFactory.getLogger().debug("Still waiting for advisory lock " + getAdvisoryLockName() + "....");
+        }
+    }
+
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            releaseAdvisoryLockQuietly();
+        }
+    }
+
+    @Override
+    public void reset() {
+        releaseAdvisoryLockQuietly();
+        advisoryLockUnavailable = false;
+        super.reset();
+    }
+
+    /**
+     * Advisory locks are only used when statements are executed against the database, not when SQL is only written out.
+     */
+    protected boolean canUseAdvisoryLock() {
+        return !advisoryLockUnavailable && database.getConnection() instanceof JdbcConnection && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor;
+    }
+
+    /**
+     * Returns a number identifying the databasechangeloglock table. Kept within 0..1073741823, the range DBMS_LOCK leaves to applications.
+     */
+    protected int getAdvisoryLockKey() {
+        String catalogName = database.getLiquibaseCatalogName() == null ? database.getDefaultCatalogName() : database.getLiquibaseCatalogName();
+        String schemaName = database.getLiquibaseSchemaName() == null ? database.getDefaultSchemaName() : database.getLiquibaseSchemaName();
+        return (catalogName + "." + schemaName + "." + database.getDatabaseChangeLogLockTableName()).toUpperCase().hashCode() & 0x3FFFFFFF;
+    }
+
+    /**
+     * Returns the name of the advisory lock for databases that lock by name. Kept short enough for the 64 character limit of GET_LOCK.
+     */
+    protected String getAdvisoryLockName() {
+        return "liquibase_" + getAdvisoryLockKey();
+    }
+
+    /**
+     * Waits up to timeoutSeconds for the advisory lock. Returns false if it was not granted in time.
+     * Throws SQLException if the database does not allow the advisory lock to be used.
+     */
+    protected boolean requestAdvisoryLock(int timeoutSeconds) throws SQLException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        if (database instanceof PostgresDatabase) {
+            PreparedStatement stmt = connection.prepareStatement("SELECT pg_advisory_lock(?)");
+            try {
+                stmt.setLong(1, getAdvisoryLockKey());
+                stmt.setQueryTimeout(timeoutSeconds);
+                stmt.executeQuery().close();
+                return true;
+            } catch (SQLException e) {
+                if ("57014".equals(e.getSQLState())) { //canceled by the query timeout
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                    }
+                    return false;
+                }
+                throw e;
+            } finally {
+                JdbcUtils.closeStatement(stmt);
+            }
+        } else if (database instanceof MySQLDatabase) {
+            PreparedStatement stmt = connection.prepareStatement("SELECT GET_LOCK(?, ?)");
+            ResultSet resultSet = null;
+            try {
+                stmt.setString(1, getAdvisoryLockName());
+                stmt.setInt(2, timeoutSeconds);
+                resultSet = stmt.executeQuery();
+                resultSet.next();
+                int result = resultSet.getInt(1);
+                if (resultSet.wasNull()) {
+                    throw new SQLException("GET_LOCK returned NULL");
+                }
+                return result == 1;
+            } finally {
+                JdbcUtils.close(resultSet, stmt);
+            }
+        } else if (database instanceof MSSQLDatabase) {
+            CallableStatement stmt = connection.prepareCall("{? = call sp_getapplock(?, ?, ?, ?)}");
+            try {
+                stmt.registerOutParameter(1, Types.INTEGER);
+                stmt.setString(2, getAdvisoryLockName());
+                stmt.setString(3, "Exclusive");
+                stmt.setString(4, "Session");
+                stmt.setInt(5, (int) Math.min(Integer.MAX_VALUE, timeoutSeconds * 1000L));
+                stmt.execute();
+                int result = stmt.getInt(1);
+                if (result == -1) {
+                    return false;
+                } else if (result < 0) {
+                    throw new SQLException("sp_getapplock returned " + result);
+                }
+                return true;
+            } finally {
+                JdbcUtils.closeStatement(stmt);
+            }
+        } else if (database instanceof OracleDatabase) {
+            CallableStatement stmt = connection.prepareCall("BEGIN ? := DBMS_LOCK.REQUEST(id => ?, lockmode => DBMS_LOCK.X_MODE, timeout => ?, release_on_commit => FALSE); END;");
+            try {
+                stmt.registerOutParameter(1, Types.INTEGER);
+                stmt.setInt(2, getAdvisoryLockKey());
+                stmt.setInt(3, timeoutSeconds);
+                stmt.execute();
+                int result = stmt.getInt(1);
+                if (result == 1) {
+                    return false;
+                } else if (result != 0 && result != 4) { //4: already owned by this session
+                    throw new SQLException("DBMS_LOCK.REQUEST returned " + result);
+                }
+                return true;
+            } finally {
+                JdbcUtils.closeStatement(stmt);
+            }
+        }
+        throw new SQLException("Advisory locks are not supported on " + database.getShortName());
+    }
+
+    /**
+     * Describes the database sessions holding the advisory lock for log messages, or returns "an unknown session" if they cannot be found.
+     */
+    protected String getAdvisoryLockHolder() {
+        String sql;
+        String parameter = null;
+        if (database instanceof PostgresDatabase) {
+            sql = "SELECT a.pid, a.usename, a.client_addr, a.application_name, a.backend_start, a.state FROM pg_locks l JOIN pg_stat_activity a ON a.pid = l.pid "
+                    + "WHERE l.locktype = 'advisory' AND l.granted AND l.classid = 0 AND l.objid = " + getAdvisoryLockKey() + " AND l.objsubid = 1";
+        } else if (database instanceof MySQLDatabase) {
+            sql = "SELECT p.ID, p.USER, p.HOST, p.DB, p.COMMAND, p.TIME FROM information_schema.PROCESSLIST p WHERE p.ID = IS_USED_LOCK(?)";
+            parameter = getAdvisoryLockName();
+        } else if (database instanceof MSSQLDatabase) {
+            sql = "SELECT s.session_id, s.login_name, s.host_name, s.program_name, s.status FROM sys.dm_tran_locks l JOIN sys.dm_exec_sessions s ON s.session_id = l.request_session_id "
+                    + "WHERE l.resource_type = 'APPLICATION' AND l.request_status = 'GRANT' AND l.resource_description LIKE ? ESCAPE '!'";
+            parameter = "%![" + getAdvisoryLockName() + "]%";
+        } else if (database instanceof OracleDatabase) {
+            sql = "SELECT s.sid, s.serial#, s.username, s.machine, s.program, s.status FROM v$lock l JOIN v$session s ON s.sid = l.sid "
+                    + "WHERE l.type = 'UL' AND l.id1 = " + getAdvisoryLockKey() + " AND l.lmode > 0";
+        } else {
+            return "an unknown session";
+        }
+
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).getUnderlyingConnection().prepareStatement(sql);
+            if (parameter != null) {
+                stmt.setString(1, parameter);
+            }
+            resultSet = stmt.executeQuery();
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            StringBuilder holder = new StringBuilder();
+            while (resultSet.next()) {
+                holder.append(holder.length() == 0 ? "session " : ", session ");
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    holder.append(i == 1 ? "" : " ").append(metaData.getColumnLabel(i).toLowerCase()).append("=").append(resultSet.getString(i));
+                }
+            }
+            return holder.length() == 0 ? "an unknown session" : holder.toString();
+        } catch (SQLException e) {
+            LogFactory.getLogger().debug("Cannot find the session holding advisory lock " + getAdvisoryLockName() + ": " + e.getMessage());
+            return "an unknown session";
+        } finally {
+            JdbcUtils.close(resultSet, stmt);
+        }
+    }
+
+    protected void releaseAdvisoryLock() throws SQLException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        PreparedStatement stmt = null;
+        try {
+            if (database instanceof PostgresDatabase) {
+                stmt = connection.prepareStatement("SELECT pg_advisory_unlock(?)");
+                stmt.setLong(1, getAdvisoryLockKey());
+            } else if (database instanceof MySQLDatabase) {
+                stmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)");
+                stmt.setString(1, getAdvisoryLockName());
+            } else if (database instanceof MSSQLDatabase) {
+                stmt = connection.prepareCall("{call sp_releaseapplock(?, 'Session')}");
+                stmt.setString(1, getAdvisoryLockName());
+            } else if (database instanceof OracleDatabase) {
+                stmt = connection.prepareCall("BEGIN ? := DBMS_LOCK.RELEASE(id => ?); END;");
+                ((CallableStatement) stmt).registerOutParameter(1, Types.INTEGER);
+                stmt.setInt(2, getAdvisoryLockKey());
+            } else {
+                return;
+            }
+            stmt.execute();
+        } finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    /**
+     * Advisory locks belong to the database session, so one that cannot be released is released when the connection is closed at the latest.
+     */
+    private void releaseAdvisoryLockQuietly() {
+        if (!hasAdvisoryLock) {
+            return;
+        }
+        hasAdvisoryLock = false;
+        try {
+            releaseAdvisoryLock();
+        } catch (SQLException e) {
+            LogFactory.getLogger().warning("Cannot release advisory lock " + getAdvisoryLockName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import liquibase.configuration.GlobalConfiguration;
 import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.DerbyDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.LockException;
@@ -13,24 +14,52 @@ import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 public class StandardLockService implements LockService {
 
+    /**
+     * Milliseconds to wait before the first retry of {@link #waitForLock()}.
+     */
+    protected static final long MIN_RECHECK_WAIT_TIME = 100;
+
+    private static final Random random = new Random();
+
     protected Database database;
 
     protected boolean hasChangeLogLock = false;
 
     private Long changeLogLockPollRate;
     private Long changeLogLockRecheckTime;
+    private Long changeLogLockHeartbeatTtl;
+
+    private long lastHeartbeat;
+    private volatile Date heldLockGranted;
+    private volatile boolean lockTakenOver = false;
+    private ScheduledExecutorService heartbeatExecutor;
+    private Connection heartbeatConnection;
+    private Date observedLockGranted;
+    private long observedLockGrantedSince;
 
     private Boolean hasDatabaseChangeLogLockTable = null;
     private boolean isDatabaseChangeLogLockTableInitialized = false;
@@ -77,6 +106,22 @@ public class StandardLockService implements LockService {
         return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockPollRate();
     }
 
+    public void setChangeLogLockHeartbeatTtl(long changeLogLockHeartbeatTtl) {
+        this.changeLogLockHeartbeatTtl = changeLogLockHeartbeatTtl;
+    }
+
+    public Long getChangeLogLockHeartbeatTtl() {
+        if (changeLogLockHeartbeatTtl != null) {
+            return changeLogLockHeartbeatTtl;
+        }
+        return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockHeartbeatTtl();
+    }
+
+    protected boolean isHeartbeatEnabled() {
+        Long heartbeatTtl = getChangeLogLockHeartbeatTtl();
+        return heartbeatTtl != null && heartbeatTtl > 0;
+    }
+
     @Override
     public void init() throws DatabaseException {
         boolean createdTable = false;
@@ -148,19 +193,28 @@ public class StandardLockService implements LockService {
 
     @Override
     public void waitForLock() throws LockException {
+        waitForLock(new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60));
+    }
 
-        boolean locked = false;
-        long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
+    /**
+     * Tries {@link #acquireLock()} at least once and then until it succeeds or timeToGiveUp has passed, waiting {@link #getRecheckWaitTime(int)}
+     * between attempts.
+     */
+    protected void waitForLock(long timeToGiveUp) throws LockException {
+        boolean locked = acquireLock();
+        int attempt = 0;
         while (!locked && new Date().getTime() < timeToGiveUp) {
-            locked = acquireLock();
-            if (!locked) {
+            if (attempt == 0) {
                 LogFactory.getLogger().info("Waiting for changelog lock....");
-                try {
-                    Thread.sleep(getChangeLogLockRecheckTime() * 1000);
-                } catch (InterruptedException e) {
-                    ;
-                }
+            } else {
+                LogFactory.getLogger().debug("Still waiting for changelog lock....");
+            }
+            try {
+                Thread.sleep(Math.max(0, Math.min(getRecheckWaitTime(attempt++), timeToGiveUp - new Date().getTime())));
+            } catch (InterruptedException e) {
+                ;
             }
+            locked = acquireLock();
         }
 
         if (!locked) {
@@ -176,6 +230,17 @@ public class StandardLockService implements LockService {
         }
     }
 
+    /**
+     * Returns the number of milliseconds to wait before the given failed attempt to acquire the lock is retried. The wait starts at
+     * {@link #MIN_RECHECK_WAIT_TIME} and doubles with every attempt up to {@link #getChangeLogLockRecheckTime()} seconds, with random jitter
+     * so processes waiting for the same lock do not retry in step.
+     */
+    protected long getRecheckWaitTime(int attempt) {
+        long maxWaitTime = getChangeLogLockRecheckTime() * 1000;
+        long waitTime = Math.min(maxWaitTime, MIN_RECHECK_WAIT_TIME << Math.min(attempt, 20));
+        return waitTime / 2 + (long) (random.nextDouble() * (waitTime / 2));
+    }
+
     @Override
     public boolean acquireLock() throws LockException {
         if (hasChangeLogLock) {
@@ -190,28 +255,40 @@ public class StandardLockService implements LockService {
 
             Boolean locked = (Boolean) ExecutorService.getInstance().getExecutor(database).queryForObject(new SelectFromDatabaseChangeLogLockStatement("LOCKED"), Boolean.class);
 
+            LockDatabaseChangeLogStatement lockStatement = new LockDatabaseChangeLogStatement();
             if (locked) {
-                return false;
-            } else {
-
-                executor.comment("Lock Database");
-                int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement());
-                if (rowsUpdated > 1) {
-                    throw new LockException("Did not update change log lock correctly");
-                }
-                if (rowsUpdated == 0)
-                {
-                    // another node was faster
+                Date staleLockGranted = getStaleLockGranted();
+                if (staleLockGranted == null) {
                     return false;
                 }
-                database.commit();
-                LogFactory.getLogger().info("Successfully acquired change log lock");
+                lockStatement.setStaleLockGranted(staleLockGranted);
+            }
 
-                hasChangeLogLock = true;
+            executor.comment("Lock Database");
+            int rowsUpdated = executor.update(lockStatement);
+            if (rowsUpdated > 1) {
+                throw new LockException("Did not update change log lock correctly");
+            }
+            if (rowsUpdated == 0)
+            {
+                // another node was faster
+                return false;
+            }
+            if (isHeartbeatEnabled()) {
+                heldLockGranted = readLockGranted();
+            }
+            database.commit();
+            LogFactory.getLogger().info("Successfully acquired change log lock");
 
-                database.setCanCacheLiquibaseTableInfo(true);
-                return true;
+            hasChangeLogLock = true;
+            lastHeartbeat = System.currentTimeMillis();
+            observedLockGranted = null;
+            if (heldLockGranted != null) {
+                startHeartbeat();
             }
+
+            database.setCanCacheLiquibaseTableInfo(true);
+            return true;
         } catch (Exception e) {
             throw new LockException(e);
         } finally {
@@ -224,8 +301,211 @@ public class StandardLockService implements LockService {
 
     }
 
+    /**
+     * Returns the LOCKGRANTED of the current holder if it was read unchanged for {@link #getChangeLogLockHeartbeatTtl()} seconds, which means the
+     * holder stopped refreshing the lock and it can be taken over. The time is measured with the local clock so clock differences between hosts do
+     * not matter. Returns null if the lock is not stale or heartbeats are disabled.
+     */
+    protected Date getStaleLockGranted() throws DatabaseException {
+        if (!isHeartbeatEnabled()) {
+            return null;
+        }
+        List<Map<String, ?>> rows = ExecutorService.getInstance().getExecutor(database).queryForList(new SelectFromDatabaseChangeLogLockStatement("LOCKGRANTED", "LOCKEDBY"));
+        if (rows.isEmpty() || !(rows.get(0).get("LOCKGRANTED") instanceof Date)) {
+            return null;
+        }
+        Date lockGranted = (Date) rows.get(0).get("LOCKGRANTED");
+        long now = System.currentTimeMillis();
+        if (observedLockGranted == null || observedLockGranted.getTime() != lockGranted.getTime()) {
+            observedLockGranted = lockGranted;
+            observedLockGrantedSince = now;
+            return null;
+        }
+        if (now - observedLockGrantedSince < getChangeLogLockHeartbeatTtl() * 1000) {
+            return null;
+        }
+        LogFactory.getLogger().warning("Taking over changelog lock of " + rows.get(0).get("LOCKEDBY") + " which was not refreshed for " + ((now - observedLockGrantedSince) / 1000) + " seconds");
+        return lockGranted;
+    }
+
+    /**
+     * Starts refreshing LOCKGRANTED of the held lock every third of {@link #getChangeLogLockHeartbeatTtl()} on a daemon thread, so
+     * changeSets running longer than the TTL do not lose the lock. The thread uses its own connection, opened with
+     * {@link JdbcConnection#openAdditionalConnection()}, because a commit on the connection of the running migration would commit a
+     * changeSet's half-done transaction. If no connection can be opened, the lock is only refreshed between changeSets by {@link #refreshLock()}.
+     */
+    protected void startHeartbeat() {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return;
+        }
+        try {
+            heartbeatConnection = ((JdbcConnection) database.getConnection()).openAdditionalConnection();
+            if (heartbeatConnection == null) {
+                LogFactory.getLogger().debug("Cannot open another connection for changelog lock heartbeats, refreshing the lock between changeSets");
+                return;
+            }
+            heartbeatConnection.setAutoCommit(true);
+        } catch (Exception e) {
+            LogFactory.getLogger().info("Cannot open another connection for changelog lock heartbeats, refreshing the lock between changeSets: " + e.getMessage());
+            closeHeartbeatConnection();
+            return;
+        }
+
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-lock-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long interval = Math.max(1, getChangeLogLockHeartbeatTtl() * 1000 / 3);
+        heartbeatExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                heartbeat();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refreshes LOCKGRANTED on the heartbeat connection. If the lock was taken over, the heartbeat stops and the next {@link #refreshLock()}
+     * fails the run.
+     */
+    protected void heartbeat() {
+        try {
+            if (update(heartbeatConnection, new LockDatabaseChangeLogStatement().setHeldLockGranted(heldLockGranted)) == 0) {
+                lockTakenOver = true;
+                heartbeatExecutor.shutdown();
+                LogFactory.getLogger().warning("Change log lock was taken over by another process");
+                return;
+            }
+            heldLockGranted = readLockGranted(heartbeatConnection);
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Cannot refresh changelog lock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the heartbeat thread, if it is running, and closes its connection.
+     */
+    protected void stopHeartbeat() {
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdown();
+            try {
+                heartbeatExecutor.awaitTermination(getChangeLogLockHeartbeatTtl() * 1000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            heartbeatExecutor = null;
+        }
+        closeHeartbeatConnection();
+    }
+
+    private void closeHeartbeatConnection() {
+        if (heartbeatConnection != null) {
+            try {
+                heartbeatConnection.close();
+            } catch (SQLException ignore) {
+                ;
+            }
+            heartbeatConnection = null;
+        }
+    }
+
+    private int update(Connection connection, SqlStatement statement) throws SQLException {
+        int rowsUpdated = 0;
+        for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, database)) {
+            Statement stmt = connection.createStatement();
+            try {
+                rowsUpdated += stmt.executeUpdate(sql.toSql());
+            } finally {
+                JdbcUtils.closeStatement(stmt);
+            }
+        }
+        return rowsUpdated;
+    }
+
+    private Date readLockGranted(Connection connection) throws SQLException {
+        Statement stmt = connection.createStatement();
+        ResultSet resultSet = null;
+        try {
+            resultSet = stmt.executeQuery(SqlGeneratorFactory.getInstance().generateSql(new SelectFromDatabaseChangeLogLockStatement("LOCKGRANTED"), database)[0].toSql());
+            return resultSet.next() ? resultSet.getTimestamp(1) : null;
+        } finally {
+            JdbcUtils.close(resultSet, stmt);
+        }
+    }
+
+    /**
+     * Checks the held lock was not taken over and, if there is no heartbeat thread, refreshes LOCKGRANTED so other processes do not take
+     * it over. Refreshes at most every third of {@link #getChangeLogLockHeartbeatTtl()}, and only if heartbeats are enabled. Commits, so it
+     * must only be called between changeSets.
+     *
+     * @throws LockException if the lock was taken over by another process in the meantime
+     */
+    public void refreshLock() throws LockException {
+        if (!hasChangeLogLock || heldLockGranted == null || !isHeartbeatEnabled()) {
+            return;
+        }
+        if (lockTakenOver) {
+            throw lockTakenOver();
+        }
+        if (heartbeatExecutor != null) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastHeartbeat < getChangeLogLockHeartbeatTtl() * 1000 / 3) {
+            return;
+        }
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (!executor.updatesDatabase()) {
+            return;
+        }
+        try {
+            int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement().setHeldLockGranted(heldLockGranted));
+            if (rowsUpdated == 0) {
+                database.rollback();
+                throw lockTakenOver();
+            }
+            heldLockGranted = readLockGranted();
+            database.commit();
+            lastHeartbeat = System.currentTimeMillis();
+        } catch (DatabaseException e) {
+            throw new LockException(e);
+        }
+    }
+
+    /**
+     * Forgets the held lock after it was taken over by another process and returns the exception to fail the run with.
+     */
+    private LockException lockTakenOver() {
+        stopHeartbeat();
+        hasChangeLogLock = false;
+        heldLockGranted = null;
+        lockTakenOver = true;
+        database.setCanCacheLiquibaseTableInfo(false);
+        return new LockException("Change log lock was taken over by another process after it was not refreshed for " + getChangeLogLockHeartbeatTtl() + " seconds");
+    }
+
+    /**
+     * Reads back the LOCKGRANTED just written, as stored by the database, so refreshes can check the lock is still held with it.
+     */
+    private Date readLockGranted() throws DatabaseException {
+        List<Map<String, ?>> rows = ExecutorService.getInstance().getExecutor(database).queryForList(new SelectFromDatabaseChangeLogLockStatement("LOCKGRANTED"));
+        if (rows.isEmpty() || !(rows.get(0).get("LOCKGRANTED") instanceof Date)) {
+            return null;
+        }
+        return (Date) rows.get(0).get("LOCKGRANTED");
+    }
+
     @Override
     public void releaseLock() throws LockException {
+        stopHeartbeat();
+        if (lockTakenOver) {
+            lockTakenOver = false;
+            LogFactory.getLogger().info("Not releasing change log lock, it was taken over by another process");
+            return;
+        }
         Executor executor = ExecutorService.getInstance().getExecutor(database);
         try {
             if (this.hasDatabaseChangeLogLockTable()) {
@@ -295,7 +575,11 @@ public class StandardLockService implements LockService {
 
     @Override
     public void reset() {
+        stopHeartbeat();
         hasChangeLogLock = false;
+        heldLockGranted = null;
+        lockTakenOver = false;
+        observedLockGranted = null;
         hasDatabaseChangeLogLockTable = null;
         isDatabaseChangeLogLockTableInitialized = false;
     }
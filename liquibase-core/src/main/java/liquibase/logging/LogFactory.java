@@ -4,21 +4,21 @@ import liquibase.exception.ServiceNotFoundException;
 import liquibase.logging.core.DefaultLogger;
 import liquibase.servicelocator.ServiceLocator;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LogFactory {
-    private static Map<String, Logger> loggers = new HashMap<String, Logger>();
+    private static Map<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
     private static String defaultLoggingLevel = null;
     private static DefaultLogger defaultLogger = new DefaultLogger();
 
     private static LogFactory instance;
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new LogFactory();
     }
 
-    public static LogFactory getInstance() {
+    public static synchronized LogFactory getInstance() {
         if (instance == null) {
             instance = new LogFactory();
         }
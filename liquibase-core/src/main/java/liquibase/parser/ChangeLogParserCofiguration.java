@@ -8,6 +8,8 @@ import liquibase.configuration.AbstractConfigurationContainer;
 public class ChangeLogParserCofiguration extends AbstractConfigurationContainer {
 
     public static final String SUPPORT_PROPERTY_ESCAPING = "supportPropertyEscaping";
+    public static final String INCLUDE_ALL_PARSE_THREADS = "includeAllParseThreads";
+    public static final String PARSED_CHANGELOG_CACHE_FILE = "parsedChangeLogCacheFile";
 
     public ChangeLogParserCofiguration() {
         super("liquibase");
@@ -16,6 +18,14 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
                 .setDescription("Support escaping changelog parameters using a colon. Example: ${:user.name}")
                 .setDefaultValue(false)
                 .addAlias("enableEscaping");
+
+        getContainer().addProperty(INCLUDE_ALL_PARSE_THREADS, Integer.class)
+                .setDescription("Number of threads used to parse the files of an includeAll concurrently. ChangeSets are still added in includeAll order. 1 parses sequentially. " +
+                        "Plain includes are always parsed sequentially, and so are all files of an includeAll after the first one that defines properties")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(PARSED_CHANGELOG_CACHE_FILE, String.class)
+                .setDescription("File used to store parsed XML changelogs between runs so unchanged files are not parsed again. Caching is disabled if not set");
     }
 
     public boolean getSupportPropertyEscaping() {
@@ -26,4 +36,22 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
         getContainer().setValue(SUPPORT_PROPERTY_ESCAPING, support);
         return this;
     }
+
+    public int getIncludeAllParseThreads() {
+        return getContainer().getValue(INCLUDE_ALL_PARSE_THREADS, Integer.class);
+    }
+
+    public ChangeLogParserCofiguration setIncludeAllParseThreads(int threads) {
+        getContainer().setValue(INCLUDE_ALL_PARSE_THREADS, threads);
+        return this;
+    }
+
+    public String getParsedChangeLogCacheFile() {
+        return getContainer().getValue(PARSED_CHANGELOG_CACHE_FILE, String.class);
+    }
+
+    public ChangeLogParserCofiguration setParsedChangeLogCacheFile(String file) {
+        getContainer().setValue(PARSED_CHANGELOG_CACHE_FILE, file);
+        return this;
+    }
 }
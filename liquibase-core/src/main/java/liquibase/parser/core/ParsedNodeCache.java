@@ -0,0 +1,216 @@
+package liquibase.parser.core;
+
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.parser.ChangeLogParserCofiguration;
+import liquibase.util.AbstractFileBackedCache;
+import liquibase.util.MD5Util;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * Persistent store of the {@link ParsedNode} trees read from changelog files, used to skip the parsing and schema validation
+ * of files that did not change since the last run.
+ * <p>
+ * Entries are keyed by the physical changelog path and are only used if the MD5 digest of the file content matches the digest
+ * stored with the entry. Trees are stored in a compact binary form and a new copy is read for every {@link #get(String, String)}
+ * so callers are free to modify the returned nodes. Because the cached tree is exactly what the parser produced, loading it
+ * into a {@link liquibase.changelog.DatabaseChangeLog} goes through the same parameter expansion and include handling as a fresh parse.
+ * Only trees whose values are all Strings can be cached.
+ * <p>
+ * The cache is disabled unless {@link ChangeLogParserCofiguration#getParsedChangeLogCacheFile()} is set. The file is read on first use
+ * and written back by {@link #save()}, which {@link liquibase.Liquibase} calls at the end of each command.
+ */
+public class ParsedNodeCache extends AbstractFileBackedCache<ParsedNodeCache.Entry> {
+
+    private static final int FORMAT_MAGIC = 0x4C42504E; //LBPN
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte NULL_STRING = 0;
+    private static final byte STRING = 1;
+
+    private static final Instance<ParsedNodeCache> instance = new Instance<ParsedNodeCache>() {
+        @Override
+        protected File getConfiguredFile() {
+            String configuredFile = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getParsedChangeLogCacheFile();
+            return configuredFile == null ? null : new File(configuredFile);
+        }
+
+        @Override
+        protected ParsedNodeCache create(File file) {
+            return new ParsedNodeCache(file);
+        }
+    };
+
+    public static ParsedNodeCache getInstance() {
+        return instance.get();
+    }
+
+    public static void reset() {
+        instance.reset();
+    }
+
+    /**
+     * Creates a cache backed by the given file. If file is null, the cache is disabled.
+     */
+    public ParsedNodeCache(File file) {
+        super(file);
+    }
+
+    /**
+     * Computes the digest used to validate cache entries for the given file content.
+     */
+    public static String computeDigest(byte[] content) {
+        return MD5Util.computeMD5(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Returns a new copy of the tree cached for the given path if it was stored for the same content digest. Returns null otherwise.
+     */
+    public ParsedNode get(String physicalChangeLogLocation, String digest) {
+        if (!isEnabled() || digest == null) {
+            return null;
+        }
+        Entry entry = getEntry(physicalChangeLogLocation);
+        if (entry == null || !entry.digest.equals(digest)) {
+            return null;
+        }
+        try {
+            return readNode(new DataInputStream(new ByteArrayInputStream(entry.tree)));
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot read cached tree for " + physicalChangeLogLocation + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the tree parsed from the given path, unless it contains values that are not Strings.
+     */
+    public void put(String physicalChangeLogLocation, String digest, ParsedNode node) {
+        if (!isEnabled() || digest == null || node == null) {
+            return;
+        }
+        byte[] tree;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (!writeNode(out, node)) {
+                return;
+            }
+            out.flush();
+            tree = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        putEntry(physicalChangeLogLocation, new Entry(digest, tree));
+    }
+
+    @Override
+    protected int getFormatMagic() {
+        return FORMAT_MAGIC;
+    }
+
+    @Override
+    protected int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    protected String getDescription() {
+        return "parsed changelog cache";
+    }
+
+    @Override
+    protected void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.digest);
+        out.writeInt(entry.tree.length);
+        out.write(entry.tree);
+    }
+
+    @Override
+    protected Entry readEntry(DataInputStream in) throws IOException {
+        String digest = in.readUTF();
+        byte[] tree = new byte[in.readInt()];
+        in.readFully(tree);
+        return new Entry(digest, tree);
+    }
+
+    private boolean writeNode(DataOutputStream out, ParsedNode node) throws IOException {
+        Object value = node.getValue();
+        if (value != null && !(value instanceof String)) {
+            return false;
+        }
+        writeString(out, node.getNamespace());
+        writeString(out, node.getName());
+        writeString(out, (String) value);
+        List<ParsedNode> children = node.getChildren();
+        out.writeInt(children.size());
+        for (ParsedNode child : children) {
+            if (!writeNode(out, child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ParsedNode readNode(DataInputStream in) throws IOException, ParsedNodeException {
+        ParsedNode node = new ParsedNode(readString(in), readString(in));
+        String value = readString(in);
+        if (value != null) {
+            node.setValue(value);
+        }
+        int children = in.readInt();
+        for (int i = 0; i < children; i++) {
+            node.addChild(readNode(in));
+        }
+        return node;
+    }
+
+    /**
+     * Strings are written as UTF-8 with an int length since DataOutputStream.writeUTF() is limited to 64KB, which long sql blocks can exceed.
+     */
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_STRING);
+        } else {
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        if (in.readByte() == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    protected static class Entry {
+        private final String digest;
+        private final byte[] tree;
+
+        protected Entry(String digest, byte[] tree) {
+            this.digest = digest;
+            this.tree = tree;
+        }
+
+        /**
+         * Entries are equal if they were stored for the same file content, which determines the tree.
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && digest.equals(((Entry) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+    }
+}
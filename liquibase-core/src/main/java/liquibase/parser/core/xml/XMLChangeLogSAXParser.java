@@ -1,5 +1,7 @@
 package liquibase.parser.core.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -12,6 +14,7 @@ import liquibase.changelog.ChangeLogParameters;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
 import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeCache;
 import liquibase.resource.UtfBomStripperInputStream;
 import liquibase.resource.ResourceAccessor;
 import liquibase.util.StreamUtil;
@@ -57,7 +60,10 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
     protected ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         InputStream inputStream = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
+            SAXParser parser;
+            synchronized (saxParserFactory) { //SAXParserFactory is not guaranteed to be thread safe and includeAll may parse in parallel
+                parser = saxParserFactory.newSAXParser();
+            }
             try {
                 parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
             } catch (SAXNotRecognizedException e) {
@@ -101,10 +107,30 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
                 }
             }
 
+            ParsedNodeCache parsedNodeCache = ParsedNodeCache.getInstance();
+            String digest = null;
+            boolean cacheable = false;
+            if (parsedNodeCache.isEnabled()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                StreamUtil.copy(inputStream, content);
+                digest = ParsedNodeCache.computeDigest(content.toByteArray());
+                ParsedNode cachedNode = parsedNodeCache.get(physicalChangeLogLocation, digest);
+                if (cachedNode != null) {
+                    return cachedNode;
+                }
+                //external entities can pull in other files the digest does not cover
+                cacheable = !content.toString("UTF-8").contains("<!DOCTYPE");
+                inputStream.close();
+                inputStream = new ByteArrayInputStream(content.toByteArray());
+            }
+
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
             xmlReader.setContentHandler(contentHandler);
             xmlReader.parse(new InputSource(new UtfBomStripperInputStream(inputStream)));
 
+            if (cacheable) {
+                parsedNodeCache.put(physicalChangeLogLocation, digest, contentHandler.getDatabaseChangeLogTree());
+            }
             return contentHandler.getDatabaseChangeLogTree();
         } catch (ChangeLogParseException e) {
             throw e;
@@ -5,57 +5,239 @@ import liquibase.database.DatabaseFactory;
 import liquibase.exception.LiquibaseParseException;
 import liquibase.parser.SnapshotParser;
 import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeException;
 import liquibase.resource.ResourceAccessor;
 import liquibase.snapshot.DatabaseSnapshot;
-import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.snapshot.RestoredDatabaseSnapshot;
+import liquibase.structure.DatabaseObject;
 import liquibase.util.StreamUtil;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.List;
-import java.util.Map;
+import java.math.BigInteger;
+import java.util.*;
 
+/**
+ * Reads snapshots one object at a time from the YAML (or JSON) events instead of loading the whole document into memory first.
+ * References between the objects are resolved by {@link DatabaseSnapshot#load(Map, Map)} once all objects are read.
+ */
 public class YamlSnapshotParser extends YamlParser implements SnapshotParser {
 
     @Override
     public DatabaseSnapshot parse(String path, ResourceAccessor resourceAccessor) throws LiquibaseParseException {
-        Yaml yaml = new Yaml();
-
+        InputStream stream = null;
         try {
-            InputStream stream = StreamUtil.singleInputStream(path, resourceAccessor);
+            stream = StreamUtil.singleInputStream(path, resourceAccessor);
             if (stream == null) {
                 throw new LiquibaseParseException(path + " does not exist");
             }
 
-            Map parsedYaml;
-            try {
-                parsedYaml = yaml.loadAs(new InputStreamReader(stream, "UTF-8"), Map.class);
-            } catch (Exception e) {
-                throw new LiquibaseParseException("Syntax error in " + getSupportedFileExtensions()[0] + ": " + e.getMessage(), e);
+            return readSnapshot(stream, null, resourceAccessor);
+        } catch (Throwable e) {
+            if (e instanceof LiquibaseParseException) {
+                throw (LiquibaseParseException) e;
             }
+            throw new LiquibaseParseException(e);
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignore) { }
+            }
+        }
+    }
 
-            Map rootList = (Map) parsedYaml.get("snapshot");
-            if (rootList == null) {
-                throw new LiquibaseParseException("Could not find root snapshot node");
+    /**
+     * Reads the snapshot in the given stream into the given, empty snapshot instead of a new {@link RestoredDatabaseSnapshot} with an offline database.
+     * The stream is not closed.
+     */
+    public void parse(InputStream stream, DatabaseSnapshot snapshot, ResourceAccessor resourceAccessor) throws LiquibaseParseException {
+        try {
+            readSnapshot(stream, snapshot, resourceAccessor);
+        } catch (Throwable e) {
+            if (e instanceof LiquibaseParseException) {
+                throw (LiquibaseParseException) e;
             }
+            throw new LiquibaseParseException(e);
+        }
+    }
+
+    /**
+     * Reads the snapshot into the given snapshot, or into a new {@link RestoredDatabaseSnapshot} for the stored database type if snapshot is null.
+     */
+    protected DatabaseSnapshot readSnapshot(InputStream stream, DatabaseSnapshot snapshot, ResourceAccessor resourceAccessor) throws Exception {
+        Map<String, DatabaseObject> objects = new HashMap<String, DatabaseObject>();
+        Map<String, DatabaseObject> referencedObjects = new HashMap<String, DatabaseObject>();
+        ParsedNode databaseNode = null;
+        boolean foundSnapshot = false;
+
+        try {
+            SnapshotEventReader reader = new SnapshotEventReader(new Yaml().parse(new InputStreamReader(stream, "UTF-8")).iterator());
+            reader.next(); //stream start
+            Event event = reader.next();
+            if (event.is(Event.ID.DocumentStart)) {
+                event = reader.next();
+            }
+            if (event.is(Event.ID.MappingStart)) {
+                while (!(event = reader.next()).is(Event.ID.MappingEnd)) {
+                    if (!"snapshot".equals(reader.readValue(event))) {
+                        reader.readValue(reader.next());
+                        continue;
+                    }
+                    foundSnapshot = true;
+                    reader.expect(Event.ID.MappingStart);
+                    while (!(event = reader.next()).is(Event.ID.MappingEnd)) {
+                        Object field = reader.readValue(event);
+                        if ("objects".equals(field)) {
+                            readObjects(reader, objects, resourceAccessor);
+                        } else if ("referencedObjects".equals(field)) {
+                            readObjects(reader, referencedObjects, resourceAccessor);
+                        } else if ("database".equals(field)) {
+                            databaseNode = new ParsedNode(null, "database").setValue(reader.readValue(reader.next()));
+                        } else {
+                            reader.readValue(reader.next());
+                        }
+                    }
+                }
+            }
+        } catch (YAMLException e) {
+            throw new LiquibaseParseException("Syntax error in " + getSupportedFileExtensions()[0] + ": " + e.getMessage(), e);
+        }
 
-            String shortName = (String) ((Map) rootList.get("database")).get("shortName");
+        if (!foundSnapshot) {
+            throw new LiquibaseParseException("Could not find root snapshot node");
+        }
 
+        if (snapshot == null) {
+            String shortName = databaseNode == null ? null : databaseNode.getChildValue(null, "shortName", String.class);
             Database database = DatabaseFactory.getInstance().getDatabase(shortName).getClass().newInstance();
-            DatabaseSnapshot snapshot = new RestoredDatabaseSnapshot(database);
-            ParsedNode snapshotNode = new ParsedNode(null, "snapshot");
-            snapshotNode.setValue(rootList);
+            snapshot = new RestoredDatabaseSnapshot(database);
+        }
+        snapshot.loadDatabase(databaseNode);
+        snapshot.load(objects, referencedObjects);
 
-            snapshot.load(snapshotNode, resourceAccessor);
+        return snapshot;
+    }
 
-            return snapshot;
-        } catch (Throwable e) {
-            if (e instanceof LiquibaseParseException) {
-                throw (LiquibaseParseException) e;
+    /**
+     * Reads the objects of an objects or referencedObjects node, which maps each type to the list of its objects.
+     */
+    private void readObjects(SnapshotEventReader reader, Map<String, DatabaseObject> objectMap, ResourceAccessor resourceAccessor) throws ClassNotFoundException, InstantiationException, IllegalAccessException, ParsedNodeException, LiquibaseParseException {
+        Event event = reader.next();
+        if (!event.is(Event.ID.MappingStart)) {
+            reader.readValue(event);
+            return;
+        }
+        while (!(event = reader.next()).is(Event.ID.MappingEnd)) {
+            Class<? extends DatabaseObject> objectType = (Class<? extends DatabaseObject>) Class.forName((String) reader.readValue(event));
+            reader.expect(Event.ID.SequenceStart);
+            while (!(event = reader.next()).is(Event.ID.SequenceEnd)) {
+                ParsedNode typeNode = new ParsedNode(null, objectType.getName()).setValue(Collections.singletonList(reader.readValue(event)));
+                for (ParsedNode objectNode : typeNode.getChildren()) {
+                    DatabaseObject databaseObject = objectType.newInstance();
+                    databaseObject.load(objectNode, resourceAccessor);
+                    objectMap.put(objectType.getName() + "#" + databaseObject.getSnapshotId(), databaseObject);
+                }
             }
-            throw new LiquibaseParseException(e);
+        }
+    }
+
+    /**
+     * Builds the values of single nodes from the event stream, with the same types a {@link Yaml#load(java.io.Reader)} of the node would return
+     * except timestamps, which are returned as strings.
+     */
+    private static class SnapshotEventReader {
+        private final Iterator<Event> events;
+        private final Resolver resolver = new Resolver();
+        private final Map<String, Object> anchors = new HashMap<String, Object>();
+
+        private SnapshotEventReader(Iterator<Event> events) {
+            this.events = events;
+        }
+
+        private Event next() throws LiquibaseParseException {
+            if (!events.hasNext()) {
+                throw new LiquibaseParseException("Unexpected end of snapshot");
+            }
+            return events.next();
+        }
+
+        private void expect(Event.ID id) throws LiquibaseParseException {
+            Event event = next();
+            if (!event.is(id)) {
+                throw new LiquibaseParseException("Expected " + id + " but found " + event + " in snapshot");
+            }
+        }
+
+        private Object readValue(Event event) throws LiquibaseParseException {
+            Object value;
+            if (event.is(Event.ID.Alias)) {
+                return anchors.get(((AliasEvent) event).getAnchor());
+            } else if (event.is(Event.ID.Scalar)) {
+                value = toScalarValue((ScalarEvent) event);
+            } else if (event.is(Event.ID.MappingStart)) {
+                Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+                Event keyEvent;
+                while (!(keyEvent = next()).is(Event.ID.MappingEnd)) {
+                    map.put(readValue(keyEvent), readValue(next()));
+                }
+                value = map;
+            } else if (event.is(Event.ID.SequenceStart)) {
+                List<Object> list = new ArrayList<Object>();
+                Event itemEvent;
+                while (!(itemEvent = next()).is(Event.ID.SequenceEnd)) {
+                    list.add(readValue(itemEvent));
+                }
+                value = list;
+            } else {
+                throw new LiquibaseParseException("Unexpected " + event + " in snapshot");
+            }
+
+            if (event instanceof NodeEvent && ((NodeEvent) event).getAnchor() != null) {
+                anchors.put(((NodeEvent) event).getAnchor(), value);
+            }
+            return value;
+        }
+
+        private Object toScalarValue(ScalarEvent event) {
+            String value = event.getValue();
+            String tag = event.getTag();
+            if (tag == null || tag.equals("!")) {
+                tag = resolver.resolve(NodeId.scalar, value, event.getImplicit().canOmitTagInPlainScalar()).getValue();
+            }
+
+            if (tag.equals(Tag.NULL.getValue())) {
+                return null;
+            } else if (tag.equals(Tag.BOOL.getValue())) {
+                String lowerValue = value.toLowerCase();
+                return lowerValue.equals("true") || lowerValue.equals("yes") || lowerValue.equals("on");
+            } else if (tag.equals(Tag.INT.getValue())) {
+                try {
+                    BigInteger number = new BigInteger(value.replace("_", "").replaceFirst("^\\+", ""));
+                    if (number.bitLength() < 32) {
+                        return number.intValue();
+                    } else if (number.bitLength() < 64) {
+                        return number.longValue();
+                    }
+                    return number;
+                } catch (NumberFormatException e) {
+                    return value; //hex, octal or sexagesimal notation is not used in snapshots
+                }
+            } else if (tag.equals(Tag.FLOAT.getValue())) {
+                try {
+                    return Double.valueOf(value.replace("_", ""));
+                } catch (NumberFormatException e) {
+                    return value;
+                }
+            }
+            return value;
         }
     }
 }
@@ -0,0 +1,19 @@
+package liquibase.serializer;
+
+import liquibase.changelog.ChangeLogChild;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * A {@link ChangeLogSerializer} that can write each child of a changelog as soon as it is taken from the iterator,
+ * so children that are generated on demand never need to be held in memory together.
+ */
+public interface StreamingChangeLogSerializer extends ChangeLogSerializer {
+
+    /**
+     * Writes the same changelog {@link #write(java.util.List, OutputStream)} would for the children in the iterator.
+     */
+    <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException;
+}
@@ -10,6 +10,7 @@ import liquibase.database.DatabaseFactory;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 
@@ -17,7 +18,7 @@ import java.io.*;
 import java.util.*;
 import java.util.regex.*;
 
-public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
+public class FormattedSqlChangeLogSerializer  implements StreamingChangeLogSerializer {
 
     private static Pattern fileNamePatter = Pattern.compile(".*\\.(\\w+)\\.sql");
 
@@ -77,15 +78,17 @@ public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
 
     @Override
     public <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException {
-        StringBuilder builder = new StringBuilder();
-        builder.append("--liquibase formatted sql\n\n");
+        write(children.iterator(), out);
+    }
 
-        for (T child : children) {
-            builder.append(serialize(child, true));
-            builder.append("\n");
-        }
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        String encoding = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getOutputEncoding();
+        out.write("--liquibase formatted sql\n\n".getBytes(encoding));
 
-        out.write(builder.toString().getBytes(LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getOutputEncoding()));
+        while (children.hasNext()) {
+            out.write((serialize(children.next(), true) + "\n").getBytes(encoding));
+        }
 
     }
 
@@ -11,12 +11,16 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
 
     @Override
     public <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException {
+        write(children.iterator(), out);
+    }
+
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
         BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
         writer.write("{ \"databaseChangeLog\": [\n");
-        int i = 0;
-        for (T child : children) {
-            String serialized = serialize(child, true);
-            if (++i < children.size()) {
+        while (children.hasNext()) {
+            String serialized = serialize(children.next(), true);
+            if (children.hasNext()) {
                 serialized = serialized.replaceFirst("}\\s*$", "},\n");
             }
             writer.write(StringUtils.indent(serialized, 2));
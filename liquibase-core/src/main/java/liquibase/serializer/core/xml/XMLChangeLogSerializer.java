@@ -8,8 +8,8 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.parser.NamespaceDetails;
 import liquibase.parser.NamespaceDetailsFactory;
 import liquibase.parser.core.xml.LiquibaseEntityResolver;
-import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
 import liquibase.util.ISODateFormat;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
@@ -25,7 +25,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.util.*;
 
-public class XMLChangeLogSerializer implements ChangeLogSerializer {
+public class XMLChangeLogSerializer implements StreamingChangeLogSerializer {
 
     private Document currentChangeLogFileDOM;
 
@@ -68,6 +68,63 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
 
     @Override
     public <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+        for (T child : children) {
+            doc.getDocumentElement().appendChild(createNode(child));
+        }
+
+        new DefaultXmlWriter().write(doc, out);
+    }
+
+    /**
+     * Writes the document start once, then each child on its own in an otherwise empty document and copies the child's part of that output.
+     * The output is the same as {@link #write(List, OutputStream)}, but only one child is in the DOM at a time.
+     */
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+        if (!children.hasNext()) {
+            new DefaultXmlWriter().write(doc, out);
+            return;
+        }
+
+        Element changeLogElement = doc.getDocumentElement();
+        Comment placeholder = doc.createComment("children");
+        changeLogElement.appendChild(placeholder);
+        String emptyChangeLog = toXml(doc);
+        changeLogElement.removeChild(placeholder);
+
+        int placeholderStart = emptyChangeLog.indexOf("<!--children-->");
+        String start = emptyChangeLog.substring(0, placeholderStart);
+        String end = emptyChangeLog.substring(placeholderStart + "<!--children-->".length());
+        String separator = start.substring(start.lastIndexOf('>') + 1);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+        writer.write(start);
+        boolean first = true;
+        while (children.hasNext()) {
+            Element childNode = createNode(children.next());
+            changeLogElement.appendChild(childNode);
+            String xml = toXml(doc);
+            changeLogElement.removeChild(childNode);
+
+            if (!first) {
+                writer.write(separator);
+            }
+            writer.write(xml.substring(start.length(), xml.length() - end.length()));
+            first = false;
+        }
+        writer.write(end);
+        writer.flush();
+    }
+
+    private String toXml(Document doc) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DefaultXmlWriter().write(doc, out);
+        return out.toString("UTF-8");
+    }
+
+    private Document createChangeLogDocument() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         DocumentBuilder documentBuilder;
@@ -119,11 +176,7 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         doc.appendChild(changeLogElement);
         setCurrentChangeLogFileDOM(doc);
 
-        for (T child : children) {
-            doc.getDocumentElement().appendChild(createNode(child));
-        }
-
-        new DefaultXmlWriter().write(doc, out);
+        return doc;
     }
 
     @Override
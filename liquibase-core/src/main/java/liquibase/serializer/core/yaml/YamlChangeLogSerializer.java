@@ -2,13 +2,14 @@ package liquibase.serializer.core.yaml;
 
 import liquibase.changelog.ChangeLogChild;
 import liquibase.changelog.ChangeSet;
-import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.StreamingChangeLogSerializer;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import java.io.*;
 import java.util.*;
 
-public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLogSerializer {
+public class YamlChangeLogSerializer extends YamlSerializer implements StreamingChangeLogSerializer {
 
     protected Comparator<String> getComparator(LiquibaseSerializable object) {
         if (object instanceof ChangeSet) {
@@ -33,6 +34,25 @@ public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLog
         writer.flush();
     }
 
+    /**
+     * Writes the databaseChangeLog key, then dumps each child as a one item sequence so only one child is in memory at a time.
+     */
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        if (!children.hasNext()) {
+            write(Collections.<T>emptyList(), out);
+            return;
+        }
+
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
+        writer.write("databaseChangeLog:\n");
+        while (children.hasNext()) {
+            writer.write(yaml.dumpAs(Collections.singletonList(toMap(children.next())), Tag.SEQ, null));
+        }
+        writer.write("\n");
+        writer.flush();
+    }
+
 
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
@@ -33,6 +33,10 @@ public abstract class YamlSerializer implements LiquibaseSerializer {
     }
 
     protected Yaml createYaml() {
+        return new Yaml(getLiquibaseRepresenter(), createDumperOptions());
+    }
+
+    protected DumperOptions createDumperOptions() {
         if (isJson()) {
             DumperOptions dumperOptions = new DumperOptions();
             dumperOptions.setPrettyFlow(true);
@@ -40,13 +44,13 @@ public abstract class YamlSerializer implements LiquibaseSerializer {
             dumperOptions.setDefaultScalarStyle(DumperOptions.ScalarStyle.DOUBLE_QUOTED);
             dumperOptions.setWidth(Integer.MAX_VALUE);
 
-            return new Yaml(getLiquibaseRepresenter(), dumperOptions);
+            return dumperOptions;
         }
 
 
         DumperOptions dumperOptions = new DumperOptions();
         dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        return new Yaml(getLiquibaseRepresenter(), dumperOptions);
+        return dumperOptions;
     }
 
     protected LiquibaseRepresenter getLiquibaseRepresenter() {
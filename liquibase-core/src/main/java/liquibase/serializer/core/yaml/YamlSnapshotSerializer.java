@@ -13,6 +13,9 @@ import liquibase.structure.DatabaseObjectCollection;
 import liquibase.structure.DatabaseObjectComparator;
 import liquibase.util.ISODateFormat;
 
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.*;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
@@ -23,12 +26,85 @@ import java.util.*;
 
 public class YamlSnapshotSerializer extends YamlSerializer implements SnapshotSerializer {
 
+    /**
+     * Tags of scalars written without quotes and tag in JSON, as {@link #serialize(LiquibaseSerializable, boolean)} does.
+     */
+    private static final Set<String> JSON_PLAIN_TAGS = new HashSet<String>(Arrays.asList(Tag.INT.getValue(), Tag.BOOL.getValue(), Tag.TIMESTAMP.getValue(), Tag.FLOAT.getValue()));
+
     private boolean alreadySerializingObject = false;
 
     @Override
     public void write(DatabaseSnapshot snapshot, OutputStream out) throws IOException {
         BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getOutputEncoding()));
-        writer.write(serialize(snapshot, true));
+        write(snapshot, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the snapshot one object at a time, so the representation of the whole snapshot is never held in memory.
+     * The document is the same as the one returned by {@link #serialize(LiquibaseSerializable, boolean)}. The writer is not flushed or closed.
+     */
+    public void write(DatabaseSnapshot snapshot, Writer writer) throws IOException {
+        DumperOptions dumperOptions = createDumperOptions();
+        Emitter emitter = new Emitter(writer, dumperOptions);
+        Boolean flowStyle = dumperOptions.getDefaultFlowStyle().getStyleBoolean();
+
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+        emitter.emit(new MappingStartEvent(null, null, true, null, null, flowStyle));
+        emitKey(emitter, snapshot.getSerializedObjectName(), dumperOptions);
+        emitter.emit(new MappingStartEvent(null, null, true, null, null, flowStyle));
+        for (String field : new TreeSet<String>(snapshot.getSerializableFields())) {
+            Object value = snapshot.getSerializableFieldValue(field);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof DatabaseObjectCollection) {
+                SortedMap<String, Set<? extends DatabaseObject>> objectsByType = new TreeMap<String, Set<? extends DatabaseObject>>();
+                for (Map.Entry<Class<? extends DatabaseObject>, Set<? extends DatabaseObject>> entry : ((DatabaseObjectCollection) value).toMap().entrySet()) {
+                    objectsByType.put(entry.getKey().getName(), entry.getValue());
+                }
+                if (objectsByType.size() == 0) {
+                    continue;
+                }
+
+                emitKey(emitter, field, dumperOptions);
+                emitter.emit(new MappingStartEvent(null, null, true, null, null, flowStyle));
+                for (Map.Entry<String, Set<? extends DatabaseObject>> entry : objectsByType.entrySet()) {
+                    emitKey(emitter, entry.getKey(), dumperOptions);
+                    emitter.emit(new SequenceStartEvent(null, null, true, null, null, flowStyle));
+                    List<DatabaseObject> objects = new ArrayList<DatabaseObject>(entry.getValue());
+                    Collections.sort(objects, new DatabaseObjectComparator());
+                    for (DatabaseObject object : objects) {
+                        emitValue(emitter, toMap(object));
+                    }
+                    emitter.emit(new SequenceEndEvent(null, null));
+                }
+                emitter.emit(new MappingEndEvent(null, null));
+            } else {
+                emitKey(emitter, field, dumperOptions);
+                emitValue(emitter, value instanceof LiquibaseSerializable ? toMap((LiquibaseSerializable) value) : value);
+            }
+        }
+        emitter.emit(new MappingEndEvent(null, null));
+        emitter.emit(new MappingEndEvent(null, null));
+        emitter.emit(new DocumentEndEvent(null, null, false));
+        emitter.emit(new StreamEndEvent(null, null));
+    }
+
+    private void emitKey(Emitter emitter, String key, DumperOptions dumperOptions) throws IOException {
+        emitter.emit(new ScalarEvent(null, null, new ImplicitTuple(true, true), key, null, null, dumperOptions.getDefaultScalarStyle().getChar()));
+    }
+
+    private void emitValue(Emitter emitter, Object value) throws IOException {
+        List<Event> events = yaml.serialize(yaml.represent(value));
+        for (Event event : events.subList(2, events.size() - 2)) { //without the stream and document start and end events
+            if (isJson() && event instanceof ScalarEvent && JSON_PLAIN_TAGS.contains(((ScalarEvent) event).getTag())) {
+                ScalarEvent scalar = (ScalarEvent) event;
+                event = new ScalarEvent(scalar.getAnchor(), scalar.getTag(), new ImplicitTuple(true, true), scalar.getValue(), null, null, null);
+            }
+            emitter.emit(event);
+        }
     }
 
 //    @Override
@@ -50,6 +126,11 @@ public class YamlSnapshotSerializer extends YamlSerializer implements SnapshotSe
     protected Object toMap(LiquibaseSerializable object) {
         if (object instanceof DatabaseObject) {
             if (alreadySerializingObject) {
+                if (((DatabaseObject) object).getSnapshotId() == null) { //not a snapshotted object, e.g. an index column. Store all its attributes so it can be recreated
+                    Map<String, Object> nestedMap = new HashMap<String, Object>();
+                    nestedMap.put(object.getClass().getName(), ((Map) super.toMap(object)).values().iterator().next());
+                    return nestedMap;
+                }
                 return ((DatabaseObject) object).getClass().getName()+"#"+((DatabaseObject) object).getSnapshotId();
             } else {
                 alreadySerializingObject = true;
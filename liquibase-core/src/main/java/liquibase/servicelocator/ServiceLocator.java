@@ -18,6 +18,7 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Manifest;
 
 public class ServiceLocator {
@@ -83,7 +84,7 @@ public class ServiceLocator {
 
     public void setResourceAccessor(ResourceAccessor resourceAccessor) {
         this.resourceAccessor = resourceAccessor;
-        this.classesBySuperclass = new HashMap<Class, List<Class>>();
+        this.classesBySuperclass = new ConcurrentHashMap<Class, List<Class>>();
 
         this.classResolver.setClassLoaders(new HashSet<ClassLoader>(Arrays.asList(new ClassLoader[] {resourceAccessor.toClassLoader()})));
 
@@ -181,7 +182,11 @@ public class ServiceLocator {
                 Class.forName(requiredInterface.getName());
 
                 if (!classesBySuperclass.containsKey(requiredInterface)) {
-                    classesBySuperclass.put(requiredInterface, findClassesImpl(requiredInterface));
+                    synchronized (this) {
+                        if (!classesBySuperclass.containsKey(requiredInterface)) {
+                            classesBySuperclass.put(requiredInterface, findClassesImpl(requiredInterface));
+                        }
+                    }
                 }
             } catch (Exception e) {
                 throw new ServiceNotFoundException(e);
@@ -1,37 +1,70 @@
 package liquibase.snapshot;
 
-import liquibase.executor.jvm.ColumnMapRowMapper;
-
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * A row of database metadata held by {@link ResultSetCache}.
+ * <p>
+ * Rows read from the same result set share one {@link Columns} dictionary and only hold an array of values, which is much smaller
+ * than a map per row when large schemas are snapshotted. Values set for columns that are not in the dictionary are kept in a map on the row.
+ */
 public class CachedRow {
-    private Map row;
+    private final Columns columns;
+    private final Object[] values;
+    private Map<String, Object> extraValues;
 
     public CachedRow(Map row) {
-        this.row = row;
+        this.columns = new Columns((String[]) row.keySet().toArray(new String[row.size()]));
+        this.values = row.values().toArray();
     }
 
-
+    /**
+     * Creates a row for the given column dictionary. The values array is used directly and must hold one value per dictionary column.
+     */
+    CachedRow(Columns columns, Object[] values) {
+        this.columns = columns;
+        this.values = values;
+    }
 
     public Object get(String columnName) {
-        return row.get(columnName);
+        int index = columns.indexOf(columnName);
+        if (index >= 0) {
+            return values[index];
+        }
+        if (extraValues == null) {
+            return null;
+        }
+        return extraValues.get(columnName);
     }
 
     public void set(String columnName, Object value) {
-        row.put(columnName, value);
+        int index = columns.indexOf(columnName);
+        if (index >= 0) {
+            values[index] = value;
+        } else {
+            if (extraValues == null) {
+                extraValues = new HashMap<String, Object>(4);
+            }
+            extraValues.put(columnName, value);
+        }
     }
 
 
     public boolean containsColumn(String columnName) {
-        return row.containsKey(columnName);
+        int index = columns.indexOf(columnName);
+        if (index >= 0) {
+            return true;
+        }
+        return extraValues != null && extraValues.containsKey(columnName);
     }
 
     public String getString(String columnName) {
-        return (String) row.get(columnName);
+        return (String) get(columnName);
     }
 
     public Integer getInt(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             return ((Number) o).intValue();
         } else if (o instanceof String) {
@@ -41,7 +74,7 @@ public class CachedRow {
     }
 
     public Short getShort(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             return ((Number) o).shortValue();
         } else if (o instanceof String) {
@@ -51,7 +84,7 @@ public class CachedRow {
     }
 
     public Boolean getBoolean(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             if (((Number) o).longValue() == 0) {
                 return false;
@@ -64,4 +97,24 @@ public class CachedRow {
         }
         return (Boolean) o;
     }
+
+    /**
+     * Column names of a result set with their position in the value arrays of its rows.
+     * If a name appears more than once, lookups find the last position, like a map built from the result set would.
+     */
+    static class Columns {
+        private final Map<String, Integer> indexes;
+
+        Columns(String[] names) {
+            indexes = new HashMap<String, Integer>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+        }
+
+        int indexOf(String columnName) {
+            Integer index = indexes.get(columnName);
+            return index == null ? -1 : index;
+        }
+    }
 }
@@ -20,9 +20,13 @@ import liquibase.util.ObjectUtil;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public abstract class DatabaseSnapshot implements LiquibaseSerializable {
 
+    private static final Pattern UNSNAPSHOTTED_REFERENCE_PATTERN = Pattern.compile("(.*)!\\{(.*)\\}");
+
     private final DatabaseObject[] originalExamples;
     private HashSet<String> serializableFields;
     private SnapshotControl snapshotControl;
@@ -147,7 +151,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         return database;
     }
 
-    public ResultSetCache getResultSetCache(String key) {
+    public synchronized ResultSetCache getResultSetCache(String key) {
         if (!resultSetCaches.containsKey(key)) {
             resultSetCaches.put(key, new ResultSetCache());
         }
@@ -393,31 +397,56 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
             Map<String, DatabaseObject> referencedObjects = new HashMap<String, DatabaseObject>();
             Map<String, DatabaseObject> objects = new HashMap<String, DatabaseObject>();
             Map<String, DatabaseObject> allObjects = new HashMap<String, DatabaseObject>();
-            ParsedNode databaseNode = parsedNode.getChild(null, "database");
-            DatabaseConnection connection = getDatabase().getConnection();
-            if (databaseNode != null && connection instanceof OfflineConnection) {
-                ((OfflineConnection) connection).setDatabaseMajorVersion(databaseNode.getChildValue(null, "majorVersion", Integer.class));
-                ((OfflineConnection) connection).setDatabaseMinorVersion(databaseNode.getChildValue(null, "minorVersion", Integer.class));
-                ((OfflineConnection) connection).setProductVersion(databaseNode.getChildValue(null, "productVersion", String.class));
-                ((OfflineConnection) connection).setConnectionUserName(databaseNode.getChildValue(null, "user", String.class));
-            }
+            loadDatabase(parsedNode.getChild(null, "database"));
 
             loadObjects(referencedObjects, allObjects, parsedNode.getChild(null, "referencedObjects"), resourceAccessor);
             loadObjects(objects, allObjects, parsedNode.getChild(null, "objects"), resourceAccessor);
 
+            load(objects, referencedObjects);
+        } catch (ParsedNodeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ParsedNodeException(e);
+        }
+    }
+
+    /**
+     * Sets the database information stored with a snapshot on an {@link OfflineConnection}. Does nothing for other connections.
+     */
+    public void loadDatabase(ParsedNode databaseNode) throws ParsedNodeException {
+        DatabaseConnection connection = getDatabase().getConnection();
+        if (databaseNode != null && connection instanceof OfflineConnection) {
+            ((OfflineConnection) connection).setDatabaseMajorVersion(databaseNode.getChildValue(null, "majorVersion", Integer.class));
+            ((OfflineConnection) connection).setDatabaseMinorVersion(databaseNode.getChildValue(null, "minorVersion", Integer.class));
+            ((OfflineConnection) connection).setProductVersion(databaseNode.getChildValue(null, "productVersion", String.class));
+            ((OfflineConnection) connection).setConnectionUserName(databaseNode.getChildValue(null, "user", String.class));
+        }
+    }
+
+    /**
+     * Adds objects loaded from a serialized snapshot and replaces the references between them with the objects they point to.
+     * The maps are keyed by "type#snapshotId", which is how serialized snapshots reference objects.
+     * Parsers that read objects one at a time call this once all objects are read instead of {@link #load(ParsedNode, ResourceAccessor)}.
+     */
+    public void load(Map<String, DatabaseObject> objects, Map<String, DatabaseObject> referencedObjects) throws ParsedNodeException {
+        try {
+            Map<String, DatabaseObject> allObjects = new HashMap<String, DatabaseObject>(referencedObjects);
+            allObjects.putAll(objects);
+
+            //resolve single object references first, setters of collection attributes may use them (e.g. ForeignKey.setPrimaryKeyColumns)
+            for (DatabaseObject object : allObjects.values()) {
+                loadSingleReferences(object, allObjects);
+            }
+
             for (DatabaseObject object : allObjects.values()) {
                 for (String attr : new ArrayList<String>(object.getAttributes())) {
                     Object value = object.getAttribute(attr, Object.class);
-                    if (value instanceof String && allObjects.containsKey(value)) {
-                        if (ObjectUtil.hasProperty(object, attr)) {
-                            ObjectUtil.setProperty(object, attr, allObjects.get(value));
-                        } else {
-                            object.setAttribute(attr, allObjects.get(value));
-                        }
-                    } else if (value instanceof Collection && ((Collection) value).size() > 0 && allObjects.containsKey(((Collection) value).iterator().next())) {
+                    if (value instanceof DatabaseObject) {
+                        continue;
+                    } else if (value instanceof Collection && ((Collection) value).size() > 0 && loadReference(((Collection) value).iterator().next(), allObjects) != null) {
                         List newList = new ArrayList();
-                        for (String element : (Collection<String>) value) {
-                            newList.add(allObjects.get(element));
+                        for (Object element : (Collection) value) {
+                            newList.add(loadReference(element, allObjects));
                         }
                         if (ObjectUtil.hasProperty(object, attr)) {
                             ObjectUtil.setProperty(object, attr, newList);
@@ -444,6 +473,51 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         }
     }
 
+    /**
+     * Replaces the attributes of the given object that are "type#snapshotId" references with the objects they point to.
+     */
+    private void loadSingleReferences(DatabaseObject object, Map<String, DatabaseObject> allObjects) {
+        for (String attr : new ArrayList<String>(object.getAttributes())) {
+            Object value = object.getAttribute(attr, Object.class);
+            if (value instanceof String && allObjects.containsKey(value)) {
+                if (ObjectUtil.hasProperty(object, attr)) {
+                    ObjectUtil.setProperty(object, attr, allObjects.get(value));
+                } else {
+                    object.setAttribute(attr, allObjects.get(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the object a serialized collection element points to. Elements are either "type#snapshotId" keys of loaded objects or objects
+     * that were not snapshotted themselves, like the columns of an index, which are stored with all their attributes and get their references resolved here.
+     * Snapshots stored before those objects were written in full reference them as "name!{type}" and are recreated with just their name.
+     * Returns null if the value is not a reference.
+     */
+    private DatabaseObject loadReference(Object value, Map<String, DatabaseObject> allObjects) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        if (value instanceof DatabaseObject) {
+            loadSingleReferences((DatabaseObject) value, allObjects);
+            return (DatabaseObject) value;
+        }
+        if (!(value instanceof String)) {
+            return null;
+        }
+        if (allObjects.containsKey(value)) {
+            return allObjects.get(value);
+        }
+        Matcher matcher = UNSNAPSHOTTED_REFERENCE_PATTERN.matcher((String) value);
+        if (matcher.matches()) {
+            Class<?> type = Class.forName(matcher.group(2));
+            if (DatabaseObject.class.isAssignableFrom(type)) {
+                DatabaseObject object = (DatabaseObject) type.newInstance();
+                object.setName(matcher.group(1));
+                return object;
+            }
+        }
+        return null;
+    }
+
     protected void loadObjects(Map<String, DatabaseObject> objectMap, Map<String, DatabaseObject> allObjects, ParsedNode node, ResourceAccessor resourceAccessor) throws ClassNotFoundException, InstantiationException, IllegalAccessException, ParsedNodeException {
         if (node == null) {
             return;
@@ -1,6 +1,8 @@
 package liquibase.snapshot;
 
 import liquibase.CatalogAndSchema;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
 import liquibase.database.core.*;
@@ -10,8 +12,15 @@ import liquibase.logging.LogFactory;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
@@ -25,6 +34,107 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         super(examples, database);
     }
 
+    @Override
+    protected void init(DatabaseObject[] examples) throws DatabaseException, InvalidExampleException {
+        prefetch(examples);
+        super.init(examples);
+    }
+
+    /**
+     * If {@link SnapshotControl#getParallelDataSource()} is set, runs the bulk column, index, foreign key, primary key and unique constraint
+     * queries for the example schemas concurrently, each on its own connection from the DataSource, and stores the results in the result set caches
+     * used by {@link #getMetaData()}. The snapshot itself is still built on the calling thread.
+     * Queries that fail are logged and left to the normal snapshot process.
+     */
+    protected void prefetch(DatabaseObject[] examples) throws DatabaseException {
+        final DataSource dataSource = getSnapshotControl().getParallelDataSource();
+        if (dataSource == null || examples == null || !(getDatabase() instanceof AbstractJdbcDatabase) || !(getDatabase().getConnection() instanceof JdbcConnection)) {
+            return;
+        }
+        AbstractJdbcDatabase database = (AbstractJdbcDatabase) getDatabase();
+
+        List<PrefetchTask> tasks = new ArrayList<PrefetchTask>();
+        for (DatabaseObject example : examples) {
+            if (!(example instanceof Schema)) {
+                continue;
+            }
+            final CatalogAndSchema catalogAndSchema = ((Schema) example).toCatalogAndSchema().standardize(database);
+            final String jdbcCatalogName = database.getJdbcCatalogName(catalogAndSchema);
+            final String jdbcSchemaName = database.getJdbcSchemaName(catalogAndSchema);
+
+            if (getSnapshotControl().shouldInclude(Column.class)) {
+                tasks.add(new PrefetchTask(dataSource, "columns", catalogAndSchema) {
+                    @Override
+                    protected void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException {
+                        metaData.getColumns(jdbcCatalogName, jdbcSchemaName, null, null);
+                    }
+                });
+            }
+            if (getSnapshotControl().shouldInclude(Index.class)) {
+                tasks.add(new PrefetchTask(dataSource, "indexes", catalogAndSchema) {
+                    @Override
+                    protected void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException {
+                        metaData.getIndexInfo(jdbcCatalogName, jdbcSchemaName, null, null);
+                    }
+                });
+            }
+            if (getSnapshotControl().shouldInclude(ForeignKey.class)) {
+                tasks.add(new PrefetchTask(dataSource, "foreign keys", catalogAndSchema) {
+                    @Override
+                    protected void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException {
+                        metaData.getForeignKeys(jdbcCatalogName, jdbcSchemaName, null, null);
+                    }
+                });
+            }
+            if (getSnapshotControl().shouldInclude(PrimaryKey.class)) {
+                tasks.add(new PrefetchTask(dataSource, "primary keys", catalogAndSchema) {
+                    @Override
+                    protected void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException {
+                        metaData.getPrimaryKeys(jdbcCatalogName, jdbcSchemaName, null);
+                    }
+                });
+            }
+            if (getSnapshotControl().shouldInclude(UniqueConstraint.class)) {
+                tasks.add(new PrefetchTask(dataSource, "unique constraints", catalogAndSchema) {
+                    @Override
+                    protected void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException {
+                        metaData.getUniqueConstraints(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName(), null);
+                    }
+                });
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.max(1, Math.min(getSnapshotControl().getParallelThreads(), tasks.size()));
+        java.util.concurrent.ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-snapshot-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Void>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    LogFactory.getLogger().warning("Cannot prefetch " + tasks.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public CachingDatabaseMetaData getMetaData() throws SQLException {
         if (cachingDatabaseMetaData == null) {
             DatabaseMetaData databaseMetaData = null;
@@ -41,18 +151,68 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
         private DatabaseMetaData databaseMetaData;
         private Database database;
+        private Connection prefetchConnection;
 
         public CachingDatabaseMetaData(Database database, DatabaseMetaData metaData) {
             this.databaseMetaData = metaData;
             this.database = database;
         }
 
+        /**
+         * Creates metadata that only runs bulk queries on the given connection to fill the result set caches of the snapshot.
+         * Lookups through it return empty lists.
+         */
+        CachingDatabaseMetaData(Database database, Connection prefetchConnection) throws SQLException {
+            this(database, prefetchConnection.getMetaData());
+            this.prefetchConnection = prefetchConnection;
+        }
+
         public DatabaseMetaData getDatabaseMetaData() {
             return databaseMetaData;
         }
 
+        private List<CachedRow> getCachedRows(String key, ResultSetCache.ResultSetExtractor extractor) throws DatabaseException {
+            if (prefetchConnection == null) {
+                return getResultSetCache(key).get(extractor);
+            }
+            extractor.setConnection(prefetchConnection);
+            getResultSetCache(key).prefetch(extractor);
+            return new ArrayList<CachedRow>();
+        }
+
+        /**
+         * Returns true if primary keys, indexes and foreign keys of a whole schema can be selected from the system catalog in one query,
+         * instead of calling DatabaseMetaData for each table. Only used if {@link GlobalConfiguration#getSnapshotCatalogBulkSelect()} is set.
+         */
+        protected boolean supportsCatalogBulkSelect() {
+            if (!LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getSnapshotCatalogBulkSelect()) {
+                return false;
+            }
+            try {
+                if (database instanceof PostgresDatabase) {
+                    return database.getDatabaseMajorVersion() >= 9;
+                } else if (database instanceof MySQLDatabase) {
+                    return database.getDatabaseMajorVersion() > 5 || (database.getDatabaseMajorVersion() == 5 && database.getDatabaseMinorVersion() >= 1);
+                }
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().debug("Cannot determine database version, not bulk selecting from the system catalog", e);
+            }
+            return false;
+        }
+
+        /**
+         * Returns the escaped name of the schema the catalog queries select from. MySQL reports its databases as catalogs.
+         */
+        protected String getCatalogBulkSelectSchemaName(String catalogName, String schemaName) {
+            CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+            if (database instanceof MySQLDatabase) {
+                return database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcCatalogName(catalogAndSchema));
+            }
+            return database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema));
+        }
+
         public List<CachedRow> getForeignKeys(final String catalogName, final String schemaName, final String tableName, final String fkName) throws DatabaseException {
-            return getResultSetCache("getImportedKeys").get(new ResultSetCache.UnionResultSetExtractor(database) {
+            return getCachedRows("getImportedKeys", new ResultSetCache.UnionResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -148,11 +308,72 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
                         String sql = getDB2Sql(jdbcSchemaName);
                         return executeAndExtract(sql, database);
+                    } else if (database instanceof PostgresDatabase && supportsCatalogBulkSelect()) {
+                        return executeAndExtract(getPostgresSql(getCatalogBulkSelectSchemaName(catalogName, schemaName)), database);
+                    } else if (database instanceof MySQLDatabase && supportsCatalogBulkSelect()) {
+                        return executeAndExtract(getMySQLSql(getCatalogBulkSelectSchemaName(catalogName, schemaName)), database);
                     } else {
                         throw new RuntimeException("Cannot bulk select");
                     }
                 }
 
+                protected String getPostgresSql(String schemaName) {
+                    return "SELECT " +
+                            "  NULL::text AS pktable_cat, " +
+                            "  pkn.nspname AS pktable_schem, " +
+                            "  pkc.relname AS pktable_name, " +
+                            "  pka.attname AS pkcolumn_name, " +
+                            "  NULL::text AS fktable_cat, " +
+                            "  fkn.nspname AS fktable_schem, " +
+                            "  fkc.relname AS fktable_name, " +
+                            "  fka.attname AS fkcolumn_name, " +
+                            "  pos.n AS key_seq, " +
+                            "  CASE con.confupdtype WHEN 'c' THEN 0 WHEN 'n' THEN 2 WHEN 'd' THEN 4 WHEN 'r' THEN 1 ELSE 3 END AS update_rule, " +
+                            "  CASE con.confdeltype WHEN 'c' THEN 0 WHEN 'n' THEN 2 WHEN 'd' THEN 4 WHEN 'r' THEN 1 ELSE 3 END AS delete_rule, " +
+                            "  con.conname AS fk_name, " +
+                            "  pkic.relname AS pk_name, " +
+                            "  CASE WHEN con.condeferrable AND con.condeferred THEN 5 WHEN con.condeferrable THEN 6 ELSE 7 END AS deferrability " +
+                            "FROM pg_catalog.pg_constraint con " +
+                            "JOIN pg_catalog.generate_series(1, 32) pos(n) ON con.conkey[pos.n] IS NOT NULL " +
+                            "JOIN pg_catalog.pg_class fkc ON fkc.oid = con.conrelid " +
+                            "JOIN pg_catalog.pg_namespace fkn ON fkn.oid = fkc.relnamespace " +
+                            "JOIN pg_catalog.pg_attribute fka ON fka.attrelid = fkc.oid AND fka.attnum = con.conkey[pos.n] " +
+                            "JOIN pg_catalog.pg_class pkc ON pkc.oid = con.confrelid " +
+                            "JOIN pg_catalog.pg_namespace pkn ON pkn.oid = pkc.relnamespace " +
+                            "JOIN pg_catalog.pg_attribute pka ON pka.attrelid = pkc.oid AND pka.attnum = con.confkey[pos.n] " +
+                            "JOIN pg_catalog.pg_depend dep ON dep.objid = con.oid AND dep.classid = 'pg_catalog.pg_constraint'::regclass::oid AND dep.refclassid = 'pg_catalog.pg_class'::regclass::oid " +
+                            "JOIN pg_catalog.pg_class pkic ON pkic.oid = dep.refobjid AND pkic.relkind = 'i' " +
+                            "WHERE con.contype = 'f' " +
+                            "AND fkn.nspname = '" + schemaName + "' " +
+                            "ORDER BY fkc.relname, con.conname, pos.n";
+                }
+
+                protected String getMySQLSql(String schemaName) {
+                    return "SELECT " +
+                            "  kcu.REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, " +
+                            "  NULL AS PKTABLE_SCHEM, " +
+                            "  kcu.REFERENCED_TABLE_NAME AS PKTABLE_NAME, " +
+                            "  kcu.REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, " +
+                            "  kcu.TABLE_SCHEMA AS FKTABLE_CAT, " +
+                            "  NULL AS FKTABLE_SCHEM, " +
+                            "  kcu.TABLE_NAME AS FKTABLE_NAME, " +
+                            "  kcu.COLUMN_NAME AS FKCOLUMN_NAME, " +
+                            "  kcu.ORDINAL_POSITION AS KEY_SEQ, " +
+                            "  CASE rc.UPDATE_RULE WHEN 'CASCADE' THEN 0 WHEN 'SET NULL' THEN 2 WHEN 'SET DEFAULT' THEN 4 WHEN 'RESTRICT' THEN 1 ELSE 3 END AS UPDATE_RULE, " +
+                            "  CASE rc.DELETE_RULE WHEN 'CASCADE' THEN 0 WHEN 'SET NULL' THEN 2 WHEN 'SET DEFAULT' THEN 4 WHEN 'RESTRICT' THEN 1 ELSE 3 END AS DELETE_RULE, " +
+                            "  kcu.CONSTRAINT_NAME AS FK_NAME, " +
+                            "  rc.UNIQUE_CONSTRAINT_NAME AS PK_NAME, " +
+                            "  7 AS DEFERRABILITY " +
+                            "FROM information_schema.KEY_COLUMN_USAGE kcu " +
+                            "JOIN information_schema.REFERENTIAL_CONSTRAINTS rc " +
+                            "ON rc.CONSTRAINT_SCHEMA = kcu.CONSTRAINT_SCHEMA " +
+                            "AND rc.TABLE_NAME = kcu.TABLE_NAME " +
+                            "AND rc.CONSTRAINT_NAME = kcu.CONSTRAINT_NAME " +
+                            "WHERE kcu.TABLE_SCHEMA = '" + schemaName + "' " +
+                            "AND kcu.REFERENCED_TABLE_NAME IS NOT NULL " +
+                            "ORDER BY kcu.TABLE_NAME, kcu.CONSTRAINT_NAME, kcu.ORDINAL_POSITION";
+                }
+
                 protected String getDB2Sql(String jdbcSchemaName) {
                     return "SELECT  " +
                             "  pk_col.tabschema AS pktable_cat,  " +
@@ -180,7 +401,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
                 @Override
                 boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-                    if (database instanceof DB2Database) {
+                    if (database instanceof DB2Database || supportsCatalogBulkSelect()) {
                         return super.shouldBulkSelect(schemaKey, resultSetCache); //can bulk and fast fetch
                     } else {
                         return database instanceof OracleDatabase; //oracle is slow, always bulk select while you are at it. Other databases need to go through all tables.
@@ -190,7 +411,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getIndexInfo(final String catalogName, final String schemaName, final String tableName, final String indexName) throws DatabaseException {
-            return getResultSetCache("getIndexInfo").get(new ResultSetCache.UnionResultSetExtractor(database) {
+            return getCachedRows("getIndexInfo", new ResultSetCache.UnionResultSetExtractor(database) {
 
                 public boolean bulkFetch = false;
 
@@ -263,13 +484,62 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
                 @Override
                 public List<CachedRow> bulkFetch() throws SQLException, DatabaseException {
+                    if (database instanceof PostgresDatabase && supportsCatalogBulkSelect()) {
+                        return executeAndExtract(getPostgresSql(getCatalogBulkSelectSchemaName(catalogName, schemaName)), database);
+                    } else if (database instanceof MySQLDatabase && supportsCatalogBulkSelect()) {
+                        return executeAndExtract(getMySQLSql(getCatalogBulkSelectSchemaName(catalogName, schemaName)), database);
+                    }
                     this.bulkFetch = true;
                     return fastFetch();
                 }
 
+                protected String getPostgresSql(String schemaName) {
+                    return "SELECT " +
+                                "NULL AS TABLE_CAT, " +
+                                "n.nspname AS TABLE_SCHEM, " +
+                                "ct.relname AS TABLE_NAME, " +
+                                "NOT i.indisunique AS NON_UNIQUE, " +
+                                "NULL AS INDEX_QUALIFIER, " +
+                                "ci.relname AS INDEX_NAME, " +
+                                "CASE WHEN i.indisclustered THEN 1 WHEN am.amname = 'hash' THEN 2 ELSE 3 END AS TYPE, " +
+                                "(i.keys).n AS ORDINAL_POSITION, " +
+                                "trim(both '\"' from pg_catalog.pg_get_indexdef(ci.oid, (i.keys).n, false)) AS COLUMN_NAME, " +
+                                "CASE WHEN am.amname = 'btree' THEN CASE i.indoption[(i.keys).n - 1] & 1 WHEN 1 THEN 'D' ELSE 'A' END END AS ASC_OR_DESC, " +
+                                "ci.reltuples AS CARDINALITY, " +
+                                "ci.relpages AS PAGES, " +
+                                "pg_catalog.pg_get_expr(i.indpred, i.indrelid) AS FILTER_CONDITION " +
+                            "FROM pg_catalog.pg_class ct " +
+                            "JOIN pg_catalog.pg_namespace n ON n.oid = ct.relnamespace " +
+                            "JOIN (SELECT indexrelid, indrelid, indoption, indisunique, indisclustered, indpred, information_schema._pg_expandarray(indkey) AS keys FROM pg_catalog.pg_index) i ON i.indrelid = ct.oid " +
+                            "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+                            "JOIN pg_catalog.pg_am am ON am.oid = ci.relam " +
+                            "WHERE n.nspname = '" + schemaName + "' " +
+                            "ORDER BY NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION";
+                }
+
+                protected String getMySQLSql(String schemaName) {
+                    return "SELECT " +
+                                "TABLE_SCHEMA AS TABLE_CAT, " +
+                                "NULL AS TABLE_SCHEM, " +
+                                "TABLE_NAME, " +
+                                "NON_UNIQUE, " +
+                                "INDEX_SCHEMA AS INDEX_QUALIFIER, " +
+                                "INDEX_NAME, " +
+                                "CASE INDEX_TYPE WHEN 'HASH' THEN 2 ELSE 3 END AS TYPE, " +
+                                "SEQ_IN_INDEX AS ORDINAL_POSITION, " +
+                                "COLUMN_NAME, " +
+                                "COLLATION AS ASC_OR_DESC, " +
+                                "CARDINALITY, " +
+                                "0 AS PAGES, " +
+                                "NULL AS FILTER_CONDITION " +
+                            "FROM information_schema.STATISTICS " +
+                            "WHERE TABLE_SCHEMA = '" + schemaName + "' " +
+                            "ORDER BY NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX";
+                }
+
                 @Override
                 boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-                    if (database instanceof OracleDatabase) {
+                    if (database instanceof OracleDatabase || supportsCatalogBulkSelect()) {
                         return super.shouldBulkSelect(schemaKey, resultSetCache);
                     }
                     return false;
@@ -281,7 +551,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
          * Return the columns for the given catalog, schema, table, and column.
          */
         public List<CachedRow> getColumns(final String catalogName, final String schemaName, final String tableName, final String columnName) throws SQLException, DatabaseException {
-            return getResultSetCache("getColumns").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return getCachedRows("getColumns", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -295,7 +565,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
                 @Override
                 boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-                    if (tableName.equalsIgnoreCase(database.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(database.getDatabaseChangeLogLockTableName())) {
+                    if (tableName != null && (tableName.equalsIgnoreCase(database.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(database.getDatabaseChangeLogLockTableName()))) {
                         return false;
                     }
 
@@ -385,7 +655,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getTables(final String catalogName, final String schemaName, final String table) throws SQLException, DatabaseException {
-            return getResultSetCache("getTables").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return getCachedRows("getTables", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -440,7 +710,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getViews(final String catalogName, final String schemaName, final String view) throws SQLException, DatabaseException {
-            return getResultSetCache("getViews").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return getCachedRows("getViews", new ResultSetCache.SingleResultSetExtractor(database) {
 
 
                 @Override
@@ -500,7 +770,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getPrimaryKeys(final String catalogName, final String schemaName, final String table) throws SQLException, DatabaseException {
-            return getResultSetCache("getPrimaryKeys").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return getCachedRows("getPrimaryKeys", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -619,13 +889,48 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                         } catch (DatabaseException e) {
                             throw new SQLException(e);
                         }
+                    } else if (database instanceof PostgresDatabase && supportsCatalogBulkSelect()) {
+                        try {
+                            return executeAndExtract("SELECT " +
+                                        "NULL AS TABLE_CAT, " +
+                                        "n.nspname AS TABLE_SCHEM, " +
+                                        "ct.relname AS TABLE_NAME, " +
+                                        "a.attname AS COLUMN_NAME, " +
+                                        "(i.keys).n AS KEY_SEQ, " +
+                                        "ci.relname AS PK_NAME " +
+                                    "FROM pg_catalog.pg_class ct " +
+                                    "JOIN pg_catalog.pg_namespace n ON n.oid = ct.relnamespace " +
+                                    "JOIN (SELECT indexrelid, indrelid, information_schema._pg_expandarray(indkey) AS keys FROM pg_catalog.pg_index WHERE indisprimary) i ON i.indrelid = ct.oid " +
+                                    "JOIN pg_catalog.pg_attribute a ON a.attrelid = ct.oid AND a.attnum = (i.keys).x " +
+                                    "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+                                    "WHERE n.nspname = '" + getCatalogBulkSelectSchemaName(catalogName, schemaName) + "' " +
+                                    "ORDER BY TABLE_NAME, PK_NAME, KEY_SEQ", database);
+                        } catch (DatabaseException e) {
+                            throw new SQLException(e);
+                        }
+                    } else if (database instanceof MySQLDatabase && supportsCatalogBulkSelect()) {
+                        try {
+                            return executeAndExtract("SELECT " +
+                                        "TABLE_SCHEMA AS TABLE_CAT, " +
+                                        "NULL AS TABLE_SCHEM, " +
+                                        "TABLE_NAME, " +
+                                        "COLUMN_NAME, " +
+                                        "SEQ_IN_INDEX AS KEY_SEQ, " +
+                                        "INDEX_NAME AS PK_NAME " +
+                                    "FROM information_schema.STATISTICS " +
+                                    "WHERE TABLE_SCHEMA = '" + getCatalogBulkSelectSchemaName(catalogName, schemaName) + "' " +
+                                    "AND INDEX_NAME = 'PRIMARY' " +
+                                    "ORDER BY TABLE_NAME, SEQ_IN_INDEX", database);
+                        } catch (DatabaseException e) {
+                            throw new SQLException(e);
+                        }
                     }
                     return null;
                 }
 
                 @Override
                 boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-                    if (database instanceof OracleDatabase) {
+                    if (database instanceof OracleDatabase || supportsCatalogBulkSelect()) {
                         return super.shouldBulkSelect(schemaKey, resultSetCache);
                     } else {
                         return false;
@@ -635,7 +940,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getUniqueConstraints(final String catalogName, final String schemaName, final String tableName) throws SQLException, DatabaseException {
-            return getResultSetCache("getUniqueConstraints").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return getCachedRows("getUniqueConstraints", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -782,4 +1087,33 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
     }
 
+    private abstract class PrefetchTask implements Callable<Void> {
+        private final DataSource dataSource;
+        private final String description;
+        private final CatalogAndSchema catalogAndSchema;
+
+        protected PrefetchTask(DataSource dataSource, String description, CatalogAndSchema catalogAndSchema) {
+            this.dataSource = dataSource;
+            this.description = description;
+            this.catalogAndSchema = catalogAndSchema;
+        }
+
+        protected abstract void prefetch(CachingDatabaseMetaData metaData) throws SQLException, DatabaseException;
+
+        @Override
+        public Void call() throws Exception {
+            Connection connection = dataSource.getConnection();
+            try {
+                prefetch(new CachingDatabaseMetaData(getDatabase(), connection));
+            } finally {
+                connection.close();
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return description + " of " + catalogAndSchema;
+        }
+    }
 }
@@ -0,0 +1,254 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.change.Change;
+import liquibase.change.core.*;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Answers {@link SnapshotGeneratorFactory#has(DatabaseObject, Database)} from metadata read once per schema and object type, instead of
+ * creating a new snapshot for every check. Used when {@link GlobalConfiguration#getCachePreconditionMetadata()} is set.
+ * <p>
+ * The first check for a type in a schema snapshots all objects of that type in the schema. {@link liquibase.changelog.ChangeSet} reports
+ * every change it executes through {@link #changeExecuted(Change)}: objects created or dropped by the core create, add and drop changes
+ * are added to or removed from the cached objects of their type and the other types cached for the same schema are read again on their next check.
+ * Any other change that may modify the structure of the database clears the cache.
+ * <p>
+ * One cache exists per database until {@link #reset(Database)} is called, which {@link liquibase.Liquibase} does at the end of each command
+ * and {@link liquibase.database.AbstractJdbcDatabase#close()} does when the database is closed.
+ */
+public class MetadataCache {
+
+    private static final ConcurrentMap<Database, MetadataCache> instances = new ConcurrentHashMap<Database, MetadataCache>();
+
+    private static final Set<Class<? extends Change>> CREATE_CHANGES = new HashSet<Class<? extends Change>>(Arrays.<Class<? extends Change>>asList(
+            AddColumnChange.class,
+            AddForeignKeyConstraintChange.class,
+            AddLookupTableChange.class,
+            AddPrimaryKeyChange.class,
+            AddUniqueConstraintChange.class,
+            CreateIndexChange.class,
+            CreateProcedureChange.class,
+            CreateSequenceChange.class,
+            CreateTableChange.class,
+            CreateViewChange.class
+    ));
+
+    private static final Set<Class<? extends Change>> DROP_CHANGES = new HashSet<Class<? extends Change>>(Arrays.<Class<? extends Change>>asList(
+            DropColumnChange.class,
+            DropForeignKeyConstraintChange.class,
+            DropIndexChange.class,
+            DropPrimaryKeyChange.class,
+            DropProcedureChange.class,
+            DropSequenceChange.class,
+            DropTableChange.class,
+            DropUniqueConstraintChange.class,
+            DropViewChange.class
+    ));
+
+    /**
+     * Changes that only modify data or do not touch the database.
+     */
+    private static final Set<Class<? extends Change>> DATA_CHANGES = new HashSet<Class<? extends Change>>(Arrays.<Class<? extends Change>>asList(
+            DeleteDataChange.class,
+            EmptyChange.class,
+            InsertDataChange.class,
+            LoadDataChange.class,
+            LoadUpdateDataChange.class,
+            OutputChange.class,
+            StopChange.class,
+            TagDatabaseChange.class,
+            UpdateDataChange.class
+    ));
+
+    private final Database database;
+    private final Map<String, Map<Class<? extends DatabaseObject>, List<DatabaseObject>>> objectsBySchema = new HashMap<String, Map<Class<? extends DatabaseObject>, List<DatabaseObject>>>();
+
+    /**
+     * Incremented whenever cached objects are updated or discarded, so objects read while a change executed are not cached.
+     */
+    private long version;
+
+    /**
+     * Returns the cache for the given database, or null if caching is disabled or the database is not connected.
+     */
+    public static MetadataCache getInstance(Database database) {
+        if (database == null || database.getConnection() == null || database.getConnection() instanceof OfflineConnection
+                || !LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getCachePreconditionMetadata()) {
+            return null;
+        }
+        MetadataCache cache = instances.get(database);
+        if (cache == null) {
+            cache = new MetadataCache(database);
+            MetadataCache existing = instances.putIfAbsent(database, cache);
+            if (existing != null) {
+                cache = existing;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Discards the cache for the given database.
+     */
+    public static void reset(Database database) {
+        if (database != null) {
+            instances.remove(database);
+        }
+    }
+
+    public static void resetAll() {
+        instances.clear();
+    }
+
+    protected MetadataCache(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Returns true if an object matching the example exists, reading all objects of the example type in its schema if they are not cached yet.
+     * The objects are read without holding the lock, so other checks and changes are not blocked while the snapshot runs.
+     */
+    public boolean has(DatabaseObject example) throws DatabaseException, InvalidExampleException {
+        CatalogAndSchema catalogAndSchema = getCatalogAndSchema(example);
+        List<DatabaseObject> objects;
+        long readVersion;
+        synchronized (this) {
+            objects = getCachedObjects(catalogAndSchema, example.getClass());
+            readVersion = version;
+        }
+        if (objects == null) {
+            SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+            List<Class<? extends DatabaseObject>> types = new ArrayList<Class<? extends DatabaseObject>>(factory.getContainerTypes(example.getClass(), database));
+            types.add(example.getClass());
+            DatabaseSnapshot snapshot = factory.createSnapshot(catalogAndSchema, database, new SnapshotControl(database, false, types.toArray(new Class[types.size()])));
+            objects = new ArrayList<DatabaseObject>(snapshot.get(example.getClass()));
+
+            synchronized (this) {
+                List<DatabaseObject> cachedObjects = getCachedObjects(catalogAndSchema, example.getClass());
+                if (cachedObjects != null) {
+                    objects = cachedObjects;
+                } else if (readVersion == version) {
+                    getObjectsByType(catalogAndSchema, true).put(example.getClass(), new ArrayList<DatabaseObject>(objects));
+                    LogFactory.getLogger().debug("Cached " + objects.size() + " " + example.getClass().getSimpleName() + " objects of " + catalogAndSchema);
+                }
+            }
+        }
+
+        for (DatabaseObject obj : objects) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, obj, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of the cached objects of the given type in the given schema, or null if they are not cached.
+     */
+    private List<DatabaseObject> getCachedObjects(CatalogAndSchema catalogAndSchema, Class<? extends DatabaseObject> type) {
+        Map<Class<? extends DatabaseObject>, List<DatabaseObject>> objectsByType = getObjectsByType(catalogAndSchema, false);
+        List<DatabaseObject> objects = objectsByType == null ? null : objectsByType.get(type);
+        return objects == null ? null : new ArrayList<DatabaseObject>(objects);
+    }
+
+    /**
+     * Updates the cached objects for a change that was executed against the database.
+     */
+    public synchronized void changeExecuted(Change change) {
+        if (DATA_CHANGES.contains(change.getClass())) {
+            return;
+        }
+        if (ExecutorService.getInstance().getExecutor(database) instanceof LoggingExecutor) {
+            return; //nothing was actually changed
+        }
+
+        version++;
+        if (objectsBySchema.isEmpty()) {
+            return;
+        }
+        boolean create = CREATE_CHANGES.contains(change.getClass());
+        boolean drop = DROP_CHANGES.contains(change.getClass());
+        Set<DatabaseObject> affectedObjects = (create || drop) ? change.getAffectedDatabaseObjects(database) : null;
+        if (affectedObjects == null || affectedObjects.isEmpty()) {
+            clear();
+            return;
+        }
+
+        Map<String, Set<Class<? extends DatabaseObject>>> updatedTypes = new HashMap<String, Set<Class<? extends DatabaseObject>>>();
+        for (DatabaseObject affectedObject : affectedObjects) {
+            CatalogAndSchema catalogAndSchema = getCatalogAndSchema(affectedObject);
+            String schemaKey = getSchemaKey(catalogAndSchema);
+            if (!updatedTypes.containsKey(schemaKey)) {
+                updatedTypes.put(schemaKey, new HashSet<Class<? extends DatabaseObject>>());
+            }
+            updatedTypes.get(schemaKey).add(affectedObject.getClass());
+
+            Map<Class<? extends DatabaseObject>, List<DatabaseObject>> objectsByType = getObjectsByType(catalogAndSchema, false);
+            List<DatabaseObject> objects = objectsByType == null ? null : objectsByType.get(affectedObject.getClass());
+            if (objects == null) {
+                continue;
+            }
+            if (create) {
+                objects.add(affectedObject);
+            } else {
+                Iterator<DatabaseObject> iterator = objects.iterator();
+                while (iterator.hasNext()) {
+                    if (DatabaseObjectComparatorFactory.getInstance().isSameObject(affectedObject, iterator.next(), database)) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
+        //other objects in the same schemas, such as the columns of a new table, are read again when needed
+        for (Map.Entry<String, Set<Class<? extends DatabaseObject>>> entry : updatedTypes.entrySet()) {
+            Map<Class<? extends DatabaseObject>, List<DatabaseObject>> objectsByType = objectsBySchema.get(entry.getKey());
+            if (objectsByType != null) {
+                objectsByType.keySet().retainAll(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Discards all cached objects.
+     */
+    public synchronized void clear() {
+        version++;
+        objectsBySchema.clear();
+    }
+
+    protected CatalogAndSchema getCatalogAndSchema(DatabaseObject object) {
+        if (object.getSchema() == null) {
+            return database.getDefaultSchema();
+        }
+        return object.getSchema().toCatalogAndSchema();
+    }
+
+    protected String getSchemaKey(CatalogAndSchema catalogAndSchema) {
+        return catalogAndSchema.standardize(database).toString();
+    }
+
+    private Map<Class<? extends DatabaseObject>, List<DatabaseObject>> getObjectsByType(CatalogAndSchema catalogAndSchema, boolean create) {
+        String schemaKey = getSchemaKey(catalogAndSchema);
+        Map<Class<? extends DatabaseObject>, List<DatabaseObject>> objectsByType = objectsBySchema.get(schemaKey);
+        if (objectsByType == null && create) {
+            objectsByType = new HashMap<Class<? extends DatabaseObject>, List<DatabaseObject>>();
+            objectsBySchema.put(schemaKey, objectsByType);
+        }
+        return objectsByType;
+    }
+}
@@ -4,18 +4,21 @@ import liquibase.database.Database;
 import liquibase.database.core.InformixDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
-import liquibase.executor.jvm.ColumnMapRowMapper;
-import liquibase.executor.jvm.RowMapperResultSetExtractor;
 import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 class ResultSetCache {
     private final static int FETCH_SIZE = 1000;
+    private final static int MAX_CANONICAL_STRING_LENGTH = 128;
     private Map<String, Integer> timesSingleQueried = new HashMap<String, Integer>();
     private Map<String, Boolean> didBulkQuery = new HashMap<String, Boolean>();
 
@@ -23,7 +26,24 @@ class ResultSetCache {
 
     private Map<String, Object> info = new HashMap<String, Object>();
 
-    public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
+    /**
+     * Shared instances of the names, type names and numbers read into this cache. Metadata repeats the same catalog, schema, table
+     * and type values on many rows, and the driver returns a new object for each of them.
+     */
+    private final ConcurrentMap<Object, Object> canonicalValues = new ConcurrentHashMap<Object, Object>();
+
+    /**
+     * Used by {@link #prefetch(ResultSetExtractor)} to ask an extractor whether it can bulk select without any single queries run first.
+     */
+    private static final ResultSetCache BULK_SELECT_ALLOWED = new ResultSetCache() {
+        @Override
+        int getTimesSingleQueried(String schemaKey) {
+            return Integer.MAX_VALUE;
+        }
+    };
+
+    public synchronized List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
+        resultSetExtractor.setCanonicalValues(canonicalValues);
         try {
             String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
 
@@ -58,14 +78,7 @@ class ResultSetCache {
                 results = resultSetExtractor.fastFetch();
             }
 
-            for (CachedRow row : results) {
-                for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
-                    if (!cache.containsKey(rowKey)) {
-                        cache.put(rowKey, new ArrayList<CachedRow>());
-                    }
-                    cache.get(rowKey).add(row);
-                }
-            }
+            addRows(cache, results, resultSetExtractor);
 
             List<CachedRow> returnList = cache.get(wantedKey);
             if (returnList == null) {
@@ -79,11 +92,61 @@ class ResultSetCache {
         }
     }
 
-    public <T> T getInfo(String key, Class<T> type) {
+    /**
+     * Runs the bulk query of the given extractor and stores the rows for its schema, so later {@link #get(ResultSetExtractor)} calls for the schema
+     * are answered from the cache. Nothing is done if the extractor does not support bulk selects for the schema or the schema was already bulk selected.
+     * The query runs without holding the lock on this cache, so several schemas can be prefetched at the same time from different threads and connections.
+     *
+     * @return true if the rows of the schema are cached
+     */
+    public boolean prefetch(ResultSetExtractor resultSetExtractor) throws DatabaseException {
+        String schemaKey = resultSetExtractor.wantedKeyParameters().createSchemaKey(resultSetExtractor.database);
+        synchronized (this) {
+            if (didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey)) {
+                return true;
+            }
+        }
+        if (!resultSetExtractor.shouldBulkSelect(schemaKey, BULK_SELECT_ALLOWED)) {
+            return false;
+        }
+
+        resultSetExtractor.setCanonicalValues(canonicalValues);
+        List<CachedRow> results;
+        try {
+            results = resultSetExtractor.bulkFetch();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+
+        Map<String, List<CachedRow>> cache = new HashMap<String, List<CachedRow>>();
+        addRows(cache, results, resultSetExtractor);
+        synchronized (this) {
+            if (!(didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey))) {
+                cacheBySchema.put(schemaKey, cache);
+                didBulkQuery.put(schemaKey, true);
+            }
+        }
+        return true;
+    }
+
+    private void addRows(Map<String, List<CachedRow>> cache, List<CachedRow> results, ResultSetExtractor resultSetExtractor) {
+        for (CachedRow row : results) {
+            for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
+                List<CachedRow> rows = cache.get(rowKey);
+                if (rows == null) {
+                    rows = new ArrayList<CachedRow>(1); //most keys match a single row
+                    cache.put(rowKey, rows);
+                }
+                rows.add(row);
+            }
+        }
+    }
+
+    public synchronized <T> T getInfo(String key, Class<T> type) {
         return (T) info.get(key);
     }
 
-    public void putInfo(String key, Object value) {
+    public synchronized void putInfo(String key, Object value) {
         info.put(key, value);
     }
 
@@ -166,11 +229,38 @@ class ResultSetCache {
     public abstract static class ResultSetExtractor {
 
         private final Database database;
+        private Connection connection;
+        private ConcurrentMap<Object, Object> canonicalValues;
 
         public ResultSetExtractor(Database database) {
             this.database = database;
         }
 
+        void setCanonicalValues(ConcurrentMap<Object, Object> canonicalValues) {
+            this.canonicalValues = canonicalValues;
+        }
+
+        /**
+         * Returns a shared instance equal to the given value if it is a number or a short string, so the rows of the cache do not each hold their own copy.
+         */
+        protected Object canonicalize(Object value) {
+            if (value instanceof Boolean) {
+                return ((Boolean) value) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            if (canonicalValues == null || !(value instanceof Number || (value instanceof String && ((String) value).length() <= MAX_CANONICAL_STRING_LENGTH))) {
+                return value;
+            }
+            Object existing = canonicalValues.putIfAbsent(value, value);
+            return existing == null ? value : existing;
+        }
+
+        /**
+         * Sets the connection used by {@link #executeAndExtract(String, Database)} instead of the connection of the database.
+         */
+        void setConnection(Connection connection) {
+            this.connection = connection;
+        }
+
         boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
             return resultSetCache.getTimesSingleQueried(schemaKey) >= 3;
         }
@@ -186,8 +276,11 @@ class ResultSetCache {
             Statement statement = null;
             ResultSet resultSet = null;
             try {
-                JdbcConnection connection = (JdbcConnection) database.getConnection();
-                statement = connection.createStatement();
+                if (this.connection == null) {
+                    statement = ((JdbcConnection) database.getConnection()).createStatement();
+                } else {
+                    statement = this.connection.createStatement();
+                }
                 resultSet = statement.executeQuery(sql);
                 resultSet.setFetchSize(FETCH_SIZE);
                 return extract(resultSet, informixTrimHint);
@@ -226,13 +319,20 @@ class ResultSetCache {
 
         protected List<CachedRow> extract(ResultSet resultSet, final boolean informixIndexTrimHint) throws SQLException {
             resultSet.setFetchSize(FETCH_SIZE);
-            List<Map> result;
             List<CachedRow> returnList = new ArrayList<CachedRow>();
             try {
-                result = (List<Map>) new RowMapperResultSetExtractor(new ColumnMapRowMapper() {
-                    @Override
-                    protected Object getColumnValue(ResultSet rs, int index) throws SQLException {
-                        Object value = super.getColumnValue(rs, index);
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] columnNames = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnNames[i] = metaData.getColumnLabel(i + 1).toUpperCase();
+                }
+                CachedRow.Columns columns = new CachedRow.Columns(columnNames);
+
+                while (resultSet.next()) {
+                    Object[] values = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        Object value = JdbcUtils.getResultSetValue(resultSet, i + 1);
                         if (value != null && value instanceof String) {
 
                             // Don't trim for informix database,
@@ -253,12 +353,9 @@ class ResultSetCache {
                             }
 
                         }
-                        return value;
+                        values[i] = canonicalize(value);
                     }
-                }).extractData(resultSet);
-
-                for (Map row : result) {
-                    returnList.add(new CachedRow(row));
+                    returnList.add(new CachedRow(columns, values));
                 }
             } finally {
                 JdbcUtils.closeResultSet(resultSet);
@@ -267,7 +364,7 @@ class ResultSetCache {
         }
     }
 
-    private int getTimesSingleQueried(String schemaKey) {
+    int getTimesSingleQueried(String schemaKey) {
         Integer integer = timesSingleQueried.get(schemaKey);
         if (integer == null) {
             return 0;
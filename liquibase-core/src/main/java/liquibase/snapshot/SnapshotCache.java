@@ -0,0 +1,206 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.parser.core.yaml.YamlSnapshotParser;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.serializer.core.json.JsonSnapshotSerializer;
+import liquibase.snapshot.fingerprint.SchemaFingerprintGenerator;
+import liquibase.snapshot.fingerprint.SchemaFingerprintGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Data;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+
+import java.io.*;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the snapshots taken by diff, diffChangeLog and generateChangeLog in a directory, so a later run against an unchanged database
+ * reads the stored snapshot instead of querying all metadata again.
+ * <p>
+ * Each stored snapshot is keyed by the connection URL and user, the snapshotted schemas and the snapshotted types, and holds the fingerprint of each
+ * schema computed by the database's {@link SchemaFingerprintGenerator} before the snapshot was taken. The stored snapshot is only used if all
+ * fingerprints still match; otherwise a new snapshot is taken and stored. Databases without a fingerprint generator are always snapshotted.
+ * Snapshots are written with the {@link JsonSnapshotSerializer} and compressed.
+ * <p>
+ * The cache is disabled unless {@link GlobalConfiguration#getSnapshotCacheDirectory()} is set.
+ */
+public class SnapshotCache {
+
+    private static final int FORMAT_MAGIC = 0x4C42534E; //LBSN
+    private static final int FORMAT_VERSION = 2; //2: objects that are not snapshotted themselves, like index columns, are stored with all their attributes
+
+    private static SnapshotCache instance;
+
+    private final File directory;
+
+    public static synchronized SnapshotCache getInstance() {
+        String configuredDirectory = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getSnapshotCacheDirectory();
+        File directory = configuredDirectory == null ? null : new File(configuredDirectory);
+        if (instance == null || (directory == null ? instance.directory != null : !directory.equals(instance.directory))) {
+            instance = new SnapshotCache(directory);
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Creates a cache storing snapshots in the given directory. If directory is null, the cache is disabled.
+     */
+    public SnapshotCache(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the stored snapshot of the given schemas if the database did not change since it was taken. Otherwise creates a new snapshot
+     * through {@link SnapshotGeneratorFactory} and stores it.
+     */
+    public DatabaseSnapshot createSnapshot(CatalogAndSchema[] schemas, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        SnapshotGeneratorFactory snapshotGeneratorFactory = SnapshotGeneratorFactory.getInstance();
+        if (!isEnabled() || database == null || !(database.getConnection() instanceof JdbcConnection)) {
+            return snapshotGeneratorFactory.createSnapshot(schemas, database, snapshotControl);
+        }
+        if (snapshotControl.shouldInclude(Data.class) && LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffDataRows()) {
+            return snapshotGeneratorFactory.createSnapshot(schemas, database, snapshotControl); //row hashes change without the schema fingerprint changing
+        }
+
+        String fingerprint = getFingerprint(schemas, database);
+        if (fingerprint == null) {
+            return snapshotGeneratorFactory.createSnapshot(schemas, database, snapshotControl);
+        }
+
+        File file = new File(directory, getKey(schemas, database, snapshotControl) + ".snapshot");
+        DatabaseSnapshot snapshot = read(file, fingerprint, database, snapshotControl);
+        if (snapshot != null) {
+            LogFactory.getLogger().info("Using stored snapshot " + file.getAbsolutePath());
+            return snapshot;
+        }
+
+        snapshot = snapshotGeneratorFactory.createSnapshot(schemas, database, snapshotControl);
+        write(file, fingerprint, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Returns the combined fingerprint of the given schemas, or null if the database has no {@link SchemaFingerprintGenerator} or any schema has no fingerprint.
+     */
+    protected String getFingerprint(CatalogAndSchema[] schemas, Database database) {
+        SchemaFingerprintGenerator generator = SchemaFingerprintGeneratorFactory.getInstance().getGenerator(database);
+        if (generator == null) {
+            return null;
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        try {
+            for (CatalogAndSchema schema : schemas) {
+                String schemaFingerprint = generator.getFingerprint(schema.standardize(database), database);
+                if (schemaFingerprint == null) {
+                    return null;
+                }
+                fingerprint.append(schemaFingerprint).append("\n");
+            }
+        } catch (DatabaseException e) {
+            LogFactory.getLogger().info("Cannot compute schema fingerprint, not using the snapshot cache: " + e.getMessage());
+            return null;
+        }
+        return fingerprint.toString();
+    }
+
+    protected String getKey(CatalogAndSchema[] schemas, Database database, SnapshotControl snapshotControl) throws DatabaseException {
+        StringBuilder key = new StringBuilder();
+        key.append(database.getShortName()).append("\n")
+                .append(database.getConnection().getURL()).append("\n")
+                .append(database.getConnection().getConnectionUserName()).append("\n");
+        for (CatalogAndSchema schema : schemas) {
+            key.append(schema.standardize(database)).append("\n");
+        }
+        SortedSet<String> types = new TreeSet<String>();
+        for (Class<? extends DatabaseObject> type : snapshotControl.getTypesToInclude()) {
+            types.add(type.getName());
+        }
+        key.append(types);
+        return MD5Util.computeMD5(key.toString());
+    }
+
+    protected DatabaseSnapshot read(File file, String fingerprint, Database database, SnapshotControl snapshotControl) {
+        if (!file.exists()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+            if (in.readInt() != FORMAT_MAGIC
+                    || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(LiquibaseUtil.getBuildVersion())
+                    || !in.readUTF().equals(fingerprint)) {
+                LogFactory.getLogger().debug("Stored snapshot " + file.getAbsolutePath() + " is out of date");
+                return null;
+            }
+            DatabaseSnapshot snapshot = new RestoredDatabaseSnapshot(database, snapshotControl);
+            new YamlSnapshotParser().parse(in, snapshot, new FileSystemResourceAccessor());
+            return snapshot;
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Cannot read stored snapshot " + file.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignore) { }
+            }
+        }
+    }
+
+    protected void write(File file, String fingerprint, DatabaseSnapshot snapshot) {
+        File tempFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))));
+            out.writeInt(FORMAT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(LiquibaseUtil.getBuildVersion());
+            out.writeUTF(fingerprint);
+            Writer writer = new OutputStreamWriter(out, "UTF-8");
+            new JsonSnapshotSerializer().write(snapshot, writer);
+            writer.flush();
+            out.close();
+            out = null;
+
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Cannot replace " + file.getAbsolutePath());
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+            }
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Cannot store snapshot " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignore) { }
+            }
+        }
+    }
+}
@@ -9,12 +9,15 @@ import liquibase.serializer.LiquibaseSerializable;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.DatabaseObjectFactory;
 
+import javax.sql.DataSource;
 import java.util.*;
 
 public class SnapshotControl implements LiquibaseSerializable {
 
     private Set<Class<? extends DatabaseObject>> types;
     private SnapshotListener snapshotListener;
+    private DataSource parallelDataSource;
+    private int parallelThreads = 4;
 
     public SnapshotControl(Database database) {
         setTypes(DatabaseObjectFactory.getInstance().getStandardTypes(), database);
@@ -48,6 +51,26 @@ public class SnapshotControl implements LiquibaseSerializable {
         this.snapshotListener = snapshotListener;
     }
 
+    public DataSource getParallelDataSource() {
+        return parallelDataSource;
+    }
+
+    /**
+     * Sets a DataSource for the same database as the snapshot connection. If set, {@link JdbcDatabaseSnapshot} runs the bulk metadata queries for
+     * the snapshotted schemas concurrently on {@link #getParallelThreads()} connections from it before building the snapshot.
+     */
+    public void setParallelDataSource(DataSource parallelDataSource) {
+        this.parallelDataSource = parallelDataSource;
+    }
+
+    public int getParallelThreads() {
+        return parallelThreads;
+    }
+
+    public void setParallelThreads(int parallelThreads) {
+        this.parallelThreads = parallelThreads;
+    }
+
     @Override
     public String getSerializedObjectName() {
         return "snapshotControl";
@@ -45,14 +45,14 @@ public class SnapshotGeneratorFactory {
     /**
      * Return singleton SnapshotGeneratorFactory
      */
-    public static SnapshotGeneratorFactory getInstance() {
+    public static synchronized SnapshotGeneratorFactory getInstance() {
         if (instance == null) {
             instance = new SnapshotGeneratorFactory();
         }
         return instance;
     }
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new SnapshotGeneratorFactory();
     }
 
@@ -105,6 +105,11 @@ public class SnapshotGeneratorFactory {
             }
         }
 
+        MetadataCache metadataCache = MetadataCache.getInstance(database);
+        if (metadataCache != null) {
+            return metadataCache.has(example);
+        }
+
         if (createSnapshot(example, database, new SnapshotControl(database, false, types.toArray(new Class[types.size()]))) != null) {
             return true;
         }
@@ -0,0 +1,49 @@
+package liquibase.snapshot.fingerprint;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.RawSqlStatement;
+
+/**
+ * Uses row counts and CRC32 sums over the INFORMATION_SCHEMA rows describing the schema's tables, columns, indexes, constraints, views
+ * and routines. Table CREATE_TIME is not enough on its own since not every ALTER TABLE rebuilds the table.
+ */
+public class MySQLSchemaFingerprintGenerator implements SchemaFingerprintGenerator {
+
+    private static final String[][] TABLES = new String[][]{
+            {"TABLES", "TABLE_SCHEMA", "TABLE_NAME, TABLE_TYPE, ENGINE, TABLE_COLLATION, CREATE_OPTIONS, TABLE_COMMENT"},
+            {"COLUMNS", "TABLE_SCHEMA", "TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION, COLUMN_TYPE, IS_NULLABLE, COALESCE(COLUMN_DEFAULT, '<null>'), COALESCE(COLLATION_NAME, ''), EXTRA, COLUMN_COMMENT"},
+            {"STATISTICS", "TABLE_SCHEMA", "TABLE_NAME, INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, COLUMN_NAME, COALESCE(SUB_PART, ''), INDEX_TYPE"},
+            {"TABLE_CONSTRAINTS", "TABLE_SCHEMA", "TABLE_NAME, CONSTRAINT_NAME, CONSTRAINT_TYPE"},
+            {"KEY_COLUMN_USAGE", "TABLE_SCHEMA", "TABLE_NAME, CONSTRAINT_NAME, COLUMN_NAME, ORDINAL_POSITION, COALESCE(REFERENCED_TABLE_SCHEMA, ''), COALESCE(REFERENCED_TABLE_NAME, ''), COALESCE(REFERENCED_COLUMN_NAME, '')"},
+            {"REFERENTIAL_CONSTRAINTS", "CONSTRAINT_SCHEMA", "CONSTRAINT_NAME, UPDATE_RULE, DELETE_RULE"},
+            {"VIEWS", "TABLE_SCHEMA", "TABLE_NAME, VIEW_DEFINITION"},
+            {"ROUTINES", "ROUTINE_SCHEMA", "ROUTINE_NAME, ROUTINE_TYPE, LAST_ALTERED"}
+    };
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    public String getFingerprint(CatalogAndSchema schema, Database database) throws DatabaseException {
+        String schemaName = database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema.customize(database)));
+        StringBuilder sql = new StringBuilder("SELECT CONCAT_WS('/'");
+        for (String[] table : TABLES) {
+            sql.append(", (SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(':', ").append(table[2]).append("))), 0)) FROM INFORMATION_SCHEMA.")
+                    .append(table[0]).append(" WHERE ").append(table[1]).append(" = '").append(schemaName).append("')");
+        }
+        sql.append(")");
+        return ExecutorService.getInstance().getExecutor(database).queryForObject(new RawSqlStatement(sql.toString()), String.class);
+    }
+}
@@ -0,0 +1,38 @@
+package liquibase.snapshot.fingerprint;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.RawSqlStatement;
+
+/**
+ * Uses the number of objects and the latest LAST_DDL_TIME in ALL_OBJECTS, plus hashes of the table and column comments, which are
+ * not tracked by LAST_DDL_TIME. LAST_DDL_TIME only has a resolution of one second, so no fingerprint is returned if the schema
+ * changed within the last two seconds.
+ */
+public class OracleSchemaFingerprintGenerator implements SchemaFingerprintGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof OracleDatabase;
+    }
+
+    @Override
+    public String getFingerprint(CatalogAndSchema schema, Database database) throws DatabaseException {
+        String owner = database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(schema.customize(database)));
+        String sql = "SELECT CASE WHEN MAX(o.LAST_DDL_TIME) >= SYSDATE - 2/86400 THEN NULL ELSE " +
+                "COUNT(*) || ':' || TO_CHAR(MAX(o.LAST_DDL_TIME), 'YYYYMMDDHH24MISS') || ':' || " +
+                "(SELECT COUNT(*) || ':' || SUM(ORA_HASH(c.TABLE_NAME || ':' || c.COMMENTS)) FROM ALL_TAB_COMMENTS c WHERE c.OWNER = '" + owner + "' AND c.COMMENTS IS NOT NULL) || ':' || " +
+                "(SELECT COUNT(*) || ':' || SUM(ORA_HASH(c.TABLE_NAME || ':' || c.COLUMN_NAME || ':' || c.COMMENTS)) FROM ALL_COL_COMMENTS c WHERE c.OWNER = '" + owner + "' AND c.COMMENTS IS NOT NULL) " +
+                "END FROM ALL_OBJECTS o WHERE o.OWNER = '" + owner + "'";
+        return ExecutorService.getInstance().getExecutor(database).queryForObject(new RawSqlStatement(sql), String.class);
+    }
+}
@@ -0,0 +1,52 @@
+package liquibase.snapshot.fingerprint;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.RawSqlStatement;
+
+/**
+ * Uses the row count and the sum of the xmin transaction ids of the system catalog rows describing the schema. Every DDL statement inserts
+ * or updates catalog rows, which gives them the id of the DDL transaction, and every drop removes rows.
+ */
+public class PostgresSchemaFingerprintGenerator implements SchemaFingerprintGenerator {
+
+    private static final String[][] CATALOGS = new String[][]{
+            {"pg_catalog.pg_class x", "x.relnamespace = n.oid"},
+            {"pg_catalog.pg_attribute x JOIN pg_catalog.pg_class c ON x.attrelid = c.oid", "c.relnamespace = n.oid"},
+            {"pg_catalog.pg_attrdef x JOIN pg_catalog.pg_class c ON x.adrelid = c.oid", "c.relnamespace = n.oid"},
+            {"pg_catalog.pg_constraint x", "x.connamespace = n.oid"},
+            {"pg_catalog.pg_rewrite x JOIN pg_catalog.pg_class c ON x.ev_class = c.oid", "c.relnamespace = n.oid"},
+            {"pg_catalog.pg_description x JOIN pg_catalog.pg_class c ON x.objoid = c.oid", "c.relnamespace = n.oid"},
+            {"pg_catalog.pg_proc x", "x.pronamespace = n.oid"},
+            {"pg_catalog.pg_type x", "x.typnamespace = n.oid"}
+    };
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    @Override
+    public String getFingerprint(CatalogAndSchema schema, Database database) throws DatabaseException {
+        String schemaName = database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(schema.customize(database)));
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < CATALOGS.length; i++) {
+            if (i > 0) {
+                sql.append(" || '/' || ");
+            }
+            sql.append("(SELECT COUNT(*) || ':' || COALESCE(SUM(x.xmin::text::bigint), 0) FROM ")
+                    .append(CATALOGS[i][0]).append(" WHERE ").append(CATALOGS[i][1]).append(")");
+        }
+        sql.append(" FROM pg_catalog.pg_namespace n WHERE n.nspname = '").append(schemaName).append("'");
+        return ExecutorService.getInstance().getExecutor(database).queryForObject(new RawSqlStatement(sql.toString()), String.class);
+    }
+}
@@ -0,0 +1,22 @@
+package liquibase.snapshot.fingerprint;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.servicelocator.PrioritizedService;
+
+/**
+ * Computes a value that changes whenever the structure of a schema changes, using catalog queries that are much cheaper than a snapshot.
+ * Implementations are found by the {@link liquibase.servicelocator.ServiceLocator} and selected by {@link SchemaFingerprintGeneratorFactory}.
+ * Used by {@link liquibase.snapshot.SnapshotCache} to decide whether a stored snapshot is still current.
+ */
+public interface SchemaFingerprintGenerator extends PrioritizedService {
+
+    boolean supports(Database database);
+
+    /**
+     * Returns the fingerprint of the given schema, or null if it cannot be computed reliably right now, for example because the schema
+     * changed within the resolution of the catalog timestamps. A null fingerprint disables the snapshot cache for the schema.
+     */
+    String getFingerprint(CatalogAndSchema schema, Database database) throws DatabaseException;
+}
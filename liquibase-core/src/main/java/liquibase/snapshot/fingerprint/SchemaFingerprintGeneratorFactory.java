@@ -0,0 +1,67 @@
+package liquibase.snapshot.fingerprint;
+
+import liquibase.database.Database;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.servicelocator.ServiceLocator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the {@link SchemaFingerprintGenerator} with the highest priority for a database.
+ */
+public class SchemaFingerprintGeneratorFactory {
+
+    private static SchemaFingerprintGeneratorFactory instance;
+
+    private List<SchemaFingerprintGenerator> registry = new ArrayList<SchemaFingerprintGenerator>();
+
+    public static synchronized SchemaFingerprintGeneratorFactory getInstance() {
+        if (instance == null) {
+            instance = new SchemaFingerprintGeneratorFactory();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    private SchemaFingerprintGeneratorFactory() {
+        Class<? extends SchemaFingerprintGenerator>[] classes;
+        try {
+            classes = ServiceLocator.getInstance().findClasses(SchemaFingerprintGenerator.class);
+
+            for (Class<? extends SchemaFingerprintGenerator> clazz : classes) {
+                register(clazz.getConstructor().newInstance());
+            }
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    public synchronized void register(SchemaFingerprintGenerator generator) {
+        registry.add(0, generator);
+    }
+
+    public synchronized void unregister(SchemaFingerprintGenerator generator) {
+        registry.remove(generator);
+    }
+
+    public synchronized List<SchemaFingerprintGenerator> getRegistry() {
+        return new ArrayList<SchemaFingerprintGenerator>(registry);
+    }
+
+    /**
+     * Returns the generator with the highest priority that supports the given database, or null if there is none.
+     */
+    public synchronized SchemaFingerprintGenerator getGenerator(Database database) {
+        SchemaFingerprintGenerator found = null;
+        for (SchemaFingerprintGenerator generator : registry) {
+            if (generator.supports(database) && (found == null || generator.getPriority() > found.getPriority())) {
+                found = generator;
+            }
+        }
+        return found;
+    }
+}
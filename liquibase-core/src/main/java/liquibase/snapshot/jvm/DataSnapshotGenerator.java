@@ -1,7 +1,10 @@
 package liquibase.snapshot.jvm;
 
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
@@ -10,8 +13,15 @@ import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Data;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
+import liquibase.util.DataRowUtil;
+import liquibase.util.JdbcUtils;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class DataSnapshotGenerator extends JdbcSnapshotGenerator {
 
@@ -34,10 +44,55 @@ public class DataSnapshotGenerator extends JdbcSnapshotGenerator {
             try {
 
                 Data exampleData = new Data().setTable(table);
+                if (LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffDataRows()
+                        && !snapshot.getDatabase().isLiquibaseObject(table)) {
+                    readRows(exampleData, snapshot.getDatabase());
+                }
                 table.setAttribute("data", exampleData);
             } catch (Exception e) {
                 throw new DatabaseException(e);
             }
         }
     }
+
+    /**
+     * Sets the row count and row hash of the data. The rows are streamed and only the running totals are kept.
+     * The values of each row are hashed in column name order, so the hash does not depend on the column order of the table.
+     */
+    protected void readRows(Data data, Database database) throws DatabaseException, SQLException {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return;
+        }
+        Table table = data.getTable();
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDiffDataFetchSize());
+            rs = stmt.executeQuery("SELECT * FROM " + database.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName()));
+
+            int columnCount = rs.getMetaData().getColumnCount();
+            SortedMap<String, Integer> columnIndexes = new TreeMap<String, Integer>();
+            for (int i = 1; i <= columnCount; i++) {
+                columnIndexes.put(rs.getMetaData().getColumnName(i).toUpperCase(), i);
+            }
+
+            long rowCount = 0;
+            long rowHash = 0;
+            Object[] values = new Object[columnCount];
+            while (rs.next()) {
+                int i = 0;
+                for (int columnIndex : columnIndexes.values()) {
+                    values[i++] = JdbcUtils.getResultSetValue(rs, columnIndex);
+                }
+                rowCount++;
+                rowHash += DataRowUtil.hashRow(values);
+            }
+
+            data.setRowCount(rowCount);
+            data.setRowHash(Long.toHexString(rowHash));
+        } finally {
+            JdbcUtils.close(rs, stmt);
+        }
+    }
 }
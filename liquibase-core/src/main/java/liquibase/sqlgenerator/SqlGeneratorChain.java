@@ -6,43 +6,59 @@ import liquibase.exception.Warnings;
 import liquibase.sql.Sql;
 import liquibase.statement.SqlStatement;
 
-import java.util.Iterator;
 import java.util.SortedSet;
 
 public class SqlGeneratorChain {
-    private Iterator<SqlGenerator> sqlGenerators;
+    private SqlGenerator[] sqlGenerators;
+    private int next = 0;
 
     public SqlGeneratorChain(SortedSet<SqlGenerator> sqlGenerators) {
         if (sqlGenerators != null) {
-            this.sqlGenerators = sqlGenerators.iterator();
+            this.sqlGenerators = sqlGenerators.toArray(new SqlGenerator[sqlGenerators.size()]);
         }
     }
 
+    private SqlGeneratorChain() {
+    }
+
+    /**
+     * Creates a chain over the given generators, which must already be sorted by priority. The array is not copied or modified.
+     */
+    static SqlGeneratorChain create(SqlGenerator[] sqlGenerators) {
+        SqlGeneratorChain chain = new SqlGeneratorChain();
+        chain.sqlGenerators = sqlGenerators;
+        return chain;
+    }
+
+    private boolean hasNext() {
+        return next < sqlGenerators.length;
+    }
+
     public Sql[] generateSql(SqlStatement statement, Database database) {
         if (sqlGenerators == null) {
             return null;
         }
 
-        if (!sqlGenerators.hasNext()) {
+        if (!hasNext()) {
             return new Sql[0];
         }
 
-        return sqlGenerators.next().generateSql(statement, database, this);
+        return sqlGenerators[next++].generateSql(statement, database, this);
     }
 
     public Warnings warn(SqlStatement statement, Database database) {
-        if (sqlGenerators == null || !sqlGenerators.hasNext()) {
+        if (sqlGenerators == null || !hasNext()) {
             return new Warnings();
         }
 
-        return sqlGenerators.next().warn(statement, database, this);
+        return sqlGenerators[next++].warn(statement, database, this);
     }
 
     public ValidationErrors validate(SqlStatement statement, Database database) {
-        if (sqlGenerators == null || !sqlGenerators.hasNext()) {
+        if (sqlGenerators == null || !hasNext()) {
             return new ValidationErrors();
         }
 
-        return sqlGenerators.next().validate(statement, database, this);
+        return sqlGenerators[next++].validate(statement, database, this);
     }
 }
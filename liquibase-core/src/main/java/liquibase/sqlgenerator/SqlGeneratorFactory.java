@@ -14,6 +14,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -22,14 +25,16 @@ import java.util.*;
  */
 public class SqlGeneratorFactory {
 
-    private static SqlGeneratorFactory instance;
+    private static volatile SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private static final SqlGenerator[] NO_GENERATORS = new SqlGenerator[0];
+
+    private List<SqlGenerator> generators = new CopyOnWriteArrayList<SqlGenerator>();
 
     //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<String, SortedSet<SqlGenerator>>();
+    private final ConcurrentMap<Class<?>, Class<?>[]> statementTypesByGeneratorClass = new ConcurrentHashMap<Class<?>, Class<?>[]>();
+    //replaced, never cleared, when generators are registered so a lookup that read the old generators cannot fill the new cache
+    private volatile ConcurrentMap<Class<?>, ConcurrentMap<String, SqlGenerator[]>> generatorsByStatementClass = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, SqlGenerator[]>>();
 
     private SqlGeneratorFactory() {
         Class[] classes;
@@ -50,23 +55,32 @@ public class SqlGeneratorFactory {
      * Return singleton SqlGeneratorFactory
      */
     public static SqlGeneratorFactory getInstance() {
-        if (instance == null) {
-            instance = new SqlGeneratorFactory();
+        SqlGeneratorFactory factory = instance;
+        if (factory == null) {
+            synchronized (SqlGeneratorFactory.class) {
+                factory = instance;
+                if (factory == null) {
+                    factory = new SqlGeneratorFactory();
+                    instance = factory;
+                }
+            }
         }
-        return instance;
+        return factory;
     }
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new SqlGeneratorFactory();
     }
 
 
     public void register(SqlGenerator generator) {
         generators.add(generator);
+        generatorsByStatementClass = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, SqlGenerator[]>>();
     }
 
     public void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        generatorsByStatementClass = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, SqlGenerator[]>>();
     }
 
     public void unregister(Class generatorClass) {
@@ -86,65 +100,101 @@ public class SqlGeneratorFactory {
     }
 
     protected SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
-        String databaseName = null;
+        SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
+        validGenerators.addAll(Arrays.asList(getGeneratorArray(statement, database)));
+        return validGenerators;
+    }
+
+    /**
+     * Returns the generators for the given statement and database, sorted by priority.
+     * The result is cached by statement class and database short name and must not be modified.
+     */
+    protected SqlGenerator[] getGeneratorArray(SqlStatement statement, Database database) {
+        String databaseName;
         if (database == null) {
             databaseName = "NULL";
         } else {
             databaseName = database.getShortName();
         }
-        String key = statement.getClass().getName()+":"+ databaseName;
 
-        if (generatorsByKey.containsKey(key)) {
-            return generatorsByKey.get(key);
+        ConcurrentMap<Class<?>, ConcurrentMap<String, SqlGenerator[]>> cache = generatorsByStatementClass;
+        ConcurrentMap<String, SqlGenerator[]> generatorsByDatabase = cache.get(statement.getClass());
+        if (generatorsByDatabase == null) {
+            generatorsByDatabase = new ConcurrentHashMap<String, SqlGenerator[]>();
+            ConcurrentMap<String, SqlGenerator[]> existing = cache.putIfAbsent(statement.getClass(), generatorsByDatabase);
+            if (existing != null) {
+                generatorsByDatabase = existing;
+            }
         }
 
-        SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
+        SqlGenerator[] validGenerators = generatorsByDatabase.get(databaseName);
+        if (validGenerators == null) {
+            validGenerators = findGenerators(statement, database);
+            generatorsByDatabase.put(databaseName, validGenerators);
+        }
+        return validGenerators;
+    }
 
+    private SqlGenerator[] findGenerators(SqlStatement statement, Database database) {
+        List<SqlGenerator> validGenerators = new ArrayList<SqlGenerator>();
         for (SqlGenerator generator : getGenerators()) {
-            Class clazz = generator.getClass();
-            Type classType = null;
-            while (clazz != null) {
-                if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
-                }
-
-                for (Type type : getGenericInterfaces(clazz)) {
-                    if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
-                    } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
+            for (Class<?> statementType : getStatementTypes(generator.getClass())) {
+                if (statementType.isAssignableFrom(statement.getClass())) {
+                    //noinspection unchecked
+                    if (generator.supports(statement, database)) {
+                        validGenerators.add(generator);
                     }
+                    break;
                 }
-                classType = getGenericSuperclass(clazz);
-                clazz = clazz.getSuperclass();
             }
         }
+        if (validGenerators.isEmpty()) {
+            return NO_GENERATORS;
+        }
 
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        //stable sort keeps registration order within a priority, then only the first generator of each priority is kept
+        Collections.sort(validGenerators, new SqlGeneratorComparator());
+        List<SqlGenerator> returnList = new ArrayList<SqlGenerator>(validGenerators.size());
+        for (SqlGenerator generator : validGenerators) {
+            if (returnList.isEmpty() || returnList.get(returnList.size() - 1).getPriority() != generator.getPriority()) {
+                returnList.add(generator);
+            }
+        }
+        return returnList.toArray(new SqlGenerator[returnList.size()]);
     }
 
-    private Type[] getGenericInterfaces(Class<?> clazz) {
-        if(genericInterfacesCache.containsKey(clazz)) {
-            return genericInterfacesCache.get(clazz);
+    /**
+     * Returns the SqlStatement types the given generator class declares through its type parameters.
+     * A generator implementing the raw SqlGenerator interface handles all statements.
+     */
+    private Class<?>[] getStatementTypes(Class<?> generatorClass) {
+        Class<?>[] statementTypes = statementTypesByGeneratorClass.get(generatorClass);
+        if (statementTypes != null) {
+            return statementTypes;
         }
 
-        Type[] genericInterfaces = clazz.getGenericInterfaces();
-        genericInterfacesCache.put(clazz, genericInterfaces);
-        return genericInterfaces;
-    }
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        Class clazz = generatorClass;
+        Type classType = null;
+        while (clazz != null) {
+            if (classType instanceof ParameterizedType) {
+                addStatementTypes(classType, types);
+            }
 
-    private Type getGenericSuperclass(Class<?> clazz) {
-        if(genericSuperClassCache.containsKey(clazz)) {
-            return genericSuperClassCache.get(clazz);
+            for (Type type : clazz.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType) {
+                    addStatementTypes(type, types);
+                } else if (isTypeEqual(type, SqlGenerator.class)) {
+                    types.add(SqlStatement.class);
+                }
+            }
+            classType = clazz.getGenericSuperclass();
+            clazz = clazz.getSuperclass();
         }
 
-        Type genericSuperclass = clazz.getGenericSuperclass();
-        genericSuperClassCache.put(clazz, genericSuperclass);
-        return genericSuperclass;
+        statementTypes = types.toArray(new Class<?>[types.size()]);
+        statementTypesByGeneratorClass.put(generatorClass, statementTypes);
+        return statementTypes;
     }
 
     private boolean isTypeEqual(Type aType, Class aClass) {
@@ -154,7 +204,7 @@ public class SqlGeneratorFactory {
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
+    private void addStatementTypes(Type type, List<Class<?>> types) {
         for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
                 typeClass = ((TypeVariable) typeClass).getBounds()[0];
@@ -164,22 +214,20 @@ public class SqlGeneratorFactory {
                 return;
             }
 
-            if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+            if (typeClass instanceof Class) {
+                types.add((Class<?>) typeClass);
             }
         }
 
     }
 
     private SqlGeneratorChain createGeneratorChain(SqlStatement statement, Database database) {
-        SortedSet<SqlGenerator> sqlGenerators = getGenerators(statement, database);
-        if (sqlGenerators == null || sqlGenerators.size() == 0) {
+        SqlGenerator[] sqlGenerators = getGeneratorArray(statement, database);
+        if (sqlGenerators.length == 0) {
             return null;
         }
         //noinspection unchecked
-        return new SqlGeneratorChain(sqlGenerators);
+        return SqlGeneratorChain.create(sqlGenerators);
     }
 
     public Sql[] generateSql(Change change, Database database) {
@@ -218,7 +266,7 @@ public class SqlGeneratorFactory {
      * If the statement queries the database, it cannot be used in updateSql type operations
      */
     public boolean generateStatementsVolatile(SqlStatement statement, Database database) {
-        for (SqlGenerator generator : getGenerators(statement, database)) {
+        for (SqlGenerator generator : getGeneratorArray(statement, database)) {
             if (generator.generateStatementsIsVolatile(database)) {
                 return true;
             }
@@ -227,7 +275,7 @@ public class SqlGeneratorFactory {
     }
 
     public boolean generateRollbackStatementsVolatile(SqlStatement statement, Database database) {
-        for (SqlGenerator generator : getGenerators(statement, database)) {
+        for (SqlGenerator generator : getGeneratorArray(statement, database)) {
             if (generator.generateRollbackStatementsIsVolatile(database)) {
                 return true;
             }
@@ -236,7 +284,7 @@ public class SqlGeneratorFactory {
     }
 
     public boolean supports(SqlStatement statement, Database database) {
-        return getGenerators(statement, database).size() > 0;
+        return getGeneratorArray(statement, database).length > 0;
     }
 
     public ValidationErrors validate(SqlStatement statement, Database database) {
@@ -0,0 +1,22 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
+
+/**
+ * Dummy SQL generator for the batched and streaming prepared statements created by <code>LoadDataChange</code><br>
+ */
+public class LoadDataChangeGenerator extends AbstractSqlGenerator<InsertBatchExecutablePreparedStatement> {
+    @Override
+    public ValidationErrors validate(InsertBatchExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(InsertBatchExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[0];
+    }
+}
@@ -38,11 +38,27 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
     	String liquibaseSchema = database.getLiquibaseSchemaName();
         String liquibaseCatalog = database.getLiquibaseCatalogName();
 
+        String idColumn = database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID");
+        String lockedColumn = database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED");
+        String lockGrantedColumn = database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKGRANTED");
+
         UpdateStatement updateStatement = new UpdateStatement(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName());
+        if (statement.getHeldLockGranted() != null) {
+            updateStatement.addNewColumnValue("LOCKGRANTED", new Timestamp(new java.util.Date().getTime()));
+            updateStatement.setWhereClause(idColumn + " = 1 AND " + lockedColumn + " = " + DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(true, database) + " AND " + lockGrantedColumn + " = ?")
+                    .addWhereParameters(new Timestamp(statement.getHeldLockGranted().getTime()));
+            return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
+        }
+
         updateStatement.addNewColumnValue("LOCKED", true);
         updateStatement.addNewColumnValue("LOCKGRANTED", new Timestamp(new java.util.Date().getTime()));
         updateStatement.addNewColumnValue("LOCKEDBY", hostname + hostDescription + " (" + hostaddress + ")");
-        updateStatement.setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID") + " = 1 AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED") + " = "+ DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(false, database));
+        if (statement.getStaleLockGranted() == null) {
+            updateStatement.setWhereClause(idColumn + " = 1 AND " + lockedColumn + " = "+ DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(false, database));
+        } else {
+            updateStatement.setWhereClause(idColumn + " = 1 AND " + lockedColumn + " = " + DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(true, database) + " AND " + lockGrantedColumn + " <= ?")
+                    .addWhereParameters(new Timestamp(statement.getStaleLockGranted().getTime()));
+        }
 
         return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
 
@@ -0,0 +1,328 @@
+package liquibase.statement;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import liquibase.change.ColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.bulk.BulkInsertStrategy;
+import liquibase.executor.bulk.BulkInsertStrategyFactory;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
+
+/**
+ * Handles multi-row INSERT execution with a single prepared statement and JDBC batches, or with a database specific
+ * {@link BulkInsertStrategy} if bulk inserts are enabled.
+ * Every row holds one value per column, in column order. Values are bound by type: Strings, Numbers, Booleans and Dates
+ * are supported and a null or "NULL" value is bound as SQL NULL. {@link DatabaseFunction} values cannot be bound.
+ * Strings for columns that are not character columns, such as untyped loadData values for a numeric or date column, are bound
+ * with the SQL type of the column read from a snapshot of the table, see {@link #getColumnSqlType(int)}.
+ */
+public class InsertBatchExecutablePreparedStatement extends ExecutablePreparedStatementBase {
+
+    private final List<Object[]> rows;
+    private final int batchSize;
+    private final int commitInterval;
+    private Integer[] columnSqlTypes;
+
+    /**
+     * @param batchSize number of rows sent to the database per JDBC batch
+     * @param commitInterval number of rows after which the transaction is committed, or 0 to leave committing to the changeSet
+     */
+    public InsertBatchExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<ColumnConfig> columns, List<Object[]> rows, int batchSize, int commitInterval, ChangeSet changeSet, ResourceAccessor resourceAccessor) {
+        super(database, catalogName, schemaName, tableName, columns, changeSet, resourceAccessor);
+        this.rows = rows;
+        this.batchSize = Math.max(1, batchSize);
+        this.commitInterval = commitInterval;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        LogFactory.getLogger().info("Inserting " + rows.size() + " rows into " + getTableName() + " in batches of " + batchSize);
+
+        RowWriter writer = createRowWriter(factory);
+        try {
+            int uncommittedRows = 0;
+            for (Object[] row : rows) {
+                writer.add(row);
+                uncommittedRows++;
+
+                if (commitInterval > 0 && uncommittedRows >= commitInterval) {
+                    writer.flush();
+                    database.commit();
+                    uncommittedRows = 0;
+                }
+            }
+            writer.flush();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Creates the writer used to send rows to the database. If {@link GlobalConfiguration#getLoadDataBulkInsert()} is set, the writer uses
+     * the {@link BulkInsertStrategy} for the database if there is one.
+     */
+    protected RowWriter createRowWriter(PreparedStatementFactory factory) {
+        BulkInsertStrategy bulkInsertStrategy = null;
+        if (LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataBulkInsert()
+                && database.getConnection() instanceof JdbcConnection) {
+            bulkInsertStrategy = BulkInsertStrategyFactory.getInstance().getStrategy(database);
+        }
+        return new RowWriter(factory, bulkInsertStrategy);
+    }
+
+    @Override
+    protected String generateSql(List<ColumnConfig> cols) {
+        cols.addAll(getColumns());
+        return generateInsertSql(1);
+    }
+
+    /**
+     * Returns an INSERT statement with parameters for the given number of rows. Statements for more than one row use a multi-row VALUES clause.
+     */
+    public String generateInsertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        sql.append(database.escapeTableName(getCatalogName(), getSchemaName(), getTableName()));
+        sql.append("(");
+        StringBuilder params = new StringBuilder("(");
+        boolean first = true;
+        for (ColumnConfig column : getColumns()) {
+            if (!first) {
+                sql.append(", ");
+                params.append(", ");
+            }
+            sql.append(database.escapeColumnName(getCatalogName(), getSchemaName(), getTableName(), column.getName()));
+            params.append("?");
+            first = false;
+        }
+        sql.append(") VALUES");
+        params.append(")");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(",");
+            }
+            sql.append(params);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Returns true if the given value can be bound by this statement.
+     * Strings that {@link liquibase.sqlgenerator.core.InsertGenerator} would output as function calls are not bindable.
+     */
+    public static boolean isBindable(Object value, Database database) {
+        if (value instanceof String) {
+            String string = (String) value;
+            return !(string.startsWith("\"SYSIBM\"") || string.startsWith("to_date(") || string.equalsIgnoreCase(database.getCurrentDateTimeFunction()));
+        }
+        return value == null
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof Date;
+    }
+
+    /**
+     * Returns the {@link Types} value of the column at the given position as read from a snapshot of the table, or null if it is not known.
+     * The table is snapshotted the first time this is called.
+     */
+    public Integer getColumnSqlType(int columnIndex) {
+        if (columnSqlTypes == null) {
+            columnSqlTypes = readColumnSqlTypes();
+        }
+        return columnSqlTypes[columnIndex];
+    }
+
+    /**
+     * Reads the SQL types of the columns from a snapshot of the table. Types of columns that cannot be found are null.
+     */
+    protected Integer[] readColumnSqlTypes() {
+        Integer[] types = new Integer[getColumns().size()];
+        try {
+            Table example = new Table().setName(getTableName());
+            example.setSchema(new Schema(getCatalogName(), getSchemaName()));
+            Table table = SnapshotGeneratorFactory.getInstance().createSnapshot(example, database, new SnapshotControl(database, Table.class, Column.class));
+            if (table == null) {
+                return types;
+            }
+            for (int i = 0; i < types.length; i++) {
+                String columnName = getColumns().get(i).getName();
+                for (Column column : table.getColumns()) {
+                    if (column.getName().equalsIgnoreCase(columnName) && column.getType() != null) {
+                        types[i] = column.getType().getDataTypeId();
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot read column types of " + getTableName() + ": " + e.getMessage());
+        }
+        return types;
+    }
+
+    /**
+     * Binds the value of a parameter of a statement returned by {@link #generateInsertSql(int)}, whose parameters are the columns in
+     * order for every row. A String for a column with a known SQL type other than a character type is bound with
+     * {@link PreparedStatement#setObject(int, Object, int)} so the driver converts it. Strings for columns with an unknown type are bound
+     * with setString.
+     */
+    public void applyValue(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value == null || (value instanceof String && ((String) value).equalsIgnoreCase("NULL"))) {
+            stmt.setNull(index, Types.NULL);
+        } else if (value instanceof String) {
+            Integer sqlType = getColumns().isEmpty() ? null : getColumnSqlType((index - 1) % getColumns().size());
+            if (sqlType == null || isCharacterType(sqlType)) {
+                stmt.setString(index, (String) value);
+            } else {
+                stmt.setObject(index, value, sqlType);
+            }
+        } else if (value instanceof Boolean) {
+            stmt.setBoolean(index, (Boolean) value);
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            if (number instanceof ColumnConfig.ValueNumeric) {
+                number = ((ColumnConfig.ValueNumeric) number).getDelegate();
+            }
+            if (number instanceof Long) {
+                stmt.setLong(index, number.longValue());
+            } else if (number instanceof Integer) {
+                stmt.setInt(index, number.intValue());
+            } else if (number instanceof Double) {
+                stmt.setDouble(index, number.doubleValue());
+            } else if (number instanceof Float) {
+                stmt.setFloat(index, number.floatValue());
+            } else if (number instanceof BigDecimal) {
+                stmt.setBigDecimal(index, (BigDecimal) number);
+            } else if (number instanceof BigInteger) {
+                stmt.setBigDecimal(index, new BigDecimal((BigInteger) number));
+            } else {
+                stmt.setBigDecimal(index, new BigDecimal(number.toString()));
+            }
+        } else if (value instanceof java.sql.Timestamp) {
+            stmt.setTimestamp(index, (java.sql.Timestamp) value);
+        } else if (value instanceof java.sql.Date) {
+            stmt.setDate(index, (java.sql.Date) value);
+        } else if (value instanceof java.sql.Time) {
+            stmt.setTime(index, (java.sql.Time) value);
+        } else if (value instanceof Date) {
+            stmt.setTimestamp(index, new java.sql.Timestamp(((Date) value).getTime()));
+        } else {
+            throw new SQLException("Cannot bind value of type " + value.getClass().getName() + " to parameter " + index);
+        }
+    }
+
+    protected boolean isCharacterType(int sqlType) {
+        return sqlType == Types.CHAR
+                || sqlType == Types.VARCHAR
+                || sqlType == Types.LONGVARCHAR
+                || sqlType == Types.NCHAR
+                || sqlType == Types.NVARCHAR
+                || sqlType == Types.LONGNVARCHAR
+                || sqlType == Types.CLOB
+                || sqlType == Types.NCLOB;
+    }
+
+    /**
+     * Collects rows and sends them to the database every batchSize rows, either through a {@link BulkInsertStrategy} or as a JDBC batch
+     * of a single-row prepared statement. If the strategy cannot be used on the connection, the writer falls back to JDBC batches.
+     */
+    protected class RowWriter {
+        private final PreparedStatementFactory factory;
+        private BulkInsertStrategy bulkInsertStrategy;
+        private final List<Object[]> pendingRows = new ArrayList<Object[]>();
+        private PreparedStatement stmt;
+        private boolean supportsBatch;
+
+        public RowWriter(PreparedStatementFactory factory, BulkInsertStrategy bulkInsertStrategy) {
+            this.factory = factory;
+            this.bulkInsertStrategy = bulkInsertStrategy;
+        }
+
+        public void add(Object[] row) throws SQLException, DatabaseException {
+            pendingRows.add(row);
+            if (pendingRows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Sends all pending rows to the database.
+         */
+        public void flush() throws SQLException, DatabaseException {
+            if (pendingRows.isEmpty()) {
+                return;
+            }
+            if (bulkInsertStrategy != null) {
+                Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+                if (bulkInsertStrategy.insert(InsertBatchExecutablePreparedStatement.this, pendingRows, connection)) {
+                    pendingRows.clear();
+                    return;
+                }
+                LogFactory.getLogger().info(bulkInsertStrategy.getClass().getSimpleName() + " cannot be used on this connection, using JDBC batches");
+                bulkInsertStrategy = null;
+            }
+
+            if (stmt == null) {
+                String sql = generateInsertSql(1);
+                LogFactory.getLogger().debug("Prepared statement: " + sql);
+                stmt = factory.create(sql);
+                supportsBatch = stmt.getConnection().getMetaData().supportsBatchUpdates();
+            }
+            for (Object[] row : pendingRows) {
+                for (int i = 0; i < row.length; i++) {
+                    applyValue(stmt, i + 1, row[i]);
+                }
+                if (supportsBatch) {
+                    stmt.addBatch();
+                } else {
+                    stmt.executeUpdate();
+                }
+            }
+            if (supportsBatch) {
+                stmt.executeBatch();
+            }
+            pendingRows.clear();
+        }
+
+        public void close() {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package liquibase.statement;
+
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import liquibase.change.ColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.core.InsertStatement;
+import liquibase.util.StreamUtil;
+
+/**
+ * Handles INSERT execution for rows that are read while executing, such as the lines of a loadData file, so only the
+ * current JDBC batch is held in memory.
+ * <p>
+ * Plain {@link InsertStatement}s for the configured columns whose values can all be bound are sent through a prepared statement in
+ * batches of batchSize rows, or through the database's {@link liquibase.executor.bulk.BulkInsertStrategy} if bulk inserts are enabled. Any other statement, such as an {@link liquibase.statement.core.InsertOrUpdateStatement}, and every
+ * statement when batchSize is 0, is executed through the database's {@link Executor} after any pending batch is sent, so rows are
+ * always inserted in the order they are read.
+ * If the iterator returned by the statements is {@link Closeable}, it is closed after execution.
+ */
+public class InsertStreamExecutablePreparedStatement extends InsertBatchExecutablePreparedStatement {
+
+    private final Iterable<InsertStatement> statements;
+    private final boolean usePreparedStatement;
+
+    /**
+     * @param batchSize number of rows sent to the database per JDBC batch, or 0 to execute every row as literal SQL
+     * @param commitInterval number of rows after which the transaction is committed, or 0 to leave committing to the changeSet
+     */
+    public InsertStreamExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<ColumnConfig> columns, Iterable<InsertStatement> statements, int batchSize, int commitInterval, ChangeSet changeSet, ResourceAccessor resourceAccessor) {
+        super(database, catalogName, schemaName, tableName, columns, Collections.<Object[]>emptyList(), batchSize, commitInterval, changeSet, resourceAccessor);
+        this.statements = statements;
+        this.usePreparedStatement = batchSize > 0;
+    }
+
+    public Iterable<InsertStatement> getStatements() {
+        return statements;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        List<String> columnNames = new ArrayList<String>(getColumns().size());
+        for (ColumnConfig column : getColumns()) {
+            columnNames.add(column.getName());
+        }
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+
+        Iterator<InsertStatement> iterator = statements.iterator();
+        RowWriter writer = createRowWriter(factory);
+        try {
+            int uncommittedRows = 0;
+            int rowCount = 0;
+            while (iterator.hasNext()) {
+                InsertStatement statement = iterator.next();
+                Object[] row = usePreparedStatement ? toRow(statement, columnNames) : null;
+                if (row == null) {
+                    writer.flush();
+                    executor.execute(statement);
+                } else {
+                    writer.add(row);
+                }
+                rowCount++;
+                uncommittedRows++;
+
+                if (getCommitInterval() > 0 && uncommittedRows >= getCommitInterval()) {
+                    writer.flush();
+                    database.commit();
+                    uncommittedRows = 0;
+                }
+            }
+            writer.flush();
+            LogFactory.getLogger().debug("Inserted " + rowCount + " rows into " + getTableName());
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            if (iterator instanceof Closeable) {
+                StreamUtil.closeQuietly((Closeable) iterator);
+            }
+            writer.close();
+        }
+    }
+
+    /**
+     * Returns the values of the given statement in column order, or null if it cannot be added to the prepared statement batch.
+     * Strings for a column whose SQL type is not known cannot be added, they are inserted as literal SQL so the database converts them.
+     */
+    protected Object[] toRow(InsertStatement statement, List<String> columnNames) {
+        if (!statement.getClass().equals(InsertStatement.class)) {
+            return null;
+        }
+        Map<String, Object> columnValues = statement.getColumnValues();
+        if (columnValues.size() != columnNames.size()) {
+            return null;
+        }
+        Object[] row = new Object[columnNames.size()];
+        for (int i = 0; i < row.length; i++) {
+            String columnName = columnNames.get(i);
+            if (!columnValues.containsKey(columnName)) {
+                return null;
+            }
+            Object value = columnValues.get(columnName);
+            if (!isBindable(value, database)) {
+                return null;
+            }
+            if (value instanceof String && !((String) value).equalsIgnoreCase("NULL") && getColumnSqlType(i) == null) {
+                return null;
+            }
+            row[i] = value;
+        }
+        return row;
+    }
+}
@@ -2,6 +2,34 @@ package liquibase.statement.core;
 
 import liquibase.statement.AbstractSqlStatement;
 
+import java.util.Date;
+
 public class LockDatabaseChangeLogStatement extends AbstractSqlStatement {
-    
+
+    private Date staleLockGranted;
+    private Date heldLockGranted;
+
+    /**
+     * If set, the lock is taken over from its current holder if its LOCKGRANTED was not refreshed since the given value was read.
+     */
+    public Date getStaleLockGranted() {
+        return staleLockGranted;
+    }
+
+    public LockDatabaseChangeLogStatement setStaleLockGranted(Date staleLockGranted) {
+        this.staleLockGranted = staleLockGranted;
+        return this;
+    }
+
+    /**
+     * If set, only LOCKGRANTED is refreshed and only if it still has the given value the holder wrote, i.e. the lock was not taken over.
+     */
+    public Date getHeldLockGranted() {
+        return heldLockGranted;
+    }
+
+    public LockDatabaseChangeLogStatement setHeldLockGranted(Date heldLockGranted) {
+        this.heldLockGranted = heldLockGranted;
+        return this;
+    }
 }
@@ -76,4 +76,17 @@ public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
         }
     }
 
+    public static class ByOrderExecutedGreaterThan implements WhereClause {
+
+        private int orderExecuted;
+
+        public ByOrderExecutedGreaterThan(int orderExecuted) {
+            this.orderExecuted = orderExecuted;
+        }
+
+        public int getOrderExecuted() {
+            return orderExecuted;
+        }
+    }
+
 }
\ No newline at end of file
@@ -148,11 +148,19 @@ public abstract class AbstractDatabaseObject implements DatabaseObject {
             }
 
             Class propertyType = ObjectUtil.getPropertyType(this, name);
-            if (propertyType != null && Collection.class.isAssignableFrom(propertyType) && !(child.getValue() instanceof Collection)) {
+            if (propertyType != null && Collection.class.isAssignableFrom(propertyType) && (!(child.getValue() instanceof Collection) || child.getChildren().size() > 0)) {
                 if (this.attributes.get(name) == null) {
                     this.setAttribute(name, new ArrayList<Column>());
                 }
-                this.getAttribute(name, List.class).add(child.getValue());
+                List list = this.getAttribute(name, List.class);
+                if (child.getValue() instanceof Collection) {
+                    list.addAll((Collection) child.getValue());
+                } else if (child.getValue() != null || child.getChildren().size() == 0) {
+                    list.add(child.getValue());
+                }
+                for (ParsedNode objectNode : child.getChildren()) { //objects that were not snapshotted themselves, e.g. index columns, are stored with all their attributes
+                    list.add(loadNestedObject(objectNode, resourceAccessor));
+                }
             } else {
                 Object childValue = child.getValue();
                 if (childValue != null && childValue instanceof String) {
@@ -180,6 +188,21 @@ public abstract class AbstractDatabaseObject implements DatabaseObject {
         }
     }
 
+    /**
+     * Recreates an object stored under its class name within an attribute of this object.
+     */
+    protected DatabaseObject loadNestedObject(ParsedNode objectNode, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        try {
+            DatabaseObject object = (DatabaseObject) Class.forName(objectNode.getName()).newInstance();
+            object.load(objectNode, resourceAccessor);
+            return object;
+        } catch (ParsedNodeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ParsedNodeException("Cannot load nested object " + objectNode.getName(), e);
+        }
+    }
+
     @Override
     public ParsedNode serialize() {
         throw new RuntimeException("TODO");
@@ -13,6 +13,13 @@ import java.util.*;
 
 public class DatabaseObjectCollection implements LiquibaseSerializable {
 
+    private static final Comparator<Set<DatabaseObject>> SMALLEST_SET_FIRST = new Comparator<Set<DatabaseObject>>() {
+        @Override
+        public int compare(Set<DatabaseObject> o1, Set<DatabaseObject> o2) {
+            return Integer.valueOf(o1.size()).compareTo(o2.size());
+        }
+    };
+
     private Map<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>> cache = new HashMap<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>>();
     private Database database;
 
@@ -102,23 +109,14 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
 
         String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, database);
 
-        SortedSet<Set<DatabaseObject>> objectSets = new TreeSet<Set<DatabaseObject>>(new Comparator<Set<DatabaseObject>>() {
-            @Override
-            public int compare(Set<DatabaseObject> o1, Set<DatabaseObject> o2) {
-                int sizeComparison = Integer.valueOf(o1.size()).compareTo(o2.size());
-                if (sizeComparison == 0) {
-                    return o1.toString().compareTo(o2.toString());
-                }
-                return sizeComparison;
-            }
-        } );
-
+        List<Set<DatabaseObject>> objectSets = new ArrayList<Set<DatabaseObject>>(hashes.length);
         for (String hash : hashes) {
             Set<DatabaseObject> databaseObjects = databaseObjectsByHash.get(hash);
-            if (databaseObjects != null) {
+            if (databaseObjects != null && !containsSameInstance(objectSets, databaseObjects)) {
                 objectSets.add(databaseObjects);
             }
         }
+        Collections.sort(objectSets, SMALLEST_SET_FIRST); //stable, so sets of the same size stay in hash order
 
         for (Set<DatabaseObject> databaseObjects : objectSets) {
             for (DatabaseObject obj : databaseObjects) {
@@ -132,6 +130,15 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
         return null;
     }
 
+    private boolean containsSameInstance(List<Set<DatabaseObject>> sets, Set<DatabaseObject> set) {
+        for (Set<DatabaseObject> existingSet : sets) {
+            if (existingSet == set) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns all objects of the given type that are already included in this snapshot.
      */
@@ -20,6 +20,36 @@ public class Data extends AbstractDatabaseObject {
         return this;
     }
 
+    /**
+     * Number of rows in the table, or null if the rows were not read. Set when {@link liquibase.configuration.GlobalConfiguration#DIFF_DATA_ROWS} is enabled.
+     */
+    public Long getRowCount() {
+        Number rowCount = getAttribute("rowCount", Number.class);
+        if (rowCount == null) {
+            return null;
+        }
+        return rowCount.longValue();
+    }
+
+    public Data setRowCount(Long rowCount) {
+        setAttribute("rowCount", rowCount);
+
+        return this;
+    }
+
+    /**
+     * Hash of all rows of the table that does not depend on the order they were read in, or null if the rows were not read.
+     * Tables with the same rows have the same hash in any database.
+     */
+    public String getRowHash() {
+        return getAttribute("rowHash", String.class);
+    }
+
+    public Data setRowHash(String rowHash) {
+        setAttribute("rowHash", rowHash);
+
+        return this;
+    }
 
     @Override
     public DatabaseObject[] getContainingObjects() {
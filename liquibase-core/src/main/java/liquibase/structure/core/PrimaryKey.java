@@ -134,6 +134,17 @@ public class PrimaryKey extends AbstractDatabaseObject {
         return getAttribute("columns", List.class);
     }
 
+    public PrimaryKey setColumns(List<Column> columns) {
+        setAttribute("columns", columns);
+        if (getAttribute("table", Object.class) instanceof Table) {
+            for (Column column : getColumns()) {
+                column.setRelation(getTable());
+            }
+        }
+
+        return this;
+    }
+
     public List<String> getColumnNamesAsList() {
         List<String> names = new ArrayList<String>();
         for (Column col : getColumns()) {
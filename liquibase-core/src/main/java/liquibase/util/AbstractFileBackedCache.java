@@ -0,0 +1,264 @@
+package liquibase.util;
+
+import liquibase.logging.LogFactory;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base class of caches that keep entries by key in memory and persist them in a binary file, such as
+ * {@link liquibase.changelog.CheckSumCache} and {@link liquibase.parser.core.ParsedNodeCache}.
+ * <p>
+ * The file starts with the format magic number and version of the cache, the Liquibase build version and any header values
+ * written by {@link #writeHeader(DataOutputStream)}, followed by the entries. A file that does not match all of them is ignored.
+ * The file is read on first use. {@link #save()} writes it to a temporary file that then replaces it, and only if an entry changed.
+ * Each entry is stored with the number of saves since it was last looked up or stored. Entries unused for {@link #MAX_UNUSED_SAVES} saves
+ * are not written again and are removed from memory, so keys of removed changelogs and changeSets do not stay in the file forever.
+ * Entries are looked up without locking so parser threads do not wait on each other.
+ */
+public abstract class AbstractFileBackedCache<E> {
+
+    /**
+     * Number of saves after which an entry that was not used is dropped.
+     */
+    public static final int MAX_UNUSED_SAVES = 10;
+
+    private final File file;
+    private volatile ConcurrentMap<String, E> entries;
+    private final ConcurrentMap<String, Integer> unusedSaves = new ConcurrentHashMap<String, Integer>();
+    private volatile boolean modified = false;
+
+    /**
+     * Creates a cache backed by the given file. If file is null, the cache is disabled.
+     */
+    protected AbstractFileBackedCache(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    protected abstract int getFormatMagic();
+
+    protected abstract int getFormatVersion();
+
+    /**
+     * Returns the name of the cache used in log messages, such as "checksum cache".
+     */
+    protected abstract String getDescription();
+
+    protected abstract void writeEntry(DataOutputStream out, E entry) throws IOException;
+
+    protected abstract E readEntry(DataInputStream in) throws IOException;
+
+    /**
+     * Writes values the entries depend on besides the Liquibase version. Does nothing by default.
+     */
+    protected void writeHeader(DataOutputStream out) throws IOException {
+    }
+
+    /**
+     * Reads the values written by {@link #writeHeader(DataOutputStream)} and returns false if the entries are not valid for the current values.
+     */
+    protected boolean readHeader(DataInputStream in) throws IOException {
+        return true;
+    }
+
+    protected E getEntry(String key) {
+        E entry = getEntries().get(key);
+        if (entry != null) {
+            unusedSaves.remove(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the entry and marks the cache as modified unless it equals the entry already stored for the key.
+     */
+    protected void putEntry(String key, E entry) {
+        E old = getEntries().put(key, entry);
+        unusedSaves.remove(key);
+        if (!entry.equals(old)) {
+            modified = true;
+        }
+    }
+
+    protected Map<String, E> getEntries() {
+        ConcurrentMap<String, E> entries = this.entries;
+        if (entries == null) {
+            synchronized (this) {
+                entries = this.entries;
+                if (entries == null) {
+                    entries = new ConcurrentHashMap<String, E>();
+                    if (file.exists()) {
+                        load(entries);
+                    }
+                    this.entries = entries;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Writes the cache to its file if anything changed since it was read.
+     * Writes a copy of the entries, so entries stored by other threads while the file is written are saved on the next call.
+     * Once the file is written, the entries unused for {@link #MAX_UNUSED_SAVES} saves are removed from memory too, unless they were used
+     * while it was written, and the others keep their incremented number of unused saves for the next call.
+     */
+    public synchronized void save() {
+        if (!isEnabled() || !modified) {
+            return;
+        }
+        modified = false;
+        Map<String, E> savedEntries = new HashMap<String, E>(entries);
+        Map<String, Integer> savedUnusedSaves = new HashMap<String, Integer>();
+        List<String> droppedKeys = new ArrayList<String>();
+        for (Map.Entry<String, E> entry : savedEntries.entrySet()) {
+            Integer unused = unusedSaves.get(entry.getKey());
+            unused = unused == null ? 0 : unused + 1;
+            if (unused < MAX_UNUSED_SAVES) {
+                savedUnusedSaves.put(entry.getKey(), unused);
+            } else {
+                droppedKeys.add(entry.getKey());
+            }
+        }
+        savedEntries.keySet().removeAll(droppedKeys);
+
+        File tempFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            if (file.getAbsoluteFile().getParentFile() != null) {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(getFormatMagic());
+            out.writeInt(getFormatVersion());
+            out.writeUTF(LiquibaseUtil.getBuildVersion());
+            writeHeader(out);
+            out.writeInt(savedEntries.size());
+            for (Map.Entry<String, E> entry : savedEntries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(savedUnusedSaves.get(entry.getKey()));
+                writeEntry(out, entry.getValue());
+            }
+            out.close();
+            out = null;
+
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Cannot replace " + file.getAbsolutePath());
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+            }
+
+            for (String key : droppedKeys) {
+                if (unusedSaves.remove(key) != null) {
+                    entries.remove(key);
+                } else {
+                    modified = true; //used while the file was written, so it is written again by the next save
+                }
+            }
+            for (Map.Entry<String, Integer> unused : savedUnusedSaves.entrySet()) {
+                if (unused.getValue() == 0) {
+                    unusedSaves.putIfAbsent(unused.getKey(), 0);
+                } else {
+                    unusedSaves.replace(unused.getKey(), unused.getValue() - 1, unused.getValue());
+                }
+            }
+        } catch (IOException e) {
+            modified = true;
+            LogFactory.getLogger().warning("Cannot write " + getDescription() + " " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignore) { }
+            }
+        }
+    }
+
+    private void load(Map<String, E> entries) {
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != getFormatMagic() || in.readInt() != getFormatVersion()) {
+                LogFactory.getLogger().info("Ignoring " + getDescription() + " " + file.getAbsolutePath() + " with unknown format");
+                return;
+            }
+            if (!in.readUTF().equals(LiquibaseUtil.getBuildVersion()) || !readHeader(in)) {
+                LogFactory.getLogger().info("Ignoring " + getDescription() + " " + file.getAbsolutePath() + " written by a different Liquibase version");
+                return;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String key = in.readUTF();
+                int unused = in.readInt();
+                entries.put(key, readEntry(in));
+                unusedSaves.put(key, unused);
+            }
+            LogFactory.getLogger().debug("Read " + size + " entries from " + getDescription() + " " + file.getAbsolutePath());
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Cannot read " + getDescription() + " " + file.getAbsolutePath() + ": " + e.getMessage());
+            entries.clear();
+            unusedSaves.clear();
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignore) { }
+            }
+        }
+    }
+
+    /**
+     * Holds the shared cache for the currently configured file. A new cache is created, and the old one saved, when the configured file changes.
+     * Only takes a lock when the cache is created.
+     */
+    protected abstract static class Instance<C extends AbstractFileBackedCache<?>> {
+
+        private volatile C instance;
+
+        /**
+         * Returns the configured cache file or null if the cache is disabled.
+         */
+        protected abstract File getConfiguredFile();
+
+        protected abstract C create(File file);
+
+        public C get() {
+            File file = getConfiguredFile();
+            C cache = instance;
+            if (cache != null && isFor(cache, file)) {
+                return cache;
+            }
+            synchronized (this) {
+                if (instance == null || !isFor(instance, file)) {
+                    if (instance != null) {
+                        instance.save();
+                    }
+                    instance = create(file);
+                }
+                return instance;
+            }
+        }
+
+        public synchronized void reset() {
+            instance = null;
+        }
+
+        private boolean isFor(C cache, File file) {
+            return file == null ? cache.getFile() == null : file.equals(cache.getFile());
+        }
+    }
+}
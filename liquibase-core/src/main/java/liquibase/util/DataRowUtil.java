@@ -0,0 +1,110 @@
+package liquibase.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Compares and hashes table row values read through {@link JdbcUtils#getResultSetValue(java.sql.ResultSet, int)} so that equal values
+ * from different databases and JDBC drivers compare and hash the same.
+ */
+public abstract class DataRowUtil {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Returns the value in a driver independent form: numbers as BigDecimal without trailing zeros, dates as milliseconds and
+     * binary values as hex strings.
+     */
+    public static Object normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            BigDecimal number;
+            if (value instanceof BigDecimal) {
+                number = (BigDecimal) value;
+            } else if (value instanceof BigInteger) {
+                number = new BigDecimal((BigInteger) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                number = BigDecimal.valueOf(((Number) value).doubleValue());
+            } else {
+                number = new BigDecimal(value.toString());
+            }
+            if (number.signum() == 0) {
+                return BigDecimal.ZERO;
+            }
+            return number.stripTrailingZeros();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof byte[]) {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : (byte[]) value) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+        if (value instanceof Character) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    public static boolean valuesEqual(Object value1, Object value2) {
+        Object normalized1 = normalize(value1);
+        Object normalized2 = normalize(value2);
+        if (normalized1 == null || normalized2 == null) {
+            return normalized1 == normalized2;
+        }
+        return normalized1.equals(normalized2);
+    }
+
+    /**
+     * Compares two keys column by column. Values of the same comparable type use their natural order, other values their string form.
+     * Null sorts first.
+     */
+    public static int compareKeys(Object[] key1, Object[] key2) {
+        for (int i = 0; i < key1.length; i++) {
+            int result = compareValues(normalize(key1[i]), normalize(key2[i]));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+        if (value1 instanceof Comparable && value1.getClass().equals(value2.getClass())) {
+            return ((Comparable) value1).compareTo(value2);
+        }
+        return value1.toString().compareTo(value2.toString());
+    }
+
+    /**
+     * Returns a 64 bit hash of the row values, which must be given in the same column order for every row that is compared.
+     * Sum the hashes of all rows for a hash of a table that does not depend on the order of the rows.
+     */
+    public static long hashRow(Object[] values) {
+        long hash = FNV_OFFSET_BASIS;
+        for (Object value : values) {
+            Object normalized = normalize(value);
+            String string = normalized == null ? "\u0000" : (normalized instanceof BigDecimal ? ((BigDecimal) normalized).toPlainString() : normalized.toString());
+            for (int i = 0; i < string.length(); i++) {
+                hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+            }
+            hash = (hash ^ 0xFFFF) * FNV_PRIME; //value separator
+        }
+
+        //spread the bits so sums of similar rows don't cancel out
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
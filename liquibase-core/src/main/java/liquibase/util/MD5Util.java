@@ -4,6 +4,12 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 
@@ -44,6 +50,69 @@ public class MD5Util {
 
     }
 
+    /**
+     * Computes the md5-sum of the UTF-8 bytes of the given string without creating an encoded copy of it.
+     * If standardizeLineEndings is true, "\r\n" and "\r" are hashed as "\n" the same way {@link StringUtils#standardizeLineEndings(String)} would.
+     */
+    public static String computeMD5(String input, boolean standardizeLineEndings) {
+        if (input == null) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+
+        CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(1024);
+        ByteBuffer bytes = ByteBuffer.allocate(4096);
+
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (standardizeLineEndings && c == '\r') {
+                c = '\n';
+                if (i + 1 < length && input.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            }
+            chars.put(c);
+            if (!chars.hasRemaining()) {
+                chars.flip();
+                encode(encoder, chars, bytes, digest, false);
+                chars.compact();
+            }
+        }
+        chars.flip();
+        encode(encoder, chars, bytes, digest, true);
+        encoder.flush(bytes);
+        bytes.flip();
+        digest.update(bytes);
+
+        String returnString = new String(encodeHex(digest.digest()));
+
+        String inputToLog = input;
+        if (inputToLog.length() > 500) {
+            inputToLog = inputToLog.substring(0, 500)+"... [truncated in log]";
+        }
+        LogFactory.getLogger().debug("Computed checksum for "+inputToLog+" as "+returnString);
+        return returnString;
+    }
+
+    private static void encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer bytes, MessageDigest digest, boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            bytes.flip();
+            digest.update(bytes);
+            bytes.clear();
+        } while (result.isOverflow());
+    }
+
     public static String computeMD5(InputStream stream) {
         MessageDigest digest;
         try {
@@ -2,20 +2,32 @@ package liquibase.change.core
 import liquibase.change.ChangeStatus
 import liquibase.change.StandardChangeTest
 import liquibase.changelog.ChangeSet
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.DatabaseConnection
+import liquibase.database.jvm.JdbcConnection
 import liquibase.database.core.MSSQLDatabase
 import liquibase.parser.core.ParsedNodeException
 import liquibase.resource.ClassLoaderResourceAccessor
 import liquibase.sdk.database.MockDatabase
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.statement.InsertStreamExecutablePreparedStatement
 import liquibase.statement.SqlStatement
+import liquibase.statement.core.InsertOrUpdateStatement
 import liquibase.statement.core.InsertSetStatement
 import liquibase.statement.core.InsertStatement
 import liquibase.test.JUnitResourceAccessor
 import spock.lang.Unroll
 
+import java.sql.Connection
+
 public class LoadDataChangeTest extends StandardChangeTest {
 
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(0)
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataStreaming(false)
+    }
 
     def "loadDataEmpty using InsertSetStatement"() throws Exception {
         when:
@@ -388,4 +400,125 @@ public class LoadDataChangeTest extends StandardChangeTest {
         then:
         assert md5sum1.equals(md5sum2)
     }
+
+    def "generateStatements streams batched rows from the file when a batch size is configured"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(100)
+        def connection = new JdbcConnection(Mock(Connection))
+        def database = new MockDatabase() {
+            @Override
+            DatabaseConnection getConnection() {
+                return connection
+            }
+        }
+
+        LoadDataChange change = new LoadDataChange()
+        change.setSchemaName("SCHEMA_NAME")
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1-excel.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+        change.addColumn(new LoadDataColumnConfig(header: "age", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(header: "active", type: "BOOLEAN"))
+
+        SqlStatement[] statements = change.generateStatements(database)
+
+        then:
+        statements.length == 1
+        statements[0] instanceof InsertStreamExecutablePreparedStatement
+        def batch = (InsertStreamExecutablePreparedStatement) statements[0]
+        batch.tableName == "TABLE_NAME"
+        batch.schemaName == "SCHEMA_NAME"
+        batch.batchSize == 100
+        batch.columns*.name == ["name", "username", "age", "active"]
+
+        when:
+        def rows = batch.statements.collect()
+
+        then:
+        rows.size() == 2
+        rows[0].getColumnValue("name") == "Bob Johnson"
+        rows[0].getColumnValue("age").toString() == "15"
+        rows[0].getColumnValue("active") == Boolean.TRUE
+        rows[1].getColumnValue("name") == "John Doe"
+    }
+
+    def "generateStatements uses literal statements without a jdbc connection even when a batch size is configured"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(100)
+        LoadDataChange change = new LoadDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase())
+
+        then:
+        statements.length == 2
+        statements[0] instanceof InsertStatement
+    }
+
+    def "generateStatements streams rows from the file when streaming is enabled"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataStreaming(true)
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(50)
+        def connection = new JdbcConnection(Mock(Connection))
+        def database = new MockDatabase() {
+            @Override
+            DatabaseConnection getConnection() {
+                return connection
+            }
+        }
+
+        LoadDataChange change = new LoadDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1-excel.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+        change.addColumn(new LoadDataColumnConfig(header: "age", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(header: "username", type: "skip"))
+
+        SqlStatement[] statements = change.generateStatements(database)
+
+        then:
+        statements.length == 1
+        statements[0] instanceof InsertStreamExecutablePreparedStatement
+        def stream = (InsertStreamExecutablePreparedStatement) statements[0]
+        stream.batchSize == 50
+        stream.columns*.name == ["name", "age", "active"]
+
+        when:
+        def rows = stream.statements.collect()
+
+        then:
+        rows.size() == 2
+        rows*.getColumnValue("name") == ["Bob Johnson", "John Doe"]
+        rows[0].getColumnValue("age").toString() == "15"
+        rows[0].getColumnValue("username") == null
+        rows.collect { it.columnValues.keySet() as List } == [["name", "age", "active"], ["name", "age", "active"]]
+    }
+
+    def "loadUpdateData streams insert or update statements"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataStreaming(true)
+        def connection = new JdbcConnection(Mock(Connection))
+        def database = new MockDatabase() {
+            @Override
+            DatabaseConnection getConnection() {
+                return connection
+            }
+        }
+
+        LoadUpdateDataChange change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setPrimaryKey("name")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        def stream = (InsertStreamExecutablePreparedStatement) change.generateStatements(database)[0]
+        def rows = stream.statements.collect()
+
+        then:
+        rows.size() == 2
+        rows.every { it instanceof InsertOrUpdateStatement }
+        change.generateRollbackStatements(database).length == 2
+    }
 }
@@ -78,6 +78,67 @@ public class ChangeSetTest extends Specification {
         assert !md5Sum1.equals(md5Sum2);
     }
 
+    def "generateCheckSum is memoized until changes or sqlVisitors are modified"() {
+        when:
+        def changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null);
+        def change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        changeSet.addChange(change);
+
+        def originalCheckSum = changeSet.generateCheckSum()
+
+        then:
+        changeSet.generateCheckSum().is(originalCheckSum)
+
+        when:
+        change.setTableName("OTHER_TABLE")
+        changeSet.clearCheckSumCache()
+        def updatedCheckSum = changeSet.generateCheckSum()
+
+        then:
+        updatedCheckSum != originalCheckSum
+        updatedCheckSum == new ChangeSet("testId", "testAuthor", false, false, null, null, null, null).with {
+            addChange(change)
+            generateCheckSum()
+        }
+
+        when:
+        def dropTable = new DropTableChange()
+        dropTable.setTableName("TABLE_NAME")
+        changeSet.addChange(dropTable)
+
+        then:
+        changeSet.generateCheckSum() != updatedCheckSum
+        changeSet.generateCheckSum() == new ChangeSet("testId", "testAuthor", false, false, null, null, null, null).with {
+            addChange(change)
+            addChange(dropTable)
+            generateCheckSum()
+        }
+
+        when:
+        def withoutVisitors = changeSet.generateCheckSum()
+        def visitor = new ReplaceSqlVisitor(replace: "a", with: "b")
+        changeSet.addSqlVisitor(visitor)
+        def withVisitor = changeSet.generateCheckSum()
+
+        then:
+        withVisitor != withoutVisitors
+
+        when:
+        visitor.setWith("c")
+        changeSet.clearCheckSumCache()
+
+        then:
+        changeSet.generateCheckSum() != withVisitor
+
+        when:
+        changeSet.getSqlVisitors().remove(visitor)
+
+        then:
+        changeSet.generateCheckSum() == withoutVisitors
+    }
+
     def isCheckSumValid_validCheckSum() {
         when:
         def changeSet = new ChangeSet("1", "2", false, false, "/test.xml", null, null, null);
@@ -0,0 +1,230 @@
+package liquibase.changelog
+
+import liquibase.change.CheckSum
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.SQLFileChange
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.core.ParsedNode
+import liquibase.sdk.supplier.resource.ResourceSupplier
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class CheckSumCacheTest extends Specification {
+
+    @Shared
+            resourceSupplier = new ResourceSupplier()
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCheckSumCacheFile(null)
+        CheckSumCache.reset()
+    }
+
+    def "disabled without a file"() {
+        when:
+        def cache = new CheckSumCache(null)
+        def changeSet = new ChangeSet("1", "nvoxland", false, false, "com/example/test.xml", null, null, null)
+        cache.put(changeSet, "abc", CheckSum.parse("7:123"))
+
+        then:
+        !cache.isEnabled()
+        cache.get(changeSet, "abc") == null
+    }
+
+    def "entries survive save and reload only for the same definition digest"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        def changeSet = new ChangeSet("1", "nvoxland", false, false, "com/example/test.xml", null, null, null)
+        changeSet.addChange(new CreateTableChange(tableName: "test_table"))
+
+        def cache = new CheckSumCache(file)
+        cache.put(changeSet, "abc", CheckSum.parse("7:123"))
+        cache.save()
+
+        def reloaded = new CheckSumCache(file)
+
+        then:
+        file.exists()
+        reloaded.get(changeSet, "abc") == CheckSum.parse("7:123")
+        reloaded.get(changeSet, "def") == null
+        reloaded.get(new ChangeSet("2", "nvoxland", false, false, "com/example/test.xml", null, null, null), "abc") == null
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "changeSets with file based checksums are not cached"() {
+        when:
+        def cache = new CheckSumCache(new File("unused.bin"))
+        def changeSet = new ChangeSet("1", "nvoxland", false, false, "com/example/test.xml", null, null, null)
+        changeSet.addChange(new SQLFileChange(path: "com/example/file.sql"))
+        cache.put(changeSet, "abc", CheckSum.parse("7:123"))
+
+        then:
+        cache.get(changeSet, "abc") == null
+    }
+
+    def "definition digest changes with node content"() {
+        when:
+        def node1 = new ParsedNode(null, "changeSet").addChildren([id: "1", author: "nvoxland", createTable: [tableName: "a"]])
+        def node2 = new ParsedNode(null, "changeSet").addChildren([id: "1", author: "nvoxland", createTable: [tableName: "a"]])
+        def node3 = new ParsedNode(null, "changeSet").addChildren([id: "1", author: "nvoxland", createTable: [tableName: "b"]])
+
+        then:
+        CheckSumCache.computeDefinitionDigest(node1) == CheckSumCache.computeDefinitionDigest(node2)
+        CheckSumCache.computeDefinitionDigest(node1) != CheckSumCache.computeDefinitionDigest(node3)
+    }
+
+    def "loaded changeSets use cached checksums"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCheckSumCacheFile(file.getAbsolutePath())
+
+        def node = new ParsedNode(null, "changeSet").addChildren([id: "1", author: "nvoxland", createTable: [tableName: "test_table"]])
+        def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        changeSet.load(node, resourceSupplier.simpleResourceAccessor)
+        def realCheckSum = changeSet.generateCheckSum()
+        CheckSumCache.getInstance().save()
+        CheckSumCache.reset()
+
+        def digest = CheckSumCache.computeDefinitionDigest(node)
+        def cache = new CheckSumCache(file)
+
+        then:
+        cache.get(changeSet, digest) == realCheckSum
+
+        when:
+        cache.put(changeSet, digest, CheckSum.parse("7:fromcache"))
+        cache.save()
+        CheckSumCache.reset()
+        def reloadedChangeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        reloadedChangeSet.load(node, resourceSupplier.simpleResourceAccessor)
+
+        then:
+        reloadedChangeSet.generateCheckSum() == CheckSum.parse("7:fromcache")
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "concurrent lookups share one instance and one loaded file"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        def changeSet = new ChangeSet("1", "nvoxland", false, false, "com/example/test.xml", null, null, null)
+        changeSet.addChange(new CreateTableChange(tableName: "test_table"))
+        def cache = new CheckSumCache(file)
+        cache.put(changeSet, "abc", CheckSum.parse("7:123"))
+        cache.save()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCheckSumCacheFile(file.getAbsolutePath())
+
+        def executor = Executors.newFixedThreadPool(8)
+        def results = executor.invokeAll((1..64).collect {
+            { -> def instance = CheckSumCache.getInstance(); [instance, instance.get(changeSet, "abc")] } as Callable
+        })*.get()
+        executor.shutdown()
+
+        then:
+        results.collect { it[0] }.unique { System.identityHashCode(it) }.size() == 1
+        results.every { it[1] == CheckSum.parse("7:123") }
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "entries unused for MAX_UNUSED_SAVES saves are dropped"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        def changeSet = { id -> new ChangeSet(String.valueOf(id), "nvoxland", false, false, "com/example/test.xml", null, null, null) }
+        def cache = new CheckSumCache(file)
+        cache.put(changeSet(0), "abc", CheckSum.parse("7:123"))
+        cache.put(changeSet(1), "abc", CheckSum.parse("7:123"))
+        cache.save()
+        for (int i = 1; i < CheckSumCache.MAX_UNUSED_SAVES; i++) {
+            def reloaded = new CheckSumCache(file)
+            reloaded.get(changeSet(1), "abc")
+            reloaded.put(changeSet(i + 1), "abc", CheckSum.parse("7:123"))
+            reloaded.save()
+        }
+
+        then:
+        new CheckSumCache(file).get(changeSet(0), "abc") == CheckSum.parse("7:123")
+
+        when:
+        def reloaded = new CheckSumCache(file)
+        reloaded.get(changeSet(1), "abc")
+        reloaded.put(changeSet(100), "abc", CheckSum.parse("7:123"))
+        reloaded.save()
+        def last = new CheckSumCache(file)
+
+        then:
+        last.get(changeSet(0), "abc") == null
+        last.get(changeSet(1), "abc") == CheckSum.parse("7:123")
+        last.get(changeSet(2), "abc") == CheckSum.parse("7:123")
+        last.get(changeSet(100), "abc") == CheckSum.parse("7:123")
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "entries unused for MAX_UNUSED_SAVES saves of the same cache are dropped"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        def changeSet = { id -> new ChangeSet(String.valueOf(id), "nvoxland", false, false, "com/example/test.xml", null, null, null) }
+        def cache = new CheckSumCache(file)
+        cache.put(changeSet(0), "abc", CheckSum.parse("7:123"))
+        cache.put(changeSet(1), "abc", CheckSum.parse("7:123"))
+        cache.save()
+        for (int i = 1; i <= CheckSumCache.MAX_UNUSED_SAVES; i++) {
+            cache.get(changeSet(1), "abc")
+            cache.put(changeSet(i + 1), "abc", CheckSum.parse("7:123"))
+            cache.save()
+        }
+        def reloaded = new CheckSumCache(file)
+
+        then:
+        cache.get(changeSet(0), "abc") == null
+        cache.get(changeSet(1), "abc") == CheckSum.parse("7:123")
+        reloaded.get(changeSet(0), "abc") == null
+        reloaded.get(changeSet(1), "abc") == CheckSum.parse("7:123")
+        reloaded.get(changeSet(2), "abc") == CheckSum.parse("7:123")
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "entries stored while saving are kept in a readable file"() {
+        when:
+        def file = File.createTempFile("liquibase-checksums", ".bin")
+        file.delete()
+        def cache = new CheckSumCache(file)
+        def executor = Executors.newFixedThreadPool(4)
+        def futures = (0..3).collect { thread ->
+            executor.submit({ ->
+                for (int i = 0; i < 250; i++) {
+                    cache.put(new ChangeSet(thread + "-" + i, "nvoxland", false, false, "com/example/test.xml", null, null, null), "abc", CheckSum.parse("7:123"))
+                    if (i % 50 == 0) {
+                        cache.save()
+                    }
+                }
+            } as Callable)
+        }
+        futures*.get()
+        executor.shutdown()
+        cache.save()
+        def reloaded = new CheckSumCache(file)
+
+        then:
+        (0..3).every { thread -> (0..<250).every { reloaded.get(new ChangeSet(thread + "-" + it, "nvoxland", false, false, "com/example/test.xml", null, null, null), "abc") != null } }
+
+        cleanup:
+        file?.delete()
+    }
+}
@@ -2,7 +2,9 @@ package liquibase.changelog
 
 import liquibase.change.core.CreateTableChange
 import liquibase.change.core.RawSQLChange
+import liquibase.configuration.LiquibaseConfiguration
 import liquibase.exception.SetupException
+import liquibase.parser.ChangeLogParserCofiguration
 import liquibase.parser.core.ParsedNode
 import liquibase.precondition.core.OrPrecondition
 import liquibase.precondition.core.PreconditionContainer
@@ -45,6 +47,10 @@ class DatabaseChangeLogTest extends Specification {
 create table sql_table (id int);
 create view sql_view as select * from sql_table;'''
 
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeAllParseThreads(1)
+    }
+
 
     def "getChangeSet passing id, author and file"() {
         def path = "com/example/path.xml"
@@ -239,4 +245,60 @@ create view sql_view as select * from sql_table;'''
 
     }
 
+    def "parallel includeAll keeps changeSets and preconditions in include order"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeAllParseThreads(4)
+        def files = [:]
+        for (int i = 0; i < 20; i++) {
+            files["com/example/children/file" + String.format("%02d", i) + ".xml"] = test1Xml.replace("testUser", "user" + i).replace("person", "person" + i)
+        }
+        files["com/example/children/file20.sql"] = "file 20"
+        def resourceAccessor = new MockResourceAccessor(files)
+        def changeLogFile = new DatabaseChangeLog("com/example/root.xml")
+        changeLogFile.includeAll("com/example/children", false, null, true, changeLogFile.getStandardChangeLogComparator(), resourceAccessor)
+
+        then:
+        changeLogFile.changeSets.collect { it.filePath } == (0..19).collect { "com/example/children/file" + String.format("%02d", it) + ".xml" } + ["com/example/children/file20.sql"]
+        changeLogFile.changeSets[0..19].collect { ((CreateTableChange) it.changes[0]).tableName } == (0..19).collect { "person" + it }
+        changeLogFile.preconditions.nestedPreconditions[0..19].collect { ((RunningAsPrecondition) ((PreconditionContainer) it).nestedPreconditions[0]).username } == (0..19).collect { "user" + it }
+        changeLogFile.changeSets.every { it.changeLog.rootChangeLog.is(changeLogFile) }
+    }
+
+    def "parallel includeAll expands properties defined in earlier files like a sequential parse"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeAllParseThreads(4)
+        def files = [:]
+        for (int i = 0; i < 10; i++) {
+            def xml = test1Xml.replace("person", i < 3 ? "person" + i : '${table.name}' + i)
+            if (i == 2) {
+                xml = xml.replace("<changeSet", "<property name=\"table.name\" value=\"defined_table\"/>\n\n    <changeSet")
+            }
+            files["com/example/children/file" + String.format("%02d", i) + ".xml"] = xml
+        }
+        def resourceAccessor = new MockResourceAccessor(files)
+        def parameters = new ChangeLogParameters()
+        def changeLogFile = new DatabaseChangeLog("com/example/root.xml")
+        changeLogFile.setChangeLogParameters(parameters)
+        changeLogFile.includeAll("com/example/children", false, null, true, changeLogFile.getStandardChangeLogComparator(), resourceAccessor)
+
+        then:
+        changeLogFile.changeSets.collect { ((CreateTableChange) it.changes[0]).tableName } == ["person0", "person1", "person2"] + (3..9).collect { "defined_table" + it }
+        parameters.getValue("table.name", changeLogFile) == "defined_table"
+        changeLogFile.changeSets.every { it.changeLogParameters.is(parameters) && it.changeLog.changeLogParameters.is(parameters) }
+    }
+
+    def "parallel includeAll fails if an included file cannot be parsed"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeAllParseThreads(4)
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/children/file1.xml": test1Xml,
+                "com/example/children/file2.xml": "<databaseChangeLog><invalid",
+                "com/example/children/file3.xml": test1Xml,
+        ])
+        def changeLogFile = new DatabaseChangeLog("com/example/root.xml")
+        changeLogFile.includeAll("com/example/children", false, null, true, changeLogFile.getStandardChangeLogComparator(), resourceAccessor)
+
+        then:
+        thrown(SetupException)
+    }
 }
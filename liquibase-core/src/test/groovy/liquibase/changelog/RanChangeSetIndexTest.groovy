@@ -0,0 +1,76 @@
+package liquibase.changelog
+
+import liquibase.change.CheckSum
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class RanChangeSetIndexTest extends Specification {
+
+    @Unroll("#featureName: #path::#id::#author")
+    def "get finds matching ran changeSets"() {
+        when:
+        def index = new RanChangeSetIndex([
+                ranChangeSet("com/example/changelog.xml", "1", "nvoxland"),
+                ranChangeSet("classpath:com/example/other.xml", "2", "nvoxland"),
+                ranChangeSet("com\\example\\windows.xml", "3", "nvoxland"),
+        ])
+
+        then:
+        index.size() == 3
+        index.get(new ChangeSet(id, author, false, false, path, null, null, null))?.getId() == expected
+
+        where:
+        path                        | id  | author     | expected
+        "com/example/changelog.xml" | "1" | "nvoxland" | "1"
+        "COM/EXAMPLE/changelog.xml" | "1" | "NVoxland" | "1"
+        "com/example/other.xml"     | "2" | "nvoxland" | "2"
+        "com/example/windows.xml"   | "3" | "nvoxland" | "3"
+        "com/example/changelog.xml" | "2" | "nvoxland" | null
+        "com/example/changelog.xml" | "1" | "other"    | null
+        "com/example/other.xml"     | "1" | "nvoxland" | null
+    }
+
+    def "candidates are returned in insert order"() {
+        when:
+        def first = ranChangeSet("changelog.xml", "1", "nvoxland")
+        def second = ranChangeSet("changelog.xml", "1", "NVOXLAND")
+        def index = new RanChangeSetIndex([first, ranChangeSet("changelog.xml", "2", "nvoxland"), second])
+
+        def candidates = index.getCandidates(new ChangeSet("1", "nvoxland", false, false, "changelog.xml", null, null, null))
+
+        then:
+        candidates.size() == 2
+        candidates[0].is(first)
+        candidates[1].is(second)
+    }
+
+    def "add and remove keep the index current"() {
+        when:
+        def index = new RanChangeSetIndex()
+        def changeSet = new ChangeSet("1", "nvoxland", false, false, "changelog.xml", null, null, null)
+
+        then:
+        index.isEmpty()
+        index.get(changeSet) == null
+
+        when:
+        index.add(ranChangeSet("changelog.xml", "1", "nvoxland"))
+
+        then:
+        index.size() == 1
+        index.get(changeSet) != null
+
+        when:
+        def removed = index.remove(ranChangeSet("changelog.xml", "1", "nvoxland"))
+
+        then:
+        removed
+        index.isEmpty()
+        index.get(changeSet) == null
+        !index.remove(ranChangeSet("changelog.xml", "1", "nvoxland"))
+    }
+
+    private RanChangeSet ranChangeSet(String path, String id, String author) {
+        return new RanChangeSet(path, id, author, CheckSum.parse("7:12345"), new Date(), null, null, null, null, null, null)
+    }
+}
@@ -0,0 +1,299 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.LabelExpression
+import liquibase.RuntimeEnvironment
+import liquibase.change.core.RawSQLChange
+import liquibase.changelog.visitor.ChangeLogSyncVisitor
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    H2Database database
+    StandardChangeLogHistoryService service
+
+    def setup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(10)
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:historybatch" + System.nanoTime())))
+        service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database) as StandardChangeLogHistoryService
+        service.init()
+    }
+
+    def cleanup() {
+        ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database)
+        database.close()
+        LiquibaseConfiguration.getInstance().reset()
+    }
+
+    def changeSet(int id, DatabaseChangeLog changeLog = null) {
+        return new ChangeSet(String.valueOf(id), "test", false, false, "com/example/changelog.xml", null, null, changeLog)
+    }
+
+    int countRows() {
+        def statement = database.getConnection().getUnderlyingConnection().createStatement()
+        def resultSet = statement.executeQuery("SELECT COUNT(*) FROM DATABASECHANGELOG")
+        resultSet.next()
+        def count = resultSet.getInt(1)
+        statement.close()
+        return count
+    }
+
+    void executeSql(String sql) {
+        def statement = database.getConnection().getUnderlyingConnection().createStatement()
+        statement.execute(sql)
+        statement.close()
+    }
+
+    void insertRow(int id, int orderExecuted) {
+        executeSql("INSERT INTO DATABASECHANGELOG (ID, AUTHOR, FILENAME, DATEEXECUTED, ORDEREXECUTED, EXECTYPE) " +
+                "VALUES ('" + id + "', 'other', 'com/example/other.xml', CURRENT_TIMESTAMP, " + orderExecuted + ", 'EXECUTED')")
+    }
+
+    def "rows are written once a batch is full and when flushed"() {
+        when:
+        (1..25).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+
+        then:
+        countRows() == 20
+
+        when:
+        service.flush()
+        service.reset()
+
+        then:
+        countRows() == 25
+        service.getRanChangeSets()*.id == (1..25).collect { String.valueOf(it) }
+        service.getRanChangeSets()*.orderExecuted == (1..25).collect { it }
+    }
+
+    def "reading the history writes pending rows first"() {
+        when:
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.MARK_RAN) }
+        service.reset()
+
+        then:
+        service.getRanChangeSets().size() == 3
+        countRows() == 3
+    }
+
+    def "pending rows are written before a changeSet executes its changes"() {
+        given:
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.MARK_RAN) }
+        def executing = changeSet(4, changeLog)
+        executing.addChange(new RawSQLChange("CREATE TABLE history_count AS SELECT COUNT(*) AS c FROM DATABASECHANGELOG"))
+
+        when:
+        executing.execute(changeLog, database)
+
+        then:
+        def statement = database.getConnection().getUnderlyingConnection().createStatement()
+        def resultSet = statement.executeQuery("SELECT c FROM history_count")
+        resultSet.next()
+        resultSet.getInt(1) == 3
+    }
+
+    def "a failed batch is rolled back and its rows stay pending"() {
+        given:
+        service.getRanChangeSets()
+        executeSql("ALTER TABLE DATABASECHANGELOG ADD CONSTRAINT no_second_row CHECK (ID <> '2')")
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+
+        when:
+        service.flush()
+
+        then:
+        thrown(DatabaseException)
+        countRows() == 0
+
+        when:
+        executeSql("ALTER TABLE DATABASECHANGELOG DROP CONSTRAINT no_second_row")
+        service.flush()
+        service.reset()
+
+        then:
+        countRows() == 3
+        service.getRanChangeSets()*.id == ["1", "2", "3"]
+    }
+
+    def "changelogSync writes all rows by the end of the run"() {
+        given:
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        (1..15).each { changeLog.addChangeSet(changeSet(it, changeLog)) }
+
+        when:
+        new ChangeLogIterator(changeLog).run(new ChangeLogSyncVisitor(database), new RuntimeEnvironment(database, new Contexts(), new LabelExpression()))
+
+        then:
+        countRows() == 15
+    }
+
+    def "rows are written one by one with the default batch size"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setChangeLogHistoryBatchSize(1)
+        service.setExecType(changeSet(1), ChangeSet.ExecType.EXECUTED)
+
+        then:
+        countRows() == 1
+    }
+
+    def "reset only reads the rows added since the history was read"() {
+        given:
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+        service.flush()
+        def firstRead = service.getRanChangeSets()
+
+        when:
+        insertRow(4, 100)
+        service.reset()
+        def secondRead = service.getRanChangeSets()
+
+        then:
+        secondRead*.id == ["1", "2", "3", "4"]
+        secondRead*.orderExecuted == [1, 2, 3, 100]
+        (0..2).every { secondRead[it].is(firstRead[it]) }
+        service.getRanChangeSet(new ChangeSet("4", "other", false, false, "com/example/other.xml", null, null, null)) != null
+    }
+
+    def "rows written by the service are not read twice after reset"() {
+        given:
+        service.getRanChangeSets()
+
+        when:
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+        service.reset()
+
+        then:
+        service.getRanChangeSets()*.id == ["1", "2", "3"]
+        service.getRanChangeSets()*.orderExecuted == [1, 2, 3]
+    }
+
+    def "failed and skipped changeSets are not reported as ran after reset"() {
+        given:
+        service.getRanChangeSets()
+        service.setExecType(changeSet(1), ChangeSet.ExecType.EXECUTED)
+        service.setExecType(changeSet(2), ChangeSet.ExecType.SKIPPED)
+        service.setExecType(changeSet(3), ChangeSet.ExecType.FAILED)
+        service.setExecType(changeSet(1), ChangeSet.ExecType.FAILED)
+
+        when:
+        service.reset()
+
+        then:
+        service.getRanChangeSets()*.id == ["1"]
+        service.getRanChangeSet(changeSet(1)).execType == ChangeSet.ExecType.EXECUTED
+        service.getRanChangeSet(changeSet(2)) == null
+        service.getRanChangeSet(changeSet(3)) == null
+        countRows() == 1
+    }
+
+    def "the history is read again completely when rows were removed outside the service"() {
+        given:
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+        service.flush()
+        service.getRanChangeSets()
+
+        when:
+        executeSql("DELETE FROM DATABASECHANGELOG WHERE ID = '2'")
+        service.reset()
+
+        then:
+        service.getRanChangeSets()*.id == ["1", "3"]
+        service.getRanChangeSet(changeSet(2)) == null
+    }
+
+    def "the history is read again completely when rows were updated in place outside the service"() {
+        given:
+        (1..3).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+        service.flush()
+        service.getRanChangeSets()
+
+        when: "another process reruns a changeSet"
+        executeSql("UPDATE DATABASECHANGELOG SET EXECTYPE = 'RERAN', MD5SUM = '7:rerun', DATEEXECUTED = DATEADD('SECOND', 10, DATEEXECUTED) WHERE ID = '2'")
+        service.reset()
+
+        then:
+        service.getRanChangeSet(changeSet(2)).execType == ChangeSet.ExecType.RERAN
+        service.getRanChangeSet(changeSet(2)).lastCheckSum.toString() == "7:rerun"
+
+        when: "another process clears the checksums"
+        executeSql("UPDATE DATABASECHANGELOG SET MD5SUM = NULL")
+        service.reset()
+
+        then:
+        service.getRanChangeSets()*.lastCheckSum == [null, null, null]
+    }
+
+    def "checksum changes are applied to the cached history"() {
+        given:
+        (1..2).each { service.setExecType(changeSet(it), ChangeSet.ExecType.EXECUTED) }
+        service.flush()
+        service.getRanChangeSets()
+
+        when:
+        service.clearAllCheckSums()
+
+        then:
+        service.getRanChangeSets()*.lastCheckSum == [null, null]
+
+        when:
+        service.replaceChecksum(changeSet(1))
+
+        then:
+        service.getRanChangeSet(changeSet(1)).lastCheckSum == changeSet(1).generateCheckSum()
+        service.getRanChangeSet(changeSet(2)).lastCheckSum == null
+    }
+
+    StandardChangeLogHistoryService newService() {
+        def newService = new StandardChangeLogHistoryService()
+        newService.setDatabase(database)
+        return newService
+    }
+
+    def "an up to date table is validated from the metadata of an empty query"() {
+        expect:
+        newService().isDatabaseChangeLogTableCurrent()
+    }
+
+    def "a table missing columns is upgraded through the snapshot"() {
+        given:
+        service.destroy()
+        executeSql("CREATE TABLE DATABASECHANGELOG (ID VARCHAR(255) NOT NULL, AUTHOR VARCHAR(255) NOT NULL, FILENAME VARCHAR(255) NOT NULL, " +
+                "DATEEXECUTED TIMESTAMP NOT NULL, ORDEREXECUTED INT NOT NULL, EXECTYPE VARCHAR(10) NOT NULL, MD5SUM VARCHAR(35), " +
+                "DESCRIPTION VARCHAR(255), COMMENTS VARCHAR(255), TAG VARCHAR(255), LIQUIBASE VARCHAR(20))")
+        def upgradedService = newService()
+
+        expect:
+        !upgradedService.isDatabaseChangeLogTableCurrent()
+
+        when:
+        upgradedService.init()
+
+        then:
+        newService().isDatabaseChangeLogTableCurrent()
+    }
+
+    def "a dropped table is created again although it was validated before"() {
+        given:
+        newService().isDatabaseChangeLogTableCurrent()
+        executeSql("DROP TABLE DATABASECHANGELOG")
+        def newService = newService()
+
+        expect:
+        !newService.isDatabaseChangeLogTableCurrent()
+
+        when:
+        newService.init()
+
+        then:
+        countRows() == 0
+    }
+}
@@ -37,4 +37,17 @@ class UniqueConstraintComparatorTest extends Specification {
         new UniqueConstraint(null, null, null, "table_name", new Column("col1"), new Column("col2"))      | new UniqueConstraint(null, null, null, "table_name", new Column("col1"))                          | false //Different if no name and different columns
         new UniqueConstraint(null, null, null, "table_name", new Column("col1"), new Column("col2"))      | new UniqueConstraint("uq_test", null, null, "table_name", new Column("col1"))                          | false //Different if one has no name name but different columns
     }
+
+    def "comparing does not change the relation of the constraint columns"() {
+        when:
+        def column1 = new Column("col1")
+        def column2 = new Column("col1")
+        def constraint1 = new UniqueConstraint(null, null, null, "table_name", column1)
+        def constraint2 = new UniqueConstraint(null, null, null, "table_name", column2)
+
+        then:
+        DatabaseObjectComparatorFactory.instance.isSameObject(constraint1, constraint2, new MockDatabase())
+        column1.relation == null
+        column2.relation == null
+    }
 }
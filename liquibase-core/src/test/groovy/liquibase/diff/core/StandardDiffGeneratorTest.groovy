@@ -0,0 +1,87 @@
+package liquibase.diff.core
+
+import liquibase.database.OfflineConnection
+import liquibase.database.core.H2Database
+import liquibase.diff.compare.CompareControl
+import liquibase.resource.ClassLoaderResourceAccessor
+import liquibase.snapshot.RestoredDatabaseSnapshot
+import liquibase.structure.DatabaseObject
+import liquibase.structure.core.*
+import spock.lang.Specification
+
+class StandardDiffGeneratorTest extends Specification {
+
+    def snapshot(Map<String, List<String>> columnsByTable) {
+        def database = new H2Database()
+        database.setConnection(new OfflineConnection("offline:h2", new ClassLoaderResourceAccessor()))
+
+        Map<String, DatabaseObject> objects = new HashMap<String, DatabaseObject>()
+        def add = { DatabaseObject object ->
+            object.setSnapshotId(String.valueOf(objects.size()))
+            objects.put(object.getClass().getName() + "#" + object.getSnapshotId(), object)
+            return object
+        }
+        def schema = add(new Schema(add(new Catalog("CAT")) as Catalog, "PUBLIC"))
+        columnsByTable.each { tableName, columns ->
+            Table table = add(new Table().setName(tableName)) as Table
+            table.setSchema(schema as Schema)
+            columns.each { column ->
+                def parts = column.split(" ")
+                table.getColumns().add(add(new Column(parts[0]).setRelation(table).setType(new DataType(parts[1]))) as Column)
+            }
+        }
+
+        def snapshot = new RestoredDatabaseSnapshot(database)
+        snapshot.load(objects, new HashMap<String, DatabaseObject>())
+        return snapshot
+    }
+
+    def "hash join finds missing, unexpected and changed objects"() {
+        given:
+        def reference = snapshot([PERSON: ["ID INT", "NAME VARCHAR(50)", "EMAIL VARCHAR(100)"], ADDRESS: ["ID INT"]])
+        def comparison = snapshot([PERSON: ["ID INT", "NAME VARCHAR(100)", "PHONE VARCHAR(20)"], ORDERS: ["ID INT"]])
+
+        when:
+        def result = new StandardDiffGenerator().compare(reference, comparison, new CompareControl())
+
+        then:
+        result.getMissingObjects(Table)*.name == ["ADDRESS"]
+        result.getUnexpectedObjects(Table)*.name == ["ORDERS"]
+        result.getMissingObjects(Column).collect { it.relation.name + "." + it.name }.sort() == ["ADDRESS.ID", "PERSON.EMAIL"]
+        result.getUnexpectedObjects(Column).collect { it.relation.name + "." + it.name }.sort() == ["ORDERS.ID", "PERSON.PHONE"]
+        result.getChangedObjects(Column).keySet().collect { it.relation.name + "." + it.name } == ["PERSON.NAME"]
+        result.getChangedObjects(Column).values().iterator().next().getDifference("type") != null
+    }
+
+    def "identical snapshots are equal"() {
+        given:
+        def columns = [PERSON: ["ID INT", "NAME VARCHAR(50)"], ADDRESS: ["ID INT", "PERSON_ID INT"]]
+
+        expect:
+        new StandardDiffGenerator().compare(snapshot(columns), snapshot(columns), new CompareControl()).areEqual()
+    }
+
+    def "parallel comparison finds the same differences in the same order"() {
+        given:
+        def referenceColumns = [:]
+        def comparisonColumns = [:]
+        (0..<200).each { table ->
+            referenceColumns.put("TABLE_" + table, (0..<10).collect { "COL_" + it + " INT" })
+            comparisonColumns.put("TABLE_" + table, (0..<10).collect { table % 7 == 0 && it == 3 ? "COL_3 VARCHAR(10)" : (table % 11 == 0 && it == 5 ? "OTHER_5 INT" : "COL_" + it + " INT") })
+        }
+        def reference = snapshot(referenceColumns)
+        def comparison = snapshot(comparisonColumns)
+
+        when:
+        def sequential = new StandardDiffGenerator().compare(reference, comparison, new CompareControl().setParallelThreads(1))
+        def parallel = new StandardDiffGenerator().compare(reference, comparison, new CompareControl().setParallelThreads(4))
+
+        then:
+        reference.get(Column).size() >= StandardDiffGenerator.PARALLEL_THRESHOLD
+        parallel.getMissingObjects(Column).collect { it.relation.name + "." + it.name } == sequential.getMissingObjects(Column).collect { it.relation.name + "." + it.name }
+        parallel.getUnexpectedObjects(Column).collect { it.relation.name + "." + it.name } == sequential.getUnexpectedObjects(Column).collect { it.relation.name + "." + it.name }
+        parallel.getChangedObjects(Column).keySet().collect { it.relation.name + "." + it.name } == sequential.getChangedObjects(Column).keySet().collect { it.relation.name + "." + it.name }
+        parallel.getMissingObjects(Column).size() == 19
+        parallel.getChangedObjects(Column).size() == 29
+    }
+}
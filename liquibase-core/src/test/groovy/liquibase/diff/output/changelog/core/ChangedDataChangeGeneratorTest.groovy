@@ -0,0 +1,122 @@
+package liquibase.diff.output.changelog.core
+
+import liquibase.CatalogAndSchema
+import liquibase.change.core.DeleteDataChange
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.UpdateDataChange
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.DiffResult
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.executor.ExecutorService
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.*
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class ChangedDataChangeGeneratorTest extends Specification {
+
+    H2Database reference
+    H2Database comparison
+
+    def setup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setDiffDataRows(true)
+        reference = database("reference", (1..10).collect { [it, "name " + it] })
+        comparison = database("comparison", (1..11).findAll { it != 3 }.collect { [it, it == 5 ? "changed" : "name " + it] })
+    }
+
+    def cleanup() {
+        reference.close()
+        comparison.close()
+        LiquibaseConfiguration.getInstance().reset()
+    }
+
+    def database(String name, List<List> rows, String idType = "INT") {
+        def connection = DriverManager.getConnection("jdbc:h2:mem:" + name + System.nanoTime())
+        def statement = connection.createStatement()
+        statement.execute("CREATE TABLE person (id " + idType + " PRIMARY KEY, name VARCHAR(50))")
+        rows.each { statement.execute("INSERT INTO person VALUES ('" + it[0] + "', '" + it[1] + "')") }
+        statement.close()
+
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        return database
+    }
+
+    DiffResult diff() {
+        def types = [Table, Column, PrimaryKey, ForeignKey, Index, Data] as Set
+        def referenceSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), reference, new SnapshotControl(reference, types as Class[]))
+        def comparisonSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), comparison, new SnapshotControl(comparison, types as Class[]))
+        return DiffGeneratorFactory.getInstance().compare(referenceSnapshot, comparisonSnapshot, new CompareControl(types))
+    }
+
+    def "only the rows that differ are inserted, updated and deleted"() {
+        when:
+        def changes = new DiffToChangeLog(diff(), new DiffOutputControl(false, false, false)).generateChangeSets()*.changes.flatten()
+
+        then:
+        changes.size() == 3
+        ((InsertDataChange) changes[0]).columns.collect { it.valueObject.toString() } == ["3", "name 3"]
+        ((UpdateDataChange) changes[1]).columns*.name == ["NAME"]
+        ((UpdateDataChange) changes[1]).columns[0].value == "name 5"
+        ((UpdateDataChange) changes[1]).where == "ID = 5"
+        ((DeleteDataChange) changes[2]).where == "ID = 11"
+    }
+
+    def "applying the changes makes the data equal"() {
+        when:
+        def changes = new DiffToChangeLog(diff(), new DiffOutputControl(false, false, false)).generateChangeSets()*.changes.flatten()
+        changes.each { change ->
+            change.generateStatements(comparison).each { ExecutorService.getInstance().getExecutor(comparison).execute(it) }
+        }
+
+        then:
+        diff().getChangedObjects(Data).isEmpty()
+    }
+
+    def "tables with the same rows are not read again"() {
+        when:
+        comparison.close()
+        comparison = database("same", (1..10).collect { [it, "name " + it] })
+        def diffResult = diff()
+
+        then:
+        diffResult.getChangedObjects(Data).isEmpty()
+        diffResult.getReferenceSnapshot().get(Data).iterator().next().rowCount == 10
+        new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false)).generateChangeSets().isEmpty()
+    }
+
+    def "changes are split into changeSets of dataChangeSetSize changes"() {
+        when:
+        def changeSets = new DiffToChangeLog(diff(), new DiffOutputControl(false, false, false).setDataChangeSetSize(2)).generateChangeSets()
+
+        then:
+        changeSets*.changes*.size() == [2, 1]
+        changeSets*.changes.flatten()*.class == [InsertDataChange, UpdateDataChange, DeleteDataChange]
+    }
+
+    def "keys the database orders differently are compared by key instead of failing"() {
+        given:
+        reference.close()
+        comparison.close()
+        reference = database("reference", [["a", "name a"], ["B", "name B"], ["c", "name c"]], "VARCHAR_IGNORECASE(10)")
+        comparison = database("comparison", [["a", "name a"], ["B", "changed"], ["d", "name d"]], "VARCHAR_IGNORECASE(10)")
+
+        when:
+        def changes = new DiffToChangeLog(diff(), new DiffOutputControl(false, false, false)).generateChangeSets()*.changes.flatten()
+
+        then:
+        changes*.class == [UpdateDataChange, InsertDataChange, DeleteDataChange]
+        ((UpdateDataChange) changes[0]).where == "ID = 'B'"
+        ((UpdateDataChange) changes[0]).columns[0].value == "name B"
+        ((InsertDataChange) changes[1]).columns*.value == ["c", "name c"]
+        ((DeleteDataChange) changes[2]).where == "ID = 'd'"
+    }
+}
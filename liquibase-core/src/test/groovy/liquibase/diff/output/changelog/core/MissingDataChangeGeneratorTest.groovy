@@ -0,0 +1,81 @@
+package liquibase.diff.output.changelog.core
+
+import liquibase.change.core.InsertDataChange
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DiffResult
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.snapshot.EmptyDatabaseSnapshot
+import liquibase.snapshot.SnapshotControl
+import liquibase.structure.core.Catalog
+import liquibase.structure.core.Data
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class MissingDataChangeGeneratorTest extends Specification {
+
+    Connection connection
+    H2Database database
+    DiffResult diffResult
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:missingdata" + System.nanoTime())
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def statement = connection.createStatement()
+        statement.execute("CREATE TABLE lookup (id INT PRIMARY KEY, name VARCHAR(50))")
+        (1..25).each { statement.execute("INSERT INTO lookup VALUES (" + it + ", 'name " + it + "')") }
+        statement.close()
+
+        def snapshot = new EmptyDatabaseSnapshot(database, new SnapshotControl(database, Table, Data))
+        diffResult = new DiffResult(snapshot, new EmptyDatabaseSnapshot(database, new SnapshotControl(database, Table, Data)), new CompareControl())
+        diffResult.addMissingObject(new Data().setTable(new Table().setName("LOOKUP").setSchema(new Schema(new Catalog(null), "PUBLIC"))))
+    }
+
+    def cleanup() {
+        connection.close()
+    }
+
+    def "rows are split into changeSets of dataChangeSetSize rows"() {
+        when:
+        def changeSets = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false).setDataChangeSetSize(changeSetSize)).generateChangeSets()
+
+        then:
+        changeSets*.changes*.size() == sizes
+        changeSets*.changes.flatten().collect { ((InsertDataChange) it).columns.find { it.name == "ID" }.valueNumeric.intValue() } == (1..25).toList()
+
+        where:
+        changeSetSize | sizes
+        0             | [25]
+        10            | [10, 10, 5]
+        25            | [25]
+    }
+
+    def "fixMissing still returns all rows"() {
+        when:
+        def changes = new MissingDataChangeGenerator().fixMissing(diffResult.getMissingObjects(Data).iterator().next(), new DiffOutputControl().setDataChangeSetSize(10), database, database, null)
+
+        then:
+        changes.length == 25
+    }
+
+    def "printed changelog contains each chunk"() {
+        when:
+        def out = new ByteArrayOutputStream()
+        def diffToChangeLog = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false).setDataChangeSetSize(10).setDataFetchSize(5))
+        diffToChangeLog.setIdRoot("data")
+        diffToChangeLog.print(new PrintStream(out), new XMLChangeLogSerializer())
+        def xml = new XmlSlurper().parseText(out.toString("UTF-8"))
+
+        then:
+        xml.changeSet*.@id*.text() == ["data-1", "data-2", "data-3"]
+        xml.changeSet.insert.size() == 25
+    }
+}
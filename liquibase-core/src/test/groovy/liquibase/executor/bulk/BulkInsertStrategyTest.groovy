@@ -0,0 +1,171 @@
+package liquibase.executor.bulk
+
+import liquibase.change.ColumnConfig
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.PreparedStatementFactory
+import liquibase.database.core.H2Database
+import liquibase.database.core.HsqlDatabase
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.OracleDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.sdk.database.MockDatabase
+import liquibase.statement.InsertBatchExecutablePreparedStatement
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+import java.sql.SQLException
+import java.sql.SQLWarning
+import java.sql.Statement
+import java.sql.Timestamp
+
+class BulkInsertStrategyTest extends Specification {
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBulkInsert(false)
+        BulkInsertStrategyFactory.reset()
+    }
+
+    def "factory finds the strategy for the database"() {
+        expect:
+        BulkInsertStrategyFactory.getInstance().getStrategy(database)?.getClass() == expected
+
+        where:
+        database               | expected
+        new H2Database()       | MultiRowValuesBulkInsertStrategy
+        new PostgresDatabase() | PostgresCopyBulkInsertStrategy
+        new MySQLDatabase()    | MySQLLoadDataBulkInsertStrategy
+        new OracleDatabase()   | null
+        new MockDatabase()     | null
+    }
+
+    def "postgres rows are written as CSV"() {
+        when:
+        def text = new PostgresCopyBulkInsertStrategy().toText([
+                ["a \"quoted\", value", 1L, true, new BigDecimal("1E+2")] as Object[],
+                [null, "NULL", false, new Timestamp(0)] as Object[],
+                ["", null, null, null] as Object[],
+        ])
+
+        then:
+        text == "\"a \"\"quoted\"\", value\",1,t,100\n" +
+                ",,f," + new Timestamp(0).toString() + "\n" +
+                "\"\",,,\n"
+    }
+
+    def "mysql rows are written with backslash escapes"() {
+        when:
+        def text = new MySQLLoadDataBulkInsertStrategy().toText([
+                ["a \"b\" \\ c\nd", 1, true] as Object[],
+                [null, 2, false] as Object[],
+        ])
+
+        then:
+        text == "\"a \\\"b\\\" \\\\ c\\nd\",1,1\n" +
+                "\\N,2,0\n"
+    }
+
+    def "strategies without driver support fall back"() {
+        given:
+        def connection = Mock(Connection)
+        connection.isWrapperFor(_) >> false
+        def statement = new InsertBatchExecutablePreparedStatement(new PostgresDatabase(), null, null, "test", [new ColumnConfig().setName("id")], [], 10, 0, null, null)
+
+        expect:
+        !new PostgresCopyBulkInsertStrategy().insert(statement, [[1] as Object[]], connection)
+    }
+
+    def "mysql load data fails when rows were skipped or raised warnings"() {
+        given:
+        def stmt = Stub(Statement)
+        stmt.getUpdateCount() >> updateCount
+        stmt.getWarnings() >> warning
+
+        when:
+        new MySQLLoadDataBulkInsertStrategy().checkLoadedRows(stmt, "test", 3)
+
+        then:
+        def e = thrown(SQLException)
+        e.message == message
+
+        where:
+        updateCount | warning                                               | message
+        2           | new SQLWarning("Duplicate entry '1' for key 'PRIMARY'") | "LOAD DATA loaded 2 of 3 rows into test: Duplicate entry '1' for key 'PRIMARY'"
+        3           | new SQLWarning("Data truncated for column 'name' at row 2") | "LOAD DATA loaded 3 of 3 rows into test: Data truncated for column 'name' at row 2"
+        2           | null                                                  | "LOAD DATA loaded 2 of 3 rows into test"
+    }
+
+    def "mysql load data accepts all rows loaded without warnings"() {
+        given:
+        def stmt = Stub(Statement)
+        stmt.getUpdateCount() >> 3
+        stmt.getWarnings() >> null
+
+        when:
+        new MySQLLoadDataBulkInsertStrategy().checkLoadedRows(stmt, "test", 3)
+
+        then:
+        notThrown(SQLException)
+    }
+
+    def "multi-row values inserts all rows"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBulkInsert(true)
+        Connection connection = DriverManager.getConnection(url + System.nanoTime())
+        connection.createStatement().execute("CREATE TABLE test (id INT, name VARCHAR(255), active BOOLEAN)")
+        database.setConnection(new JdbcConnection(connection))
+
+        def rows = (1..1234).collect { [it, it % 10 == 0 ? null : "name " + it, it % 2 == 0] as Object[] }
+        def statement = new InsertBatchExecutablePreparedStatement(database, null, null, "test",
+                [new ColumnConfig().setName("id"), new ColumnConfig().setName("name"), new ColumnConfig().setName("active")],
+                rows, 1000, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()))
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*), COUNT(name), SUM(id), SUM(CASE WHEN active THEN 1 ELSE 0 END) FROM test")
+        resultSet.next()
+
+        then:
+        resultSet.getInt(1) == 1234
+        resultSet.getInt(2) == 1234 - 123
+        resultSet.getLong(3) == (1..1234).sum()
+        resultSet.getInt(4) == 617
+
+        cleanup:
+        connection?.close()
+
+        where:
+        database           | url
+        new H2Database()   | "jdbc:h2:mem:bulkinsert"
+        new HsqlDatabase() | "jdbc:hsqldb:mem:bulkinsert"
+    }
+
+    def "multi-row values fails on duplicate keys like single-row inserts"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBulkInsert(true)
+        Connection connection = DriverManager.getConnection(url + System.nanoTime())
+        connection.createStatement().execute("CREATE TABLE test (id INT PRIMARY KEY, name VARCHAR(255))")
+        database.setConnection(new JdbcConnection(connection))
+
+        def rows = [[1, "a"] as Object[], [2, "b"] as Object[], [1, "c"] as Object[]]
+        def statement = new InsertBatchExecutablePreparedStatement(database, null, null, "test",
+                [new ColumnConfig().setName("id"), new ColumnConfig().setName("name")], rows, 1000, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()))
+
+        then:
+        thrown(DatabaseException)
+
+        cleanup:
+        connection?.close()
+
+        where:
+        database           | url
+        new H2Database()   | "jdbc:h2:mem:bulkinsertduplicate"
+        new HsqlDatabase() | "jdbc:hsqldb:mem:bulkinsertduplicate"
+    }
+}
@@ -0,0 +1,116 @@
+package liquibase.integration.spring
+
+import liquibase.exception.LiquibaseException
+import org.h2.jdbcx.JdbcDataSource
+import org.springframework.core.io.DefaultResourceLoader
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+
+class MultiTenantSpringLiquibaseTest extends Specification {
+
+    def dataSource
+    Connection keepAlive
+
+    def setup() {
+        dataSource = new JdbcDataSource()
+        dataSource.setURL("jdbc:h2:mem:multitenant" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000")
+        keepAlive = dataSource.getConnection()
+        (1..8).each { keepAlive.createStatement().execute("CREATE SCHEMA TENANT" + it) }
+    }
+
+    def cleanup() {
+        keepAlive.createStatement().execute("SHUTDOWN")
+        keepAlive.close()
+    }
+
+    def createLiquibase(List<String> schemas, int threads, boolean failFast) {
+        def liquibase = new MultiTenantSpringLiquibase()
+        liquibase.setDataSource(dataSource)
+        liquibase.setSchemas(schemas)
+        liquibase.setChangeLog("classpath:liquibase/integration/spring/multiTenantChangeLog.xml")
+        liquibase.setResourceLoader(new DefaultResourceLoader())
+        liquibase.setParallelThreads(threads)
+        liquibase.setFailFast(failFast)
+        return liquibase
+    }
+
+    def countRows(String schema, String table) {
+        def resultSet = keepAlive.createStatement().executeQuery("SELECT COUNT(*) FROM " + schema + "." + table)
+        resultSet.next()
+        return resultSet.getInt(1)
+    }
+
+    def "schemas are migrated in parallel"() {
+        given:
+        def schemas = (1..8).collect { "TENANT" + it }
+        def liquibase = createLiquibase(schemas, 4, true)
+
+        when:
+        liquibase.afterPropertiesSet()
+
+        then:
+        liquibase.results*.tenant == schemas.collect { "schema " + it }
+        liquibase.results.every { it.success }
+        schemas.every { countRows(it, "PERSON") == 1 && countRows(it, "DATABASECHANGELOG") == 2 }
+
+        when: "running again finds nothing to do"
+        liquibase.afterPropertiesSet()
+
+        then:
+        liquibase.results.every { it.success }
+        schemas.every { countRows(it, "PERSON") == 1 }
+    }
+
+    def "continue on error migrates the other tenants and reports failures"() {
+        given:
+        def liquibase = createLiquibase(["TENANT1", "MISSING", "TENANT2", "TENANT3"], threads, false)
+
+        when:
+        liquibase.afterPropertiesSet()
+
+        then:
+        def e = thrown(LiquibaseException)
+        e.message.contains("1 of 4 tenants")
+        e.message.contains("schema MISSING")
+        liquibase.results*.success == [true, false, true, true]
+        ["TENANT1", "TENANT2", "TENANT3"].every { countRows(it, "PERSON") == 1 }
+
+        where:
+        threads << [1, 3]
+    }
+
+    def "fail fast stops sequential migration at the first failure"() {
+        given:
+        def liquibase = createLiquibase(["TENANT1", "MISSING", "TENANT2"], 1, true)
+
+        when:
+        liquibase.afterPropertiesSet()
+
+        then:
+        thrown(LiquibaseException)
+        liquibase.results*.success == [true, false]
+        countRows("TENANT1", "PERSON") == 1
+    }
+
+    def "fail fast rethrows runtime exceptions unchanged"() {
+        given:
+        def liquibase = createLiquibase(["TENANT1", "TENANT2"], threads, true)
+        def failingDataSource = Stub(DataSource)
+        failingDataSource.getConnection() >> { throw new IllegalStateException("pool is closed") }
+        liquibase.setDataSource(failingDataSource)
+
+        when:
+        liquibase.afterPropertiesSet()
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "pool is closed"
+        !liquibase.results[0].success
+        liquibase.results[0].exception.is(e)
+
+        where:
+        threads << [1, 2]
+    }
+}
@@ -0,0 +1,161 @@
+package liquibase.lockservice
+
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.DatabaseConnection
+import liquibase.database.core.H2Database
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.LockException
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+import java.sql.SQLException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+
+class AdvisoryLockServiceTest extends Specification {
+
+    String url = "jdbc:h2:mem:advisorylock" + System.nanoTime()
+    Semaphore advisoryLock = new Semaphore(1)
+    List<H2Database> databases = []
+
+    def cleanup() {
+        databases*.close()
+        LiquibaseConfiguration.getInstance().reset()
+    }
+
+    AdvisoryLockService lockService(boolean advisoryLockAvailable = true) {
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(DriverManager.getConnection(url)))
+        databases.add(database)
+
+        def lockService = new AdvisoryLockService() {
+            @Override
+            protected boolean requestAdvisoryLock(int timeoutSeconds) throws SQLException {
+                if (!advisoryLockAvailable) {
+                    throw new SQLException("permission denied")
+                }
+                return advisoryLock.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)
+            }
+
+            @Override
+            protected void releaseAdvisoryLock() throws SQLException {
+                advisoryLock.release()
+            }
+        }
+        lockService.setDatabase(database)
+        lockService.setChangeLogLockRecheckTime(10)
+        return lockService
+    }
+
+    def "a waiting process is woken as soon as the advisory lock is released"() {
+        given:
+        def holder = lockService()
+        def waiter = lockService()
+        holder.waitForLock()
+
+        when:
+        long waitStarted = 0
+        long acquiredAfter = 0
+        def thread = Thread.start {
+            waitStarted = System.currentTimeMillis()
+            waiter.waitForLock()
+            acquiredAfter = System.currentTimeMillis() - waitStarted
+        }
+        Thread.sleep(500)
+        holder.releaseLock()
+        thread.join(10000)
+
+        then:
+        holder.hasAdvisoryLock() == false
+        waiter.hasChangeLogLock()
+        waiter.hasAdvisoryLock()
+        acquiredAfter < 5000
+
+        cleanup:
+        waiter.releaseLock()
+    }
+
+    def "the lock table is polled when the advisory lock cannot be used"() {
+        given:
+        def lockService = lockService(false)
+
+        when:
+        lockService.waitForLock()
+
+        then:
+        lockService.hasChangeLogLock()
+        !lockService.hasAdvisoryLock()
+        lockService.listLocks().length == 1
+
+        cleanup:
+        lockService.releaseLock()
+    }
+
+    def "the advisory lock is released when the lock table cannot be locked in time"() {
+        given:
+        def holder = lockService(false)
+        holder.waitForLock()
+        def waiter = lockService()
+        waiter.setChangeLogLockWaitTime(0)
+
+        when:
+        waiter.waitForLock()
+
+        then:
+        thrown(LockException)
+        !waiter.hasAdvisoryLock()
+        advisoryLock.availablePermits() == 1
+
+        cleanup:
+        holder.releaseLock()
+    }
+
+    def "an advisory lock held while the lock table is not locked is bypassed"() {
+        given:
+        advisoryLock.acquire()
+        def waiter = lockService()
+        waiter.setChangeLogLockRecheckTime(1)
+
+        when:
+        waiter.waitForLock()
+
+        then:
+        waiter.hasChangeLogLock()
+        !waiter.hasAdvisoryLock()
+
+        cleanup:
+        waiter.releaseLock()
+        advisoryLock.release()
+    }
+
+    def "supports databases with advisory locks on a jdbc connection"() {
+        given:
+        def connection = new JdbcConnection(Stub(Connection))
+        def postgres = new PostgresDatabase() {
+            @Override
+            DatabaseConnection getConnection() {
+                return connection
+            }
+        }
+
+        expect:
+        !new AdvisoryLockService().supports(postgres)
+
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setDatabaseChangeLogLockUseAdvisoryLock(true)
+
+        then:
+        new AdvisoryLockService().supports(postgres)
+        !new AdvisoryLockService().supports(new PostgresDatabase())
+        !new AdvisoryLockService().supports(new H2Database())
+
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setDatabaseChangeLogLockUseAdvisoryLock(false)
+
+        then:
+        !new AdvisoryLockService().supports(postgres)
+    }
+}
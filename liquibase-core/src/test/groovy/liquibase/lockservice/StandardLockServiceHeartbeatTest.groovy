@@ -0,0 +1,134 @@
+package liquibase.lockservice
+
+import liquibase.database.DatabaseFactory
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.LockException
+import liquibase.resource.ClassLoaderResourceAccessor
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class StandardLockServiceHeartbeatTest extends Specification {
+
+    String url = "jdbc:h2:mem:lockheartbeat" + System.nanoTime()
+    List<H2Database> databases = []
+
+    def cleanup() {
+        databases.each { LockServiceFactory.getInstance().resetLockService(it) }
+        databases*.close()
+    }
+
+    StandardLockService lockService(Long heartbeatTtl, boolean canOpenConnections = false) {
+        def database = new H2Database()
+        if (canOpenConnections) {
+            database.setConnection(DatabaseFactory.getInstance().openConnection(url, null, null, null, new ClassLoaderResourceAccessor()))
+        } else {
+            database.setConnection(new JdbcConnection(DriverManager.getConnection(url)))
+        }
+        databases.add(database)
+
+        def lockService = LockServiceFactory.getInstance().getLockService(database) as StandardLockService
+        if (heartbeatTtl != null) {
+            lockService.setChangeLogLockHeartbeatTtl(heartbeatTtl)
+        }
+        return lockService
+    }
+
+    def "a lock that is not refreshed is taken over once its ttl passed"() {
+        given:
+        def holder = lockService(1)
+        def waiter = lockService(1)
+        holder.acquireLock()
+
+        expect:
+        !waiter.acquireLock()
+
+        when:
+        Thread.sleep(1100)
+
+        then:
+        waiter.acquireLock()
+        waiter.listLocks().length == 1
+
+        when:
+        holder.refreshLock()
+
+        then:
+        thrown(LockException)
+        !holder.hasChangeLogLock()
+
+        when: "the previous holder does not release the lock it lost"
+        holder.releaseLock()
+
+        then:
+        waiter.listLocks().length == 1
+    }
+
+    def "a refreshed lock is not taken over"() {
+        given:
+        def holder = lockService(1)
+        def waiter = lockService(1)
+        holder.acquireLock()
+
+        expect:
+        !waiter.acquireLock()
+
+        when:
+        Thread.sleep(600)
+        LockServiceFactory.getInstance().refreshLock(holder.database)
+        Thread.sleep(600)
+
+        then:
+        !waiter.acquireLock()
+        !waiter.acquireLock()
+        holder.hasChangeLogLock()
+
+        when:
+        Thread.sleep(400)
+        holder.refreshLock()
+
+        then:
+        holder.hasChangeLogLock()
+    }
+
+    def "locks are not taken over without a heartbeat ttl"() {
+        given:
+        def holder = lockService(null)
+        def waiter = lockService(null)
+        holder.acquireLock()
+
+        when:
+        holder.refreshLock()
+
+        then:
+        !waiter.acquireLock()
+        !waiter.acquireLock()
+        holder.hasChangeLogLock()
+    }
+
+    def "the lock is refreshed in the background while a changeSet runs if another connection can be opened"() {
+        given:
+        def holder = lockService(1, true)
+        def waiter = lockService(1)
+        holder.acquireLock()
+
+        when: "no changeSet completes for longer than the ttl"
+        def acquired = false
+        5.times {
+            Thread.sleep(400)
+            acquired |= waiter.acquireLock()
+        }
+
+        then:
+        !acquired
+        holder.hasChangeLogLock()
+
+        when:
+        holder.refreshLock()
+        holder.releaseLock()
+
+        then:
+        waiter.acquireLock()
+    }
+}
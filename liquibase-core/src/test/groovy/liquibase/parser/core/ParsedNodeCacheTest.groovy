@@ -0,0 +1,105 @@
+package liquibase.parser.core
+
+import liquibase.changelog.ChangeLogParameters
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.ChangeLogParserCofiguration
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.sdk.resource.MockResourceAccessor
+import spock.lang.Specification
+
+class ParsedNodeCacheTest extends Specification {
+
+    def changeLogXml = '''<databaseChangeLog
+        xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+
+    <property name="table.name" value="person"/>
+
+    <changeSet id="1" author="nvoxland">
+        <createTable tableName="${table.name}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>'''
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setParsedChangeLogCacheFile(null)
+        ParsedNodeCache.reset()
+    }
+
+    def "disabled without a file"() {
+        when:
+        def cache = new ParsedNodeCache(null)
+        cache.put("com/example/test.xml", "abc", new ParsedNode(null, "databaseChangeLog"))
+
+        then:
+        !cache.isEnabled()
+        cache.get("com/example/test.xml", "abc") == null
+    }
+
+    def "trees survive save and reload only for the same digest"() {
+        when:
+        def file = File.createTempFile("liquibase-parsed", ".bin")
+        file.delete()
+        def node = new ParsedNode(null, "databaseChangeLog").addChildren([changeSet: [id: "1", author: "nvoxland", sql: "x" * 70000]])
+
+        def cache = new ParsedNodeCache(file)
+        cache.put("com/example/test.xml", "abc", node)
+        cache.save()
+
+        def reloaded = new ParsedNodeCache(file)
+
+        then:
+        file.exists()
+        reloaded.get("com/example/test.xml", "abc") == node
+        !reloaded.get("com/example/test.xml", "abc").is(reloaded.get("com/example/test.xml", "abc"))
+        reloaded.get("com/example/test.xml", "def") == null
+        reloaded.get("com/example/other.xml", "abc") == null
+
+        cleanup:
+        file?.delete()
+    }
+
+    def "trees with non-string values are not cached"() {
+        when:
+        def cache = new ParsedNodeCache(new File("unused.bin"))
+        cache.put("com/example/test.xml", "abc", new ParsedNode(null, "databaseChangeLog").addChildren([changeSet: [id: 1]]))
+
+        then:
+        cache.get("com/example/test.xml", "abc") == null
+    }
+
+    def "xml parser loads unchanged files from the cache"() {
+        when:
+        def file = File.createTempFile("liquibase-parsed", ".bin")
+        file.delete()
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setParsedChangeLogCacheFile(file.getAbsolutePath())
+
+        def resourceAccessor = new MockResourceAccessor(["com/example/test.xml": changeLogXml])
+        def parsed = new XMLChangeLogSAXParser().parse("com/example/test.xml", new ChangeLogParameters(), resourceAccessor)
+        ParsedNodeCache.getInstance().save()
+        ParsedNodeCache.reset()
+
+        def digest = ParsedNodeCache.computeDigest(changeLogXml.getBytes("UTF-8"))
+        def cachedNode = new ParsedNodeCache(file).get("com/example/test.xml", digest)
+        def reparsed = new XMLChangeLogSAXParser().parse("com/example/test.xml", new ChangeLogParameters(), resourceAccessor)
+
+        then:
+        cachedNode != null
+        cachedNode.getChild(null, "changeSet").getChild(null, "createTable").getChildValue(null, "tableName") == '${table.name}'
+        reparsed.changeSets.size() == 1
+        reparsed.changeSets[0].changes[0].tableName == "person"
+        reparsed.changeSets[0].generateCheckSum() == parsed.changeSets[0].generateCheckSum()
+
+        when:
+        def changedAccessor = new MockResourceAccessor(["com/example/test.xml": changeLogXml.replace("person", "other")])
+        def changed = new XMLChangeLogSAXParser().parse("com/example/test.xml", new ChangeLogParameters(), changedAccessor)
+
+        then:
+        changed.changeSets[0].changes[0].tableName == "other"
+
+        cleanup:
+        file?.delete()
+    }
+}
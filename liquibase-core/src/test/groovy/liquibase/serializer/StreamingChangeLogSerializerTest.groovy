@@ -0,0 +1,49 @@
+package liquibase.serializer
+
+import liquibase.change.ColumnConfig
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.InsertDataChange
+import liquibase.changelog.ChangeSet
+import liquibase.serializer.core.formattedsql.FormattedSqlChangeLogSerializer
+import liquibase.serializer.core.json.JsonChangeLogSerializer
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingChangeLogSerializerTest extends Specification {
+
+    def changeSets() {
+        def createTable = new ChangeSet("1", "test", false, false, "changelog.h2.sql", null, null, null)
+        def createTableChange = new CreateTableChange()
+        createTableChange.setTableName("person")
+        createTableChange.addColumn(new ColumnConfig().setName("id").setType("int"))
+        createTableChange.addColumn(new ColumnConfig().setName("name").setType("varchar(255)"))
+        createTable.addChange(createTableChange)
+
+        def insert = new ChangeSet("2", "test", false, false, "changelog.h2.sql", null, null, null)
+        ["Joe", "Quote \" and <tag> & 'apostrophe'"].each { name ->
+            def change = new InsertDataChange()
+            change.setTableName("person")
+            change.addColumn(new ColumnConfig().setName("name").setValue(name))
+            insert.addChange(change)
+        }
+
+        return [createTable, insert]
+    }
+
+    @Unroll
+    def "streaming write matches the list write for #serializer.class.simpleName"() {
+        when:
+        def listOut = new ByteArrayOutputStream()
+        serializer.write(children, listOut)
+        def streamOut = new ByteArrayOutputStream()
+        serializer.write(children.iterator(), streamOut)
+
+        then:
+        streamOut.toString("UTF-8") == listOut.toString("UTF-8")
+
+        where:
+        [serializer, children] << [[new XMLChangeLogSerializer(), new YamlChangeLogSerializer(), new JsonChangeLogSerializer(), new FormattedSqlChangeLogSerializer()], [changeSets(), changeSets().subList(0, 1), []]].combinations()
+    }
+}
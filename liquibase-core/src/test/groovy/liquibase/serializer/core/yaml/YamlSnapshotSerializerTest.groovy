@@ -0,0 +1,104 @@
+package liquibase.serializer.core.yaml
+
+import liquibase.CatalogAndSchema
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.compare.CompareControl
+import liquibase.parser.core.json.JsonSnapshotParser
+import liquibase.parser.core.yaml.YamlSnapshotParser
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.serializer.core.json.JsonSnapshotSerializer
+import liquibase.snapshot.DatabaseSnapshot
+import liquibase.snapshot.RestoredDatabaseSnapshot
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Index
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import org.yaml.snakeyaml.Yaml
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class YamlSnapshotSerializerTest extends Specification {
+
+    Connection connection
+    H2Database database
+    DatabaseSnapshot snapshot
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:snapshotserializer" + System.nanoTime())
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def statement = connection.createStatement()
+        statement.execute("CREATE TABLE parent (id INT PRIMARY KEY, code VARCHAR(10) NOT NULL DEFAULT 'x', created TIMESTAMP, CONSTRAINT uq_parent UNIQUE (code))")
+        statement.execute("CREATE TABLE child (id INT PRIMARY KEY, parent_id INT, amount DECIMAL(10,2), CONSTRAINT fk_child FOREIGN KEY (parent_id) REFERENCES parent(id))")
+        statement.execute("CREATE INDEX idx_child_amount ON child(amount)")
+        statement.close()
+
+        snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), database, new SnapshotControl(database))
+    }
+
+    def cleanup() {
+        connection.close()
+    }
+
+    def withoutCreated(String document) {
+        Map map = new Yaml().load(document)
+        map.snapshot.remove("created")
+        return map
+    }
+
+    @Unroll
+    def "write streams the same document as serialize with #serializer.class.simpleName"() {
+        when:
+        def out = new ByteArrayOutputStream()
+        serializer.write(snapshot, out)
+
+        then:
+        withoutCreated(out.toString("UTF-8")) == withoutCreated(serializer.serialize(snapshot, true))
+
+        where:
+        serializer << [new JsonSnapshotSerializer(), new YamlSnapshotSerializer()]
+    }
+
+    @Unroll
+    def "streamed snapshot is read back with #parser.class.simpleName"() {
+        when:
+        def out = new ByteArrayOutputStream()
+        serializer.write(snapshot, out)
+        def restored = new RestoredDatabaseSnapshot(database)
+        parser.parse(new ByteArrayInputStream(out.toByteArray()), restored, new FileSystemResourceAccessor())
+
+        then:
+        restored.get(Table).collect { it.name }.sort() == ["CHILD", "PARENT"]
+        restored.get(Index).find { it.name == "IDX_CHILD_AMOUNT" }.columns*.name == ["AMOUNT"]
+        restored.get(PrimaryKey).every { it.columns*.relation.every { relation -> relation instanceof Table } }
+        DiffGeneratorFactory.getInstance().compare(snapshot, restored, new CompareControl()).areEqual()
+
+        where:
+        serializer                   | parser
+        new JsonSnapshotSerializer() | new JsonSnapshotParser()
+        new YamlSnapshotSerializer() | new YamlSnapshotParser()
+    }
+
+    def "snapshot file is read into a snapshot of the stored database type"() {
+        given:
+        def file = File.createTempFile("snapshot", ".json")
+        file.withOutputStream { new JsonSnapshotSerializer().write(snapshot, it) }
+
+        when:
+        def restored = new JsonSnapshotParser().parse(file.getName(), new FileSystemResourceAccessor(file.getParent()))
+
+        then:
+        restored instanceof RestoredDatabaseSnapshot
+        restored.getDatabase() instanceof H2Database
+        restored.get(Table).size() == 2
+
+        cleanup:
+        file.delete()
+    }
+}
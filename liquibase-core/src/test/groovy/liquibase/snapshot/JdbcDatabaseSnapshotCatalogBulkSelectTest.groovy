@@ -0,0 +1,145 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.DriverManager
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.Statement
+
+class JdbcDatabaseSnapshotCatalogBulkSelectTest extends Specification {
+
+    List<String> executedSql = []
+    Connection connection
+    H2Database h2Database
+
+    def setup() {
+        def resultSet = Stub(ResultSet) {
+            getMetaData() >> Stub(ResultSetMetaData) {
+                getColumnCount() >> 0
+            }
+            next() >> false
+        }
+        def statement = Stub(Statement) {
+            executeQuery(_ as String) >> { String sql ->
+                executedSql.add(sql)
+                return resultSet
+            }
+        }
+        connection = Stub(Connection) {
+            createStatement() >> statement
+            getMetaData() >> Stub(DatabaseMetaData)
+        }
+
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setSnapshotCatalogBulkSelect(true)
+        h2Database = new H2Database()
+        h2Database.setConnection(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:catalogbulkselect" + System.nanoTime())))
+    }
+
+    def cleanup() {
+        h2Database.close()
+        LiquibaseConfiguration.getInstance().reset()
+    }
+
+    def prefetchMetaData(Database database) {
+        def snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), h2Database, new SnapshotControl(h2Database))
+        return new JdbcDatabaseSnapshot.CachingDatabaseMetaData(snapshot as JdbcDatabaseSnapshot, database, connection)
+    }
+
+    def postgres(int majorVersion) {
+        return new PostgresDatabase() {
+            @Override
+            int getDatabaseMajorVersion() throws DatabaseException {
+                return majorVersion
+            }
+        }
+    }
+
+    def mysql(int majorVersion, int minorVersion) {
+        return new MySQLDatabase() {
+            @Override
+            int getDatabaseMajorVersion() throws DatabaseException {
+                return majorVersion
+            }
+
+            @Override
+            int getDatabaseMinorVersion() throws DatabaseException {
+                return minorVersion
+            }
+        }
+    }
+
+    def "postgresql primary keys, indexes and foreign keys of a schema are selected from pg_catalog in one query each"() {
+        when:
+        def metaData = prefetchMetaData(postgres(9))
+        metaData.getPrimaryKeys(null, "public", null)
+        metaData.getIndexInfo(null, "public", null, null)
+        metaData.getForeignKeys(null, "public", null, null)
+
+        then:
+        executedSql.size() == 3
+        executedSql.every { it.contains("pg_catalog.") && it.contains("nspname = 'public'") }
+        executedSql[0].contains("indisprimary")
+        executedSql[1].contains("pg_catalog.pg_get_indexdef")
+        executedSql[2].contains("con.contype = 'f'")
+    }
+
+    def "mysql primary keys, indexes and foreign keys of a database are selected from information_schema in one query each"() {
+        when:
+        def metaData = prefetchMetaData(mysql(5, 5))
+        metaData.getPrimaryKeys("lbcat", null, null)
+        metaData.getIndexInfo("lbcat", null, null, null)
+        metaData.getForeignKeys("lbcat", null, null, null)
+
+        then:
+        executedSql.size() == 3
+        executedSql.every { it.contains("information_schema.") && it.contains("TABLE_SCHEMA = 'lbcat'") }
+        executedSql[0].contains("INDEX_NAME = 'PRIMARY'")
+        executedSql[1].contains("information_schema.STATISTICS")
+        executedSql[2].contains("information_schema.REFERENTIAL_CONSTRAINTS")
+    }
+
+    @Unroll
+    def "older versions keep using DatabaseMetaData: #database.shortName"() {
+        when:
+        def metaData = prefetchMetaData(database)
+        metaData.getPrimaryKeys(null, "public", null)
+        metaData.getIndexInfo(null, "public", null, null)
+        metaData.getForeignKeys(null, "public", null, null)
+
+        then:
+        executedSql.isEmpty()
+
+        where:
+        database << [postgres(8), mysql(5, 0)]
+    }
+
+    def "DatabaseMetaData is used unless catalog bulk selects are enabled"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration).setSnapshotCatalogBulkSelect(false)
+
+        when:
+        def metaData = prefetchMetaData(database)
+        metaData.getPrimaryKeys("lbcat", "public", null)
+        metaData.getIndexInfo("lbcat", "public", null, null)
+        metaData.getForeignKeys("lbcat", "public", null, null)
+
+        then:
+        executedSql.isEmpty()
+
+        where:
+        database << [postgres(9), mysql(5, 5)]
+    }
+}
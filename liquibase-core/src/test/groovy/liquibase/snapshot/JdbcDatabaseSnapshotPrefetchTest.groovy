@@ -0,0 +1,119 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Index
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import liquibase.structure.core.UniqueConstraint
+import org.h2.jdbcx.JdbcDataSource
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.util.concurrent.atomic.AtomicInteger
+
+class JdbcDatabaseSnapshotPrefetchTest extends Specification {
+
+    String url
+    Connection connection
+    H2Database database
+
+    def setup() {
+        url = "jdbc:h2:mem:snapshotprefetch" + System.nanoTime() + ";DB_CLOSE_DELAY=-1"
+        def dataSource = new JdbcDataSource()
+        dataSource.setURL(url)
+        connection = dataSource.getConnection()
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        def statement = connection.createStatement()
+        for (int i = 0; i < 10; i++) {
+            statement.execute("CREATE TABLE parent_" + i + " (id INT PRIMARY KEY, code VARCHAR(10), CONSTRAINT uq_parent_" + i + " UNIQUE (code))")
+            statement.execute("CREATE TABLE child_" + i + " (id INT PRIMARY KEY, parent_id INT, name VARCHAR(50), CONSTRAINT fk_child_" + i + " FOREIGN KEY (parent_id) REFERENCES parent_" + i + "(id))")
+            statement.execute("CREATE INDEX idx_child_name_" + i + " ON child_" + i + "(name)")
+        }
+        statement.close()
+    }
+
+    def cleanup() {
+        connection.createStatement().execute("SHUTDOWN")
+        connection.close()
+    }
+
+    def snapshot(DataSource dataSource) {
+        def snapshotControl = new SnapshotControl(database)
+        snapshotControl.setParallelDataSource(dataSource)
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(new CatalogAndSchema(null, null), database, snapshotControl)
+    }
+
+    def names(DatabaseSnapshot snapshot, Class type) {
+        return snapshot.get(type).collect { it.toString() }.sort()
+    }
+
+    def "snapshot with parallel prefetch finds the same objects"() {
+        given:
+        def connectionsOpened = new AtomicInteger()
+        def h2DataSource = new JdbcDataSource()
+        h2DataSource.setURL(url)
+        def dataSource = [
+                getConnection: { ->
+                    connectionsOpened.incrementAndGet()
+                    return h2DataSource.getConnection()
+                }
+        ] as DataSource
+
+        when:
+        def sequential = snapshot(null)
+        def parallel = snapshot(dataSource)
+
+        then:
+        connectionsOpened.get() == 5
+        names(parallel, Table).size() == 20
+        names(parallel, ForeignKey).size() == 10
+        names(parallel, UniqueConstraint).size() == 10
+        [Table, Column, Index, ForeignKey, PrimaryKey, UniqueConstraint].each { type ->
+            assert names(parallel, type) == names(sequential, type)
+        }
+        parallel.getResultSetCache("getColumns").prefetch(new ResultSetCache.SingleResultSetExtractor(database) {
+            @Override
+            ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+                return new ResultSetCache.RowData(null, null, database)
+            }
+
+            @Override
+            ResultSetCache.RowData wantedKeyParameters() {
+                return new ResultSetCache.RowData(database.getDefaultCatalogName(), database.getDefaultSchemaName(), database, null, null)
+            }
+
+            @Override
+            List<CachedRow> fastFetchQuery() {
+                throw new IllegalStateException("Not expected")
+            }
+
+            @Override
+            List<CachedRow> bulkFetchQuery() {
+                throw new IllegalStateException("Columns should already be cached")
+            }
+        })
+    }
+
+    def "failing prefetch falls back to the normal snapshot"() {
+        given:
+        def dataSource = [
+                getConnection: { -> throw new java.sql.SQLException("no connections") }
+        ] as DataSource
+
+        when:
+        def sequential = snapshot(null)
+        def parallel = snapshot(dataSource)
+
+        then:
+        [Table, Column, ForeignKey, PrimaryKey, UniqueConstraint].each { type ->
+            assert names(parallel, type) == names(sequential, type)
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package liquibase.snapshot
+
+import liquibase.Liquibase
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.DropTableChange
+import liquibase.change.core.RawSQLChange
+import liquibase.change.ColumnConfig
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import liquibase.sdk.database.MockDatabase
+import liquibase.sdk.resource.MockResourceAccessor
+import liquibase.structure.core.Column
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class MetadataCacheTest extends Specification {
+
+    Connection connection
+    H2Database database
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:metadatacache" + System.nanoTime())
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        execute("CREATE TABLE table_a (id INT)")
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(false)
+        MetadataCache.resetAll()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection.close()
+    }
+
+    def execute(String sql) {
+        connection.createStatement().execute(sql)
+    }
+
+    def table(String name) {
+        return new Table().setName(name).setSchema(new Schema(null, null))
+    }
+
+    def column(String tableName, String name) {
+        return new Column().setName(name).setRelation(table(tableName))
+    }
+
+    def createTableChange(String name) {
+        def change = new CreateTableChange()
+        change.setTableName(name)
+        change.addColumn(new ColumnConfig().setName("id").setType("int"))
+        return change
+    }
+
+    def "disabled by default and for databases without a connection"() {
+        expect:
+        MetadataCache.getInstance(database) == null
+
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(true)
+
+        then:
+        MetadataCache.getInstance(database) != null
+        MetadataCache.getInstance(database).is(MetadataCache.getInstance(database))
+        MetadataCache.getInstance(new MockDatabase()) == null
+    }
+
+    def "concurrent callers get the same cache and closing the database discards it"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(true)
+        def pool = Executors.newFixedThreadPool(8)
+
+        when:
+        def caches = (1..50).collect { pool.submit({ MetadataCache.getInstance(database) } as Callable) }*.get()
+        pool.shutdown()
+
+        then:
+        caches.every { it.is(caches[0]) }
+        MetadataCache.instances.size() == 1
+
+        when:
+        database.close()
+
+        then:
+        MetadataCache.instances.isEmpty()
+    }
+
+    def "existence checks are answered from cached metadata and follow executed changes"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(true)
+        def factory = SnapshotGeneratorFactory.getInstance()
+
+        expect:
+        factory.has(table("table_a"), database)
+        !factory.has(table("table_b"), database)
+        factory.has(column("table_a", "id"), database)
+        !factory.has(column("table_a", "name"), database)
+
+        when: "objects created outside of changes are not seen"
+        execute("CREATE TABLE table_b (id INT)")
+
+        then:
+        !factory.has(table("table_b"), database)
+
+        when: "created tables are added and columns are read again"
+        MetadataCache.getInstance(database).changeExecuted(createTableChange("table_b"))
+
+        then:
+        factory.has(table("table_b"), database)
+        factory.has(column("table_b", "id"), database)
+
+        when: "dropped tables are removed"
+        MetadataCache.getInstance(database).changeExecuted(new DropTableChange(tableName: "table_b"))
+
+        then:
+        !factory.has(table("table_b"), database)
+        factory.has(table("table_a"), database)
+
+        when: "other changes clear the cache"
+        MetadataCache.getInstance(database).changeExecuted(new RawSQLChange("select 1"))
+
+        then:
+        factory.has(table("table_b"), database)
+    }
+
+    def "reset discards the cache"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(true)
+        def factory = SnapshotGeneratorFactory.getInstance()
+
+        when:
+        def before = factory.has(table("table_b"), database)
+        execute("CREATE TABLE table_b (id INT)")
+        MetadataCache.reset(database)
+
+        then:
+        !before
+        factory.has(table("table_b"), database)
+    }
+
+    def "preconditions in an update see objects created earlier in the same run"() {
+        given:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCachePreconditionMetadata(true)
+        def changeLog = """<databaseChangeLog
+        xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+    <changeSet id="1" author="test">
+        <preConditions onFail="MARK_RAN"><not><tableExists tableName="person"/></not></preConditions>
+        <createTable tableName="person"><column name="id" type="int"/></createTable>
+    </changeSet>
+    <changeSet id="2" author="test">
+        <preConditions onFail="MARK_RAN"><tableExists tableName="person"/></preConditions>
+        <addColumn tableName="person"><column name="name" type="varchar(50)"/></addColumn>
+    </changeSet>
+    <changeSet id="3" author="test">
+        <preConditions onFail="MARK_RAN"><columnExists tableName="person" columnName="name"/></preConditions>
+        <createTable tableName="address"><column name="id" type="int"/></createTable>
+    </changeSet>
+    <changeSet id="4" author="test">
+        <preConditions onFail="MARK_RAN"><not><tableExists tableName="address"/></not></preConditions>
+        <createTable tableName="never"><column name="id" type="int"/></createTable>
+    </changeSet>
+</databaseChangeLog>"""
+        def liquibase = new Liquibase("com/example/changelog.xml", new MockResourceAccessor(["com/example/changelog.xml": changeLog]), database)
+
+        when:
+        liquibase.update("")
+        def resultSet = connection.createStatement().executeQuery("SELECT EXECTYPE FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED")
+        def execTypes = []
+        while (resultSet.next()) {
+            execTypes << resultSet.getString(1)
+        }
+
+        then:
+        execTypes == ["EXECUTED", "EXECUTED", "EXECUTED", "MARK_RAN"]
+        MetadataCache.instances.isEmpty()
+    }
+}
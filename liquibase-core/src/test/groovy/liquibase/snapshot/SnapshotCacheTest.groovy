@@ -0,0 +1,163 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.exception.DatabaseException
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.snapshot.fingerprint.SchemaFingerprintGenerator
+import liquibase.snapshot.fingerprint.SchemaFingerprintGeneratorFactory
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Index
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class SnapshotCacheTest extends Specification {
+
+    Connection connection
+    H2Database database
+    File directory
+    TestFingerprintGenerator fingerprintGenerator = new TestFingerprintGenerator()
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:snapshotcache" + System.nanoTime())
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def statement = connection.createStatement()
+        statement.execute("CREATE TABLE parent (id INT PRIMARY KEY, code VARCHAR(10) NOT NULL DEFAULT 'x', CONSTRAINT uq_parent UNIQUE (code))")
+        statement.execute("CREATE TABLE child (id INT PRIMARY KEY, parent_id INT, amount DECIMAL(10,2), CONSTRAINT fk_child FOREIGN KEY (parent_id) REFERENCES parent(id))")
+        statement.execute("CREATE INDEX idx_child_amount ON child(amount)")
+        statement.execute("CREATE VIEW child_view AS SELECT id, amount FROM child")
+        statement.close()
+
+        directory = File.createTempFile("liquibase-snapshots", "")
+        directory.delete()
+
+        SchemaFingerprintGeneratorFactory.getInstance().register(fingerprintGenerator)
+    }
+
+    def cleanup() {
+        SchemaFingerprintGeneratorFactory.reset()
+        directory.listFiles()?.each { it.delete() }
+        directory.delete()
+        connection.close()
+    }
+
+    def createSnapshot(SnapshotCache cache) {
+        return cache.createSnapshot([new CatalogAndSchema(null, null)] as CatalogAndSchema[], database, new SnapshotControl(database))
+    }
+
+    def "stored snapshot is used while the fingerprint is unchanged"() {
+        given:
+        def cache = new SnapshotCache(directory)
+
+        when:
+        def first = createSnapshot(cache)
+        def second = createSnapshot(cache)
+
+        then:
+        first instanceof JdbcDatabaseSnapshot
+        directory.listFiles().length == 1
+        second instanceof RestoredDatabaseSnapshot
+        second.getDatabase().is(database)
+        second.get(Table).collect { it.name }.sort() == ["CHILD", "PARENT"]
+        second.get(ForeignKey).size() == 1
+        second.get(Index).size() > 0
+        DiffGeneratorFactory.getInstance().compare(first, second, new CompareControl()).areEqual()
+
+        when:
+        connection.createStatement().execute("ALTER TABLE child ADD COLUMN note VARCHAR(100)")
+        fingerprintGenerator.fingerprint = "2"
+        def third = createSnapshot(cache)
+
+        then:
+        third instanceof JdbcDatabaseSnapshot
+        third.get(Column).find { it.name == "NOTE" } != null
+        createSnapshot(cache) instanceof RestoredDatabaseSnapshot
+    }
+
+    def "restored index columns keep their attributes in the generated changelog"() {
+        given:
+        connection.createStatement().execute("CREATE INDEX idx_child_amount_desc ON child(amount DESC, parent_id)")
+        def cache = new SnapshotCache(directory)
+        def schemas = [new CatalogAndSchema(null, null)] as CatalogAndSchema[]
+        def snapshotControl = new SnapshotControl(database)
+
+        when:
+        def first = createSnapshot(cache)
+        def computedColumn = first.get(Index).find { it.name == "IDX_CHILD_AMOUNT_DESC" }.columns[1]
+        computedColumn.setComputed(true)
+        computedColumn.setName("ABS(PARENT_ID)")
+        cache.write(new File(directory, cache.getKey(schemas, database, snapshotControl) + ".snapshot"), cache.getFingerprint(schemas, database), first)
+        def second = createSnapshot(cache)
+        def columns = second.get(Index).find { it.name == "IDX_CHILD_AMOUNT_DESC" }.columns
+
+        then:
+        second instanceof RestoredDatabaseSnapshot
+        columns*.name == ["AMOUNT", "ABS(PARENT_ID)"]
+        columns[0].descending
+        !columns[0].computed
+        columns[1].computed
+        columns*.relation*.name == ["CHILD", "CHILD"]
+        generateChanges(second) == generateChanges(first)
+        generateChanges(second).find { it.contains("IDX_CHILD_AMOUNT_DESC") }.contains("descending=\"true\"")
+    }
+
+    def generateChanges(DatabaseSnapshot snapshot) {
+        def diffResult = DiffGeneratorFactory.getInstance().compare(snapshot, new EmptyDatabaseSnapshot(database), new CompareControl())
+        def serializer = new XMLChangeLogSerializer()
+        return new DiffToChangeLog(diffResult, new DiffOutputControl()).generateChangeSets().collectMany { it.changes }.collect { serializer.serialize(it, true) }.sort()
+    }
+
+    def "snapshots are taken normally without a fingerprint"() {
+        given:
+        def cache = new SnapshotCache(directory)
+        fingerprintGenerator.fingerprint = null
+
+        when:
+        def first = createSnapshot(cache)
+        def second = createSnapshot(cache)
+
+        then:
+        first instanceof JdbcDatabaseSnapshot
+        second instanceof JdbcDatabaseSnapshot
+        !directory.exists()
+    }
+
+    def "disabled cache does not store snapshots"() {
+        when:
+        def snapshot = createSnapshot(new SnapshotCache(null))
+
+        then:
+        snapshot instanceof JdbcDatabaseSnapshot
+        !directory.exists()
+    }
+
+    static class TestFingerprintGenerator implements SchemaFingerprintGenerator {
+        String fingerprint = "1"
+
+        @Override
+        int getPriority() {
+            return PRIORITY_DATABASE + 10
+        }
+
+        @Override
+        boolean supports(Database database) {
+            return database instanceof H2Database
+        }
+
+        @Override
+        String getFingerprint(CatalogAndSchema schema, Database database) throws DatabaseException {
+            return fingerprint
+        }
+    }
+}
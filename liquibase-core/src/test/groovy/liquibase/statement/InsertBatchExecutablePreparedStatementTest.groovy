@@ -0,0 +1,113 @@
+package liquibase.statement
+
+import liquibase.change.ColumnConfig
+import liquibase.database.PreparedStatementFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.sdk.database.MockDatabase
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.PreparedStatement
+import java.sql.Timestamp
+import java.sql.Types
+
+class InsertBatchExecutablePreparedStatementTest extends Specification {
+
+    def "rows are bound by type and sent in batches"() {
+        given:
+        def commits = 0
+        def database = new MockDatabase() {
+            @Override
+            void commit() {
+                commits++
+            }
+        }
+        def metaData = Mock(DatabaseMetaData)
+        metaData.supportsBatchUpdates() >> true
+        def stmt = Mock(PreparedStatement)
+        def connection = Mock(Connection)
+        connection.getMetaData() >> metaData
+        stmt.getConnection() >> connection
+        def sql = null
+        connection.prepareStatement(_ as String) >> { args -> sql = args[0]; return stmt }
+
+        def date = new Timestamp(1000)
+        def rows = [
+                ["a", 1L, true, date] as Object[],
+                ["NULL", new BigDecimal("2.5"), false, null] as Object[],
+                ["c", 3L, true, date] as Object[],
+        ]
+        def statement = new InsertBatchExecutablePreparedStatement(database, null, "schema", "table",
+                [new ColumnConfig().setName("name"), new ColumnConfig().setName("id"), new ColumnConfig().setName("active"), new ColumnConfig().setName("created")],
+                rows, 2, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        sql == "INSERT INTO schema.table(name, id, active, created) VALUES(?, ?, ?, ?)"
+        2 * stmt.setString(1, _)
+        1 * stmt.setNull(1, Types.NULL)
+        2 * stmt.setLong(2, _)
+        1 * stmt.setBigDecimal(2, new BigDecimal("2.5"))
+        3 * stmt.setBoolean(3, _)
+        2 * stmt.setTimestamp(4, date)
+        1 * stmt.setNull(4, Types.NULL)
+        3 * stmt.addBatch()
+        2 * stmt.executeBatch()
+        0 * stmt.executeUpdate()
+        commits == 0
+    }
+
+    def "commit interval flushes pending rows and commits"() {
+        given:
+        def commits = 0
+        def database = new MockDatabase() {
+            @Override
+            void commit() {
+                commits++
+            }
+        }
+        def metaData = Mock(DatabaseMetaData)
+        metaData.supportsBatchUpdates() >> true
+        def stmt = Mock(PreparedStatement)
+        def connection = Mock(Connection)
+        connection.getMetaData() >> metaData
+        stmt.getConnection() >> connection
+        connection.prepareStatement(_ as String) >> stmt
+
+        def rows = (1..5).collect { [it.toString()] as Object[] }
+        def statement = new InsertBatchExecutablePreparedStatement(database, null, null, "table", [new ColumnConfig().setName("name")], rows, 10, 2, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        5 * stmt.addBatch()
+        3 * stmt.executeBatch()
+        commits == 2
+    }
+
+    def "rows are executed one by one if the driver does not support batches"() {
+        given:
+        def metaData = Mock(DatabaseMetaData)
+        metaData.supportsBatchUpdates() >> false
+        def stmt = Mock(PreparedStatement)
+        def connection = Mock(Connection)
+        connection.getMetaData() >> metaData
+        stmt.getConnection() >> connection
+        connection.prepareStatement(_ as String) >> stmt
+
+        def rows = (1..3).collect { [it.toString()] as Object[] }
+        def statement = new InsertBatchExecutablePreparedStatement(new MockDatabase(), null, null, "table", [new ColumnConfig().setName("name")], rows, 10, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        0 * stmt.addBatch()
+        0 * stmt.executeBatch()
+        3 * stmt.executeUpdate()
+    }
+}
@@ -0,0 +1,173 @@
+package liquibase.statement
+
+import liquibase.change.ColumnConfig
+import liquibase.database.PreparedStatementFactory
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.Executor
+import liquibase.executor.ExecutorService
+import liquibase.sdk.database.MockDatabase
+import liquibase.statement.core.InsertOrUpdateStatement
+import liquibase.statement.core.InsertStatement
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.DriverManager
+import java.sql.PreparedStatement
+import java.sql.Types
+
+class InsertStreamExecutablePreparedStatementTest extends Specification {
+
+    def database = new MockDatabase()
+    def executor = Mock(Executor)
+    def stmt = Mock(PreparedStatement)
+    def connection = Mock(Connection)
+
+    def setup() {
+        ExecutorService.getInstance().setExecutor(database, executor)
+        def metaData = Mock(DatabaseMetaData)
+        metaData.supportsBatchUpdates() >> true
+        connection.getMetaData() >> metaData
+        connection.prepareStatement(_ as String) >> stmt
+        stmt.getConnection() >> connection
+    }
+
+    def cleanup() {
+        ExecutorService.getInstance().reset()
+    }
+
+    def "bindable rows are batched and other statements executed in order"() {
+        given:
+        def function = new InsertStatement(null, null, "table").addColumnValue("name", new DatabaseFunction("now()"))
+        def upsert = new InsertOrUpdateStatement(null, null, "table", "name").addColumnValue("name", "d")
+        def statements = [insert("a"), insert("b"), function, insert("c"), upsert]
+        def statement = stream(statements, 10, Types.VARCHAR)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        1 * stmt.setString(1, "a")
+        1 * stmt.setString(1, "b")
+
+        then:
+        1 * stmt.executeBatch()
+
+        then:
+        1 * executor.execute(function)
+
+        then:
+        1 * stmt.setString(1, "c")
+
+        then:
+        1 * stmt.executeBatch()
+
+        then:
+        1 * executor.execute(upsert)
+    }
+
+    def "strings for a column of unknown type are executed through the executor"() {
+        given:
+        def statements = [insert("a"), insert("NULL"), insert("b")]
+        def statement = stream(statements, 10, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        1 * executor.execute(statements[0])
+
+        then:
+        1 * stmt.setNull(1, Types.NULL)
+        1 * stmt.executeBatch()
+
+        then:
+        1 * executor.execute(statements[2])
+        0 * stmt.setString(_, _)
+    }
+
+    def "untyped values are bound with the type of their column"() {
+        given:
+        def connection = DriverManager.getConnection("jdbc:h2:mem:streaminsert" + System.nanoTime())
+        connection.createStatement().execute("CREATE TABLE test (id INT, created DATE, active BOOLEAN, name VARCHAR(255))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        def statements = (1..3).collect {
+            new InsertStatement(null, null, "test")
+                    .addColumnValue("id", it.toString())
+                    .addColumnValue("created", "2014-01-0" + it)
+                    .addColumnValue("active", "true")
+                    .addColumnValue("name", "name " + it)
+        }
+        def columns = ["id", "created", "active", "name"].collect { new ColumnConfig().setName(it) }
+        def statement = new InsertStreamExecutablePreparedStatement(database, null, null, "test", columns, statements, 2, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()))
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*), SUM(id), MAX(created), COUNT(name) FROM test WHERE active")
+        resultSet.next()
+
+        then:
+        statement.getColumnSqlType(0) == Types.INTEGER
+        statement.getColumnSqlType(1) == Types.DATE
+        resultSet.getInt(1) == 3
+        resultSet.getInt(2) == 6
+        resultSet.getDate(3).toString() == "2014-01-03"
+        resultSet.getInt(4) == 3
+
+        cleanup:
+        connection?.close()
+    }
+
+    def "every row is executed through the executor without a batch size"() {
+        given:
+        def statements = [insert("a"), insert("b")]
+        def statement = new InsertStreamExecutablePreparedStatement(database, null, null, "table", [new ColumnConfig().setName("name")], statements, 0, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        2 * executor.execute(_ as InsertStatement)
+        0 * connection.prepareStatement(_)
+    }
+
+    def "closeable iterators are closed"() {
+        given:
+        def iterator = new CloseableIterator(closed: false)
+        def statement = new InsertStreamExecutablePreparedStatement(database, null, null, "table", [new ColumnConfig().setName("name")], { iterator } as Iterable, 10, 0, null, null)
+
+        when:
+        statement.execute(new PreparedStatementFactory(new JdbcConnection(connection)))
+
+        then:
+        iterator.closed
+    }
+
+    private InsertStreamExecutablePreparedStatement stream(List<InsertStatement> statements, int batchSize, Integer sqlType) {
+        return new InsertStreamExecutablePreparedStatement(database, null, null, "table", [new ColumnConfig().setName("name")], statements, batchSize, 0, null, null) {
+            @Override
+            protected Integer[] readColumnSqlTypes() {
+                return [sqlType] as Integer[]
+            }
+        }
+    }
+
+    private InsertStatement insert(String name) {
+        return new InsertStatement(null, null, "table").addColumnValue("name", name)
+    }
+
+    private static class CloseableIterator implements Iterator<InsertStatement>, Closeable {
+        boolean closed
+
+        boolean hasNext() { return false }
+
+        InsertStatement next() { throw new NoSuchElementException() }
+
+        void remove() { }
+
+        void close() { closed = true }
+    }
+}
@@ -84,4 +84,12 @@ public class CheckSumTest {
         assertEquals(checkSum, CheckSum.compute(new ByteArrayInputStream("a string\r\nwith\r\nlines".getBytes()), true).toString());
         assertEquals(checkSum, CheckSum.compute(new ByteArrayInputStream("a string\rwith\r\nlines".getBytes()), true).toString());
     }
+
+    @Test
+    public void compute_unnormalizedStringsMatchNormalizedForm() {
+        String checkSum = CheckSum.compute("caf\u00e9").toString();
+        assertEquals(checkSum, CheckSum.compute("cafe\u0301").toString());
+        assertEquals(checkSum, CheckSum.compute("caf\uFFFD\u00e9").toString());
+        assertEquals(checkSum, CheckSum.compute("cafe\uFFFD\u0301").toString());
+    }
 }
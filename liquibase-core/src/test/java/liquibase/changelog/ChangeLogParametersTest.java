@@ -73,4 +73,22 @@ public class ChangeLogParametersTest {
 
         assertEquals("originalValue", changeLogParameters.getValue("doubleSet", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void copy_keepsValuesUntilMerged() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("original", "originalValue");
+        int size = changeLogParameters.size();
+
+        ChangeLogParameters copy = changeLogParameters.copy();
+        copy.set("added", "addedValue");
+
+        assertEquals("originalValue", copy.getValue("original", null));
+        assertNull(changeLogParameters.getValue("added", null));
+
+        changeLogParameters.addAll(copy, size);
+
+        assertEquals("addedValue", changeLogParameters.getValue("added", null));
+        assertEquals(size + 1, changeLogParameters.size());
+    }
+}
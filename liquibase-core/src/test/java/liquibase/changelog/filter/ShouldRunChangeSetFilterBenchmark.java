@@ -0,0 +1,93 @@
+package liquibase.changelog.filter;
+
+import liquibase.change.CheckSum;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.core.H2Database;
+import liquibase.exception.DatabaseException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Measures the cost per changeSet of {@link ShouldRunChangeSetFilter} for growing DATABASECHANGELOG sizes, with the ran changeSet index
+ * and with the scan of the whole ran changeSet list it did before. Half of the changeSets in the changelog already ran.
+ * <p>
+ * Not a unit test. Run the main method with the history sizes as optional arguments (default 1000 10000 100000). The scan is only timed
+ * for a sample of 1000 changeSets, since scanning for all of them takes minutes for large histories.
+ */
+public class ShouldRunChangeSetFilterBenchmark {
+
+    private static final int SCAN_SAMPLE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int[] historySizes = new int[args.length == 0 ? 3 : args.length];
+        for (int i = 0; i < historySizes.length; i++) {
+            historySizes[i] = args.length == 0 ? (int) Math.pow(10, i + 3) : Integer.parseInt(args[i]);
+        }
+
+        for (int run = 0; run < 3; run++) {
+            for (int historySize : historySizes) {
+                final List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>(historySize);
+                for (int i = 0; i < historySize; i++) {
+                    ranChangeSets.add(new RanChangeSet("com/example/changelog-" + (i / 100) + ".xml", String.valueOf(i), "benchmark",
+                            CheckSum.parse("7:" + i), new Date(), null, ChangeSet.ExecType.EXECUTED, null, null, null, null));
+                }
+                List<ChangeSet> changeSets = new ArrayList<ChangeSet>(historySize * 2);
+                for (int i = 0; i < historySize * 2; i++) {
+                    changeSets.add(new ChangeSet(String.valueOf(i), "benchmark", false, false, "com/example/changelog-" + (i / 100) + ".xml", null, null, null));
+                }
+                H2Database database = new H2Database() {
+                    @Override
+                    public List<RanChangeSet> getRanChangeSetList() throws DatabaseException {
+                        return ranChangeSets;
+                    }
+                };
+
+                System.out.println(historySize + " ran changeSets:");
+                time("  Index: ", new ShouldRunChangeSetFilter(database), changeSets, 1);
+                time("  Scan:  ", new ScanningShouldRunChangeSetFilter(database, ranChangeSets), changeSets, Math.max(1, changeSets.size() / SCAN_SAMPLE));
+            }
+        }
+    }
+
+    /**
+     * Filters every step-th changeSet and prints the average time per filtered changeSet.
+     */
+    private static void time(String name, ChangeSetFilter filter, List<ChangeSet> changeSets, int step) {
+        int filtered = 0;
+        int accepted = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < changeSets.size(); i += step) {
+            if (filter.accepts(changeSets.get(i)).isAccepted()) {
+                accepted++;
+            }
+            filtered++;
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.println(name + (nanos / filtered) + " ns per changeSet, " + filtered + " filtered, " + accepted + " accepted");
+    }
+
+    /**
+     * Compares each changeSet with every ran changeSet, as ShouldRunChangeSetFilter used to.
+     */
+    private static class ScanningShouldRunChangeSetFilter extends ShouldRunChangeSetFilter {
+        private final List<RanChangeSet> ranChangeSets;
+
+        private ScanningShouldRunChangeSetFilter(H2Database database, List<RanChangeSet> ranChangeSets) throws DatabaseException {
+            super(database);
+            this.ranChangeSets = ranChangeSets;
+        }
+
+        @Override
+        public ChangeSetFilterResult accepts(ChangeSet changeSet) {
+            for (RanChangeSet ranChangeSet : ranChangeSets) {
+                if (changeSetsMatch(changeSet, ranChangeSet)) {
+                    return new ChangeSetFilterResult(false, "Change set already ran", this.getClass());
+                }
+            }
+            return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package liquibase.diff.core;
+
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.H2Database;
+import liquibase.diff.DiffResult;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.RestoredDatabaseSnapshot;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the time {@link StandardDiffGenerator} takes to diff two synthetic snapshots with the hash join, with the hash join on all
+ * available processors and with the lookups of each object in the other snapshot it used before. The comparison snapshot misses, adds and changes 1% of the columns.
+ * <p>
+ * Not a unit test. Run the main method with the number of tables and columns per table as optional arguments (default 10000 and 10).
+ */
+public class StandardDiffGeneratorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int columnsPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        DatabaseSnapshot referenceSnapshot = createSnapshot(tables, columnsPerTable, false);
+        DatabaseSnapshot comparisonSnapshot = createSnapshot(tables, columnsPerTable, true);
+        System.out.println(referenceSnapshot.get(Column.class).size() + " reference columns, " + comparisonSnapshot.get(Column.class).size() + " comparison columns");
+
+        for (int run = 0; run < 3; run++) {
+            time("Lookups:   ", new LookupDiffGenerator(), referenceSnapshot, comparisonSnapshot, 1);
+            time("Hash join: ", new StandardDiffGenerator(), referenceSnapshot, comparisonSnapshot, 1);
+            time("Parallel:  ", new StandardDiffGenerator(), referenceSnapshot, comparisonSnapshot, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static void time(String name, StandardDiffGenerator generator, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, int threads) throws Exception {
+        long start = System.currentTimeMillis();
+        DiffResult diffResult = generator.compare(referenceSnapshot, comparisonSnapshot, new CompareControl().setParallelThreads(threads));
+        System.out.println(name + threads + " threads, " + (System.currentTimeMillis() - start) + " ms, " + diffResult.getMissingObjects().size() + " missing, "
+                + diffResult.getUnexpectedObjects().size() + " unexpected, " + diffResult.getChangedObjects().size() + " changed");
+    }
+
+    /**
+     * Creates a snapshot of tables with columnsPerTable columns each. If changed, every 100th column is dropped, renamed or has a different type.
+     */
+    private static DatabaseSnapshot createSnapshot(int tables, int columnsPerTable, boolean changed) throws Exception {
+        Database database = new H2Database();
+        database.setConnection(new OfflineConnection("offline:h2", new ClassLoaderResourceAccessor()));
+
+        Map<String, DatabaseObject> objects = new HashMap<String, DatabaseObject>();
+        Catalog catalog = add(objects, new Catalog("BENCHMARK"));
+        Schema schema = add(objects, new Schema(catalog, "PUBLIC"));
+        for (int t = 0; t < tables; t++) {
+            Table table = add(objects, new Table());
+            table.setName("TABLE_" + t);
+            table.setSchema(schema);
+            for (int c = 0; c < columnsPerTable; c++) {
+                int columnNumber = t * columnsPerTable + c;
+                String name = "COLUMN_" + c;
+                String type = "VARCHAR(255)";
+                if (changed && columnNumber % 100 == 1) {
+                    continue;
+                } else if (changed && columnNumber % 100 == 2) {
+                    name = "RENAMED_" + c;
+                } else if (changed && columnNumber % 100 == 3) {
+                    type = "VARCHAR(100)";
+                }
+                Column column = add(objects, new Column());
+                column.setName(name);
+                column.setRelation(table);
+                column.setType(new DataType(type));
+                table.getColumns().add(column);
+            }
+        }
+
+        DatabaseSnapshot snapshot = new RestoredDatabaseSnapshot(database);
+        snapshot.load(objects, new HashMap<String, DatabaseObject>());
+        return snapshot;
+    }
+
+    private static <T extends DatabaseObject> T add(Map<String, DatabaseObject> objects, T object) {
+        object.setSnapshotId(String.valueOf(objects.size()));
+        objects.put(object.getClass().getName() + "#" + object.getSnapshotId(), object);
+        return object;
+    }
+
+    /**
+     * Looks each reference object up in the comparison snapshot and each comparison object up in the reference snapshot, as StandardDiffGenerator used to.
+     */
+    private static class LookupDiffGenerator extends StandardDiffGenerator {
+        @Override
+        protected <T extends DatabaseObject> void compareObjectType(Class<T> type, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) {
+            for (T referenceObject : referenceSnapshot.get(type)) {
+                T comparisonObject = comparisonSnapshot.get(referenceObject);
+                if (comparisonObject == null) {
+                    diffResult.addMissingObject(referenceObject);
+                } else {
+                    ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonSnapshot.getDatabase(), diffResult.getCompareControl());
+                    if (differences.hasDifferences()) {
+                        diffResult.addChangedObject(referenceObject, differences);
+                    }
+                }
+            }
+            for (T comparisonObject : comparisonSnapshot.get(type)) {
+                if (referenceSnapshot.get(comparisonObject) == null) {
+                    diffResult.addUnexpectedObject(comparisonObject);
+                }
+            }
+        }
+    }
+}
@@ -43,6 +43,19 @@ public class StandardLockServiceTest {
         assertTrue(lockService.acquireLock());
     }
 
+    @Test
+    public void getRecheckWaitTime_backsOffUpToRecheckTime() {
+        lockService.setChangeLogLockRecheckTime(2);
+
+        for (int i = 0; i < 100; i++) {
+            long firstWait = lockService.getRecheckWaitTime(0);
+            assertTrue(firstWait >= StandardLockService.MIN_RECHECK_WAIT_TIME / 2 && firstWait <= StandardLockService.MIN_RECHECK_WAIT_TIME);
+
+            long laterWait = lockService.getRecheckWaitTime(30);
+            assertTrue(laterWait >= 1000 && laterWait <= 2000);
+        }
+    }
+
 
 //    @Test
 //    public void acquireLock_tableExistsNotLocked() throws Exception {
@@ -0,0 +1,99 @@
+package liquibase.parser.core;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.parser.ChangeLogParserCofiguration;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Compares the time {@link XMLChangeLogSAXParser} takes to load a synthetic changelog with SAX parsing and schema validation (cold) and from a
+ * {@link ParsedNodeCache} written by a previous run (warm). Both load the same number of changeSets.
+ * <p>
+ * Not a unit test. Run the main method with the number of changeSets as optional argument (default 5000).
+ */
+public class ParsedNodeCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int changeSets = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+
+        File directory = File.createTempFile("liquibase-parse-benchmark", "");
+        directory.delete();
+        directory.mkdirs();
+        File cacheFile = new File(directory, "parsed-changelogs.bin");
+        writeChangeLog(new File(directory, "changelog.xml"), changeSets);
+        ResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+        ChangeLogParserCofiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class);
+
+        try {
+            for (int run = 0; run < 3; run++) {
+                configuration.setParsedChangeLogCacheFile(null);
+                ParsedNodeCache.reset();
+                time("Cold: ", resourceAccessor);
+
+                configuration.setParsedChangeLogCacheFile(cacheFile.getAbsolutePath());
+                ParsedNodeCache.reset();
+                if (!cacheFile.exists()) {
+                    parse(resourceAccessor);
+                    ParsedNodeCache.getInstance().save();
+                    ParsedNodeCache.reset();
+                }
+                time("Warm: ", resourceAccessor);
+            }
+            System.out.println("Cache file: " + cacheFile.length() + " bytes");
+        } finally {
+            configuration.setParsedChangeLogCacheFile(null);
+            ParsedNodeCache.reset();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static void time(String name, ResourceAccessor resourceAccessor) throws Exception {
+        long start = System.currentTimeMillis();
+        DatabaseChangeLog changeLog = parse(resourceAccessor);
+        System.out.println(name + (System.currentTimeMillis() - start) + " ms, " + changeLog.getChangeSets().size() + " changeSets");
+    }
+
+    private static DatabaseChangeLog parse(ResourceAccessor resourceAccessor) throws Exception {
+        return new XMLChangeLogSAXParser().parse("changelog.xml", new ChangeLogParameters(), resourceAccessor);
+    }
+
+    /**
+     * Writes a changelog of changeSets that each create a table and insert a row.
+     */
+    private static void writeChangeLog(File file, int changeSets) throws Exception {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n"
+                    + "        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                    + "        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd\">\n");
+            for (int i = 0; i < changeSets; i++) {
+                writer.write("    <changeSet id=\"" + i + "\" author=\"benchmark\">\n"
+                        + "        <createTable tableName=\"table_" + i + "\">\n"
+                        + "            <column name=\"id\" type=\"int\"><constraints primaryKey=\"true\" nullable=\"false\"/></column>\n"
+                        + "            <column name=\"name\" type=\"varchar(255)\"/>\n"
+                        + "            <column name=\"created\" type=\"datetime\"/>\n"
+                        + "        </createTable>\n"
+                        + "        <insert tableName=\"table_" + i + "\">\n"
+                        + "            <column name=\"id\" valueNumeric=\"1\"/>\n"
+                        + "            <column name=\"name\" value=\"row " + i + "\"/>\n"
+                        + "        </insert>\n"
+                        + "    </changeSet>\n");
+            }
+            writer.write("</databaseChangeLog>\n");
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package liquibase.snapshot;
+
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.jvm.ColumnMapRowMapper;
+import liquibase.executor.jvm.RowMapperResultSetExtractor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the heap used by cached column metadata of a synthetic schema when rows are kept as one map per row, as ResultSetCache
+ * used to, and as {@link CachedRow}s sharing a column dictionary and canonical values.
+ * <p>
+ * Not a unit test. Run the main method with the number of tables and columns per table as optional arguments (default 10000 and 10).
+ */
+public class ResultSetCacheMemoryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int columnsPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:memorybenchmark");
+        try {
+            H2Database database = new H2Database();
+            database.setConnection(new JdbcConnection(connection));
+            String sql = createSql(tables * columnsPerTable, columnsPerTable);
+
+            long baseline = usedMemory();
+            Map<String, List<Map>> mapRows = readMapRows(database, connection, sql);
+            long mapMemory = usedMemory() - baseline;
+            System.out.println("Map per row:       " + (mapMemory / 1024 / 1024) + " MB for " + mapRows.size() + " keys");
+            mapRows = null;
+
+            baseline = usedMemory();
+            ResultSetCache cache = new ResultSetCache();
+            cache.get(new ColumnsExtractor(database, sql));
+            long compactMemory = usedMemory() - baseline;
+            System.out.println("Shared dictionary: " + (compactMemory / 1024 / 1024) + " MB for " + cache.get(new ColumnsExtractor(database, sql)).size() + " rows in the schema");
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Returns a query with the shape of DatabaseMetaData.getColumns() for a schema with rowCount columns in tables of columnsPerTable columns.
+     */
+    private static String createSql(int rowCount, int columnsPerTable) {
+        return "SELECT 'BENCHMARK' AS TABLE_CAT, 'PUBLIC' AS TABLE_SCHEM, 'TABLE_' || (X / " + columnsPerTable + ") AS TABLE_NAME, " +
+                "'COLUMN_' || MOD(X, " + columnsPerTable + ") AS COLUMN_NAME, 12 AS DATA_TYPE, 'VARCHAR' AS TYPE_NAME, 255 AS COLUMN_SIZE, " +
+                "255 AS BUFFER_LENGTH, 0 AS DECIMAL_DIGITS, 10 AS NUM_PREC_RADIX, 1 AS NULLABLE, '' AS REMARKS, NULL AS COLUMN_DEF, " +
+                "12 AS SQL_DATA_TYPE, 0 AS SQL_DATETIME_SUB, 255 AS CHAR_OCTET_LENGTH, MOD(X, " + columnsPerTable + ") + 1 AS ORDINAL_POSITION, " +
+                "'YES' AS IS_NULLABLE, NULL AS SCOPE_CATALOG, NULL AS SCOPE_SCHEMA, NULL AS SCOPE_TABLE, NULL AS SOURCE_DATA_TYPE, " +
+                "'NO' AS IS_AUTOINCREMENT, 'NO' AS IS_GENERATEDCOLUMN " +
+                "FROM SYSTEM_RANGE(0, " + (rowCount - 1) + ")";
+    }
+
+    /**
+     * Reads the rows the way ResultSetCache did before rows shared a column dictionary: a map per row and a list per key permutation.
+     */
+    private static Map<String, List<Map>> readMapRows(H2Database database, Connection connection, String sql) throws SQLException {
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql);
+        List<Map> rows = (List<Map>) new RowMapperResultSetExtractor(new ColumnMapRowMapper() {
+            @Override
+            protected Object getColumnValue(ResultSet rs, int index) throws SQLException {
+                Object value = super.getColumnValue(rs, index);
+                if (value instanceof String) {
+                    value = ((String) value).trim();
+                }
+                return value;
+            }
+        }).extractData(resultSet);
+        resultSet.close();
+        statement.close();
+
+        Map<String, List<Map>> cache = new HashMap<String, List<Map>>();
+        for (Map row : rows) {
+            ResultSetCache.RowData rowData = new ResultSetCache.RowData((String) row.get("TABLE_CAT"), (String) row.get("TABLE_SCHEM"), database, (String) row.get("TABLE_NAME"), (String) row.get("COLUMN_NAME"));
+            for (String key : rowData.getKeyPermutations()) {
+                if (!cache.containsKey(key)) {
+                    cache.put(key, new ArrayList<Map>());
+                }
+                cache.get(key).add(row);
+            }
+        }
+        return cache;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class ColumnsExtractor extends ResultSetCache.SingleResultSetExtractor {
+        private final H2Database database;
+        private final String sql;
+
+        private ColumnsExtractor(H2Database database, String sql) {
+            super(database);
+            this.database = database;
+            this.sql = sql;
+        }
+
+        @Override
+        public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+            return new ResultSetCache.RowData(row.getString("TABLE_CAT"), row.getString("TABLE_SCHEM"), database, row.getString("TABLE_NAME"), row.getString("COLUMN_NAME"));
+        }
+
+        @Override
+        public ResultSetCache.RowData wantedKeyParameters() {
+            return new ResultSetCache.RowData("BENCHMARK", "PUBLIC", database, null, null);
+        }
+
+        @Override
+        public List<CachedRow> fastFetchQuery() throws SQLException, DatabaseException {
+            return executeAndExtract(sql, database);
+        }
+
+        @Override
+        public List<CachedRow> bulkFetchQuery() throws SQLException, DatabaseException {
+            return executeAndExtract(sql, database);
+        }
+
+        @Override
+        boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+            return true;
+        }
+    }
+}
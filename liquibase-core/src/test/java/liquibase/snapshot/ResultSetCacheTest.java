@@ -1,17 +1,98 @@
 package liquibase.snapshot;
 
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class ResultSetCacheTest {
 
+    @Test
+    public void cachedRow_setAndContainsColumn() {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("TABLE_NAME", "t1");
+        map.put("ORDINAL_POSITION", 3);
+        CachedRow row = new CachedRow(map);
+
+        assertEquals("t1", row.getString("TABLE_NAME"));
+        assertEquals(3, row.getInt("ORDINAL_POSITION").intValue());
+        assertTrue(row.containsColumn("TABLE_NAME"));
+        assertFalse(row.containsColumn("COLUMN_DEF"));
+        assertNull(row.get("COLUMN_DEF"));
+
+        row.set("COLUMN_DEF", "x");
+        row.set("TABLE_NAME", "t2");
+        assertTrue(row.containsColumn("COLUMN_DEF"));
+        assertEquals("x", row.getString("COLUMN_DEF"));
+        assertEquals("t2", row.getString("TABLE_NAME"));
+    }
+
+    @Test
+    public void get_rowsShareColumnsAndRepeatedValues() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:resultsetcache" + System.nanoTime());
+        try {
+            final H2Database database = new H2Database();
+            database.setConnection(new JdbcConnection(connection));
+            final String sql = "SELECT 'PUBLIC' AS table_schem, 'TABLE_' || (X / 10) AS table_name, 'COL_' || X AS column_name, 12 AS data_type FROM SYSTEM_RANGE(0, 99)";
+
+            List<CachedRow> rows = new ResultSetCache().get(new ResultSetCache.SingleResultSetExtractor(database) {
+                @Override
+                public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+                    return new ResultSetCache.RowData(null, row.getString("TABLE_SCHEM"), database, row.getString("TABLE_NAME"));
+                }
+
+                @Override
+                public ResultSetCache.RowData wantedKeyParameters() {
+                    return new ResultSetCache.RowData(null, "PUBLIC", database, "TABLE_3");
+                }
+
+                @Override
+                public List<CachedRow> fastFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(sql, database);
+                }
+
+                @Override
+                public List<CachedRow> bulkFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(sql, database);
+                }
+
+                @Override
+                boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+                    return true;
+                }
+            });
+
+            assertEquals(10, rows.size());
+            assertEquals("COL_30", rows.get(0).getString("COLUMN_NAME"));
+            assertEquals(12, rows.get(0).getInt("DATA_TYPE").intValue());
+            for (CachedRow row : rows) {
+                assertSame(rows.get(0).getString("TABLE_SCHEM"), row.getString("TABLE_SCHEM"));
+                assertSame(rows.get(0).getString("TABLE_NAME"), row.getString("TABLE_NAME"));
+                assertSame(rows.get(0).get("DATA_TYPE"), row.get("DATA_TYPE"));
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
 //    @Test
 //    public void permutations() {
 //        assertEquals(4, new ResultSetCache().permutations(new String[]{"a", "b"}).length);
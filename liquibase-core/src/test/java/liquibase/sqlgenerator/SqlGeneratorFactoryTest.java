@@ -125,6 +125,24 @@ public class SqlGeneratorFactoryTest {
         assertEquals(1, allGenerators.size());        
     }
 
+    @Test
+    public void getGenerators_cachedUntilRegistrationChanges() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        AddAutoIncrementStatement statement = new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null);
+
+        SqlGenerator[] generators = factory.getGeneratorArray(statement, new H2Database());
+        assertEquals(1, generators.length);
+        assertSame(generators, factory.getGeneratorArray(new AddAutoIncrementStatement(null, null, "other", "id", "int", null, null), new H2Database()));
+
+        SqlGenerator generator = addGenerator(AddAutoIncrementStatement.class, H2Database.class, 100);
+        SqlGenerator[] newGenerators = factory.getGeneratorArray(statement, new H2Database());
+        assertEquals(2, newGenerators.length);
+        assertSame(generator, newGenerators[0]);
+
+        factory.unregister(generator);
+        assertEquals(1, factory.getGeneratorArray(statement, new H2Database()).length);
+    }
+
     private SqlGenerator addGenerator(final Class<? extends SqlStatement> sqlStatementClass, final Class<? extends Database> sqlDatabaseClass, final int level) {
     	
         SqlGenerator generator = new SqlGenerator() {
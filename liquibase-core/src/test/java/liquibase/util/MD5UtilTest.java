@@ -35,4 +35,22 @@ public class MD5UtilTest {
 		assertEquals(TEST_STRING_MD5_HASH, hexString);
 	}
 
+    @Test
+    public void testComputeMD5StandardizingLineEndings() {
+        assertEquals(TEST_STRING_MD5_HASH, MD5Util.computeMD5(TEST_STRING, true));
+        assertEquals(MD5Util.computeMD5("a\nb\n\nc\n"), MD5Util.computeMD5("a\r\nb\r\r\nc\r", true));
+        assertEquals(MD5Util.computeMD5("a\r\nb"), MD5Util.computeMD5("a\r\nb", false));
+    }
+
+    @Test
+    public void testComputeMD5StandardizingLineEndingsMatchesStringBytes() {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longString.append("\u00e9\u4e2d\ud83d\ude00x"); //1, 2, 3 and 4 byte UTF-8 sequences crossing buffer boundaries
+        }
+        assertEquals(MD5Util.computeMD5(longString.toString()), MD5Util.computeMD5(longString.toString(), true));
+        assertEquals(MD5Util.computeMD5("bad \ud83d surrogate"), MD5Util.computeMD5("bad \ud83d surrogate", true));
+        assertEquals(MD5Util.computeMD5(""), MD5Util.computeMD5("", true));
+    }
+
 }
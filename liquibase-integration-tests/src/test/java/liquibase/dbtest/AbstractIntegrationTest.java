@@ -5,6 +5,8 @@ import liquibase.Contexts;
 import liquibase.LabelExpression;
 import liquibase.Liquibase;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.core.OracleDatabase;
 import liquibase.structure.core.*;
 import liquibase.test.DiffResultAssert;
@@ -214,6 +216,54 @@ public abstract class AbstractIntegrationTest {
         }
     }
 
+    /**
+     * Snapshots the default schema after running the complete changelog, once with DatabaseMetaData and once with the system catalog queries
+     * enabled by {@link GlobalConfiguration#getSnapshotCatalogBulkSelect()}, and checks both find the same primary keys, indexes and foreign keys.
+     */
+    protected void assertCatalogBulkSelectMatchesMetaData() throws Exception {
+        runCompleteChangeLog();
+
+        GlobalConfiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class);
+        Boolean catalogBulkSelect = configuration.getSnapshotCatalogBulkSelect();
+        try {
+            configuration.setSnapshotCatalogBulkSelect(false);
+            SortedSet<String> metaDataKeys = describeKeysAndIndexes(SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database)));
+
+            configuration.setSnapshotCatalogBulkSelect(true);
+            SortedSet<String> catalogKeys = describeKeysAndIndexes(SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database)));
+
+            assertFalse(metaDataKeys.isEmpty());
+            assertEquals(metaDataKeys, catalogKeys);
+        } finally {
+            configuration.setSnapshotCatalogBulkSelect(catalogBulkSelect);
+        }
+    }
+
+    private SortedSet<String> describeKeysAndIndexes(DatabaseSnapshot snapshot) {
+        SortedSet<String> descriptions = new TreeSet<String>();
+        for (PrimaryKey primaryKey : snapshot.get(PrimaryKey.class)) {
+            descriptions.add("primary key " + primaryKey.getTable().getName() + "." + primaryKey.getName() + " (" + primaryKey.getColumnNames() + ")");
+        }
+        for (Index index : snapshot.get(Index.class)) {
+            descriptions.add("index " + index.getTable().getName() + "." + index.getName() + " (" + index.getColumnNames() + ") unique " + index.isUnique());
+        }
+        for (ForeignKey foreignKey : snapshot.get(ForeignKey.class)) {
+            descriptions.add("foreign key " + foreignKey.getName()
+                    + " " + foreignKey.getForeignKeyTable().getName() + columnNames(foreignKey.getForeignKeyColumns())
+                    + " -> " + foreignKey.getPrimaryKeyTable().getName() + columnNames(foreignKey.getPrimaryKeyColumns())
+                    + " on update " + foreignKey.getUpdateRule() + " on delete " + foreignKey.getDeleteRule());
+        }
+        return descriptions;
+    }
+
+    private String columnNames(List<Column> columns) {
+        List<String> names = new ArrayList<String>();
+        for (Column column : columns) {
+            names.add(column.getName());
+        }
+        return names.toString();
+    }
+
     protected CatalogAndSchema[] getSchemasToDrop() throws DatabaseException {
         return new CatalogAndSchema[]{
                 new CatalogAndSchema(database.correctObjectName("lbcat2", Catalog.class), database.correctObjectName("lbschem2", Schema.class)),
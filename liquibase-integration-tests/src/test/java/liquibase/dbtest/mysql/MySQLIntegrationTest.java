@@ -43,6 +43,15 @@ public class MySQLIntegrationTest extends AbstractIntegrationTest {
         System.out.println(snapshot);
     }
 
+    @Test
+    public void catalogBulkSelectMatchesMetaData() throws Exception {
+        if (getDatabase() == null) {
+            return;
+        }
+
+        assertCatalogBulkSelectMatchesMetaData();
+    }
+
     @Test
     public void dateDefaultValue() throws Exception {
         if (getDatabase() == null) {
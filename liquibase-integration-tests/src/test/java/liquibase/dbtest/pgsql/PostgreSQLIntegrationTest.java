@@ -8,4 +8,13 @@ public class PostgreSQLIntegrationTest extends AbstractIntegrationTest {
     public PostgreSQLIntegrationTest() throws Exception {
         super("pgsql", "jdbc:postgresql://"+ getDatabaseServerHostname("PostgreSQL") +"/liquibase");
     }
+
+    @Test
+    public void catalogBulkSelectMatchesMetaData() throws Exception {
+        if (getDatabase() == null) {
+            return;
+        }
+
+        assertCatalogBulkSelectMatchesMetaData();
+    }
 }